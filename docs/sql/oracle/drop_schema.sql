@@ -159,6 +159,48 @@ EXCEPTION
 END;
 /
 
+BEGIN
+   EXECUTE IMMEDIATE 'DROP TABLE ns_operation_notification';
+EXCEPTION
+   WHEN OTHERS THEN NULL;
+END;
+/
+
+BEGIN
+   EXECUTE IMMEDIATE 'DROP TABLE ns_config_version';
+EXCEPTION
+   WHEN OTHERS THEN NULL;
+END;
+/
+
+BEGIN
+   EXECUTE IMMEDIATE 'DROP TABLE ns_operation_auth_counter';
+EXCEPTION
+   WHEN OTHERS THEN NULL;
+END;
+/
+
+BEGIN
+   EXECUTE IMMEDIATE 'DROP TABLE ns_operation_afs_archive';
+EXCEPTION
+   WHEN OTHERS THEN NULL;
+END;
+/
+
+BEGIN
+   EXECUTE IMMEDIATE 'DROP TABLE ns_operation_history_archive';
+EXCEPTION
+   WHEN OTHERS THEN NULL;
+END;
+/
+
+BEGIN
+   EXECUTE IMMEDIATE 'DROP TABLE ns_operation_archive';
+EXCEPTION
+   WHEN OTHERS THEN NULL;
+END;
+/
+
 BEGIN
    EXECUTE IMMEDIATE 'DROP TABLE ns_operation_history';
 EXCEPTION
@@ -306,6 +348,13 @@ EXCEPTION
 END;
 /
 
+BEGIN
+EXECUTE IMMEDIATE 'DROP SEQUENCE ns_operation_notification_seq';
+EXCEPTION
+    WHEN OTHERS THEN NULL;
+END;
+/
+
 BEGIN
 EXECUTE IMMEDIATE 'DROP SEQUENCE ns_application_seq';
 EXCEPTION
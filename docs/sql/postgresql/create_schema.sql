@@ -8,15 +8,16 @@ CREATE SEQUENCE ns_operation_afs_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACH
 CREATE SEQUENCE ns_application_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
 CREATE SEQUENCE ns_credential_policy_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
 CREATE SEQUENCE ns_otp_policy_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
-CREATE SEQUENCE ns_user_contact_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
-CREATE SEQUENCE ns_user_identity_history_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
+CREATE SEQUENCE ns_user_contact_seq MINVALUE 1 INCREMENT BY 50 START WITH 1 CACHE 20;
+CREATE SEQUENCE ns_user_identity_history_seq MINVALUE 1 INCREMENT BY 50 START WITH 1 CACHE 20;
 CREATE SEQUENCE ns_role_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
-CREATE SEQUENCE ns_user_role_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
+CREATE SEQUENCE ns_user_role_seq MINVALUE 1 INCREMENT BY 50 START WITH 1 CACHE 20;
 CREATE SEQUENCE ns_user_alias_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
 CREATE SEQUENCE ns_hashing_config_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
 CREATE SEQUENCE ns_credential_definition_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
 CREATE SEQUENCE ns_otp_definition_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
-CREATE SEQUENCE ns_credential_history_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
+CREATE SEQUENCE ns_credential_history_seq MINVALUE 1 INCREMENT BY 50 START WITH 1 CACHE 20;
+CREATE SEQUENCE ns_operation_notification_seq MINVALUE 1 INCREMENT BY 1 START WITH 1 CACHE 20;
 
 -- Table oauth2_authorization stores information about OAuth 2.1 authorizations
 -- Source: https://github.com/spring-projects/spring-authorization-server/blob/main/oauth2-authorization-server/src/main/resources/org/springframework/security/oauth2/server/authorization/oauth2-authorization-schema.sql
@@ -436,6 +437,8 @@ CREATE TABLE ns_operation (
   result                        VARCHAR(32),                         -- Operation result - CONTINUE, FAILED, DONE.
   timestamp_created             TIMESTAMP DEFAULT CURRENT_TIMESTAMP, -- Timestamp when this operation was created.
   timestamp_expires             TIMESTAMP,                           -- Timestamp of the expiration of the operation.
+  last_result_id                INTEGER,                             -- Result ID of the latest record in table ns_operation_history, used for allocation of result IDs.
+  version                       INTEGER NOT NULL DEFAULT 0,          -- Version of the operation, incremented on every change of the operation, used for validation of cached operation details.
   CONSTRAINT ns_operation_organization_fk FOREIGN KEY (organization_id) REFERENCES ns_organization (organization_id),
   CONSTRAINT ns_operation_config_fk FOREIGN KEY (operation_name) REFERENCES ns_operation_config (operation_name)
 );
@@ -496,6 +499,99 @@ CREATE TABLE ns_operation_afs (
   CONSTRAINT operation_afs_fk FOREIGN KEY (operation_id) REFERENCES ns_operation (operation_id)
 );
 
+-- Table ns_operation_auth_counter stores authentication failure counters of operations by authentication method.
+-- The counters are updated together with table ns_operation_history.
+CREATE TABLE ns_operation_auth_counter (
+  operation_id                VARCHAR(256) NOT NULL,          -- Operation ID.
+  auth_method                 VARCHAR(32) NOT NULL,           -- Authentication method.
+  auth_fail_count             INTEGER NOT NULL DEFAULT 0,     -- Number of failed authentication attempts using the authentication method.
+  auth_method_failed          BOOLEAN NOT NULL DEFAULT FALSE, -- Whether the authentication method failed for the operation.
+  CONSTRAINT ns_auth_counter_pk PRIMARY KEY (operation_id, auth_method),
+  CONSTRAINT ns_auth_counter_method_fk FOREIGN KEY (auth_method) REFERENCES ns_auth_method (auth_method),
+  CONSTRAINT ns_auth_counter_operation_fk FOREIGN KEY (operation_id) REFERENCES ns_operation (operation_id)
+);
+
+-- Table ns_operation_notification stores operation change notifications which should be sent to the Data Adapter.
+-- Notifications are written together with the operation update and they are delivered by the notification dispatcher job.
+CREATE TABLE ns_operation_notification (
+  notification_id             INTEGER PRIMARY KEY NOT NULL,   -- ID of the notification.
+  operation_id                VARCHAR(256) NOT NULL,          -- Operation ID.
+  operation_change            VARCHAR(32) NOT NULL,           -- Operation change: DONE, CANCELED, FAILED.
+  request_data                TEXT NOT NULL,                  -- Operation change notification request serialized as JSON.
+  status                      VARCHAR(32) NOT NULL,           -- Notification status: PENDING, FAILED.
+  attempt_count               INTEGER NOT NULL DEFAULT 0,     -- Number of delivery attempts.
+  error_message               VARCHAR(256),                   -- Error message of the last failed delivery attempt.
+  timestamp_created           TIMESTAMP NOT NULL,             -- Timestamp when the notification was created.
+  timestamp_next_attempt      TIMESTAMP NOT NULL              -- Timestamp of the next delivery attempt.
+);
+
+-- Table ns_config_version stores versions of Next Step configuration.
+-- The version is incremented together with each change of the configuration, all nodes of the cluster reload the configuration when the version changes.
+CREATE TABLE ns_config_version (
+  config_type                 VARCHAR(32) NOT NULL,           -- Configuration type: STEP_DEFINITION, OPERATION_CONFIG, AUTH_METHOD, DEFINITION.
+  config_version              BIGINT NOT NULL DEFAULT 0,      -- Configuration version, incremented on every change of the configuration.
+  timestamp_last_updated      TIMESTAMP,                      -- Timestamp of the last configuration change.
+  CONSTRAINT ns_config_version_pk PRIMARY KEY (config_type)
+);
+
+-- Table ns_operation_archive stores archived operations.
+-- Finished operations are moved from table ns_operation into this table by the operation archival job.
+CREATE TABLE ns_operation_archive (
+  operation_id                  VARCHAR(256) PRIMARY KEY NOT NULL, -- ID of a specific operation instance.
+  operation_name                VARCHAR(32) NOT NULL,              -- Name of the operation, represents a type of the operation, for example, "login" or "authorize_payment".
+  operation_data                TEXT NOT NULL,                     -- Signing data of the operation.
+  operation_form_data           TEXT,                              -- Structured data of the operation that are displayed to the end user.
+  application_id                VARCHAR(256),                      -- ID of the application that initiated the operation, usually OAuth 2.1 client ID.
+  application_name              VARCHAR(256),                      -- Displayable name of the application that initiated the operation.
+  application_description       VARCHAR(256),                      -- Displayable description of the application that initiated the operation.
+  application_original_scopes   VARCHAR(256),                      -- Original OAuth 2.1 scopes used by the application that initiated the operation.
+  application_extras            TEXT,                              -- Any additional information related to the application that initiated the operation.
+  user_id                       VARCHAR(256),                      -- Associated user ID.
+  organization_id               VARCHAR(256),                      -- Associated organization ID.
+  user_account_status           VARCHAR(32),                       -- Status of the user account while initiated the operation - ACTIVE, NOT_ACTIVE.
+  external_operation_name       VARCHAR(32),                       -- External operation name, which can further specify the operation purpose.
+  external_transaction_id       VARCHAR(256),                      -- External transaction ID, for example ID of a payment in a transaction system.
+  result                        VARCHAR(32),                       -- Operation result - FAILED, DONE.
+  timestamp_created             TIMESTAMP,                         -- Timestamp when this operation was created.
+  timestamp_expires             TIMESTAMP,                         -- Timestamp of the expiration of the operation.
+  last_result_id                INTEGER,                           -- Result ID of the latest record in table ns_operation_history_archive.
+  timestamp_archived            TIMESTAMP NOT NULL                 -- Timestamp when this operation was archived.
+);
+
+-- Table ns_operation_history_archive stores history of archived operations.
+CREATE TABLE ns_operation_history_archive (
+  operation_id                VARCHAR(256) NOT NULL,          -- Operation ID.
+  result_id                   INTEGER NOT NULL,               -- Result ordering index identifier, incrementing value, starts with 1.
+  request_auth_method         VARCHAR(32) NOT NULL,           -- Authentication method used for the step.
+  request_auth_instruments    VARCHAR(256),                   -- Which specific instruments were used for the step.
+  request_auth_step_result    VARCHAR(32) NOT NULL,           -- Authentication result: CANCELED, AUTH_METHOD_FAILED, AUTH_FAILED, CONFIRMED, AUTH_METHOD_CHOSEN, AUTH_METHOD_DOWNGRADE
+  request_params              VARCHAR(4000),                  -- Additional request parameters.
+  response_result             VARCHAR(32) NOT NULL,           -- Authentication step result: FAILED, CONTINUE, DONE.
+  response_result_description VARCHAR(256),                   -- Additional information about the authentication step result.
+  response_steps              VARCHAR(4000),                  -- Information about which methods are allowed in the next step.
+  response_timestamp_created  TIMESTAMP,                      -- Timestamp when the record was created.
+  response_timestamp_expires  TIMESTAMP,                      -- Timestamp when the operation step should expire.
+  chosen_auth_method          VARCHAR(32),                    -- Information about which authentication method was chosen, in case user can chose the authentication method.
+  mobile_token_active         BOOLEAN NOT NULL DEFAULT FALSE, -- Information about if mobile token was active during the particular authentication step.
+  authentication_id           VARCHAR(256),                   -- Reference to the authentication record.
+  pa_operation_id             VARCHAR(256),                   -- PowerAuth operation ID for PowerAuth operations.
+  pa_auth_context             VARCHAR(256),                   -- PowerAuth authentication context with additional details related to performed authentication.
+  CONSTRAINT ns_history_archive_pk PRIMARY KEY (operation_id, result_id)
+);
+
+-- Table ns_operation_afs_archive stores AFS requests and responses of archived operations.
+CREATE TABLE ns_operation_afs_archive (
+  afs_action_id               INTEGER PRIMARY KEY NOT NULL,   -- ID of the AFS action.
+  operation_id                VARCHAR(256) NOT NULL,          -- Operation ID.
+  request_afs_action          VARCHAR(256) NOT NULL,          -- Information about requested AFS action.
+  request_step_index          INTEGER NOT NULL,               -- Counter within the specific operation step that is associated with AFS action.
+  request_afs_extras          VARCHAR(256),                   -- Additional information about AFS action, typically a cookie values used in AFS system.
+  response_afs_apply          BOOLEAN NOT NULL DEFAULT FALSE, -- Response information about if AFS was applied.
+  response_afs_label          VARCHAR(256),                   -- Response AFS label (information about what should the application do).
+  response_afs_extras         VARCHAR(256),                   -- Additional information sent in AFS response.
+  timestamp_created           TIMESTAMP                       -- Timestamp this AFS action was created.
+);
+
 -- Table ns_user_prefs stores user preferences.
 -- Status of authentication methods is stored in this table per user (methods can be enabled or disabled).
 CREATE TABLE ns_user_prefs (
@@ -623,6 +719,10 @@ CREATE TABLE IF NOT EXISTS audit_param (
 CREATE INDEX wf_operation_hash ON wf_operation_session (operation_hash);
 CREATE INDEX wf_websocket_session ON wf_operation_session (websocket_session_id);
 CREATE INDEX ns_operation_pending ON ns_operation (user_id, result);
+CREATE INDEX ns_operation_expires ON ns_operation (result, timestamp_expires);
+CREATE INDEX ns_operation_afs_archive_operation_id ON ns_operation_afs_archive (operation_id);
+CREATE INDEX ns_operation_notification_pending ON ns_operation_notification (status, timestamp_next_attempt);
+CREATE INDEX ns_operation_notification_operation ON ns_operation_notification (operation_id, status);
 CREATE UNIQUE INDEX ns_operation_afs_unique ON ns_operation_afs (operation_id, request_afs_action, request_step_index);
 CREATE UNIQUE INDEX ns_application_name ON ns_application (name);
 CREATE UNIQUE INDEX ns_credential_policy_name ON ns_credential_policy (name);
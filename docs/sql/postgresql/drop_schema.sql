@@ -21,6 +21,12 @@ DROP TABLE IF EXISTS ns_otp_policy;
 DROP TABLE IF EXISTS ns_credential_policy;
 DROP TABLE IF EXISTS ns_application;
 DROP TABLE IF EXISTS ns_step_definition;
+DROP TABLE IF EXISTS ns_operation_notification;
+DROP TABLE IF EXISTS ns_config_version;
+DROP TABLE IF EXISTS ns_operation_auth_counter;
+DROP TABLE IF EXISTS ns_operation_afs_archive;
+DROP TABLE IF EXISTS ns_operation_history_archive;
+DROP TABLE IF EXISTS ns_operation_archive;
 DROP TABLE IF EXISTS ns_operation_afs;
 DROP TABLE IF EXISTS ns_operation_history;
 DROP TABLE IF EXISTS ns_operation;
@@ -43,6 +49,7 @@ DROP SEQUENCE IF EXISTS tpp_detail_seq;
 DROP SEQUENCE IF EXISTS tpp_user_consent_seq;
 DROP SEQUENCE IF EXISTS tpp_user_consent_history_seq;
 DROP SEQUENCE IF EXISTS ns_operation_afs_seq;
+DROP SEQUENCE IF EXISTS ns_operation_notification_seq;
 DROP SEQUENCE IF EXISTS ns_application_seq;
 DROP SEQUENCE IF EXISTS ns_credential_policy_seq;
 DROP SEQUENCE IF EXISTS ns_otp_policy_seq;
@@ -1,2 +1,108 @@
 -- Create a new table shedlock
 CREATE TABLE shedlock (name VARCHAR(64) NOT NULL, lock_until TIMESTAMP WITHOUT TIME ZONE NOT NULL, locked_at TIMESTAMP WITHOUT TIME ZONE NOT NULL, locked_by VARCHAR(255) NOT NULL, CONSTRAINT shedlock_pkey PRIMARY KEY (name));
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-result-counter.xml::1::Roman Strobl
+-- Add last_result_id column to ns_operation table
+ALTER TABLE ns_operation ADD last_result_id INTEGER;
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-result-counter.xml::2::Roman Strobl
+-- Initialize last_result_id column from ns_operation_history table
+UPDATE ns_operation SET last_result_id = (SELECT MAX(h.result_id) FROM ns_operation_history h WHERE h.operation_id = ns_operation.operation_id);
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-expiration.xml::1::Roman Strobl
+-- Create a new index on ns_operation(result, timestamp_expires)
+CREATE INDEX ns_operation_expires ON ns_operation(result, timestamp_expires);
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-archive.xml::1::Roman Strobl
+-- Create a new table ns_operation_archive
+CREATE TABLE ns_operation_archive (operation_id VARCHAR(256) NOT NULL, operation_name VARCHAR(32) NOT NULL, operation_data TEXT NOT NULL, operation_form_data TEXT, application_id VARCHAR(256), application_name VARCHAR(256), application_description VARCHAR(256), application_original_scopes VARCHAR(256), application_extras TEXT, user_id VARCHAR(256), organization_id VARCHAR(256), user_account_status VARCHAR(32), external_operation_name VARCHAR(32), external_transaction_id VARCHAR(256), result VARCHAR(32), timestamp_created TIMESTAMP WITHOUT TIME ZONE, timestamp_expires TIMESTAMP WITHOUT TIME ZONE, last_result_id INTEGER, timestamp_archived TIMESTAMP WITHOUT TIME ZONE NOT NULL, CONSTRAINT ns_operation_archive_pkey PRIMARY KEY (operation_id));
+
+COMMENT ON TABLE ns_operation_archive IS 'Table ns_operation_archive stores archived operations. Finished operations are moved from table ns_operation into this table by the operation archival job.';
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-archive.xml::2::Roman Strobl
+-- Create a new table ns_operation_history_archive
+CREATE TABLE ns_operation_history_archive (operation_id VARCHAR(256) NOT NULL, result_id INTEGER NOT NULL, request_auth_method VARCHAR(32) NOT NULL, request_auth_instruments VARCHAR(256), request_auth_step_result VARCHAR(32) NOT NULL, request_params VARCHAR(4000), response_result VARCHAR(32) NOT NULL, response_result_description VARCHAR(256), response_steps VARCHAR(4000), response_timestamp_created TIMESTAMP WITHOUT TIME ZONE, response_timestamp_expires TIMESTAMP WITHOUT TIME ZONE, chosen_auth_method VARCHAR(32), mobile_token_active BOOLEAN DEFAULT FALSE NOT NULL, authentication_id VARCHAR(256), pa_operation_id VARCHAR(256), pa_auth_context VARCHAR(256), CONSTRAINT ns_history_archive_pk PRIMARY KEY (operation_id, result_id));
+
+COMMENT ON TABLE ns_operation_history_archive IS 'Table ns_operation_history_archive stores history of archived operations.';
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-archive.xml::3::Roman Strobl
+-- Create a new table ns_operation_afs_archive
+CREATE TABLE ns_operation_afs_archive (afs_action_id INTEGER NOT NULL, operation_id VARCHAR(256) NOT NULL, request_afs_action VARCHAR(256) NOT NULL, request_step_index INTEGER NOT NULL, request_afs_extras VARCHAR(256), response_afs_apply BOOLEAN DEFAULT FALSE NOT NULL, response_afs_label VARCHAR(256), response_afs_extras VARCHAR(256), timestamp_created TIMESTAMP WITHOUT TIME ZONE, CONSTRAINT ns_operation_afs_archive_pkey PRIMARY KEY (afs_action_id));
+
+COMMENT ON TABLE ns_operation_afs_archive IS 'Table ns_operation_afs_archive stores AFS requests and responses of archived operations.';
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-archive.xml::4::Roman Strobl
+-- Create a new index on ns_operation_afs_archive(operation_id)
+CREATE INDEX ns_operation_afs_archive_operation_id ON ns_operation_afs_archive(operation_id);
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-auth-counter.xml::1::Roman Strobl
+-- Create a new table ns_operation_auth_counter
+CREATE TABLE ns_operation_auth_counter (operation_id VARCHAR(256) NOT NULL, auth_method VARCHAR(32) NOT NULL, auth_fail_count INTEGER DEFAULT 0 NOT NULL, auth_method_failed BOOLEAN DEFAULT FALSE NOT NULL, CONSTRAINT ns_auth_counter_pk PRIMARY KEY (operation_id, auth_method));
+
+COMMENT ON TABLE ns_operation_auth_counter IS 'Table ns_operation_auth_counter stores authentication failure counters of operations by authentication method.';
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-auth-counter.xml::2::Roman Strobl
+-- Add foreign key ns_auth_counter_method_fk to ns_operation_auth_counter table
+ALTER TABLE ns_operation_auth_counter ADD CONSTRAINT ns_auth_counter_method_fk FOREIGN KEY (auth_method) REFERENCES ns_auth_method (auth_method);
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-auth-counter.xml::3::Roman Strobl
+-- Initialize authentication failure counters from ns_operation_history table
+INSERT INTO ns_operation_auth_counter (operation_id, auth_method, auth_fail_count) SELECT h.operation_id, h.request_auth_method, SUM(CASE WHEN h.request_auth_step_result = 'AUTH_FAILED' THEN 1 ELSE 0 END) FROM ns_operation_history h WHERE h.request_auth_step_result IN ('AUTH_FAILED', 'AUTH_METHOD_FAILED') GROUP BY h.operation_id, h.request_auth_method;
+
+UPDATE ns_operation_auth_counter SET auth_method_failed = TRUE WHERE EXISTS (SELECT 1 FROM ns_operation_history h WHERE h.operation_id = ns_operation_auth_counter.operation_id AND h.request_auth_method = ns_operation_auth_counter.auth_method AND h.request_auth_step_result = 'AUTH_METHOD_FAILED');
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-auth-counter.xml::4::Roman Strobl
+-- Add foreign key ns_auth_counter_operation_fk to ns_operation_auth_counter table
+ALTER TABLE ns_operation_auth_counter ADD CONSTRAINT ns_auth_counter_operation_fk FOREIGN KEY (operation_id) REFERENCES ns_operation (operation_id);
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-version.xml::1::Roman Strobl
+-- Add version column to ns_operation table
+ALTER TABLE ns_operation ADD version INTEGER DEFAULT 0 NOT NULL;
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-notification.xml::1::Roman Strobl
+-- Create a new sequence ns_operation_notification_seq
+CREATE SEQUENCE  IF NOT EXISTS ns_operation_notification_seq START WITH 1 INCREMENT BY 1 CACHE 20;
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-notification.xml::2::Roman Strobl
+-- Create a new table ns_operation_notification
+CREATE TABLE ns_operation_notification (notification_id INTEGER NOT NULL, operation_id VARCHAR(256) NOT NULL, operation_change VARCHAR(32) NOT NULL, request_data TEXT NOT NULL, status VARCHAR(32) NOT NULL, attempt_count INTEGER DEFAULT 0 NOT NULL, error_message VARCHAR(256), timestamp_created TIMESTAMP WITHOUT TIME ZONE NOT NULL, timestamp_next_attempt TIMESTAMP WITHOUT TIME ZONE NOT NULL, CONSTRAINT ns_operation_notification_pkey PRIMARY KEY (notification_id));
+
+COMMENT ON TABLE ns_operation_notification IS 'Table ns_operation_notification stores operation change notifications which should be sent to the Data Adapter.';
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-notification.xml::3::Roman Strobl
+-- Create a new index on ns_operation_notification(status, timestamp_next_attempt)
+CREATE INDEX ns_operation_notification_pending ON ns_operation_notification(status, timestamp_next_attempt);
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-operation-notification.xml::4::Roman Strobl
+-- Create a new index on ns_operation_notification(operation_id, status)
+CREATE INDEX ns_operation_notification_operation ON ns_operation_notification(operation_id, status);
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-config-version.xml::1::Roman Strobl
+-- Create a new table ns_config_version
+CREATE TABLE ns_config_version (config_type VARCHAR(32) NOT NULL, config_version BIGINT DEFAULT 0 NOT NULL, timestamp_last_updated TIMESTAMP WITHOUT TIME ZONE, CONSTRAINT ns_config_version_pk PRIMARY KEY (config_type));
+
+COMMENT ON TABLE ns_config_version IS 'Table ns_config_version stores versions of Next Step configuration used for reloading of the configuration on all nodes of the cluster.';
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-config-version.xml::2::Roman Strobl
+-- Insert initial configuration versions into ns_config_version table
+INSERT INTO ns_config_version (config_type, config_version) VALUES ('STEP_DEFINITION', 0);
+
+INSERT INTO ns_config_version (config_type, config_version) VALUES ('OPERATION_CONFIG', 0);
+
+INSERT INTO ns_config_version (config_type, config_version) VALUES ('AUTH_METHOD', 0);
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-config-version.xml::3::Roman Strobl
+-- Insert initial version of definitions held in the second-level cache into ns_config_version table
+INSERT INTO ns_config_version (config_type, config_version) VALUES ('DEFINITION', 0);
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-sequence-increment.xml::1::Roman Strobl
+-- Increase increment of sequences used for user identity import to allocate identifiers in blocks of 50
+ALTER SEQUENCE ns_user_contact_seq INCREMENT BY 50;
+
+ALTER SEQUENCE ns_user_role_seq INCREMENT BY 50;
+
+ALTER SEQUENCE ns_credential_history_seq INCREMENT BY 50;
+
+-- Changeset powerauth-nextstep/1.10.x/20261017-sequence-increment.xml::2::Roman Strobl
+-- Increase increment of sequence used for user identity history to allocate identifiers in blocks of 50
+ALTER SEQUENCE ns_user_identity_history_seq INCREMENT BY 50;
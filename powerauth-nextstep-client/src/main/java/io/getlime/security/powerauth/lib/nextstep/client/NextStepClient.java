@@ -48,6 +48,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * REST client for Next Step services.
@@ -636,6 +637,20 @@ public class NextStepClient {
         return postObjectImpl("/operation/detail", new ObjectRequest<>(request), GetOperationDetailResponse.class);
     }
 
+    /**
+     * Calls the operation details batch endpoint via POST method to get details of multiple operations.
+     * Operations which do not exist are not included in the response.
+     *
+     * @param operationIds Operation IDs.
+     * @return A Response with {@link GetOperationDetailBatchResponse} object.
+     * @throws NextStepClientException Thrown when REST API call fails, including {@link ErrorResponse} with error code.
+     */
+    public ObjectResponse<GetOperationDetailBatchResponse> getOperationDetailBatch(@NotNull List<String> operationIds) throws NextStepClientException {
+        final GetOperationDetailBatchRequest request = new GetOperationDetailBatchRequest();
+        request.getOperationIds().addAll(operationIds);
+        return postObjectImpl("/operation/detail/batch", new ObjectRequest<>(request), GetOperationDetailBatchResponse.class);
+    }
+
     /**
      * Calls the operation lookup by external transaction ID endpoint via POST method.
      *
@@ -1408,6 +1423,32 @@ public class NextStepClient {
         return postObjectImpl("/hashconfig/list", new ObjectRequest<>(request), GetHashConfigListResponse.class);
     }
 
+    /**
+     * Get migration progress of credentials for hashing configurations.
+     *
+     * @param includeRemoved Whether removed hashing configurations should be included.
+     * @return Get hashing configuration migration list response.
+     * @throws NextStepClientException Thrown when REST API call fails, including {@link ErrorResponse} with error code.
+     */
+    public ObjectResponse<GetHashConfigMigrationListResponse> getHashConfigMigrationList(boolean includeRemoved) throws NextStepClientException {
+        final MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.put("includeRemoved", Collections.singletonList(String.valueOf(includeRemoved)));
+        return getObjectImpl("/hashconfig/migration", params, GetHashConfigMigrationListResponse.class);
+    }
+
+    /**
+     * Get migration progress of credentials for hashing configurations using POST method.
+     *
+     * @param includeRemoved Whether removed hashing configurations should be included.
+     * @return Get hashing configuration migration list response.
+     * @throws NextStepClientException Thrown when REST API call fails, including {@link ErrorResponse} with error code.
+     */
+    public ObjectResponse<GetHashConfigMigrationListResponse> getHashConfigMigrationListPost(boolean includeRemoved) throws NextStepClientException {
+        final GetHashConfigMigrationListRequest request = new GetHashConfigMigrationListRequest();
+        request.setIncludeRemoved(includeRemoved);
+        return postObjectImpl("/hashconfig/migration/list", new ObjectRequest<>(request), GetHashConfigMigrationListResponse.class);
+    }
+
     /**
      * Delete a hashing configurations.
      *
@@ -1820,6 +1861,37 @@ public class NextStepClient {
         return postObjectImpl("/user/lookup", new ObjectRequest<>(request), LookupUsersResponse.class);
     }
 
+    /**
+     * Lookup user identities page by page. The pages are looked up using keyset pagination and each page is passed
+     * to the page consumer, until the last page is reached. The request object is not modified.
+     *
+     * @param request Lookup users request.
+     * @param pageSize Page size.
+     * @param pageConsumer Consumer of pages with user details.
+     * @throws NextStepClientException Thrown when REST API call fails, including {@link ErrorResponse} with error code.
+     */
+    public void lookupUsers(@NotNull LookupUsersRequest request, int pageSize, @NotNull Consumer<List<GetUserDetailResponse>> pageConsumer) throws NextStepClientException {
+        final LookupUsersRequest pageRequest = new LookupUsersRequest();
+        pageRequest.setCreatedStartDate(request.getCreatedStartDate());
+        pageRequest.setCreatedEndDate(request.getCreatedEndDate());
+        pageRequest.setUserIdentityStatus(request.getUserIdentityStatus());
+        pageRequest.getRoles().addAll(request.getRoles());
+        pageRequest.setUsername(request.getUsername());
+        pageRequest.setCredentialName(request.getCredentialName());
+        pageRequest.setCredentialStatus(request.getCredentialStatus());
+        pageRequest.setPageSize(pageSize);
+        pageRequest.setAfterUserId(request.getAfterUserId());
+        String nextUserId;
+        do {
+            final LookupUsersResponse page = lookupUsers(pageRequest).getResponseObject();
+            if (!page.getUsers().isEmpty()) {
+                pageConsumer.accept(page.getUsers());
+            }
+            nextUserId = page.getNextUserId();
+            pageRequest.setAfterUserId(nextUserId);
+        } while (nextUserId != null);
+    }
+
     /**
      * Lookup a single user identity without operation.
      *
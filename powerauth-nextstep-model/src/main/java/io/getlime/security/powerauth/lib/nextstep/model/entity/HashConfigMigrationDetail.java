@@ -0,0 +1,41 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.lib.nextstep.model.entity;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Class represents progress of migration of credentials to a hashing configuration.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Data
+@EqualsAndHashCode(of = "hashConfigName")
+public class HashConfigMigrationDetail {
+
+    @NotBlank
+    @Size(min = 1, max = 256)
+    private String hashConfigName;
+    private long credentialCount;
+    private long targetCredentialCount;
+    private long migratedCredentialCount;
+
+}
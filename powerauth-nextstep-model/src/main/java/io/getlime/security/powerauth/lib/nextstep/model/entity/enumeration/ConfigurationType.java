@@ -0,0 +1,49 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration;
+
+/**
+ * Enumeration representing type of Next Step configuration which is held in memory and reloaded on all nodes
+ * of the cluster when the configuration version changes.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public enum ConfigurationType {
+
+    /**
+     * Step definitions.
+     */
+    STEP_DEFINITION,
+
+    /**
+     * Operation configurations and configurations of authentication methods for operations.
+     */
+    OPERATION_CONFIG,
+
+    /**
+     * Authentication methods.
+     */
+    AUTH_METHOD,
+
+    /**
+     * Applications, organizations, roles, credential and OTP definitions, credential and OTP policies and hashing
+     * configurations held in the second-level cache.
+     */
+    DEFINITION
+
+}
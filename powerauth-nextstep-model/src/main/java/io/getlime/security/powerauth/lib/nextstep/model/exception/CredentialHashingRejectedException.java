@@ -0,0 +1,40 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.lib.nextstep.model.exception;
+
+/**
+ * Exception for case when credential hashing is rejected because the credential hashing executor is saturated.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public class CredentialHashingRejectedException extends NextStepServiceException {
+
+    /**
+     * Credential hashing was rejected due to insufficient capacity.
+     */
+    public static final String CODE = "CREDENTIAL_HASHING_REJECTED";
+
+    /**
+     * Constructor with error message.
+     * @param message Error message.
+     */
+    public CredentialHashingRejectedException(String message) {
+        super(message);
+    }
+
+}
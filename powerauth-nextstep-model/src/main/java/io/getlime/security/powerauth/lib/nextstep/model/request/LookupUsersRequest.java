@@ -21,6 +21,7 @@ import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.annotation.Nulls;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.UserIdentityStatus;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
@@ -56,4 +57,10 @@ public class LookupUsersRequest {
     // Filter by credential status to allow lookup of blocked credentials
     private CredentialStatus credentialStatus;
 
+    // Keyset pagination, user identities are ordered by user ID and the next page starts after the user ID from previous page
+    @Positive
+    private Integer pageSize;
+    @Size(min = 1, max = 256)
+    private String afterUserId;
+
 }
@@ -34,4 +34,7 @@ public class LookupUsersResponse {
     @NotNull
     private final List<GetUserDetailResponse> users = new ArrayList<>();
 
+    // User ID which should be used as afterUserId for obtaining the next page, null value is returned for the last page
+    private String nextUserId;
+
 }
\ No newline at end of file
@@ -82,21 +82,207 @@ public class NextStepServerConfiguration {
     @Value("${powerauth.nextstep.operation.expirationTimeInSeconds}")
     private int operationExpirationTime;
 
+    /**
+     * Maximum number of expired operations loaded in a single batch by the expired operation cleanup job.
+     */
+    @Value("${powerauth.nextstep.operation.expiration.cleanup.batchSize}")
+    private int operationExpirationCleanupBatchSize;
+
+    /**
+     * Maximum duration of a single run of the expired operation cleanup job in milliseconds.
+     */
+    @Value("${powerauth.nextstep.operation.expiration.cleanup.maxDuration}")
+    private long operationExpirationCleanupMaxDuration;
+
+    /**
+     * Age in days after which finished operations are archived.
+     */
+    @Value("${powerauth.nextstep.operation.archive.ageInDays}")
+    private int operationArchiveAgeInDays;
+
+    /**
+     * Maximum number of operations archived in a single transaction.
+     */
+    @Value("${powerauth.nextstep.operation.archive.batchSize}")
+    private int operationArchiveBatchSize;
+
+    /**
+     * Whether operation detail cache is enabled.
+     */
+    @Value("${powerauth.nextstep.operation.detail.cache.enabled}")
+    private boolean operationDetailCacheEnabled;
+
+    /**
+     * Maximum number of cached operation details.
+     */
+    @Value("${powerauth.nextstep.operation.detail.cache.maxSize}")
+    private int operationDetailCacheMaxSize;
+
+    /**
+     * Time to live of cached operation details in milliseconds.
+     */
+    @Value("${powerauth.nextstep.operation.detail.cache.timeToLive}")
+    private long operationDetailCacheTimeToLive;
+
+    /**
+     * Whether operation version is verified in database before a cached operation detail is used.
+     */
+    @Value("${powerauth.nextstep.operation.detail.cache.versionCheck.enabled}")
+    private boolean operationDetailCacheVersionCheckEnabled;
+
+    /**
+     * Whether authentication method cache is enabled.
+     */
+    @Value("${powerauth.nextstep.authMethod.cache.enabled}")
+    private boolean authMethodCacheEnabled;
+
+    /**
+     * Maximum number of users with cached authentication methods.
+     */
+    @Value("${powerauth.nextstep.authMethod.cache.maxSize}")
+    private int authMethodCacheMaxSize;
+
+    /**
+     * Time to live of cached authentication methods in milliseconds.
+     */
+    @Value("${powerauth.nextstep.authMethod.cache.timeToLive}")
+    private long authMethodCacheTimeToLive;
+
+    /**
+     * Maximum number of operation change notifications loaded in a single batch by the notification dispatcher.
+     */
+    @Value("${powerauth.nextstep.operation.notification.dispatcher.batchSize}")
+    private int operationNotificationBatchSize;
+
+    /**
+     * Maximum number of delivery attempts for an operation change notification.
+     */
+    @Value("${powerauth.nextstep.operation.notification.dispatcher.maxAttempts}")
+    private int operationNotificationMaxAttempts;
+
+    /**
+     * Initial delay before a failed delivery of an operation change notification is retried in milliseconds.
+     */
+    @Value("${powerauth.nextstep.operation.notification.dispatcher.retryDelay}")
+    private long operationNotificationRetryDelay;
+
+    /**
+     * Maximum delay before a failed delivery of an operation change notification is retried in milliseconds.
+     */
+    @Value("${powerauth.nextstep.operation.notification.dispatcher.retryDelayMax}")
+    private long operationNotificationRetryDelayMax;
+
+    /**
+     * Number of days for which failed operation change notifications are kept.
+     */
+    @Value("${powerauth.nextstep.operation.notification.cleanup.failedRetentionInDays}")
+    private int operationNotificationFailedRetentionInDays;
+
     @Value("${powerauth.nextstep.identity.credential.useOriginalUsername}")
     private boolean useOriginalUsername;
 
     @Value("${powerauth.nextstep.identity.credential.generateUsernameMaxAttempts}")
     private int generateUsernameMaxAttempts;
 
+    /**
+     * Number of generated username candidates checked for uniqueness using a single database query.
+     */
+    @Value("${powerauth.nextstep.identity.credential.generateUsernameBatchSize}")
+    private int generateUsernameBatchSize;
+
+    /**
+     * Maximum number of credential values hashed concurrently, value 0 uses the number of available processors.
+     */
+    @Value("${powerauth.nextstep.identity.credential.hashing.poolSize}")
+    private int credentialHashingPoolSize;
+
+    /**
+     * Maximum number of credential hashing tasks waiting for a hashing permit.
+     */
+    @Value("${powerauth.nextstep.identity.credential.hashing.queueCapacity}")
+    private int credentialHashingQueueCapacity;
+
+    /**
+     * Maximum number of credential hashing tasks executed concurrently for a single request.
+     */
+    @Value("${powerauth.nextstep.identity.credential.hashing.maxConcurrencyPerRequest}")
+    private int credentialHashingMaxConcurrencyPerRequest;
+
+    /**
+     * Whether credentials protected using an outdated configuration are re-hashed asynchronously.
+     */
+    @Value("${powerauth.nextstep.identity.credential.rehash.enabled}")
+    private boolean credentialRehashEnabled;
+
+    /**
+     * Maximum number of credentials re-hashed in a single run of the credential re-hash job.
+     */
+    @Value("${powerauth.nextstep.identity.credential.rehash.batchSize}")
+    private int credentialRehashBatchSize;
+
+    /**
+     * Maximum number of credentials waiting for re-hash, the value is limited to 1000.
+     */
+    @Value("${powerauth.nextstep.identity.credential.rehash.queueCapacity}")
+    private int credentialRehashQueueCapacity;
+
+    /**
+     * Number of user identities imported in a single transaction during bulk user identity import.
+     */
+    @Value("${powerauth.nextstep.identity.import.chunkSize}")
+    private int userImportChunkSize;
+
+    /**
+     * Number of chunks imported in parallel during bulk user identity import, value 0 uses the number of available processors.
+     */
+    @Value("${powerauth.nextstep.identity.import.parallelism}")
+    private int userImportParallelism;
+
+    /**
+     * Page size used for user identity lookup requests without a page size, value 0 disables pagination.
+     */
+    @Value("${powerauth.nextstep.identity.lookup.defaultPageSize}")
+    private int userLookupDefaultPageSize;
+
+    /**
+     * Maximum page size of user identity lookup.
+     */
+    @Value("${powerauth.nextstep.identity.lookup.maxPageSize}")
+    private int userLookupMaxPageSize;
+
+    /**
+     * Number of random OTP values generated by a thread before its random number generator is reseeded.
+     */
+    @Value("${powerauth.nextstep.otp.generation.reseedInterval}")
+    private int otpGenerationReseedInterval;
+
     @Value("${powerauth.nextstep.pa.operations.enabled}")
     private boolean powerAuthOperationSupportEnabled;
 
+    /**
+     * Maximum number of concurrent requests for PowerAuth operation details when details of multiple operations are requested.
+     */
+    @Value("${powerauth.nextstep.pa.operations.detail.concurrency}")
+    private int powerAuthOperationDetailConcurrency;
+
     @Value("${powerauth.nextstep.e2eEncryption.key}")
     private String e2eEncryptionKey;
 
     @Value("${powerauth.nextstep.db.master.encryption.key}")
     private String masterDbEncryptionKey;
 
+    /**
+     * Maximum number of cached secret keys derived from master DB encryption key, value 0 disables the cache.
+     */
+    @Value("${powerauth.nextstep.db.master.encryption.keyCache.maxSize}")
+    private int derivedKeyCacheMaxSize;
+
+    /**
+     * Time to live of cached derived secret keys in milliseconds.
+     */
+    @Value("${powerauth.nextstep.db.master.encryption.keyCache.timeToLive}")
+    private long derivedKeyCacheTimeToLive;
+
     /**
      * Application name.
      */
@@ -133,6 +319,134 @@ public class NextStepServerConfiguration {
         return operationExpirationTime;
     }
 
+    /**
+     * Get maximum number of expired operations loaded in a single batch by the expired operation cleanup job.
+     * @return Batch size for the expired operation cleanup job.
+     */
+    public int getOperationExpirationCleanupBatchSize() {
+        return operationExpirationCleanupBatchSize;
+    }
+
+    /**
+     * Get maximum duration of a single run of the expired operation cleanup job in milliseconds.
+     * @return Maximum duration of the expired operation cleanup job.
+     */
+    public long getOperationExpirationCleanupMaxDuration() {
+        return operationExpirationCleanupMaxDuration;
+    }
+
+    /**
+     * Get age in days after which finished operations are archived.
+     * @return Age in days after which finished operations are archived.
+     */
+    public int getOperationArchiveAgeInDays() {
+        return operationArchiveAgeInDays;
+    }
+
+    /**
+     * Get maximum number of operations archived in a single transaction.
+     * @return Batch size for operation archival.
+     */
+    public int getOperationArchiveBatchSize() {
+        return operationArchiveBatchSize;
+    }
+
+    /**
+     * Get whether operation detail cache is enabled.
+     * @return Whether operation detail cache is enabled.
+     */
+    public boolean isOperationDetailCacheEnabled() {
+        return operationDetailCacheEnabled;
+    }
+
+    /**
+     * Get maximum number of cached operation details.
+     * @return Maximum number of cached operation details.
+     */
+    public int getOperationDetailCacheMaxSize() {
+        return operationDetailCacheMaxSize;
+    }
+
+    /**
+     * Get time to live of cached operation details in milliseconds.
+     * @return Time to live of cached operation details in milliseconds.
+     */
+    public long getOperationDetailCacheTimeToLive() {
+        return operationDetailCacheTimeToLive;
+    }
+
+    /**
+     * Get whether operation version is verified in database before a cached operation detail is used.
+     * @return Whether operation version is verified in database.
+     */
+    public boolean isOperationDetailCacheVersionCheckEnabled() {
+        return operationDetailCacheVersionCheckEnabled;
+    }
+
+    /**
+     * Get whether authentication method cache is enabled.
+     * @return Whether authentication method cache is enabled.
+     */
+    public boolean isAuthMethodCacheEnabled() {
+        return authMethodCacheEnabled;
+    }
+
+    /**
+     * Get maximum number of users with cached authentication methods.
+     * @return Maximum number of users with cached authentication methods.
+     */
+    public int getAuthMethodCacheMaxSize() {
+        return authMethodCacheMaxSize;
+    }
+
+    /**
+     * Get time to live of cached authentication methods in milliseconds.
+     * @return Time to live of cached authentication methods in milliseconds.
+     */
+    public long getAuthMethodCacheTimeToLive() {
+        return authMethodCacheTimeToLive;
+    }
+
+    /**
+     * Get maximum number of operation change notifications loaded in a single batch.
+     * @return Maximum number of operation change notifications loaded in a single batch.
+     */
+    public int getOperationNotificationBatchSize() {
+        return operationNotificationBatchSize;
+    }
+
+    /**
+     * Get maximum number of delivery attempts for an operation change notification.
+     * @return Maximum number of delivery attempts.
+     */
+    public int getOperationNotificationMaxAttempts() {
+        return operationNotificationMaxAttempts;
+    }
+
+    /**
+     * Get initial delay before a failed delivery of an operation change notification is retried in milliseconds.
+     * @return Initial retry delay in milliseconds.
+     */
+    public long getOperationNotificationRetryDelay() {
+        return operationNotificationRetryDelay;
+    }
+
+    /**
+     * Get maximum delay before a failed delivery of an operation change notification is retried in milliseconds.
+     * @return Maximum retry delay in milliseconds.
+     */
+    public long getOperationNotificationRetryDelayMax() {
+        return operationNotificationRetryDelayMax;
+    }
+
+    /**
+     * Get number of days for which failed operation change notifications are kept.
+     * @return Retention of failed notifications in days.
+     */
+    public int getOperationNotificationFailedRetentionInDays() {
+        return operationNotificationFailedRetentionInDays;
+    }
+
     /**
      * Get whether original username for a removed credential when the credential is recreated.
      * @return Whether original username for a removed credential when the credential is recreated.
@@ -149,6 +463,102 @@ public class NextStepServerConfiguration {
         return generateUsernameMaxAttempts;
     }
 
+    /**
+     * Get number of generated username candidates checked for uniqueness using a single database query.
+     * @return Number of username candidates in a batch.
+     */
+    public int getGenerateUsernameBatchSize() {
+        return generateUsernameBatchSize;
+    }
+
+    /**
+     * Get maximum number of credential values hashed concurrently.
+     * @return Maximum number of credential values hashed concurrently.
+     */
+    public int getCredentialHashingPoolSize() {
+        return credentialHashingPoolSize;
+    }
+
+    /**
+     * Get maximum number of credential hashing tasks waiting for a hashing thread.
+     * @return Maximum number of waiting credential hashing tasks.
+     */
+    public int getCredentialHashingQueueCapacity() {
+        return credentialHashingQueueCapacity;
+    }
+
+    /**
+     * Get maximum number of credential hashing tasks executed concurrently for a single request.
+     * @return Maximum number of concurrent credential hashing tasks for a single request.
+     */
+    public int getCredentialHashingMaxConcurrencyPerRequest() {
+        return credentialHashingMaxConcurrencyPerRequest;
+    }
+
+    /**
+     * Get whether credentials protected using an outdated configuration are re-hashed asynchronously.
+     * @return Whether credential re-hash is enabled.
+     */
+    public boolean isCredentialRehashEnabled() {
+        return credentialRehashEnabled;
+    }
+
+    /**
+     * Get maximum number of credentials re-hashed in a single run of the credential re-hash job.
+     * @return Maximum number of credentials re-hashed in a single run.
+     */
+    public int getCredentialRehashBatchSize() {
+        return credentialRehashBatchSize;
+    }
+
+    /**
+     * Get maximum number of credentials waiting for re-hash.
+     * @return Maximum number of credentials waiting for re-hash.
+     */
+    public int getCredentialRehashQueueCapacity() {
+        return credentialRehashQueueCapacity;
+    }
+
+    /**
+     * Get number of user identities imported in a single transaction during bulk user identity import.
+     * @return Number of user identities in an import chunk.
+     */
+    public int getUserImportChunkSize() {
+        return userImportChunkSize;
+    }
+
+    /**
+     * Get number of chunks imported in parallel during bulk user identity import.
+     * @return Number of chunks imported in parallel, value 0 uses the number of available processors.
+     */
+    public int getUserImportParallelism() {
+        return userImportParallelism;
+    }
+
+    /**
+     * Get page size used for user identity lookup requests without a page size.
+     * @return Default page size of user identity lookup, value 0 disables pagination.
+     */
+    public int getUserLookupDefaultPageSize() {
+        return userLookupDefaultPageSize;
+    }
+
+    /**
+     * Get maximum page size of user identity lookup.
+     * @return Maximum page size of user identity lookup.
+     */
+    public int getUserLookupMaxPageSize() {
+        return userLookupMaxPageSize;
+    }
+
+    /**
+     * Get number of random OTP values generated by a thread before its random number generator is reseeded.
+     * @return Number of random OTP values generated between reseeds.
+     */
+    public int getOtpGenerationReseedInterval() {
+        return otpGenerationReseedInterval;
+    }
+
     /**
      * Get whether PowerAuth operations support is enabled.
      * @return Whether PowerAuth operations support is enabled.
@@ -157,6 +567,14 @@ public class NextStepServerConfiguration {
         return powerAuthOperationSupportEnabled;
     }
 
+    /**
+     * Get maximum number of concurrent requests for PowerAuth operation details when details of multiple operations are requested.
+     * @return Maximum number of concurrent requests for PowerAuth operation details.
+     */
+    public int getPowerAuthOperationDetailConcurrency() {
+        return powerAuthOperationDetailConcurrency;
+    }
+
     /**
      * Get end-to-end encryption key.
      * @return End-to-end encryption key
@@ -173,6 +591,22 @@ public class NextStepServerConfiguration {
         return masterDbEncryptionKey;
     }
 
+    /**
+     * Get maximum number of cached secret keys derived from master DB encryption key.
+     * @return Maximum number of cached derived secret keys.
+     */
+    public int getDerivedKeyCacheMaxSize() {
+        return derivedKeyCacheMaxSize;
+    }
+
+    /**
+     * Get time to live of cached derived secret keys in milliseconds.
+     * @return Time to live of cached derived secret keys in milliseconds.
+     */
+    public long getDerivedKeyCacheTimeToLive() {
+        return derivedKeyCacheTimeToLive;
+    }
+
     /**
      * Get application name.
      * @return Application name.
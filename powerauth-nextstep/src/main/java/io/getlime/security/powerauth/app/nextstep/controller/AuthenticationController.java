@@ -88,7 +88,7 @@ public class AuthenticationController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @PostMapping("credential")
-    public ObjectResponse<CredentialAuthenticationResponse> authenticateWithCredential(@Valid @RequestBody ObjectRequest<CredentialAuthenticationRequest> request) throws InvalidRequestException, UserNotFoundException, OperationNotFoundException, CredentialNotFoundException, CredentialDefinitionNotFoundException, InvalidConfigurationException, OperationAlreadyFinishedException, OperationAlreadyCanceledException, OperationAlreadyFailedException, OperationNotValidException, AuthMethodNotFoundException, EncryptionException {
+    public ObjectResponse<CredentialAuthenticationResponse> authenticateWithCredential(@Valid @RequestBody ObjectRequest<CredentialAuthenticationRequest> request) throws InvalidRequestException, UserNotFoundException, OperationNotFoundException, CredentialNotFoundException, CredentialDefinitionNotFoundException, InvalidConfigurationException, OperationAlreadyFinishedException, OperationAlreadyCanceledException, OperationAlreadyFailedException, OperationNotValidException, AuthMethodNotFoundException, EncryptionException, CredentialHashingRejectedException {
         logger.info("Received authenticateWithCredential request, user ID: {}, operation ID: {}", request.getRequestObject().getUserId(), request.getRequestObject().getOperationId());
         final CredentialAuthenticationResponse response = authenticationService.authenticateWithCredential(request.getRequestObject());
         logger.info("The authenticateWithCredential request succeeded, user ID: {}, operation ID: {}, result: {}", request.getRequestObject().getUserId(), request.getRequestObject().getOperationId(), response.getAuthenticationResult());
@@ -149,7 +149,7 @@ public class AuthenticationController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @PostMapping("combined")
-    public ObjectResponse<CombinedAuthenticationResponse> authenticateCombined(@Valid @RequestBody ObjectRequest<CombinedAuthenticationRequest> request) throws InvalidRequestException, AuthMethodNotFoundException, InvalidConfigurationException, UserNotFoundException, OperationAlreadyFinishedException, OperationAlreadyCanceledException, OperationAlreadyFailedException, CredentialNotFoundException, OperationNotFoundException, OtpNotFoundException, OperationNotValidException, EncryptionException {
+    public ObjectResponse<CombinedAuthenticationResponse> authenticateCombined(@Valid @RequestBody ObjectRequest<CombinedAuthenticationRequest> request) throws InvalidRequestException, AuthMethodNotFoundException, InvalidConfigurationException, UserNotFoundException, OperationAlreadyFinishedException, OperationAlreadyCanceledException, OperationAlreadyFailedException, CredentialNotFoundException, OperationNotFoundException, OtpNotFoundException, OperationNotValidException, EncryptionException, CredentialHashingRejectedException {
         final CombinedAuthenticationRequest requestObject = request.getRequestObject();
         logger.info("Received authenticateCombined request, user ID: {}, OTP ID: {}, operation ID: {}", requestObject.getUserId(), requestObject.getOtpId(), requestObject.getOperationId());
         final CombinedAuthenticationResponse response = authenticationService.authenticateCombined(requestObject);
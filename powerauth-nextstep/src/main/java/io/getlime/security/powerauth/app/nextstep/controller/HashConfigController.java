@@ -28,10 +28,12 @@ import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidRequest
 import io.getlime.security.powerauth.lib.nextstep.model.request.CreateHashConfigRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.request.DeleteHashConfigRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.request.GetHashConfigListRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.request.GetHashConfigMigrationListRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.request.UpdateHashConfigRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.response.CreateHashConfigResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.DeleteHashConfigResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetHashConfigListResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetHashConfigMigrationListResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateHashConfigResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -171,6 +173,45 @@ public class HashConfigController {
         return new ObjectResponse<>(response);
     }
 
+    /**
+     * Get migration progress of credentials for hashing configurations.
+     * @param includeRemoved Whether removed hashing configurations should be included.
+     * @return Get hashing configuration migration list response.
+     */
+    @Operation(summary = "Get migration progress of hashing configurations")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hashing configuration migration progress sent in response"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    @GetMapping("migration")
+    public ObjectResponse<GetHashConfigMigrationListResponse> getHashConfigMigrationList(@RequestParam boolean includeRemoved) {
+        logger.info("Received getHashConfigMigrationList request");
+        final GetHashConfigMigrationListRequest request = new GetHashConfigMigrationListRequest();
+        request.setIncludeRemoved(includeRemoved);
+        final GetHashConfigMigrationListResponse response = hashConfigService.getHashConfigMigrationList(request);
+        logger.info("The getHashConfigMigrationList request succeeded");
+        return new ObjectResponse<>(response);
+    }
+
+    /**
+     * Get migration progress of credentials for hashing configurations using POST.
+     * @param request Get hashing configuration migration list request.
+     * @return Get hashing configuration migration list response.
+     */
+    @Operation(summary = "Get migration progress of hashing configurations")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hashing configuration migration progress sent in response"),
+            @ApiResponse(responseCode = "400", description = "Invalid request, error codes: REQUEST_VALIDATION_FAILED"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    @PostMapping("migration/list")
+    public ObjectResponse<GetHashConfigMigrationListResponse> getHashConfigMigrationListPost(@Valid @RequestBody ObjectRequest<GetHashConfigMigrationListRequest> request) {
+        logger.info("Received getHashConfigMigrationListPost request");
+        final GetHashConfigMigrationListResponse response = hashConfigService.getHashConfigMigrationList(request.getRequestObject());
+        logger.info("The getHashConfigMigrationListPost request succeeded");
+        return new ObjectResponse<>(response);
+    }
+
     /**
      * Delete a hashing configuration.
      * @param request Delete hashing configuration request.
@@ -25,6 +25,7 @@ import io.getlime.security.powerauth.app.nextstep.converter.OperationConverter;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationEntity;
 import io.getlime.security.powerauth.app.nextstep.service.MobileTokenConfigurationService;
 import io.getlime.security.powerauth.app.nextstep.service.OperationConfigurationService;
+import io.getlime.security.powerauth.app.nextstep.service.OperationDetailCacheService;
 import io.getlime.security.powerauth.app.nextstep.service.OperationPersistenceService;
 import io.getlime.security.powerauth.app.nextstep.service.StepResolutionService;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.AuthStep;
@@ -65,6 +66,7 @@ public class OperationController {
     private final StepResolutionService stepResolutionService;
     private final MobileTokenConfigurationService mobileTokenConfigurationService;
     private final OperationConverter operationConverter;
+    private final OperationDetailCacheService operationDetailCacheService;
 
     /**
      * REST controller constructor.
@@ -73,15 +75,18 @@ public class OperationController {
      * @param stepResolutionService Step resolution service.
      * @param mobileTokenConfigurationService Mobile token configuration service.
      * @param operationConverter Operation converter.
+     * @param operationDetailCacheService Operation detail cache service.
      */
     @Autowired
     public OperationController(OperationPersistenceService operationPersistenceService, OperationConfigurationService operationConfigurationService,
-                               StepResolutionService stepResolutionService, MobileTokenConfigurationService mobileTokenConfigurationService, OperationConverter operationConverter) {
+                               StepResolutionService stepResolutionService, MobileTokenConfigurationService mobileTokenConfigurationService, OperationConverter operationConverter,
+                               OperationDetailCacheService operationDetailCacheService) {
         this.operationPersistenceService = operationPersistenceService;
         this.operationConfigurationService = operationConfigurationService;
         this.stepResolutionService = stepResolutionService;
         this.mobileTokenConfigurationService = mobileTokenConfigurationService;
         this.operationConverter = operationConverter;
+        this.operationDetailCacheService = operationDetailCacheService;
     }
 
     /**
@@ -250,17 +255,7 @@ public class OperationController {
         // Log level is FINE to avoid flooding logs, this endpoint is used all the time.
         logger.debug("Received operationDetail request, operation ID: {}", operationId);
 
-        final OperationEntity operation = operationPersistenceService.getOperation(operationId, true);
-        final GetOperationDetailResponse response = operationConverter.fromEntity(operation);
-
-        // add steps from current response
-        response.getSteps().addAll(operationPersistenceService.getResponseAuthSteps(operation));
-
-        // set number of remaining authentication attempts
-        response.setRemainingAttempts(stepResolutionService.getNumberOfRemainingAttempts(operation));
-
-        response.setTimestampCreated(operation.getTimestampCreated());
-        response.setTimestampExpires(operation.getTimestampExpires());
+        final GetOperationDetailResponse response = operationDetailCacheService.getOperationDetail(operationId);
 
         logger.debug("The operationDetail request succeeded, operation ID: {}", response.getOperationId());
         return new ObjectResponse<>(response);
@@ -287,19 +282,35 @@ public class OperationController {
 
         final GetOperationDetailRequest requestObject = request.getRequestObject();
 
-        final OperationEntity operation = operationPersistenceService.getOperation(requestObject.getOperationId(), true);
-        final GetOperationDetailResponse response = operationConverter.fromEntity(operation);
+        final GetOperationDetailResponse response = operationDetailCacheService.getOperationDetail(requestObject.getOperationId());
 
-        // add steps from current response
-        response.getSteps().addAll(operationPersistenceService.getResponseAuthSteps(operation));
+        logger.debug("The operationDetail request succeeded, operation ID: {}", response.getOperationId());
+        return new ObjectResponse<>(response);
+    }
 
-        // set number of remaining authentication attempts
-        response.setRemainingAttempts(stepResolutionService.getNumberOfRemainingAttempts(operation));
+    /**
+     * Get details of multiple operations with given IDs. Operations which do not exist or which are not valid
+     * are not included in the response.
+     *
+     * @param request Get operation detail batch request.
+     * @return Get operation detail batch response.
+     */
+    @Operation(summary = "Get details of multiple operations")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operation details sent in response"),
+            @ApiResponse(responseCode = "400", description = "Invalid request, error codes: REQUEST_VALIDATION_FAILED"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    @PostMapping("operation/detail/batch")
+    public ObjectResponse<GetOperationDetailBatchResponse> operationDetailBatch(@Valid @RequestBody ObjectRequest<GetOperationDetailBatchRequest> request) {
+        logger.debug("Received operationDetailBatch request, operation count: {}", request.getRequestObject().getOperationIds().size());
 
-        response.setTimestampCreated(operation.getTimestampCreated());
-        response.setTimestampExpires(operation.getTimestampExpires());
+        final GetOperationDetailBatchRequest requestObject = request.getRequestObject();
 
-        logger.debug("The operationDetail request succeeded, operation ID: {}", response.getOperationId());
+        final GetOperationDetailBatchResponse response = new GetOperationDetailBatchResponse();
+        response.getOperations().addAll(operationDetailCacheService.getOperationDetails(requestObject.getOperationIds()));
+
+        logger.debug("The operationDetailBatch request succeeded, operation count: {}", response.getOperations().size());
         return new ObjectResponse<>(response);
     }
 
@@ -28,15 +28,20 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.annotation.Nullable;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
 /**
@@ -52,6 +57,7 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     private final UserIdentityService userIdentityService;
+    private final UserIdentityImportService userIdentityImportService;
     private final UserIdentityLookupService userIdentityLookupService;
     private final UserRoleService userRoleService;
     private final UserContactService userContactService;
@@ -62,6 +68,7 @@ public class UserController {
     /**
      * REST controller constructor.
      * @param userIdentityService User identity service.
+     * @param userIdentityImportService User identity import service.
      * @param userIdentityLookupService User identity lookup service.
      * @param userRoleService User role service.
      * @param userContactService User contact service.
@@ -70,8 +77,9 @@ public class UserController {
      * @param authenticationService Authentication service.
      */
     @Autowired
-    public UserController(UserIdentityService userIdentityService, UserIdentityLookupService userIdentityLookupService, UserRoleService userRoleService, UserContactService userContactService, UserAliasService userAliasService, CredentialService credentialService, AuthenticationService authenticationService) {
+    public UserController(UserIdentityService userIdentityService, UserIdentityImportService userIdentityImportService, UserIdentityLookupService userIdentityLookupService, UserRoleService userRoleService, UserContactService userContactService, UserAliasService userAliasService, CredentialService credentialService, AuthenticationService authenticationService) {
         this.userIdentityService = userIdentityService;
+        this.userIdentityImportService = userIdentityImportService;
         this.userIdentityLookupService = userIdentityLookupService;
         this.userRoleService = userRoleService;
         this.userContactService = userContactService;
@@ -98,13 +106,34 @@ public class UserController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @PostMapping
-    public ObjectResponse<CreateUserResponse> createUser(@Valid @RequestBody ObjectRequest<CreateUserRequest> request) throws UserAlreadyExistsException, InvalidRequestException, CredentialDefinitionNotFoundException, InvalidConfigurationException, CredentialValidationFailedException, EncryptionException {
+    public ObjectResponse<CreateUserResponse> createUser(@Valid @RequestBody ObjectRequest<CreateUserRequest> request) throws UserAlreadyExistsException, InvalidRequestException, CredentialDefinitionNotFoundException, InvalidConfigurationException, CredentialValidationFailedException, EncryptionException, CredentialHashingRejectedException {
         logger.info("Received createUser request, user ID: {}", request.getRequestObject().getUserId());
         final CreateUserResponse response = userIdentityService.createUserIdentity(request.getRequestObject());
         logger.info("The createUser request succeeded, user ID: {}", request.getRequestObject().getUserId());
         return new ObjectResponse<>(response);
     }
 
+    /**
+     * Import user identities. The request body contains newline delimited JSON documents with create user requests,
+     * the response body contains newline delimited JSON documents with import results of the user identities.
+     * @param inputStream Request body.
+     * @param response HTTP servlet response.
+     * @throws IOException Thrown when reading the request or writing the response fails.
+     */
+    @Operation(summary = "Import user identities")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User identities were processed, import result is returned for each user identity, error codes: REQUEST_VALIDATION_FAILED, USER_IDENTITY_ALREADY_EXISTS, INVALID_REQUEST, CREDENTIAL_DEFINITION_NOT_FOUND, INVALID_CONFIGURATION, CREDENTIAL_VALIDATION_FAILED, ENCRYPTION_FAILED, CREDENTIAL_HASHING_REJECTED"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    @PostMapping(value = "import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsers(InputStream inputStream, HttpServletResponse response) throws IOException {
+        logger.info("Received importUsers request");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        userIdentityImportService.importUsers(inputStream, response.getOutputStream());
+        logger.info("The importUsers request succeeded");
+    }
+
     /**
      * Update a user identity via PUT method.
      * @param request Update user request.
@@ -123,7 +152,7 @@ public class UserController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @PutMapping
-    public ObjectResponse<UpdateUserResponse> updateUser(@Valid @RequestBody ObjectRequest<UpdateUserRequest> request) throws UserNotFoundException, InvalidRequestException, CredentialDefinitionNotFoundException, InvalidConfigurationException, CredentialValidationFailedException, EncryptionException {
+    public ObjectResponse<UpdateUserResponse> updateUser(@Valid @RequestBody ObjectRequest<UpdateUserRequest> request) throws UserNotFoundException, InvalidRequestException, CredentialDefinitionNotFoundException, InvalidConfigurationException, CredentialValidationFailedException, EncryptionException, CredentialHashingRejectedException {
         logger.info("Received updateUser request, user ID: {}", request.getRequestObject().getUserId());
         final UpdateUserResponse response = userIdentityService.updateUserIdentity(request.getRequestObject());
         logger.info("The updateUser request succeeded, user ID: {}", request.getRequestObject().getUserId());
@@ -148,7 +177,7 @@ public class UserController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @PostMapping("update")
-    public ObjectResponse<UpdateUserResponse> updateUserPost(@Valid @RequestBody ObjectRequest<UpdateUserRequest> request) throws UserNotFoundException, InvalidRequestException, CredentialDefinitionNotFoundException, InvalidConfigurationException, CredentialValidationFailedException, EncryptionException {
+    public ObjectResponse<UpdateUserResponse> updateUserPost(@Valid @RequestBody ObjectRequest<UpdateUserRequest> request) throws UserNotFoundException, InvalidRequestException, CredentialDefinitionNotFoundException, InvalidConfigurationException, CredentialValidationFailedException, EncryptionException, CredentialHashingRejectedException {
         logger.info("Received updateUserPost request, user ID: {}", request.getRequestObject().getUserId());
         final UpdateUserResponse response = userIdentityService.updateUserIdentity(request.getRequestObject());
         logger.info("The updateUserPost request succeeded, user ID: {}", request.getRequestObject().getUserId());
@@ -174,7 +203,7 @@ public class UserController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @GetMapping("detail")
-    public ObjectResponse<GetUserDetailResponse> getUserDetail(@RequestParam @NotBlank @Size(min = 1, max = 256) String userId, @RequestParam @Nullable @Size(min = 2, max = 256) String credentialName, @RequestParam boolean includeRemoved) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialDefinitionNotFoundException {
+    public ObjectResponse<GetUserDetailResponse> getUserDetail(@RequestParam @NotBlank @Size(min = 1, max = 256) String userId, @RequestParam @Nullable @Size(min = 2, max = 256) String credentialName, @RequestParam boolean includeRemoved) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialDefinitionNotFoundException, CredentialHashingRejectedException {
         GetUserDetailRequest request = new GetUserDetailRequest();
         request.setUserId(userId);
         request.setCredentialName(credentialName);
@@ -202,7 +231,7 @@ public class UserController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @PostMapping("detail")
-    public ObjectResponse<GetUserDetailResponse> getUserDetailPost(@Valid @RequestBody ObjectRequest<GetUserDetailRequest> request) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialDefinitionNotFoundException {
+    public ObjectResponse<GetUserDetailResponse> getUserDetailPost(@Valid @RequestBody ObjectRequest<GetUserDetailRequest> request) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialDefinitionNotFoundException, CredentialHashingRejectedException {
         logger.debug("Received getUserDetailPost request, user ID: {}", request.getRequestObject().getUserId());
         final GetUserDetailResponse response = userIdentityService.getUserDetail(request.getRequestObject());
         logger.debug("The getUserDetailPost request succeeded, user ID: {}", request.getRequestObject().getUserId());
@@ -225,13 +254,39 @@ public class UserController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @PostMapping("lookup")
-    public ObjectResponse<LookupUsersResponse> lookupUsers(@Valid @RequestBody ObjectRequest<LookupUsersRequest> request) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException {
+    public ObjectResponse<LookupUsersResponse> lookupUsers(@Valid @RequestBody ObjectRequest<LookupUsersRequest> request) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         logger.info("Received lookupUsers request");
         final LookupUsersResponse response = userIdentityLookupService.lookupUsers(request.getRequestObject());
         logger.info("The lookupUsers request succeeded");
         return new ObjectResponse<>(response);
     }
 
+    /**
+     * Lookup user identities and stream the user details in the response body as newline delimited JSON documents.
+     * @param request Lookup user request.
+     * @param response HTTP servlet response.
+     * @throws UserNotFoundException Thrown when user identity is not found.
+     * @throws InvalidRequestException Thrown when request is invalid.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws EncryptionException Thrown when decryption fails.
+     * @throws IOException Thrown when writing the response fails.
+     */
+    @Operation(summary = "Lookup user identities with streamed response")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User identity details streamed in response"),
+            @ApiResponse(responseCode = "400", description = "Invalid request, error codes: REQUEST_VALIDATION_FAILED, USER_IDENTITY_NOT_FOUND, INVALID_REQUEST, INVALID_CONFIGURATION, ENCRYPTION_FAILED"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    @PostMapping("lookup/stream")
+    public void lookupUsersStream(@Valid @RequestBody ObjectRequest<LookupUsersRequest> request, HttpServletResponse response) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException, IOException, CredentialHashingRejectedException {
+        logger.info("Received lookupUsersStream request");
+        // Producible media type is not restricted, so that errors detected before streaming are sent as JSON error responses
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        userIdentityLookupService.lookupUsers(request.getRequestObject(), response.getOutputStream());
+        logger.info("The lookupUsersStream request succeeded");
+    }
+
     /**
      * Lookup a single user identity.
      * @param request Lookup user request.
@@ -249,7 +304,7 @@ public class UserController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @PostMapping("lookup/single")
-    public ObjectResponse<LookupUserResponse> lookupSingleUser(@Valid @RequestBody ObjectRequest<LookupUserRequest> request) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, OperationNotFoundException, EncryptionException {
+    public ObjectResponse<LookupUserResponse> lookupSingleUser(@Valid @RequestBody ObjectRequest<LookupUserRequest> request) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, OperationNotFoundException, EncryptionException, CredentialHashingRejectedException {
         logger.info("Received lookupSingleUser request, username: {}, credential name: {}", request.getRequestObject().getUsername(), request.getRequestObject().getCredentialName());
         final LookupUserResponse response = userIdentityLookupService.lookupUser(request.getRequestObject());
         logger.info("The lookupSingleUser request, username: {}, credential name: {}, user ID: {}", request.getRequestObject().getUsername(), request.getRequestObject().getCredentialName(), response.getUser().getUserId());
@@ -615,7 +670,7 @@ public class UserController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @GetMapping("credential")
-    public ObjectResponse<GetUserCredentialListResponse> getUserCredentialList(@RequestParam @NotBlank @Size(min = 1, max = 256) String userId, @RequestParam boolean includeRemoved) throws UserNotFoundException, InvalidConfigurationException, EncryptionException {
+    public ObjectResponse<GetUserCredentialListResponse> getUserCredentialList(@RequestParam @NotBlank @Size(min = 1, max = 256) String userId, @RequestParam boolean includeRemoved) throws UserNotFoundException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         logger.info("Received getUserCredentialList request, user ID: {}", userId);
         GetUserCredentialListRequest request = new GetUserCredentialListRequest();
         request.setUserId(userId);
@@ -640,7 +695,7 @@ public class UserController {
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     @PostMapping("credential/list")
-    public ObjectResponse<GetUserCredentialListResponse> getUserCredentialListPost(@Valid @RequestBody ObjectRequest<GetUserCredentialListRequest> request) throws UserNotFoundException, InvalidConfigurationException, EncryptionException {
+    public ObjectResponse<GetUserCredentialListResponse> getUserCredentialListPost(@Valid @RequestBody ObjectRequest<GetUserCredentialListRequest> request) throws UserNotFoundException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         logger.info("Received getUserCredentialListPost request, user ID: {}", request.getRequestObject().getUserId());
         final GetUserCredentialListResponse response = credentialService.getCredentialList(request.getRequestObject());
         logger.info("The getUserCredentialListPost request succeeded, user ID: {}, credential list size: {}", request.getRequestObject().getUserId(), response.getCredentials().size());
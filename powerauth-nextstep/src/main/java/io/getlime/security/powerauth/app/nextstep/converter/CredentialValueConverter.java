@@ -17,6 +17,8 @@
  */
 package io.getlime.security.powerauth.app.nextstep.converter;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialDefinitionEntity;
 import io.getlime.security.powerauth.crypto.lib.generator.KeyGenerator;
@@ -28,33 +30,39 @@ import io.getlime.security.powerauth.lib.nextstep.model.entity.CredentialValue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.EncryptionAlgorithm;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.EncryptionException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigurationException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Base64;
 
 /**
  * Converter for credential value which handles key encryption and decryption in case it is configured.
+ * The master DB encryption key is decoded once and secret keys derived for users and credentials are cached.
  *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
 @Component
 public class CredentialValueConverter {
 
-    private static final Logger logger = LoggerFactory.getLogger(CredentialValueConverter.class);
-
-    private final NextStepServerConfiguration configuration;
-
     private final KeyGenerator keyGenerator = new KeyGenerator();
     private final AESEncryptionUtils aes = new AESEncryptionUtils();
     private final KeyConvertor keyConvertor = new KeyConvertor();
 
+    /**
+     * Decoded master DB encryption key, null value is used in case the key is not configured.
+     */
+    private final SecretKey masterDbEncryptionKey;
+
+    /**
+     * Cache of secret keys derived from the master DB encryption key, null value is used in case the cache is disabled.
+     */
+    private final Cache<String, SecretKey> derivedKeys;
+
     /**
      * Converter constructor.
      *
@@ -62,7 +70,20 @@ public class CredentialValueConverter {
      */
     @Autowired
     public CredentialValueConverter(NextStepServerConfiguration configuration) {
-        this.configuration = configuration;
+        final String masterDbEncryptionKeyBase64 = configuration.getMasterDbEncryptionKey();
+        if (masterDbEncryptionKeyBase64 != null && !masterDbEncryptionKeyBase64.isEmpty()) {
+            this.masterDbEncryptionKey = keyConvertor.convertBytesToSharedSecretKey(Base64.getDecoder().decode(masterDbEncryptionKeyBase64));
+        } else {
+            this.masterDbEncryptionKey = null;
+        }
+        if (configuration.getDerivedKeyCacheMaxSize() > 0) {
+            this.derivedKeys = Caffeine.newBuilder()
+                    .maximumSize(configuration.getDerivedKeyCacheMaxSize())
+                    .expireAfterWrite(Duration.ofMillis(configuration.getDerivedKeyCacheTimeToLive()))
+                    .build();
+        } else {
+            this.derivedKeys = null;
+        }
     }
 
     /**
@@ -85,18 +106,8 @@ public class CredentialValueConverter {
                 return credentialValue.getValue();
             }
             case AES_HMAC -> {
-                final String masterDbEncryptionKeyBase64 = configuration.getMasterDbEncryptionKey();
-
-                // In case master DB encryption key does not exist, do not encrypt the server private key
-                if (masterDbEncryptionKeyBase64 == null || masterDbEncryptionKeyBase64.isEmpty()) {
-                    throw new InvalidConfigurationException("Master DB encryption key is missing");
-                }
-
-                // Convert master DB encryption key
-                final SecretKey masterDbEncryptionKey = keyConvertor.convertBytesToSharedSecretKey(Base64.getDecoder().decode(masterDbEncryptionKeyBase64));
-
-                // Derive secret key from master DB encryption key, userId and activationId
-                final SecretKey secretKey = deriveSecretKey(masterDbEncryptionKey, userId, credentialDefinition.getName());
+                // Derive secret key from master DB encryption key, user ID and credential name
+                final SecretKey secretKey = getSecretKey(userId, credentialDefinition.getName());
 
                 // Base64-decode credential value
                 final byte[] credentialValueBytes = Base64.getDecoder().decode(credentialValue.getValue());
@@ -140,18 +151,8 @@ public class CredentialValueConverter {
                 return new CredentialValue(EncryptionAlgorithm.NO_ENCRYPTION, credentialValue);
             }
             case AES_HMAC -> {
-                final String masterDbEncryptionKeyBase64 = configuration.getMasterDbEncryptionKey();
-
-                // In case master DB encryption key does not exist, do not encrypt the server private key
-                if (masterDbEncryptionKeyBase64 == null || masterDbEncryptionKeyBase64.isEmpty()) {
-                    throw new InvalidConfigurationException("Master DB encryption key is missing");
-                }
-
-                // Convert master DB encryption key
-                final SecretKey masterDbEncryptionKey = keyConvertor.convertBytesToSharedSecretKey(Base64.getDecoder().decode(masterDbEncryptionKeyBase64));
-
-                // Derive secret key from master DB encryption key, userId and activationId
-                final SecretKey secretKey = deriveSecretKey(masterDbEncryptionKey, userId, credentialDefinition.getName());
+                // Derive secret key from master DB encryption key, user ID and credential name
+                final SecretKey secretKey = getSecretKey(userId, credentialDefinition.getName());
                 try {
                     // Generate random IV
                     final byte[] iv = keyGenerator.generateRandomBytes(16);
@@ -180,16 +181,43 @@ public class CredentialValueConverter {
 
     }
 
+    /**
+     * Get secret key for given user ID and credential name. Derived secret keys are cached, so that the KDF is not
+     * executed for each conversion of a credential value.
+     *
+     * @param userId User ID.
+     * @param credentialName Credential name.
+     * @return Derived secret key.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     */
+    private SecretKey getSecretKey(String userId, String credentialName) throws InvalidConfigurationException {
+        // In case master DB encryption key does not exist, credential values cannot be encrypted
+        if (masterDbEncryptionKey == null) {
+            throw new InvalidConfigurationException("Master DB encryption key is missing");
+        }
+        if (derivedKeys == null) {
+            return deriveSecretKey(userId, credentialName);
+        }
+        final String index = userId + "&" + credentialName;
+        final SecretKey cachedSecretKey = derivedKeys.getIfPresent(index);
+        if (cachedSecretKey != null) {
+            return cachedSecretKey;
+        }
+        // The key derivation is deterministic, concurrent derivation of the same key stores an equal key
+        final SecretKey secretKey = deriveSecretKey(userId, credentialName);
+        derivedKeys.put(index, secretKey);
+        return secretKey;
+    }
+
     /**
      * Derive secret key from master DB encryption key, user ID and credential name.
      *
-     * @param masterDbEncryptionKey Master DB encryption key.
      * @param userId User ID.
      * @param credentialName Credential name.
      * @return Derived secret key.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      */
-    private SecretKey deriveSecretKey(SecretKey masterDbEncryptionKey, String userId, String credentialName) throws InvalidConfigurationException {
+    private SecretKey deriveSecretKey(String userId, String credentialName) throws InvalidConfigurationException {
         try {
             // Use concatenated user ID and credential name bytes as index for KDF_INTERNAL
             final byte[] index = (userId + "&" + credentialName).getBytes(StandardCharsets.UTF_8);
@@ -201,4 +229,4 @@ public class CredentialValueConverter {
         }
     }
 
-}
\ No newline at end of file
+}
@@ -29,6 +29,7 @@ import io.getlime.security.powerauth.lib.dataadapter.model.entity.FormData;
 import io.getlime.security.powerauth.lib.dataadapter.model.entity.OperationContext;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.*;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -206,11 +207,15 @@ public class OperationConverter {
     }
 
     /**
-     * Assign AFS actions to operation.
+     * Assign AFS actions to operation. AFS actions are assigned only in case they were loaded.
      * @param response Response to be enriched by AFS actions.
      * @param operation Database entity representing operation.
      */
     private void assignAfsActions(GetOperationDetailResponse response, OperationEntity operation) {
+        if (operation.getAfsActions() == null || !Hibernate.isInitialized(operation.getAfsActions())) {
+            // AFS actions are loaded only for operation detail
+            return;
+        }
         // add AFS actions
         for (OperationAfsActionEntity afsAction: operation.getAfsActions()) {
             final AfsActionDetail action = new AfsActionDetail();
@@ -56,6 +56,7 @@ public class DefaultExceptionResolver {
 
     private static final AuditDetail AUDIT_DETAIL_UNEXPECTED_ERROR = new AuditDetail("UNEXPECTED_ERROR");
     private static final AuditDetail AUDIT_DETAIL_BAD_REQUEST = new AuditDetail("BAD_REQUEST");
+    private static final AuditDetail AUDIT_DETAIL_SERVICE_UNAVAILABLE = new AuditDetail("SERVICE_UNAVAILABLE");
     private final Audit audit;
 
     /**
@@ -793,6 +794,20 @@ public class DefaultExceptionResolver {
         return new ErrorResponse(error);
     }
 
+    /**
+     * Exception handler for rejected credential hashing.
+     * @param ex Exception.
+     * @return Response with error details.
+     */
+    @ExceptionHandler(CredentialHashingRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public @ResponseBody ErrorResponse handleCredentialHashingRejectedException(CredentialHashingRejectedException ex) {
+        logger.warn("Error occurred in Next Step server: {}", ex.getMessage());
+        audit.warn("Error occurred in Next Step server", AUDIT_DETAIL_SERVICE_UNAVAILABLE, ex);
+        final Error error = new Error(CredentialHashingRejectedException.CODE, "Credential hashing capacity exceeded, try again later.");
+        return new ErrorResponse(error);
+    }
+
     /**
      * Exception handler for credential validation failed error.
      * @param ex Exception.
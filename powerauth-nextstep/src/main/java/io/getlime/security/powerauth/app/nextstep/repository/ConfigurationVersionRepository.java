@@ -0,0 +1,49 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.repository;
+
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.ConfigurationVersionEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+/**
+ * Crud repository for persistence of configuration versions.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Repository
+public interface ConfigurationVersionRepository extends CrudRepository<ConfigurationVersionEntity, ConfigurationType> {
+
+    /**
+     * Increment version of a configuration. The version is incremented using a single update statement,
+     * so that concurrent changes of the configuration never produce the same version.
+     * @param configurationType Configuration type.
+     * @param timestamp Timestamp of the configuration change.
+     * @return Count of updated rows.
+     */
+    @Modifying
+    @Query("UPDATE ConfigurationVersionEntity c SET c.version = c.version + 1, c.timestampLastUpdated = :timestamp WHERE c.configurationType = :configurationType")
+    int incrementVersion(@Param("configurationType") ConfigurationType configurationType, @Param("timestamp") Date timestamp);
+
+}
@@ -19,14 +19,20 @@ package io.getlime.security.powerauth.app.nextstep.repository;
 
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialDefinitionEntity;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.HashConfigEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.UserIdentityEntity;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialStatus;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.EncryptionAlgorithm;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 /**
  * Crud repository for persistence of credentials.
@@ -37,12 +43,17 @@ import java.util.stream.Stream;
 public interface CredentialRepository extends CrudRepository<CredentialEntity, String> {
 
     /**
-     * Find credentials by credential definition and credential status.
+     * Find user identities with a credential by credential definition and credential status using keyset pagination,
+     * user identities are ordered by user ID.
      * @param credentialDefinition Credential definition.
      * @param status Credential status.
-     * @return Credentials matching query criteria.
+     * @param afterUserId User ID of the last user identity from the previous batch, use an empty string for the first batch.
+     * @param pageable Pageable with the batch size.
+     * @return User identities matching query criteria.
      */
-    Stream<CredentialEntity> findAllByCredentialDefinitionAndStatus(CredentialDefinitionEntity credentialDefinition, CredentialStatus status);
+    @Query("SELECT c.user FROM CredentialEntity c WHERE c.credentialDefinition = :credentialDefinition AND c.status = :status " +
+            "AND c.user.userId > :afterUserId ORDER BY c.user.userId")
+    List<UserIdentityEntity> findUsersByCredentialDefinitionAndStatus(@Param("credentialDefinition") CredentialDefinitionEntity credentialDefinition, @Param("status") CredentialStatus status, @Param("afterUserId") String afterUserId, Pageable pageable);
 
     /**
      * Find credential by credential name and username (performing case insensitive matching).
@@ -52,6 +63,17 @@ public interface CredentialRepository extends CrudRepository<CredentialEntity, S
      */
     Optional<CredentialEntity> findByCredentialDefinitionAndUsernameIgnoreCase(CredentialDefinitionEntity credentialDefinition, String username);
 
+    /**
+     * Find usernames which are already used for given credential definition (performing case insensitive matching).
+     * @param credentialDefinition Credential definition.
+     * @param usernames Lowercase usernames to check.
+     * @return Lowercase usernames which are already used.
+     */
+    @Query("SELECT LOWER(c.username) FROM CredentialEntity c " +
+            "WHERE c.credentialDefinition = :credentialDefinition " +
+            "AND LOWER(c.username) IN (:usernames)")
+    List<String> findUsedUsernames(@Param("credentialDefinition") CredentialDefinitionEntity credentialDefinition, @Param("usernames") Collection<String> usernames);
+
     /**
      * Reset soft failed attempt counters for credentials in BLOCKED_TEMPORARY status and change credential status to ACTIVE.
      * @return Count of updated credentials.
@@ -75,4 +97,43 @@ public interface CredentialRepository extends CrudRepository<CredentialEntity, S
             "AND c.failedAttemptCounterSoft <> 0")
     int resetSoftFailedCountersForActiveStatus();
 
-}
\ No newline at end of file
+    /**
+     * Update protected credential value in case the stored credential value was not changed concurrently.
+     * Other columns of the credential are not updated.
+     * @param credentialId Credential ID.
+     * @param expectedValue Expected stored credential value.
+     * @param value Protected credential value.
+     * @param encryptionAlgorithm Encryption algorithm used for the protected credential value.
+     * @param hashingConfig Hashing configuration used for the protected credential value.
+     * @return Count of updated credentials.
+     */
+    @Modifying
+    @Query("UPDATE CredentialEntity c SET c.value = :value, c.encryptionAlgorithm = :encryptionAlgorithm, c.hashingConfig = :hashingConfig " +
+            "WHERE c.credentialId = :credentialId AND c.value = :expectedValue")
+    int updateValueIfUnchanged(@Param("credentialId") String credentialId, @Param("expectedValue") String expectedValue, @Param("value") String value,
+                               @Param("encryptionAlgorithm") EncryptionAlgorithm encryptionAlgorithm, @Param("hashingConfig") HashConfigEntity hashingConfig);
+
+    /**
+     * Count credentials which are not removed grouped by hashing configuration used for hashing of credential value.
+     * @return List of rows containing hashing configuration ID and count of credentials.
+     */
+    @Query("SELECT c.hashingConfig.hashConfigId, COUNT(c) FROM CredentialEntity c " +
+            "WHERE c.hashingConfig IS NOT NULL " +
+            "AND c.status <> io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialStatus.REMOVED " +
+            "GROUP BY c.hashingConfig.hashConfigId")
+    List<Object[]> countCredentialsByHashConfig();
+
+    /**
+     * Count credentials which are not removed grouped by hashing configuration of their credential definition.
+     * @return List of rows containing hashing configuration ID, count of credentials and count of credentials
+     * which are already hashed using the hashing configuration.
+     */
+    @Query("SELECT d.hashingConfig.hashConfigId, COUNT(c), " +
+            "SUM(CASE WHEN c.hashingConfig = d.hashingConfig THEN 1 ELSE 0 END) " +
+            "FROM CredentialEntity c JOIN c.credentialDefinition d " +
+            "WHERE d.hashingConfig IS NOT NULL " +
+            "AND c.status <> io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialStatus.REMOVED " +
+            "GROUP BY d.hashingConfig.hashConfigId")
+    List<Object[]> countCredentialsByTargetHashConfig();
+
+}
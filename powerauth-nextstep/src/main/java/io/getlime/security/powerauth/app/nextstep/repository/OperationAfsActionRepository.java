@@ -18,9 +18,13 @@
 package io.getlime.security.powerauth.app.nextstep.repository;
 
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationAfsActionEntity;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Crud repository for persistence of AFS actions for operations.
  *
@@ -29,4 +33,12 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface OperationAfsActionRepository extends CrudRepository<OperationAfsActionEntity, Long> {
 
+    /**
+     * Find AFS actions for operations with given operation IDs.
+     * @param operationIds Operation IDs.
+     * @return AFS actions ordered by timestamp of creation.
+     */
+    @Query("SELECT a FROM OperationAfsActionEntity a WHERE a.operation.operationId IN ?1 ORDER BY a.timestampCreated")
+    List<OperationAfsActionEntity> findAllByOperationIds(Collection<String> operationIds);
+
 }
@@ -0,0 +1,158 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.repository;
+
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationArchiveEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Crud repository for archived operations. Operations are moved into the archive tables using bulk statements
+ * which copy the rows and delete them from the operation tables, the statements must be executed within
+ * a single transaction.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Repository
+public interface OperationArchiveRepository extends CrudRepository<OperationArchiveEntity, String> {
+
+    /**
+     * Find an archived operation together with its history.
+     * @param operationId Operation ID.
+     * @return Archived operation.
+     */
+    @Query("SELECT DISTINCT o FROM OperationArchiveEntity o LEFT JOIN FETCH o.operationHistory WHERE o.operationId = ?1")
+    Optional<OperationArchiveEntity> findWithHistoryByOperationId(String operationId);
+
+    /**
+     * Find archived operations with given operation IDs together with their history.
+     * @param operationIds Operation IDs.
+     * @return Archived operations.
+     */
+    @Query("SELECT DISTINCT o FROM OperationArchiveEntity o LEFT JOIN FETCH o.operationHistory WHERE o.operationId IN ?1")
+    List<OperationArchiveEntity> findAllWithHistoryByOperationIds(Collection<String> operationIds);
+
+    /**
+     * Copy operations into the archive table.
+     * @param operationIds Operation IDs.
+     * @return Count of archived operations.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ns_operation_archive (operation_id, operation_name, operation_data, operation_form_data, " +
+            "application_id, application_name, application_description, application_original_scopes, application_extras, " +
+            "user_id, organization_id, user_account_status, external_operation_name, external_transaction_id, result, " +
+            "timestamp_created, timestamp_expires, last_result_id, timestamp_archived) " +
+            "SELECT operation_id, operation_name, operation_data, operation_form_data, " +
+            "application_id, application_name, application_description, application_original_scopes, application_extras, " +
+            "user_id, organization_id, user_account_status, external_operation_name, external_transaction_id, result, " +
+            "timestamp_created, timestamp_expires, last_result_id, CURRENT_TIMESTAMP " +
+            "FROM ns_operation WHERE operation_id IN (:operationIds)", nativeQuery = true)
+    int archiveOperations(@Param("operationIds") Collection<String> operationIds);
+
+    /**
+     * Copy operation history into the archive table.
+     * @param operationIds Operation IDs.
+     * @return Count of archived operation history records.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ns_operation_history_archive (operation_id, result_id, request_auth_method, request_auth_instruments, " +
+            "request_auth_step_result, request_params, response_result, response_result_description, response_steps, " +
+            "response_timestamp_created, response_timestamp_expires, chosen_auth_method, mobile_token_active, " +
+            "authentication_id, pa_operation_id, pa_auth_context) " +
+            "SELECT operation_id, result_id, request_auth_method, request_auth_instruments, " +
+            "request_auth_step_result, request_params, response_result, response_result_description, response_steps, " +
+            "response_timestamp_created, response_timestamp_expires, chosen_auth_method, mobile_token_active, " +
+            "authentication_id, pa_operation_id, pa_auth_context " +
+            "FROM ns_operation_history WHERE operation_id IN (:operationIds)", nativeQuery = true)
+    int archiveOperationHistory(@Param("operationIds") Collection<String> operationIds);
+
+    /**
+     * Copy operation AFS actions into the archive table.
+     * @param operationIds Operation IDs.
+     * @return Count of archived AFS actions.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ns_operation_afs_archive (afs_action_id, operation_id, request_afs_action, request_step_index, " +
+            "request_afs_extras, response_afs_apply, response_afs_label, response_afs_extras, timestamp_created) " +
+            "SELECT afs_action_id, operation_id, request_afs_action, request_step_index, " +
+            "request_afs_extras, response_afs_apply, response_afs_label, response_afs_extras, timestamp_created " +
+            "FROM ns_operation_afs WHERE operation_id IN (:operationIds)", nativeQuery = true)
+    int archiveOperationAfsActions(@Param("operationIds") Collection<String> operationIds);
+
+    /**
+     * Delete archived operation history from the operation history table.
+     * @param operationIds Operation IDs.
+     * @return Count of deleted operation history records.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ns_operation_history WHERE operation_id IN (:operationIds)", nativeQuery = true)
+    int deleteOperationHistory(@Param("operationIds") Collection<String> operationIds);
+
+    /**
+     * Delete archived AFS actions from the operation AFS table.
+     * @param operationIds Operation IDs.
+     * @return Count of deleted AFS actions.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ns_operation_afs WHERE operation_id IN (:operationIds)", nativeQuery = true)
+    int deleteOperationAfsActions(@Param("operationIds") Collection<String> operationIds);
+
+    /**
+     * Delete authentication failure counters of archived operations, the counters are not archived.
+     * @param operationIds Operation IDs.
+     * @return Count of deleted authentication failure counters.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ns_operation_auth_counter WHERE operation_id IN (:operationIds)", nativeQuery = true)
+    int deleteOperationAuthCounters(@Param("operationIds") Collection<String> operationIds);
+
+    /**
+     * Clear references of archived operations in authentication records, the authentication records are not archived.
+     * @param operationIds Operation IDs.
+     * @return Count of updated authentication records.
+     */
+    @Modifying
+    @Query(value = "UPDATE ns_authentication SET operation_id = NULL WHERE operation_id IN (:operationIds)", nativeQuery = true)
+    int clearAuthenticationOperations(@Param("operationIds") Collection<String> operationIds);
+
+    /**
+     * Clear references of archived operations in OTPs, the OTPs are not archived.
+     * @param operationIds Operation IDs.
+     * @return Count of updated OTPs.
+     */
+    @Modifying
+    @Query(value = "UPDATE ns_otp_storage SET operation_id = NULL WHERE operation_id IN (:operationIds)", nativeQuery = true)
+    int clearOtpOperations(@Param("operationIds") Collection<String> operationIds);
+
+    /**
+     * Delete archived operations from the operation table.
+     * @param operationIds Operation IDs.
+     * @return Count of deleted operations.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ns_operation WHERE operation_id IN (:operationIds)", nativeQuery = true)
+    int deleteOperations(@Param("operationIds") Collection<String> operationIds);
+
+}
@@ -0,0 +1,84 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.repository;
+
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationAuthCounterEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Crud repository for persistence of authentication failure counters of operations.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Repository
+public interface OperationAuthCounterRepository extends CrudRepository<OperationAuthCounterEntity, OperationAuthCounterEntity.OperationAuthCounterKey> {
+
+    /**
+     * Find current values of an authentication failure counter. The counter is returned as a new unmanaged instance,
+     * so that counters updated in database within the current transaction are not read from the persistence context.
+     * @param operationId Operation ID.
+     * @param authMethod Authentication method.
+     * @return Authentication failure counter.
+     */
+    @Query("SELECT new io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationAuthCounterEntity(" +
+            "c.primaryKey.operationId, c.primaryKey.authMethod, c.authFailCount, c.authMethodFailed) " +
+            "FROM OperationAuthCounterEntity c WHERE c.primaryKey.operationId = ?1 AND c.primaryKey.authMethod = ?2")
+    Optional<OperationAuthCounterEntity> findCurrentCounter(String operationId, AuthMethod authMethod);
+
+    /**
+     * Find current values of authentication failure counters of multiple operations. The counters are returned
+     * as new unmanaged instances.
+     * @param operationIds Operation IDs.
+     * @return Authentication failure counters.
+     */
+    @Query("SELECT new io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationAuthCounterEntity(" +
+            "c.primaryKey.operationId, c.primaryKey.authMethod, c.authFailCount, c.authMethodFailed) " +
+            "FROM OperationAuthCounterEntity c WHERE c.primaryKey.operationId IN (?1)")
+    List<OperationAuthCounterEntity> findCurrentCounters(Collection<String> operationIds);
+
+    /**
+     * Increment the authentication failure count of an operation and authentication method in database.
+     * @param operationId Operation ID.
+     * @param authMethod Authentication method.
+     * @return Count of updated counters.
+     */
+    @Modifying
+    @Query("UPDATE OperationAuthCounterEntity c SET c.authFailCount = c.authFailCount + 1 " +
+            "WHERE c.primaryKey.operationId = ?1 AND c.primaryKey.authMethod = ?2")
+    int incrementAuthFailCount(String operationId, AuthMethod authMethod);
+
+    /**
+     * Mark an authentication method as failed for an operation in database.
+     * @param operationId Operation ID.
+     * @param authMethod Authentication method.
+     * @return Count of updated counters.
+     */
+    @Modifying
+    @Query("UPDATE OperationAuthCounterEntity c SET c.authMethodFailed = true " +
+            "WHERE c.primaryKey.operationId = ?1 AND c.primaryKey.authMethod = ?2")
+    int updateAuthMethodFailed(String operationId, AuthMethod authMethod);
+
+}
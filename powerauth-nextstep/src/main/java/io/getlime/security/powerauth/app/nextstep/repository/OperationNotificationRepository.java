@@ -0,0 +1,66 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.repository;
+
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationNotificationEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.OperationNotificationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Crud repository for persistence of operation change notifications.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Repository
+public interface OperationNotificationRepository extends CrudRepository<OperationNotificationEntity, Long> {
+
+    /**
+     * Find notifications which are ready for delivery. Only the oldest pending notification of each operation
+     * is returned, so that notifications of a single operation are delivered in the order of their creation.
+     *
+     * @param status Notification status.
+     * @param timestamp Timestamp used for evaluation of the next delivery attempt.
+     * @param pageable Pageable with the batch size.
+     * @return List of notifications ordered by notification ID.
+     */
+    @Query("SELECT n FROM OperationNotificationEntity n WHERE n.status = ?1 AND n.timestampNextAttempt <= ?2 " +
+            "AND NOT EXISTS (SELECT p.notificationId FROM OperationNotificationEntity p WHERE p.operationId = n.operationId " +
+            "AND p.status = ?1 AND p.notificationId < n.notificationId) ORDER BY n.notificationId")
+    List<OperationNotificationEntity> findNotificationsForDelivery(OperationNotificationStatus status, Date timestamp, Pageable pageable);
+
+    /**
+     * Delete notifications with given status which were created before given timestamp.
+     *
+     * @param status Notification status.
+     * @param timestamp Timestamp of notification creation.
+     * @return Number of deleted notifications.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OperationNotificationEntity n WHERE n.status = ?1 AND n.timestampCreated < ?2")
+    int deleteNotificationsCreatedBefore(OperationNotificationStatus status, Date timestamp);
+
+}
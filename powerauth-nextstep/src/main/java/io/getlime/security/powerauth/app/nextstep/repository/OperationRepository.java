@@ -19,11 +19,20 @@ package io.getlime.security.powerauth.app.nextstep.repository;
 
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationEntity;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OrganizationEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Crud repository for persistence of operations.
@@ -33,21 +42,95 @@ import java.util.List;
 @Repository
 public interface OperationRepository extends CrudRepository<OperationEntity, String> {
 
+    /**
+     * Find an operation together with its history. Operation history is not loaded by {@link #findById(Object)},
+     * use this method in case operation history is required.
+     *
+     * @param operationId Operation ID.
+     * @return Operation with its history.
+     */
+    @EntityGraph(attributePaths = "operationHistory")
+    Optional<OperationEntity> findWithHistoryByOperationId(String operationId);
+
+    /**
+     * Find an operation and lock its row using a pessimistic write lock until the end of the transaction.
+     * Use this method to serialize concurrent updates of the same operation.
+     *
+     * @param operationId Operation ID.
+     * @return Locked operation.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OperationEntity> findForUpdateByOperationId(String operationId);
+
+    /**
+     * Find operations with given operation IDs together with their history.
+     *
+     * @param operationIds Operation IDs.
+     * @return Operations with their history.
+     */
+    @EntityGraph(attributePaths = "operationHistory")
+    List<OperationEntity> findAllWithHistoryByOperationIdIn(Collection<String> operationIds);
+
+    /**
+     * Find version of an operation. The version is incremented on every change of the operation.
+     *
+     * @param operationId Operation ID.
+     * @return Operation version.
+     */
+    @Query("SELECT COALESCE(o.version, 0) FROM OperationEntity o WHERE o.operationId = ?1")
+    Optional<Long> findVersionByOperationId(String operationId);
+
+    /**
+     * Increment version of an operation.
+     *
+     * @param operationId Operation ID.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OperationEntity o SET o.version = COALESCE(o.version, 0) + 1 WHERE o.operationId = ?1")
+    void incrementVersion(String operationId);
+
     /**
      * Finds all pending operations for user.
      *
      * @param userId user ID
      * @return List of pending operations.
      */
+    @EntityGraph(attributePaths = "operationHistory")
     @Query("SELECT o FROM OperationEntity o WHERE o.userId=?1 AND o.result='CONTINUE' " +
             "AND o.timestampExpires > CURRENT_TIMESTAMP ORDER BY o.timestampExpires")
     List<OperationEntity> findPendingOperationsForUser(String userId);
 
+    /**
+     * Finds IDs of pending operations which are already expired. The query uses keyset pagination ordered
+     * by operation ID, the next batch starts after the last operation ID from the previous batch.
+     *
+     * @param timestamp Timestamp used for evaluation of operation expiration.
+     * @param lastOperationId Last operation ID from the previous batch, use an empty string for the first batch.
+     * @param pageable Pageable with the batch size.
+     * @return List of expired operation IDs.
+     */
+    @Query("SELECT o.operationId FROM OperationEntity o WHERE o.result='CONTINUE' " +
+            "AND o.timestampExpires < ?1 AND o.operationId > ?2 ORDER BY o.operationId")
+    List<String> findExpiredOperationIds(Date timestamp, String lastOperationId, Pageable pageable);
+
+    /**
+     * Finds IDs of finished operations which expired before given timestamp and can be archived.
+     *
+     * @param timestamp Timestamp used for evaluation of operation age.
+     * @param pageable Pageable with the batch size.
+     * @return List of operation IDs.
+     */
+    @Query("SELECT o.operationId FROM OperationEntity o WHERE o.result IN ('DONE', 'FAILED') " +
+            "AND o.timestampExpires < ?1")
+    List<String> findArchivableOperationIds(Date timestamp, Pageable pageable);
+
     /**
      * Find operations by external transaction ID.
      * @param externalTransactionId External transaction ID.
      * @return List of operations matching the query.
      */
+    @EntityGraph(attributePaths = "operationHistory")
     List<OperationEntity> findAllByExternalTransactionId(String externalTransactionId);
 
     /**
@@ -18,14 +18,19 @@
 package io.getlime.security.powerauth.app.nextstep.repository;
 
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.UserIdentityEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.UserIdentityStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * Crud repository for persistence of user identities.
@@ -36,19 +41,39 @@ import java.util.stream.Stream;
 public interface UserIdentityRepository extends CrudRepository<UserIdentityEntity, String> {
 
     /**
-     * Find user identities by their identifiers.
+     * Find statuses and extras of user identities by their identifiers without loading the user identities.
+     * The rows are locked using a pessimistic write lock until the end of the transaction, so that the statuses
+     * and extras cannot be changed by concurrent updates before the user identities are updated.
      * @param userIds User IDs.
-     * @return Stream of user identities.
+     * @return Rows containing user ID, user identity status and extras.
      */
-    Stream<UserIdentityEntity> findAllByUserIdIn(List<String> userIds);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.userId, u.status, u.extras FROM UserIdentityEntity u WHERE u.userId IN (:userIds) ORDER BY u.userId")
+    List<Object[]> findStatusesByUserIds(@Param("userIds") Collection<String> userIds);
 
     /**
-     * Find user identities with given created date.
+     * Update status of user identities with given identifiers. User identities which already have the status
+     * are not updated.
+     * @param userIds User IDs.
+     * @param status New user identity status.
+     * @param timestampLastUpdated Last update timestamp.
+     * @return Count of updated user identities.
+     */
+    @Modifying
+    @Query("UPDATE UserIdentityEntity u SET u.status = :status, u.timestampLastUpdated = :timestampLastUpdated " +
+            "WHERE u.userId IN (:userIds) AND u.status <> :status")
+    int updateStatuses(@Param("userIds") Collection<String> userIds, @Param("status") UserIdentityStatus status, @Param("timestampLastUpdated") Date timestampLastUpdated);
+
+    /**
+     * Find user identities with given created date using keyset pagination, user identities are ordered by user ID.
      * @param startDate Start of interval for created date.
      * @param endDate End of interval for created date.
-     * @return Stream of user identities.
+     * @param afterUserId User ID of the last user identity from the previous batch, use an empty string for the first batch.
+     * @param pageable Pageable with the batch size.
+     * @return List of user identities.
      */
-    @Query(value = "from UserIdentityEntity u where u.timestampCreated BETWEEN :startDate AND :endDate")
-    Stream<UserIdentityEntity> findUserIdentitiesByCreatedDate(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+    @Query("SELECT u FROM UserIdentityEntity u WHERE u.timestampCreated BETWEEN :startDate AND :endDate " +
+            "AND u.userId > :afterUserId ORDER BY u.userId")
+    List<UserIdentityEntity> findUserIdentitiesByCreatedDate(@Param("startDate") Date startDate, @Param("endDate") Date endDate, @Param("afterUserId") String afterUserId, Pageable pageable);
 
 }
\ No newline at end of file
@@ -19,9 +19,14 @@ package io.getlime.security.powerauth.app.nextstep.repository;
 
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.RoleEntity;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.UserRoleEntity;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Crud repository for persistence of user roles.
  *
@@ -37,4 +42,15 @@ public interface UserRoleRepository extends CrudRepository<UserRoleEntity, Long>
      */
     long countByRole(RoleEntity role);
 
+    /**
+     * Find names of active roles of user identities with given identifiers.
+     * @param userIds User IDs.
+     * @return Rows containing user ID and role name.
+     */
+    @Query("SELECT ur.user.userId, ur.role.name FROM UserRoleEntity ur " +
+            "WHERE ur.user.userId IN (:userIds) " +
+            "AND ur.status = io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.UserRoleStatus.ACTIVE " +
+            "ORDER BY ur.timestampCreated")
+    List<Object[]> findActiveRoleNamesByUserIds(@Param("userIds") Collection<String> userIds);
+
 }
\ No newline at end of file
@@ -32,14 +32,18 @@ public class RepositoryCatalogue {
     private ApplicationRepository applicationRepository;
     private AuthenticationRepository authenticationRepository;
     private AuthMethodRepository authMethodRepository;
+    private ConfigurationVersionRepository configurationVersionRepository;
     private CredentialDefinitionRepository credentialDefinitionRepository;
     private CredentialPolicyRepository credentialPolicyRepository;
     private CredentialRepository credentialRepository;
     private HashConfigRepository hashConfigRepository;
     private OperationAfsActionRepository operationAfsActionRepository;
+    private OperationArchiveRepository operationArchiveRepository;
+    private OperationAuthCounterRepository operationAuthCounterRepository;
     private OperationConfigRepository operationConfigRepository;
     private OperationHistoryRepository operationHistoryRepository;
     private OperationMethodConfigRepository operationMethodConfigRepository;
+    private OperationNotificationRepository operationNotificationRepository;
     private OperationRepository operationRepository;
     private OrganizationRepository organizationRepository;
     private OtpDefinitionRepository otpDefinitionRepository;
@@ -48,6 +52,7 @@ public class RepositoryCatalogue {
     private RoleRepository roleRepository;
     private StepDefinitionRepository stepDefinitionRepository;
     private UserIdentityRepository userIdentityRepository;
+    private UserIdentityHistoryRepository userIdentityHistoryRepository;
     private UserPrefsRepository userPrefsRepository;
     private UserRoleRepository userRoleRepository;
 
@@ -78,6 +83,15 @@ public class RepositoryCatalogue {
         this.authMethodRepository = authMethodRepository;
     }
 
+    /**
+     * Set configuration version repository.
+     * @param configurationVersionRepository Configuration version repository.
+     */
+    @Autowired
+    public void setConfigurationVersionRepository(ConfigurationVersionRepository configurationVersionRepository) {
+        this.configurationVersionRepository = configurationVersionRepository;
+    }
+
     /**
      * Set credential definition repository.
      * @param credentialDefinitionRepository Credential definition repository.
@@ -123,6 +137,24 @@ public class RepositoryCatalogue {
         this.operationAfsActionRepository = operationAfsActionRepository;
     }
 
+    /**
+     * Set operation archive repository.
+     * @param operationArchiveRepository Operation archive repository.
+     */
+    @Autowired
+    public void setOperationArchiveRepository(OperationArchiveRepository operationArchiveRepository) {
+        this.operationArchiveRepository = operationArchiveRepository;
+    }
+
+    /**
+     * Set operation authentication counter repository.
+     * @param operationAuthCounterRepository Operation authentication counter repository.
+     */
+    @Autowired
+    public void setOperationAuthCounterRepository(OperationAuthCounterRepository operationAuthCounterRepository) {
+        this.operationAuthCounterRepository = operationAuthCounterRepository;
+    }
+
     /**
      * Set operation configuration repository.
      * @param operationConfigRepository Operation configuration repository.
@@ -150,6 +182,15 @@ public class RepositoryCatalogue {
         this.operationMethodConfigRepository = operationMethodConfigRepository;
     }
 
+    /**
+     * Set operation notification repository.
+     * @param operationNotificationRepository Operation notification repository.
+     */
+    @Autowired
+    public void setOperationNotificationRepository(OperationNotificationRepository operationNotificationRepository) {
+        this.operationNotificationRepository = operationNotificationRepository;
+    }
+
     /**
      * Set operation repository.
      * @param operationRepository Operation repository.
@@ -222,6 +263,15 @@ public class RepositoryCatalogue {
         this.userIdentityRepository = userIdentityRepository;
     }
 
+    /**
+     * Set user identity history repository.
+     * @param userIdentityHistoryRepository User identity history repository.
+     */
+    @Autowired
+    public void setUserIdentityHistoryRepository(UserIdentityHistoryRepository userIdentityHistoryRepository) {
+        this.userIdentityHistoryRepository = userIdentityHistoryRepository;
+    }
+
     /**
      * Set user preferences repository.
      * @param userPrefsRepository User preferences repository.
@@ -264,6 +314,14 @@ public class RepositoryCatalogue {
         return authMethodRepository;
     }
 
+    /**
+     * Get configuration version repository.
+     * @return Configuration version repository.
+     */
+    public ConfigurationVersionRepository getConfigurationVersionRepository() {
+        return configurationVersionRepository;
+    }
+
     /**
      * Get credential definition repository.
      * @return Credential definition repository.
@@ -304,6 +362,22 @@ public class RepositoryCatalogue {
         return operationAfsActionRepository;
     }
 
+    /**
+     * Get operation archive repository.
+     * @return Operation archive repository.
+     */
+    public OperationArchiveRepository getOperationArchiveRepository() {
+        return operationArchiveRepository;
+    }
+
+    /**
+     * Get operation authentication counter repository.
+     * @return Operation authentication counter repository.
+     */
+    public OperationAuthCounterRepository getOperationAuthCounterRepository() {
+        return operationAuthCounterRepository;
+    }
+
     /**
      * Get operation configuration repository.
      * @return Operation configuration repository.
@@ -328,6 +402,14 @@ public class RepositoryCatalogue {
         return operationMethodConfigRepository;
     }
 
+    /**
+     * Get operation notification repository.
+     * @return Operation notification repository.
+     */
+    public OperationNotificationRepository getOperationNotificationRepository() {
+        return operationNotificationRepository;
+    }
+
     /**
      * Get operation repository.
      * @return Operation repository.
@@ -392,6 +474,14 @@ public class RepositoryCatalogue {
         return userIdentityRepository;
     }
 
+    /**
+     * Get user identity history repository.
+     * @return User identity history repository.
+     */
+    public UserIdentityHistoryRepository getUserIdentityHistoryRepository() {
+        return userIdentityHistoryRepository;
+    }
+
     /**
      * Get user preferences repository.
      * @return User preferences repository.
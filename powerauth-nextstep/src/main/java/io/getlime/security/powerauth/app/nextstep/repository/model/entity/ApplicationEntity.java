@@ -21,6 +21,8 @@ import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.Appli
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -33,6 +35,8 @@ import java.util.Date;
  */
 @Entity
 @Table(name = "ns_application")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @EqualsAndHashCode(of = "name")
 public class ApplicationEntity implements Serializable {
@@ -21,6 +21,8 @@ import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -32,6 +34,8 @@ import java.io.Serializable;
  */
 @Entity
 @Table(name = "ns_auth_method")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @EqualsAndHashCode(of = "authMethod")
 public class AuthMethodEntity implements Serializable {
@@ -61,7 +61,7 @@ public class AuthenticationEntity implements Serializable {
     @JoinColumn(name = "otp_id", referencedColumnName = "otp_id", updatable = false)
     private OtpEntity otp;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "operation_id", referencedColumnName = "operation_id", updatable = false)
     private OperationEntity operation;
 
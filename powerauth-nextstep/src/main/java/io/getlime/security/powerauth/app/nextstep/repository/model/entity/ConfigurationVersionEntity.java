@@ -0,0 +1,55 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.repository.model.entity;
+
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Entity which stores version of a Next Step configuration. The version is incremented together with each change
+ * of the configuration, nodes of the cluster reload the configuration when the version changes.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Entity
+@Table(name = "ns_config_version")
+@Data
+@EqualsAndHashCode(of = "configurationType")
+public class ConfigurationVersionEntity implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 7436028164235581905L;
+
+    @Id
+    @Column(name = "config_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ConfigurationType configurationType;
+
+    @Column(name = "config_version", nullable = false)
+    private long version;
+
+    @Column(name = "timestamp_last_updated")
+    private Date timestampLastUpdated;
+
+}
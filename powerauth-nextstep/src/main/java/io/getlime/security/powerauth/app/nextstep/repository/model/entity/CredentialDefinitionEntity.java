@@ -24,6 +24,8 @@ import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.EndTo
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -36,6 +38,8 @@ import java.util.Date;
  */
 @Entity
 @Table(name = "ns_credential_definition")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @EqualsAndHashCode(of = {"name"})
 public class CredentialDefinitionEntity implements Serializable {
@@ -23,6 +23,8 @@ import io.getlime.security.powerauth.lib.nextstep.model.enumeration.UsernameGene
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -35,6 +37,8 @@ import java.util.Date;
  */
 @Entity
 @Table(name = "ns_credential_policy")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @EqualsAndHashCode(of = "name")
 public class CredentialPolicyEntity implements Serializable {
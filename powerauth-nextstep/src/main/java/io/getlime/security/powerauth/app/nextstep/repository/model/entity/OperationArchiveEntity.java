@@ -0,0 +1,110 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.repository.model.entity;
+
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.UserAccountStatus;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Entity which stores an archived operation. Finished operations are moved from table ns_operation into
+ * table ns_operation_archive, the archived operation is read-only.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Entity
+@Table(name = "ns_operation_archive")
+@Data
+@EqualsAndHashCode(of = "operationId")
+public class OperationArchiveEntity implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 3127655380172612416L;
+
+    @Id
+    @Column(name = "operation_id", nullable = false)
+    private String operationId;
+
+    @Column(name = "operation_name", nullable = false)
+    private String operationName;
+
+    @Column(name = "operation_form_data")
+    private String operationFormData;
+
+    @Column(name = "operation_data", nullable = false)
+    private String operationData;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "organization_id")
+    private String organizationId;
+
+    @Column(name = "application_id")
+    private String applicationId;
+
+    @Column(name = "application_name")
+    private String applicationName;
+
+    @Column(name = "application_description")
+    private String applicationDescription;
+
+    @Column(name = "application_original_scopes")
+    private String applicationOriginalScopes;
+
+    @Column(name = "application_extras")
+    private String applicationExtras;
+
+    @Column(name = "user_account_status")
+    @Enumerated(EnumType.STRING)
+    private UserAccountStatus userAccountStatus;
+
+    @Column(name = "external_operation_name")
+    private String externalOperationName;
+
+    @Column(name = "external_transaction_id")
+    private String externalTransactionId;
+
+    @Column(name = "result")
+    @Enumerated(EnumType.STRING)
+    private AuthResult result;
+
+    @Column(name = "timestamp_created", nullable = false)
+    private Date timestampCreated;
+
+    @Column(name = "timestamp_expires")
+    private Date timestampExpires;
+
+    @Column(name = "last_result_id")
+    private Long lastResultId;
+
+    @Column(name = "timestamp_archived", nullable = false)
+    private Date timestampArchived;
+
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "operation")
+    @OrderBy("result_id")
+    private List<OperationHistoryArchiveEntity> operationHistory;
+
+}
@@ -0,0 +1,85 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.repository.model.entity;
+
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Entity which stores authentication failure counters of an operation by authentication method. The counters are
+ * updated when operation history is written, so that the operation history does not need to be evaluated when
+ * resolving the number of remaining authentication attempts.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Entity
+@Table(name = "ns_operation_auth_counter")
+@Data
+@EqualsAndHashCode(of = "primaryKey")
+public class OperationAuthCounterEntity implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -5271036329453902658L;
+
+    @EmbeddedId
+    private OperationAuthCounterKey primaryKey;
+
+    @Column(name = "auth_fail_count", nullable = false)
+    private int authFailCount;
+
+    @Column(name = "auth_method_failed", nullable = false)
+    private boolean authMethodFailed;
+
+    public OperationAuthCounterEntity() {
+    }
+
+    public OperationAuthCounterEntity(String operationId, AuthMethod authMethod) {
+        primaryKey = new OperationAuthCounterKey(operationId, authMethod);
+    }
+
+    public OperationAuthCounterEntity(String operationId, AuthMethod authMethod, int authFailCount, boolean authMethodFailed) {
+        this(operationId, authMethod);
+        this.authFailCount = authFailCount;
+        this.authMethodFailed = authMethodFailed;
+    }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OperationAuthCounterKey implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 2218306441658340817L;
+
+        @Column(name = "operation_id", nullable = false)
+        private String operationId;
+
+        @Column(name = "auth_method", nullable = false)
+        @Enumerated(EnumType.STRING)
+        private AuthMethod authMethod;
+
+    }
+}
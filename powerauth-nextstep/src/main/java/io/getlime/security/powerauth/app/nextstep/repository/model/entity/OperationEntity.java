@@ -22,8 +22,8 @@ import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -31,12 +31,14 @@ import java.util.Date;
 import java.util.List;
 
 /**
- * Entity which stores status of an operation, its parameters and last result.
+ * Entity which stores status of an operation, its parameters and last result. Updates contain only the changed
+ * columns, the large operation data and form data are not rewritten on each operation update.
  *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
 @Entity
 @Table(name = "ns_operation")
+@DynamicUpdate
 @Data
 @EqualsAndHashCode(of = "operationId")
 public class OperationEntity implements Serializable {
@@ -99,13 +101,23 @@ public class OperationEntity implements Serializable {
     @Column(name = "timestamp_expires")
     private Date timestampExpires;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "operation", cascade = CascadeType.ALL)
+    @Column(name = "last_result_id")
+    private Long lastResultId;
+
+    // Version is incremented only using OperationRepository.incrementVersion, it is never written by the entity
+    @Column(name = "version", insertable = false, updatable = false)
+    private Long version;
+
+    // Operation history is loaded only by queries which require it, see OperationRepository
+    @ToString.Exclude
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "operation", cascade = CascadeType.ALL)
     @OrderBy("result_id")
     private List<OperationHistoryEntity> operationHistory;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "operation", cascade = CascadeType.ALL)
+    // AFS actions are loaded only for operation detail, see OperationAfsActionRepository
+    @ToString.Exclude
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "operation", cascade = CascadeType.ALL)
     @OrderBy("timestamp_created")
-    @Fetch(value = FetchMode.SUBSELECT)
     private List<OperationAfsActionEntity> afsActions;
 
     /**
@@ -23,18 +23,21 @@ import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthStepResult;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.Date;
 
 /**
- * Entity which stores history for an operation including request and response data.
+ * Entity which stores history for an operation including request and response data. Updates of the chosen
+ * authentication method and mobile token status contain only the changed columns.
  *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
 @Entity
 @Table(name = "ns_operation_history")
+@DynamicUpdate
 @Data
 @EqualsAndHashCode(of = "primaryKey")
 public class OperationHistoryEntity implements Serializable {
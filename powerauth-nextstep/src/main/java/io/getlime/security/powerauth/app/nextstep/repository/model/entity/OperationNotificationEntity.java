@@ -0,0 +1,81 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.repository.model.entity;
+
+import io.getlime.security.powerauth.lib.dataadapter.model.entity.OperationChange;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.OperationNotificationStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Entity which stores an operation change notification which should be sent to the Data Adapter. The notification
+ * is stored together with the operation update and it is delivered asynchronously by the notification dispatcher.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Entity
+@Table(name = "ns_operation_notification")
+@Data
+@EqualsAndHashCode(of = "notificationId")
+public class OperationNotificationEntity implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -5309718625405781622L;
+
+    @Id
+    @SequenceGenerator(name = "ns_operation_notification", sequenceName = "ns_operation_notification_seq", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "ns_operation_notification")
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Column(name = "operation_id", nullable = false)
+    private String operationId;
+
+    @Column(name = "operation_change", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OperationChange operationChange;
+
+    // Request data is stored in a TEXT column, the value is bound as a string and not as a large object
+    @Column(name = "request_data", nullable = false)
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String requestData;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OperationNotificationStatus status;
+
+    @Column(name = "attempt_count", nullable = false)
+    private int attemptCount;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "timestamp_created", nullable = false)
+    private Date timestampCreated;
+
+    @Column(name = "timestamp_next_attempt", nullable = false)
+    private Date timestampNextAttempt;
+
+}
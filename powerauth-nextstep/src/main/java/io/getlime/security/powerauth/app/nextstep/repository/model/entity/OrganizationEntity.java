@@ -17,12 +17,15 @@
  */
 package io.getlime.security.powerauth.app.nextstep.repository.model.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -34,6 +37,8 @@ import java.io.Serializable;
  */
 @Entity
 @Table(name = "ns_organization")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @EqualsAndHashCode(of = "organizationId")
 public class OrganizationEntity implements Serializable {
@@ -22,6 +22,8 @@ import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.OtpDe
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -34,6 +36,8 @@ import java.util.Date;
  */
 @Entity
 @Table(name = "ns_otp_definition")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @EqualsAndHashCode(of = "name")
 public class OtpDefinitionEntity implements Serializable {
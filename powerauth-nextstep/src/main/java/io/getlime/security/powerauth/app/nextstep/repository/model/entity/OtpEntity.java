@@ -57,7 +57,7 @@ public class OtpEntity implements Serializable {
     @JoinColumn(name = "credential_definition_id", referencedColumnName = "credential_definition_id", updatable = false)
     private CredentialDefinitionEntity credentialDefinition;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "operation_id", referencedColumnName = "operation_id", updatable = false)
     private OperationEntity operation;
 
@@ -20,6 +20,8 @@ package io.getlime.security.powerauth.app.nextstep.repository.model.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -32,6 +34,8 @@ import java.util.Date;
  */
 @Entity
 @Table(name = "ns_role")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @EqualsAndHashCode(of = "name")
 public class RoleEntity implements Serializable {
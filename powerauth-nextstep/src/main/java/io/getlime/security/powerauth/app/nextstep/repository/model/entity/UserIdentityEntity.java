@@ -22,6 +22,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -30,7 +31,8 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
- * Entity which stores user identities.
+ * Entity which stores user identities. New user identities are persisted without a merge, so that their inserts
+ * are not preceded by a select and they can be sent in JDBC batches.
  *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
@@ -38,7 +40,7 @@ import java.util.Set;
 @Table(name = "ns_user_identity")
 @Data
 @EqualsAndHashCode(of = "userId")
-public class UserIdentityEntity implements Serializable {
+public class UserIdentityEntity implements Serializable, Persistable<String> {
 
     @Serial
     private static final long serialVersionUID = -372574158382801384L;
@@ -90,4 +92,27 @@ public class UserIdentityEntity implements Serializable {
     @ToString.Exclude
     private Set<UserIdentityHistoryEntity> userIdentityHistory = new LinkedHashSet<>();
 
+    @Transient
+    @ToString.Exclude
+    private boolean newEntity = true;
+
+    @Override
+    public String getId() {
+        return userId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    /**
+     * Mark the user identity as persisted once it is loaded or inserted.
+     */
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+
 }
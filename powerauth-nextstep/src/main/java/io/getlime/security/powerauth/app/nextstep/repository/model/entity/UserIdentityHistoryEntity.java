@@ -41,7 +41,7 @@ public class UserIdentityHistoryEntity implements Serializable {
     private static final long serialVersionUID = 2982236221553997424L;
 
     @Id
-    @SequenceGenerator(name = "ns_user_identity_history", sequenceName = "ns_user_identity_history_seq", allocationSize = 1)
+    @SequenceGenerator(name = "ns_user_identity_history", sequenceName = "ns_user_identity_history_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "ns_user_identity_history")
     @Column(name = "user_identity_history_id", nullable = false)
     private Long userIdentityId;
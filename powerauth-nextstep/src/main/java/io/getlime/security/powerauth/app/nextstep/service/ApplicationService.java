@@ -23,8 +23,10 @@ import io.getlime.security.powerauth.app.nextstep.converter.ApplicationConverter
 import io.getlime.security.powerauth.app.nextstep.repository.ApplicationRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.ApplicationEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.ApplicationDetail;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ApplicationStatus;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.ApplicationAlreadyExistsException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.ApplicationNotFoundException;
 import io.getlime.security.powerauth.lib.nextstep.model.request.CreateApplicationRequest;
@@ -38,6 +40,7 @@ import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateApplicati
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -56,6 +59,7 @@ public class ApplicationService {
     private static final String AUDIT_TYPE_CONFIGURATION = "CONFIGURATION";
 
     private final ApplicationRepository applicationRepository;
+    private final ServiceCatalogue serviceCatalogue;
     private final Audit audit;
 
     private final ApplicationConverter applicationConverter = new ApplicationConverter();
@@ -63,11 +67,13 @@ public class ApplicationService {
     /**
      * Application service constructor.
      * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
      * @param audit Audit interface.
      */
     @Autowired
-    public ApplicationService(RepositoryCatalogue repositoryCatalogue, Audit audit) {
+    public ApplicationService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, Audit audit) {
         this.applicationRepository = repositoryCatalogue.getApplicationRepository();
+        this.serviceCatalogue = serviceCatalogue;
         this.audit = audit;
     }
 
@@ -89,6 +95,7 @@ public class ApplicationService {
         application.setStatus(ApplicationStatus.ACTIVE);
         application.setTimestampCreated(new Date());
         application = applicationRepository.save(application);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Application was created, application ID: {}, application name: {}", application.getApplicationId(), application.getName());
         audit.info("Application was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -120,6 +127,7 @@ public class ApplicationService {
         }
         application.setTimestampLastUpdated(new Date());
         application = applicationRepository.save(application);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Application was updated, application ID: {}, application name: {}", application.getApplicationId(), application.getName());
         audit.info("Application was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -166,6 +174,7 @@ public class ApplicationService {
         application.setStatus(ApplicationStatus.REMOVED);
         application.setTimestampLastUpdated(new Date());
         application = applicationRepository.save(application);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Application was removed, application ID: {}, application name: {}", application.getApplicationId(), application.getName());
         audit.info("Application was removed", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
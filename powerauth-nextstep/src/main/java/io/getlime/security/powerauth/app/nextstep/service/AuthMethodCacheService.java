@@ -0,0 +1,391 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.MapType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.wultra.core.audit.base.Audit;
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.app.nextstep.repository.AuthMethodRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.UserPrefsRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.AuthMethodEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.UserPrefsEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.AuthMethodDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.UserAuthMethodDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigurationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This service provides the catalogue of authentication methods and the authentication methods enabled for users.
+ * The authentication methods and the parsed authentication methods enabled for users are cached in memory. Cached
+ * authentication methods of a user are invalidated when user preferences are updated, all cached data is invalidated
+ * when an authentication method is created or deleted. Changes performed on other nodes of the cluster are visible
+ * after the cache time to live expires.
+ * <p>
+ * The returned lists are shared between callers and they must not be modified.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class AuthMethodCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthMethodCacheService.class);
+
+    private static final int INVALIDATION_STRIPE_COUNT = 256;
+
+    private final AuthMethodRepository authMethodRepository;
+    private final UserPrefsRepository userPrefsRepository;
+    private final NextStepServerConfiguration nextStepServerConfiguration;
+    private final Audit audit;
+    private final ObjectMapper objectMapper;
+    private final MapType configMapType;
+
+    private volatile CatalogueEntry catalogue;
+    private final Cache<String, List<UserAuthMethodDetail>> userCache;
+
+    /**
+     * Invalidation counter of the authentication method catalogue, cached data is stored only in case the catalogue
+     * was not invalidated while the data was being loaded.
+     */
+    private final AtomicLong catalogueInvalidationCounter = new AtomicLong();
+
+    /**
+     * Invalidation counters striped by user ID, a cache entry is stored only in case authentication methods
+     * of the user were not invalidated while they were being loaded.
+     */
+    private final AtomicLongArray invalidationCounters = new AtomicLongArray(INVALIDATION_STRIPE_COUNT);
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter sizeEvictionCounter;
+    private final Counter expiredEvictionCounter;
+    private final Counter invalidatedEvictionCounter;
+
+    /**
+     * Authentication method cache service constructor.
+     * @param repositoryCatalogue Repository catalogue.
+     * @param nextStepServerConfiguration Next Step server configuration.
+     * @param audit Audit interface.
+     * @param objectMapper Object mapper.
+     * @param meterRegistry Meter registry.
+     */
+    @Autowired
+    public AuthMethodCacheService(RepositoryCatalogue repositoryCatalogue, NextStepServerConfiguration nextStepServerConfiguration, Audit audit, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.authMethodRepository = repositoryCatalogue.getAuthMethodRepository();
+        this.userPrefsRepository = repositoryCatalogue.getUserPrefsRepository();
+        this.nextStepServerConfiguration = nextStepServerConfiguration;
+        this.audit = audit;
+        this.objectMapper = objectMapper;
+        this.configMapType = objectMapper.getTypeFactory().constructMapType(Map.class, String.class, String.class);
+        this.hitCounter = Counter.builder("powerauth.nextstep.auth.method.cache")
+                .tag("result", "hit")
+                .description("Number of user authentication method requests served from cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("powerauth.nextstep.auth.method.cache")
+                .tag("result", "miss")
+                .description("Number of user authentication method requests not served from cache")
+                .register(meterRegistry);
+        this.sizeEvictionCounter = Counter.builder("powerauth.nextstep.auth.method.cache.evictions")
+                .tag("cause", "size")
+                .description("Number of cached user authentication methods evicted due to cache size")
+                .register(meterRegistry);
+        this.expiredEvictionCounter = Counter.builder("powerauth.nextstep.auth.method.cache.evictions")
+                .tag("cause", "expired")
+                .description("Number of cached user authentication methods evicted due to time to live")
+                .register(meterRegistry);
+        this.invalidatedEvictionCounter = Counter.builder("powerauth.nextstep.auth.method.cache.evictions")
+                .tag("cause", "invalidated")
+                .description("Number of cached user authentication methods evicted due to invalidation")
+                .register(meterRegistry);
+        // Cache maintenance is executed by the calling thread, so that eviction metrics are updated immediately
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(nextStepServerConfiguration.getAuthMethodCacheMaxSize())
+                .expireAfterWrite(Duration.ofMillis(nextStepServerConfiguration.getAuthMethodCacheTimeToLive()))
+                .executor(Runnable::run)
+                .removalListener((String userId, List<UserAuthMethodDetail> authMethods, RemovalCause cause) -> countEviction(cause))
+                .build();
+        Gauge.builder("powerauth.nextstep.auth.method.cache.size", this, AuthMethodCacheService::size)
+                .description("Number of users with cached authentication methods")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get all authentication methods ordered by their order number.
+     * @return Authentication methods.
+     */
+    public List<AuthMethodDetail> getAuthMethods() {
+        if (!nextStepServerConfiguration.isAuthMethodCacheEnabled()) {
+            return loadAuthMethods();
+        }
+        final long catalogueCounter = catalogueInvalidationCounter.get();
+        final CatalogueEntry cachedCatalogue = catalogue;
+        if (cachedCatalogue != null && !isExpired(cachedCatalogue.timestampCreated())) {
+            return cachedCatalogue.authMethods();
+        }
+        final List<AuthMethodDetail> authMethods = loadAuthMethods();
+        if (catalogueInvalidationCounter.get() == catalogueCounter) {
+            catalogue = new CatalogueEntry(authMethods, System.currentTimeMillis());
+        }
+        return authMethods;
+    }
+
+    /**
+     * Get authentication methods enabled for a user. Methods which can be enabled or disabled are resolved using
+     * user preferences, all other methods are enabled.
+     * @param userId User ID, null value is used when the user is not known.
+     * @return Authentication methods enabled for the user.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     */
+    public List<UserAuthMethodDetail> getUserAuthMethods(String userId) throws InvalidConfigurationException {
+        if (!nextStepServerConfiguration.isAuthMethodCacheEnabled() || userId == null) {
+            // Authentication methods for an unknown user are resolved from the cached catalogue without user preferences
+            return loadUserAuthMethods(userId);
+        }
+        final int stripe = stripe(userId);
+        final long invalidationCounter = invalidationCounters.get(stripe);
+        final long catalogueCounter = catalogueInvalidationCounter.get();
+        final List<UserAuthMethodDetail> cachedAuthMethods = userCache.getIfPresent(userId);
+        if (cachedAuthMethods != null) {
+            hitCounter.increment();
+            return cachedAuthMethods;
+        }
+        missCounter.increment();
+        final List<UserAuthMethodDetail> authMethods = loadUserAuthMethods(userId);
+        if (invalidationCounters.get(stripe) == invalidationCounter && catalogueInvalidationCounter.get() == catalogueCounter) {
+            userCache.put(userId, authMethods);
+        }
+        return authMethods;
+    }
+
+    /**
+     * Invalidate cached authentication methods of a user. In case a transaction is active, the cache is invalidated
+     * again after the transaction is completed, so that data loaded before the commit is not kept in the cache.
+     * @param userId User ID.
+     */
+    public void invalidateUser(String userId) {
+        invalidateUserImpl(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateUserImpl(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Invalidate the authentication method catalogue and all cached authentication methods of users. In case
+     * a transaction is active, the cache is invalidated again after the transaction is completed.
+     */
+    public void invalidateAll() {
+        invalidateAllImpl();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateAllImpl();
+                }
+            });
+        }
+    }
+
+    /**
+     * Remove cached authentication methods of a user.
+     * @param userId User ID.
+     */
+    private void invalidateUserImpl(String userId) {
+        invalidationCounters.incrementAndGet(stripe(userId));
+        userCache.invalidate(userId);
+    }
+
+    /**
+     * Remove the authentication method catalogue and all cached authentication methods of users.
+     */
+    private void invalidateAllImpl() {
+        catalogueInvalidationCounter.incrementAndGet();
+        catalogue = null;
+        userCache.invalidateAll();
+    }
+
+    /**
+     * Load authentication methods from database.
+     * @return Authentication methods.
+     */
+    private List<AuthMethodDetail> loadAuthMethods() {
+        final List<AuthMethodDetail> authMethods = new ArrayList<>();
+        for (AuthMethodEntity authMethodEntity : authMethodRepository.findAllAuthMethods()) {
+            authMethods.add(getAuthMethodDetail(authMethodEntity));
+        }
+        return Collections.unmodifiableList(authMethods);
+    }
+
+    /**
+     * Load authentication methods enabled for a user from user preferences.
+     * @param userId User ID.
+     * @return Authentication methods enabled for the user.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     */
+    private List<UserAuthMethodDetail> loadUserAuthMethods(String userId) throws InvalidConfigurationException {
+        final List<UserAuthMethodDetail> enabledMethods = new ArrayList<>();
+        UserPrefsEntity userPrefs = null;
+        if (userId != null) {
+            // read user prefs only when user ID is not null, for some authentication methods user ID is not known
+            userPrefs = userPrefsRepository.findUserPrefs(userId);
+        }
+        for (AuthMethodDetail authMethod : getAuthMethods()) {
+            if (authMethod.getCheckUserPrefs()) {
+                // methods with user prefs require special handling
+                if (userPrefs != null) {
+                    // get status of methods with user prefs
+                    if (userPrefs.getAuthMethodEnabled(authMethod.getUserPrefsColumn())) {
+                        // read configuration of method from user prefs
+                        final String config = userPrefs.getAuthMethodConfig(authMethod.getUserPrefsColumn());
+                        Map<String, String> configMap;
+                        try {
+                            configMap = objectMapper.readValue(config, configMapType);
+                        } catch (IOException e) {
+                            logger.error("Error while deserializing config", e);
+                            audit.error("Error while deserializing config", e);
+                            configMap = new HashMap<>();
+                        }
+                        // add method in case it is enabled in user prefs
+                        enabledMethods.add(getUserAuthMethodDetail(userId, authMethod, configMap));
+                    }
+                } else {
+                    // user prefs are not set - resolve methods with user prefs by their default value
+                    if (authMethod.getUserPrefsDefault()) {
+                        // add method in case it is enabled by default
+                        enabledMethods.add(getUserAuthMethodDetail(userId, authMethod, Collections.emptyMap()));
+                    }
+                }
+            } else {
+                // add all methods without user prefs
+                enabledMethods.add(getUserAuthMethodDetail(userId, authMethod, Collections.emptyMap()));
+            }
+        }
+        return Collections.unmodifiableList(enabledMethods);
+    }
+
+    /**
+     * Converts AuthMethodEntity into AuthMethodDetail which contains less fields available for the UI.
+     *
+     * @param authMethodEntity entity representing the authentication method.
+     * @return Authentication method detail.
+     */
+    private AuthMethodDetail getAuthMethodDetail(AuthMethodEntity authMethodEntity) {
+        final AuthMethodDetail authMethodDetail = new AuthMethodDetail();
+        authMethodDetail.setAuthMethod(authMethodEntity.getAuthMethod());
+        authMethodDetail.setOrderNumber(authMethodEntity.getOrderNumber());
+        authMethodDetail.setCheckUserPrefs(authMethodEntity.getCheckUserPrefs());
+        authMethodDetail.setUserPrefsColumn(authMethodEntity.getUserPrefsColumn());
+        authMethodDetail.setUserPrefsDefault(authMethodEntity.getUserPrefsDefault());
+        authMethodDetail.setCheckAuthFails(authMethodEntity.getCheckAuthFails());
+        authMethodDetail.setMaxAuthFails(authMethodEntity.getMaxAuthFails());
+        authMethodDetail.setHasUserInterface(authMethodEntity.getHasUserInterface());
+        authMethodDetail.setDisplayNameKey(authMethodEntity.getDisplayNameKey());
+        authMethodDetail.setHasMobileToken(authMethodEntity.getHasMobileToken());
+        return authMethodDetail;
+    }
+
+    /**
+     * Converts AuthMethodDetail into UserAuthMethodDetail which contains less fields available for the UI.
+     * @param userId User ID.
+     * @param authMethod Authentication method detail.
+     * @param config Authentication method configuration.
+     * @return Authentication method detail for given userId.
+     */
+    private UserAuthMethodDetail getUserAuthMethodDetail(String userId, AuthMethodDetail authMethod, Map<String, String> config) {
+        final UserAuthMethodDetail userAuthMethodDetail = new UserAuthMethodDetail();
+        userAuthMethodDetail.setUserId(userId);
+        userAuthMethodDetail.setAuthMethod(authMethod.getAuthMethod());
+        userAuthMethodDetail.setHasUserInterface(authMethod.getHasUserInterface());
+        userAuthMethodDetail.setDisplayNameKey(authMethod.getDisplayNameKey());
+        userAuthMethodDetail.setHasMobileToken(authMethod.getHasMobileToken());
+        userAuthMethodDetail.getConfig().putAll(config);
+        return userAuthMethodDetail;
+    }
+
+    /**
+     * Check whether a cache entry is expired.
+     * @param timestampCreated Timestamp when the entry was created in milliseconds.
+     * @return Whether the cache entry is expired.
+     */
+    private boolean isExpired(long timestampCreated) {
+        return System.currentTimeMillis() - timestampCreated > nextStepServerConfiguration.getAuthMethodCacheTimeToLive();
+    }
+
+    /**
+     * Count eviction of cached authentication methods of a user.
+     * @param cause Cause of the removal from cache.
+     */
+    private void countEviction(RemovalCause cause) {
+        switch (cause) {
+            case SIZE -> sizeEvictionCounter.increment();
+            case EXPIRED -> expiredEvictionCounter.increment();
+            case EXPLICIT -> invalidatedEvictionCounter.increment();
+            default -> {
+                // Replaced and collected entries are not counted as evictions
+            }
+        }
+    }
+
+    /**
+     * Get approximate number of users with cached authentication methods.
+     * @return Number of users with cached authentication methods.
+     */
+    private long size() {
+        return userCache.estimatedSize();
+    }
+
+    /**
+     * Get invalidation stripe for a user ID.
+     * @param userId User ID.
+     * @return Invalidation stripe.
+     */
+    private int stripe(String userId) {
+        return Math.floorMod(userId.hashCode(), INVALIDATION_STRIPE_COUNT);
+    }
+
+    /**
+     * Cached authentication method catalogue.
+     * @param authMethods Authentication methods.
+     * @param timestampCreated Timestamp when the entry was created in milliseconds.
+     */
+    private record CatalogueEntry(List<AuthMethodDetail> authMethods, long timestampCreated) {
+    }
+
+}
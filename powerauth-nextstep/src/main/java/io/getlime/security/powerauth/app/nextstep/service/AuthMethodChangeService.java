@@ -124,7 +124,7 @@ public class AuthMethodChangeService {
             logger.info("Set chosen authentication method failed for operation ID: {}, authentication method: {}", request.getOperationId(), request.getTargetAuthMethod());
             return response;
         }
-        final OperationEntity operation = operationRepository.findById(operationId).orElseThrow(() ->
+        final OperationEntity operation = operationRepository.findWithHistoryByOperationId(operationId).orElseThrow(() ->
                 new OperationNotFoundException("Operation not found, operation ID: " + operationId));
         if (operation.getResult() != AuthResult.CONTINUE) {
             // Invalid request - authentication method choice expects a CONTINUE operation result
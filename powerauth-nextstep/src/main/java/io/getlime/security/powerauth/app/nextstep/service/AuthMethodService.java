@@ -18,7 +18,6 @@
 package io.getlime.security.powerauth.app.nextstep.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.MapType;
 import com.wultra.core.audit.base.Audit;
 import com.wultra.core.audit.base.model.AuditDetail;
 import io.getlime.security.powerauth.app.nextstep.repository.AuthMethodRepository;
@@ -33,6 +32,7 @@ import io.getlime.security.powerauth.app.nextstep.repository.model.entity.UserPr
 import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.AuthMethodDetail;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.UserAuthMethodDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.*;
 import io.getlime.security.powerauth.lib.nextstep.model.request.CreateAuthMethodRequest;
@@ -107,6 +107,8 @@ public class AuthMethodService {
         authMethod.setDisplayNameKey(request.getDisplayNameKey());
         authMethod.setHasMobileToken(request.getHasMobileToken());
         authMethod = authMethodRepository.save(authMethod);
+        serviceCatalogue.getAuthMethodCacheService().invalidateAll();
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.AUTH_METHOD);
         logger.debug("Authentication method was created: {}", authMethod.getAuthMethod());
         audit.info("Authentication method was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -127,73 +129,26 @@ public class AuthMethodService {
     }
 
     /**
-     * Lists all authentication methods supported by the Next Step server.
+     * Lists all authentication methods supported by the Next Step server. The authentication methods are served
+     * from the in-memory authentication method catalogue.
      *
      * @return List of all authentication methods.
      */
-    @Transactional
     public List<AuthMethodDetail> listAuthMethods() {
-        final AuthMethodRepository authMethodRepository = repositoryCatalogue.getAuthMethodRepository();
-        final List<AuthMethodDetail> allMethods = new ArrayList<>();
-        final List<AuthMethodEntity> authMethodList = authMethodRepository.findAllAuthMethods();
-        for (AuthMethodEntity authMethodEntity : authMethodList) {
-            allMethods.add(getAuthMethodDetail(authMethodEntity));
-        }
-        return allMethods;
+        return serviceCatalogue.getAuthMethodCacheService().getAuthMethods();
     }
 
     /**
      * List authentication methods enabled for given user. Methods which can be enabled/disabled are retrieved from
-     * user preferences. All other methods are enabled.
+     * user preferences. All other methods are enabled. The parsed authentication methods are cached per user,
+     * the returned list must not be modified.
      *
      * @param userId User ID
      * @return List of authentication methods enabled for given user.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      */
-    @Transactional
     public List<UserAuthMethodDetail> listAuthMethodsEnabledForUser(String userId) throws InvalidConfigurationException {
-        final AuthMethodRepository authMethodRepository = repositoryCatalogue.getAuthMethodRepository();
-        final UserPrefsRepository userPrefsRepository = repositoryCatalogue.getUserPrefsRepository();
-        final List<UserAuthMethodDetail> enabledMethods = new ArrayList<>();
-        final List<AuthMethodEntity> authMethodList = authMethodRepository.findAllAuthMethods();
-        UserPrefsEntity userPrefs = null;
-        if (userId != null) {
-            // read user prefs only when user ID is not null, for some authentication methods user ID is not known
-            userPrefs = userPrefsRepository.findUserPrefs(userId);
-        }
-        for (AuthMethodEntity authMethodEntity : authMethodList) {
-            if (authMethodEntity.getCheckUserPrefs()) {
-                // methods with user prefs require special handling
-                if (userPrefs != null) {
-                    // get status of methods with user prefs
-                    if (userPrefs.getAuthMethodEnabled(authMethodEntity.getUserPrefsColumn())) {
-                        // read configuration of method from user prefs
-                        final String config = userPrefs.getAuthMethodConfig(authMethodEntity.getUserPrefsColumn());
-                        Map<String, String> configMap;
-                        try {
-                            final MapType mapType = objectMapper.getTypeFactory().constructMapType(Map.class, String.class, String.class);
-                            configMap = objectMapper.readValue(config, mapType);
-                        } catch (IOException e) {
-                            logger.error("Error while deserializing config", e);
-                            audit.error("Error while deserializing config", e);
-                            configMap = new HashMap<>();
-                        }
-                        // add method in case it is enabled in user prefs
-                        enabledMethods.add(getUserAuthMethodDetail(userId, authMethodEntity, configMap));
-                    }
-                } else {
-                    // user prefs are not set - resolve methods with user prefs by their default value
-                    if (authMethodEntity.getUserPrefsDefault()) {
-                        // add method in case it is enabled by default
-                        enabledMethods.add(getUserAuthMethodDetail(userId, authMethodEntity, Collections.emptyMap()));
-                    }
-                }
-            } else {
-                // add all methods without user prefs
-                enabledMethods.add(getUserAuthMethodDetail(userId, authMethodEntity, Collections.emptyMap()));
-            }
-        }
-        return enabledMethods;
+        return serviceCatalogue.getAuthMethodCacheService().getUserAuthMethods(userId);
     }
 
     /**
@@ -267,6 +222,7 @@ public class AuthMethodService {
         }
         // finally save created or updated userPrefs
         userPrefsRepository.save(userPrefs);
+        serviceCatalogue.getAuthMethodCacheService().invalidateUser(userId);
         logger.debug("User preferences were updated for user: {}, authentication method: {}", userId, authMethod);
         audit.info("User preferences were updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -343,6 +299,8 @@ public class AuthMethodService {
             throw new DeleteNotAllowedException("Authentication method cannot be deleted because it is used: " + request.getAuthMethod());
         }
         authMethodRepository.delete(authMethod);
+        serviceCatalogue.getAuthMethodCacheService().invalidateAll();
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.AUTH_METHOD);
         logger.debug("Authentication method was deleted: {}", authMethod.getAuthMethod());
         audit.info("Authentication method was deleted", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -353,50 +311,4 @@ public class AuthMethodService {
         return response;
     }
 
-
-    /**
-     * Converts AuthMethodEntity into AuthMethodDetail which contains less fields available for the UI.
-     *
-     * @param authMethodEntity entity representing the authentication method.
-     * @return Authentication method detail.
-     */
-    private AuthMethodDetail getAuthMethodDetail(AuthMethodEntity authMethodEntity) {
-        if (authMethodEntity == null) {
-            return null;
-        }
-        final AuthMethodDetail authMethodDetail = new AuthMethodDetail();
-        authMethodDetail.setAuthMethod(authMethodEntity.getAuthMethod());
-        authMethodDetail.setOrderNumber(authMethodEntity.getOrderNumber());
-        authMethodDetail.setCheckUserPrefs(authMethodEntity.getCheckUserPrefs());
-        authMethodDetail.setUserPrefsColumn(authMethodEntity.getUserPrefsColumn());
-        authMethodDetail.setUserPrefsDefault(authMethodEntity.getUserPrefsDefault());
-        authMethodDetail.setCheckAuthFails(authMethodEntity.getCheckAuthFails());
-        authMethodDetail.setMaxAuthFails(authMethodEntity.getMaxAuthFails());
-        authMethodDetail.setHasUserInterface(authMethodEntity.getHasUserInterface());
-        authMethodDetail.setDisplayNameKey(authMethodEntity.getDisplayNameKey());
-        authMethodDetail.setHasMobileToken(authMethodEntity.getHasMobileToken());
-        return authMethodDetail;
-    }
-
-    /**
-     * Converts AuthMethodEntity into UserAuthMethodDetail which contains less fields available for the UI.
-     * @param userId User ID.
-     * @param authMethodEntity Authentication method entity.
-     * @param config Authentication method configuration.
-     * @return Authentication method detail for given userId.
-     */
-    private UserAuthMethodDetail getUserAuthMethodDetail(String userId, AuthMethodEntity authMethodEntity, Map<String, String> config) {
-        if (authMethodEntity == null) {
-            return null;
-        }
-        final UserAuthMethodDetail userAuthMethodDetail = new UserAuthMethodDetail();
-        userAuthMethodDetail.setUserId(userId);
-        userAuthMethodDetail.setAuthMethod(authMethodEntity.getAuthMethod());
-        userAuthMethodDetail.setHasUserInterface(authMethodEntity.getHasUserInterface());
-        userAuthMethodDetail.setDisplayNameKey(authMethodEntity.getDisplayNameKey());
-        userAuthMethodDetail.setHasMobileToken(authMethodEntity.getHasMobileToken());
-        userAuthMethodDetail.getConfig().putAll(config);
-        return userAuthMethodDetail;
-    }
-
 }
@@ -90,7 +90,8 @@ public class AuthenticationService {
     }
 
     /**
-     * Authenticate user with a credential.
+     * Authenticate user with a credential. In case the credential definition is proxied through Data Adapter,
+     * the authentication is performed by Data Adapter without holding a database transaction.
      *
      * @param request Credential authentication request.
      * @return Credential authentication response.
@@ -106,9 +107,41 @@ public class AuthenticationService {
      * @throws AuthMethodNotFoundException Thrown when authentication method is not found.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     */
+    public CredentialAuthenticationResponse authenticateWithCredential(CredentialAuthenticationRequest request) throws CredentialDefinitionNotFoundException, UserNotFoundException, OperationNotFoundException, InvalidRequestException, CredentialNotFoundException, OperationAlreadyFinishedException, OperationAlreadyCanceledException, AuthMethodNotFoundException, OperationAlreadyFailedException, InvalidConfigurationException, OperationNotValidException, EncryptionException, CredentialHashingRejectedException {
+        final CredentialDefinitionService credentialDefinitionService = serviceCatalogue.getCredentialDefinitionService();
+        final CredentialDefinitionEntity credentialDefinition = credentialDefinitionService.findActiveCredentialDefinition(request.getCredentialName());
+        if (credentialDefinition.isDataAdapterProxyEnabled()) {
+            logger.info("Credential authentication proxied through Data Adapter, credential definition name: {}", credentialDefinition.getName());
+            // The Data Adapter is called outside of a database transaction, so that a database connection is not held during the remote call
+            return authenticateWithCredentialCustom(credentialDefinition, request.getCredentialValue(), request.getOperationId(), request.getUserId(), request.getAuthMethod());
+        }
+        // Authentication is verified by Next Step in a transaction started using the service proxy
+        return serviceCatalogue.getAuthenticationService().authenticateWithCredentialLocal(request);
+    }
+
+    /**
+     * Authenticate user with a credential verified by Next Step. The method is executed in a database transaction.
+     *
+     * @param request Credential authentication request.
+     * @return Credential authentication response.
+     * @throws CredentialDefinitionNotFoundException Thrown when credential definition is not found.
+     * @throws UserNotFoundException Thrown when user identity is not found.
+     * @throws OperationNotFoundException Thrown when operation is not found.
+     * @throws InvalidRequestException Thrown when requests is invalid.
+     * @throws CredentialNotFoundException Thrown when credential is not found.
+     * @throws OperationAlreadyFinishedException Thrown when operation is already finished.
+     * @throws OperationAlreadyCanceledException Thrown when operation is already canceled.
+     * @throws OperationAlreadyFailedException Thrown when operation is already failed.
+     * @throws OperationNotValidException Thrown when operation is not valid.
+     * @throws AuthMethodNotFoundException Thrown when authentication method is not found.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional
-    public CredentialAuthenticationResponse authenticateWithCredential(CredentialAuthenticationRequest request) throws CredentialDefinitionNotFoundException, UserNotFoundException, OperationNotFoundException, InvalidRequestException, CredentialNotFoundException, OperationAlreadyFinishedException, OperationAlreadyCanceledException, AuthMethodNotFoundException, OperationAlreadyFailedException, InvalidConfigurationException, OperationNotValidException, EncryptionException {
+    public CredentialAuthenticationResponse authenticateWithCredentialLocal(CredentialAuthenticationRequest request) throws CredentialDefinitionNotFoundException, UserNotFoundException, OperationNotFoundException, InvalidRequestException, CredentialNotFoundException, OperationAlreadyFinishedException, OperationAlreadyCanceledException, AuthMethodNotFoundException, OperationAlreadyFailedException, InvalidConfigurationException, OperationNotValidException, EncryptionException, CredentialHashingRejectedException {
         final CredentialDefinitionService credentialDefinitionService = serviceCatalogue.getCredentialDefinitionService();
         final EndToEndEncryptionService endToEndEncryptionService = serviceCatalogue.getEndToEndEncryptionService();
         final UserIdentityLookupService userIdentityLookupService = serviceCatalogue.getUserIdentityLookupService();
@@ -118,10 +151,6 @@ public class AuthenticationService {
         final IdGeneratorService idGeneratorService = serviceCatalogue.getIdGeneratorService();
 
         final CredentialDefinitionEntity credentialDefinition = credentialDefinitionService.findActiveCredentialDefinition(request.getCredentialName());
-        if (credentialDefinition.isDataAdapterProxyEnabled()) {
-            logger.info("Credential authentication proxied through Data Adapter, credential definition name: {}", credentialDefinition.getName());
-            return authenticateWithCredentialCustom(credentialDefinition, request.getCredentialValue(), request.getOperationId(), request.getUserId(), request.getAuthMethod());
-        }
         String credentialValue = request.getCredentialValue();
         if (credentialDefinition.isE2eEncryptionEnabled()) {
             credentialValue = endToEndEncryptionService.decryptCredential(credentialValue, credentialDefinition);
@@ -287,7 +316,8 @@ public class AuthenticationService {
     }
 
     /**
-     * Authenticate with OTP.
+     * Authenticate with OTP. In case the OTP definition is proxied through Data Adapter, the authentication
+     * is performed by Data Adapter without holding a database transaction.
      *
      * @param request Authentication with OTP request.
      * @return Authentication with OTP response.
@@ -303,8 +333,35 @@ public class AuthenticationService {
      * @throws AuthMethodNotFoundException Thrown when authentication method is not found.
      * @throws EncryptionException Thrown when decryption fails.
      */
-    @Transactional
     public OtpAuthenticationResponse authenticateWithOtp(OtpAuthenticationRequest request) throws OtpNotFoundException, OperationNotFoundException, InvalidRequestException, CredentialNotFoundException, OperationAlreadyCanceledException, OperationAlreadyFinishedException, InvalidConfigurationException, AuthMethodNotFoundException, OperationAlreadyFailedException, OperationNotValidException, EncryptionException {
+        final OtpService otpService = serviceCatalogue.getOtpService();
+        final OtpEntity otp = otpService.findOtp(request.getOtpId(), request.getOperationId());
+        if (otp.getOtpDefinition().isDataAdapterProxyEnabled()) {
+            logger.info("OTP authentication proxied through Data Adapter, OTP ID: {}", otp.getOtpId());
+            return authenticateWithOtpCustom(otp.getOtpDefinition(), otp.getOtpId(), request.getOtpValue(), otp.getOperation().getOperationId(), request.isUpdateOperation(), otp.getUserId(), request.getAuthMethod());
+        }
+        return serviceCatalogue.getAuthenticationService().authenticateWithOtpLocal(request);
+    }
+
+    /**
+     * Authenticate with OTP verified by Next Step. The method is executed in a database transaction.
+     *
+     * @param request Authentication with OTP request.
+     * @return Authentication with OTP response.
+     * @throws OtpNotFoundException Thrown when OTP is not found.
+     * @throws OperationNotFoundException Thrown when operation is not found.
+     * @throws InvalidRequestException Thrown when request is invalid.
+     * @throws CredentialNotFoundException Thrown when credential is not found.
+     * @throws OperationAlreadyCanceledException Thrown when operation is already canceled.
+     * @throws OperationAlreadyFinishedException Thrown when operation is already finished.
+     * @throws OperationAlreadyFailedException Thrown when operation is already failed.
+     * @throws OperationNotValidException Thrown when operation is not valid.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws AuthMethodNotFoundException Thrown when authentication method is not found.
+     * @throws EncryptionException Thrown when decryption fails.
+     */
+    @Transactional
+    public OtpAuthenticationResponse authenticateWithOtpLocal(OtpAuthenticationRequest request) throws OtpNotFoundException, OperationNotFoundException, InvalidRequestException, CredentialNotFoundException, OperationAlreadyCanceledException, OperationAlreadyFinishedException, InvalidConfigurationException, AuthMethodNotFoundException, OperationAlreadyFailedException, OperationNotValidException, EncryptionException {
         final OtpService otpService = serviceCatalogue.getOtpService();
         final UserIdentityLookupService userIdentityLookupService = serviceCatalogue.getUserIdentityLookupService();
         final OperationPersistenceService operationPersistenceService = serviceCatalogue.getOperationPersistenceService();
@@ -313,10 +370,6 @@ public class AuthenticationService {
         final IdGeneratorService idGeneratorService = serviceCatalogue.getIdGeneratorService();
 
         final OtpEntity otp = otpService.findOtp(request.getOtpId(), request.getOperationId());
-        if (otp.getOtpDefinition().isDataAdapterProxyEnabled()) {
-            logger.info("OTP authentication proxied through Data Adapter, OTP ID: {}", otp.getOtpId());
-            return authenticateWithOtpCustom(otp.getOtpDefinition(), otp.getOtpId(), request.getOtpValue(), otp.getOperation().getOperationId(), request.isUpdateOperation(), otp.getUserId(), request.getAuthMethod());
-        }
         otp.setAttemptCounter(otp.getAttemptCounter() + 1);
         // User ID uses String reference in entity to allow OTP for users not present in Next Step.
         // Empty user ID is allowed for unknown identities.
@@ -518,7 +571,8 @@ public class AuthenticationService {
     }
 
     /**
-     * Combined authentication with credential and OTP.
+     * Combined authentication with credential and OTP. In case the OTP definition is proxied through Data Adapter,
+     * the authentication is performed by Data Adapter without holding a database transaction.
      * @param request Combined authentication request.
      * @return Combined authentication response.
      * @throws UserNotFoundException Thrown when user is not found.
@@ -533,9 +587,41 @@ public class AuthenticationService {
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws AuthMethodNotFoundException Thrown when authentication method is not found.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     */
+    public CombinedAuthenticationResponse authenticateCombined(CombinedAuthenticationRequest request) throws UserNotFoundException, OperationNotFoundException, InvalidRequestException, CredentialNotFoundException, OtpNotFoundException, OperationAlreadyCanceledException, OperationAlreadyFinishedException, InvalidConfigurationException, AuthMethodNotFoundException, OperationAlreadyFailedException, OperationNotValidException, EncryptionException, CredentialHashingRejectedException {
+        final OtpService otpService = serviceCatalogue.getOtpService();
+        final OtpEntity otp = otpService.findOtp(request.getOtpId(), request.getOperationId());
+        if (otp.getCredentialDefinition() == null || otp.getCredentialDefinition().getName() == null) {
+            throw new InvalidRequestException("Credential definition is not set for operation with OTP Id and Operation Id: " + request.getOtpId() + ", " + request.getOperationId());
+        }
+        if (otp.getOtpDefinition().isDataAdapterProxyEnabled()) {
+            logger.info("Combined authentication proxied through Data Adapter, OTP ID: {}", request.getOtpId());
+            return authenticateCombinedCustom(otp.getCredentialDefinition(), otp.getOtpId(), request.getOtpValue(), request.getCredentialValue(), otp.getOperation().getOperationId(), otp.getUserId(), request.getAuthMethod());
+        }
+        return serviceCatalogue.getAuthenticationService().authenticateCombinedLocal(request);
+    }
+
+    /**
+     * Combined authentication with credential and OTP verified by Next Step. The method is executed in a database transaction.
+     * @param request Combined authentication request.
+     * @return Combined authentication response.
+     * @throws UserNotFoundException Thrown when user is not found.
+     * @throws OperationNotFoundException Thrown when operation is not found.
+     * @throws InvalidRequestException Thrown when request is invalid.
+     * @throws CredentialNotFoundException Thrown when credential is not found.
+     * @throws OtpNotFoundException Thrown when OTP is not found.
+     * @throws OperationAlreadyCanceledException Thrown when operation is already canceled.
+     * @throws OperationAlreadyFinishedException Thrown when operation is already finished.
+     * @throws OperationAlreadyFailedException Thrown when operation is already failed.
+     * @throws OperationNotValidException Thrown when operation is not valid.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws AuthMethodNotFoundException Thrown when authentication method is not found.
+     * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional
-    public CombinedAuthenticationResponse authenticateCombined(CombinedAuthenticationRequest request) throws UserNotFoundException, OperationNotFoundException, InvalidRequestException, CredentialNotFoundException, OtpNotFoundException, OperationAlreadyCanceledException, OperationAlreadyFinishedException, InvalidConfigurationException, AuthMethodNotFoundException, OperationAlreadyFailedException, OperationNotValidException, EncryptionException {
+    public CombinedAuthenticationResponse authenticateCombinedLocal(CombinedAuthenticationRequest request) throws UserNotFoundException, OperationNotFoundException, InvalidRequestException, CredentialNotFoundException, OtpNotFoundException, OperationAlreadyCanceledException, OperationAlreadyFinishedException, InvalidConfigurationException, AuthMethodNotFoundException, OperationAlreadyFailedException, OperationNotValidException, EncryptionException, CredentialHashingRejectedException {
         final OtpService otpService = serviceCatalogue.getOtpService();
         final EndToEndEncryptionService endToEndEncryptionService = serviceCatalogue.getEndToEndEncryptionService();
         final UserIdentityLookupService userIdentityLookupService = serviceCatalogue.getUserIdentityLookupService();
@@ -548,10 +634,6 @@ public class AuthenticationService {
         if (otp.getCredentialDefinition() == null || otp.getCredentialDefinition().getName() == null) {
             throw new InvalidRequestException("Credential definition is not set for operation with OTP Id and Operation Id: " + request.getOtpId() + ", " + request.getOperationId());
         }
-        if (otp.getOtpDefinition().isDataAdapterProxyEnabled()) {
-            logger.info("Combined authentication proxied through Data Adapter, OTP ID: {}", request.getOtpId());
-            return authenticateCombinedCustom(otp.getCredentialDefinition(), otp.getOtpId(), request.getOtpValue(), request.getCredentialValue(), otp.getOperation().getOperationId(), otp.getUserId(), request.getAuthMethod());
-        }
         otp.setAttemptCounter(otp.getAttemptCounter() + 1);
 
         final UserIdentityEntity user = userIdentityLookupService.findUser(request.getUserId());
@@ -807,10 +889,12 @@ public class AuthenticationService {
      * @throws InvalidRequestException Thrown when request is invalid.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     private AuthenticationResult verifyCredential(CredentialAuthenticationMode authenticationMode,
                                                   CredentialEntity credential, String credentialValue,
-                                                  List<Integer> credentialPositionsToVerify) throws InvalidRequestException, InvalidConfigurationException, EncryptionException {
+                                                  List<Integer> credentialPositionsToVerify) throws InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final CredentialProtectionService credentialProtectionService = serviceCatalogue.getCredentialProtectionService();
         if (credential.getStatus() != CredentialStatus.ACTIVE) {
             logger.info("Credential verification failed, user ID: {}, credential definition name: {}, status: {}", credential.getUser().getUserId(), credential.getCredentialDefinition().getName(), credential.getStatus());
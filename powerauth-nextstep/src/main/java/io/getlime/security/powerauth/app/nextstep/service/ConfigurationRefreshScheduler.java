@@ -0,0 +1,67 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Scheduled job which reloads in-memory configuration changed on any node of the cluster. Unlike other scheduled
+ * jobs, the job runs on each node of the cluster, so it does not use a scheduler lock.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+@ConditionalOnProperty(name = "powerauth.nextstep.configuration.refresh.enabled", havingValue = "true")
+public class ConfigurationRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationRefreshScheduler.class);
+
+    private final ServiceCatalogue serviceCatalogue;
+
+    /**
+     * Configuration refresh scheduler constructor.
+     * @param serviceCatalogue Service catalogue.
+     */
+    @Autowired
+    public ConfigurationRefreshScheduler(@Lazy ServiceCatalogue serviceCatalogue) {
+        this.serviceCatalogue = serviceCatalogue;
+    }
+
+    /**
+     * Scheduled job which reloads changed configuration.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.nextstep.configuration.refresh.fixedDelay}")
+    public void refreshConfigurationTask() {
+        try {
+            final int count = serviceCatalogue.getConfigurationVersionService().refreshConfiguration();
+            if (count > 0) {
+                logger.info("Configuration refresh finished, number of reloaded configurations: {}", count);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Configuration refresh failed, error: {}", ex.getMessage(), ex);
+        }
+    }
+
+}
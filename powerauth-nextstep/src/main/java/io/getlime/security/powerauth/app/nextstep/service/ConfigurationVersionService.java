@@ -0,0 +1,124 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.repository.ConfigurationVersionRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.*;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This service keeps in-memory configuration of Next Step consistent across nodes of the cluster. Each change
+ * of the configuration increments the configuration version in the same transaction as the change itself.
+ * All nodes periodically compare the versions stored in the database with the versions of their in-memory
+ * configuration and they reload the configuration which changed. Definitions held in the second-level cache
+ * are evicted from the cache instead of being reloaded.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class ConfigurationVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationVersionService.class);
+
+    /**
+     * Entities held in the second-level cache which are evicted when definitions are changed.
+     */
+    private static final List<Class<?>> DEFINITION_ENTITIES = List.of(ApplicationEntity.class, OrganizationEntity.class,
+            RoleEntity.class, CredentialDefinitionEntity.class, CredentialPolicyEntity.class, HashConfigEntity.class,
+            OtpDefinitionEntity.class, OtpPolicyEntity.class);
+
+    private final ConfigurationVersionRepository configurationVersionRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ConfigurationVersionTracker configurationVersionTracker;
+
+    /**
+     * Configuration version service constructor.
+     * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
+     * @param entityManagerFactory Entity manager factory.
+     */
+    @Autowired
+    public ConfigurationVersionService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, EntityManagerFactory entityManagerFactory) {
+        this.configurationVersionRepository = repositoryCatalogue.getConfigurationVersionRepository();
+        this.entityManagerFactory = entityManagerFactory;
+        final Map<ConfigurationType, Runnable> reloadActions = new EnumMap<>(ConfigurationType.class);
+        reloadActions.put(ConfigurationType.STEP_DEFINITION, () -> serviceCatalogue.getStepResolutionService().reloadStepDefinitions());
+        reloadActions.put(ConfigurationType.OPERATION_CONFIG, () -> serviceCatalogue.getOperationConfigurationService().reloadOperationConfigurations());
+        reloadActions.put(ConfigurationType.AUTH_METHOD, () -> {
+            evictEntities(List.of(AuthMethodEntity.class));
+            serviceCatalogue.getAuthMethodCacheService().invalidateAll();
+        });
+        reloadActions.put(ConfigurationType.DEFINITION, () -> evictEntities(DEFINITION_ENTITIES));
+        this.configurationVersionTracker = new ConfigurationVersionTracker(configurationVersionRepository, reloadActions);
+    }
+
+    /**
+     * Increment version of a configuration. The method must be called in the transaction which changes
+     * the configuration, so that other nodes observe the new version only after the change is committed.
+     * @param configurationType Configuration type.
+     */
+    @Transactional
+    public void incrementVersion(ConfigurationType configurationType) {
+        final Date timestamp = new Date();
+        if (configurationVersionRepository.incrementVersion(configurationType, timestamp) == 0) {
+            // The version record is created by the database scripts, it is created lazily for an empty database
+            final ConfigurationVersionEntity configurationVersion = new ConfigurationVersionEntity();
+            configurationVersion.setConfigurationType(configurationType);
+            configurationVersion.setVersion(1L);
+            configurationVersion.setTimestampLastUpdated(timestamp);
+            configurationVersionRepository.save(configurationVersion);
+        }
+        logger.debug("Configuration version was incremented, configuration type: {}", configurationType);
+    }
+
+    /**
+     * Reload in-memory configuration which was changed on any node of the cluster.
+     * @return Number of reloaded configurations.
+     */
+    public int refreshConfiguration() {
+        return configurationVersionTracker.refresh();
+    }
+
+    /**
+     * Evict entities from the second-level cache. Cached query results are evicted, too, because they could
+     * reference removed entities.
+     * @param entityClasses Entity classes.
+     */
+    private void evictEntities(List<Class<?>> entityClasses) {
+        final Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        entityClasses.forEach(cache::evictEntityData);
+        cache.evictQueryRegions();
+    }
+
+}
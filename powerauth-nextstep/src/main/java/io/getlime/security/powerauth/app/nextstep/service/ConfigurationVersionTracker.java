@@ -0,0 +1,84 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.repository.ConfigurationVersionRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.ConfigurationVersionEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tracker of configuration versions which were loaded by a single node. When the version of a configuration stored
+ * in the database differs from the loaded version, the configuration is reloaded using the registered reload action.
+ * <p>
+ * All configurations are reloaded during the first refresh, because changes of the configuration performed between
+ * loading of the configuration and creating the tracker would not be detected otherwise.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public final class ConfigurationVersionTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationVersionTracker.class);
+
+    private final ConfigurationVersionRepository configurationVersionRepository;
+    private final Map<ConfigurationType, Runnable> reloadActions;
+    private final Map<ConfigurationType, Long> loadedVersions = new EnumMap<>(ConfigurationType.class);
+
+    /**
+     * Configuration version tracker constructor.
+     * @param configurationVersionRepository Configuration version repository.
+     * @param reloadActions Reload actions for configuration types.
+     */
+    public ConfigurationVersionTracker(ConfigurationVersionRepository configurationVersionRepository, Map<ConfigurationType, Runnable> reloadActions) {
+        this.configurationVersionRepository = configurationVersionRepository;
+        this.reloadActions = new EnumMap<>(reloadActions);
+    }
+
+    /**
+     * Reload configurations whose version changed since the last refresh. Versions of all configurations are read
+     * using a single query. In case a reload fails, the configuration is reloaded again during the next refresh.
+     * @return Number of reloaded configurations.
+     */
+    public synchronized int refresh() {
+        int count = 0;
+        for (ConfigurationVersionEntity configurationVersion : configurationVersionRepository.findAll()) {
+            final ConfigurationType configurationType = configurationVersion.getConfigurationType();
+            final Runnable reloadAction = reloadActions.get(configurationType);
+            final Long loadedVersion = loadedVersions.get(configurationType);
+            if (reloadAction == null || (loadedVersion != null && loadedVersion == configurationVersion.getVersion())) {
+                continue;
+            }
+            try {
+                // The version is read before the reload, the reloaded configuration is at least as recent as the version
+                reloadAction.run();
+                loadedVersions.put(configurationType, configurationVersion.getVersion());
+                count++;
+                logger.debug("Configuration was reloaded, configuration type: {}, version: {}", configurationType, configurationVersion.getVersion());
+            } catch (RuntimeException ex) {
+                logger.warn("Configuration reload failed, configuration type: {}, error: {}", configurationType, ex.getMessage());
+                logger.debug(ex.getMessage(), ex);
+            }
+        }
+        return count;
+    }
+
+}
@@ -23,8 +23,10 @@ import io.getlime.security.powerauth.app.nextstep.converter.CredentialDefinition
 import io.getlime.security.powerauth.app.nextstep.repository.*;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.*;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.CredentialDefinitionDetail;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ApplicationStatus;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialDefinitionStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialPolicyStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.HashConfigStatus;
@@ -40,6 +42,7 @@ import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateCredentia
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -62,6 +65,7 @@ public class CredentialDefinitionService {
     private final ApplicationRepository applicationRepository;
     private final HashConfigRepository hashConfigRepository;
     private final OrganizationRepository organizationRepository;
+    private final ServiceCatalogue serviceCatalogue;
     private final Audit audit;
 
     private final CredentialDefinitionConverter credentialDefinitionConverter = new CredentialDefinitionConverter();
@@ -69,15 +73,17 @@ public class CredentialDefinitionService {
     /**
      * Credential definition service constructor.
      * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
      * @param audit Audit interface.
      */
     @Autowired
-    public CredentialDefinitionService(RepositoryCatalogue repositoryCatalogue, Audit audit) {
+    public CredentialDefinitionService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, Audit audit) {
         this.credentialDefinitionRepository = repositoryCatalogue.getCredentialDefinitionRepository();
         this.credentialPolicyRepository = repositoryCatalogue.getCredentialPolicyRepository();
         this.applicationRepository = repositoryCatalogue.getApplicationRepository();
         this.hashConfigRepository = repositoryCatalogue.getHashConfigRepository();
         this.organizationRepository = repositoryCatalogue.getOrganizationRepository();
+        this.serviceCatalogue = serviceCatalogue;
         this.audit = audit;
     }
 
@@ -142,6 +148,7 @@ public class CredentialDefinitionService {
         credentialDefinition.setDataAdapterProxyEnabled(request.isDataAdapterProxyEnabled());
         credentialDefinition.setTimestampCreated(new Date());
         credentialDefinition = credentialDefinitionRepository.save(credentialDefinition);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Credential definition was created, credential definition ID: {}, credential definition name: {}", credentialDefinition.getCredentialDefinitionId(), credentialDefinition.getName());
         audit.info("Credential definition was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -227,6 +234,7 @@ public class CredentialDefinitionService {
         credentialDefinition.setDataAdapterProxyEnabled(request.isDataAdapterProxyEnabled());
         credentialDefinition.setTimestampLastUpdated(new Date());
         credentialDefinition = credentialDefinitionRepository.save(credentialDefinition);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Credential definition was updated, credential definition ID: {}, credential definition name: {}", credentialDefinition.getCredentialDefinitionId(), credentialDefinition.getName());
         audit.info("Credential definition was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -293,6 +301,7 @@ public class CredentialDefinitionService {
         credentialDefinition.setStatus(CredentialDefinitionStatus.REMOVED);
         credentialDefinition.setTimestampLastUpdated(new Date());
         credentialDefinition = credentialDefinitionRepository.save(credentialDefinition);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Credential definition was removed, credential definition ID: {}, credential definition name: {}", credentialDefinition.getCredentialDefinitionId(), credentialDefinition.getName());
         audit.info("Credential definition was removed", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -28,6 +28,8 @@ import io.getlime.security.powerauth.app.nextstep.repository.model.entity.Creden
 import io.getlime.security.powerauth.lib.nextstep.model.entity.CredentialGenerationParam;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.UsernameGenerationParam;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigurationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.passay.CharacterData;
 import org.passay.CharacterRule;
 import org.passay.EnglishCharacterData;
@@ -39,8 +41,11 @@ import org.springframework.stereotype.Service;
 import java.math.BigInteger;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * This service handles generation of credentials.
@@ -56,15 +61,32 @@ public class CredentialGenerationService {
     private final NextStepServerConfiguration nextStepServerConfiguration;
 
     private final ParameterConverter parameterConverter = new ParameterConverter();
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final Counter usernameCandidateUniqueCounter;
+    private final Counter usernameCandidateCollisionCounter;
+    private final Counter usernameGenerationFailedCounter;
 
     /**
      * Credential generation service constructor.
      * @param repositoryCatalogue Repository catalogue.
      * @param nextStepServerConfiguration Next Step server configuration.
+     * @param meterRegistry Meter registry.
      */
-    public CredentialGenerationService(RepositoryCatalogue repositoryCatalogue, NextStepServerConfiguration nextStepServerConfiguration) {
+    public CredentialGenerationService(RepositoryCatalogue repositoryCatalogue, NextStepServerConfiguration nextStepServerConfiguration, MeterRegistry meterRegistry) {
         this.credentialRepository = repositoryCatalogue.getCredentialRepository();
         this.nextStepServerConfiguration = nextStepServerConfiguration;
+        this.usernameCandidateUniqueCounter = Counter.builder("powerauth.nextstep.credential.username.candidates")
+                .tag("result", "unique")
+                .description("Number of generated username candidates which were not used yet")
+                .register(meterRegistry);
+        this.usernameCandidateCollisionCounter = Counter.builder("powerauth.nextstep.credential.username.candidates")
+                .tag("result", "collision")
+                .description("Number of generated username candidates which were already used")
+                .register(meterRegistry);
+        this.usernameGenerationFailedCounter = Counter.builder("powerauth.nextstep.credential.username.generation.failed")
+                .description("Number of username generations which failed because all attempts were exhausted")
+                .register(meterRegistry);
     }
 
     /**
@@ -149,24 +171,15 @@ public class CredentialGenerationService {
             throw new InvalidConfigurationException(ex);
         }
         final int length = param.getLength();
-        final SecureRandom secureRandom = new SecureRandom();
-        final int generateUsernameMaxAttempts = nextStepServerConfiguration.getGenerateUsernameMaxAttempts();
-        for (int i = 0; i < generateUsernameMaxAttempts; i++) {
-            final BigInteger bound = BigInteger.valueOf(Math.round(Math.pow(10, length)));
-            final BigInteger randomNumber = new BigInteger(bound.bitLength(), secureRandom).mod(bound);
-            final String username = randomNumber.toString();
+        final BigInteger bound = BigInteger.valueOf(Math.round(Math.pow(10, length)));
+        return generateUniqueUsername(credentialDefinition, () -> {
+            final String username = new BigInteger(bound.bitLength(), secureRandom).mod(bound).toString();
             if (username.length() < length) {
                 // This can happen with leading zeros
-                continue;
-            }
-            final Optional<CredentialEntity> credentialOptional = credentialRepository.findByCredentialDefinitionAndUsernameIgnoreCase(credentialDefinition, username);
-            if (credentialOptional.isPresent()) {
-                // Username is already taken
-                continue;
+                return null;
             }
             return username;
-        }
-        throw new InvalidConfigurationException("Username could not be generated, all attempts failed");
+        });
     }
 
     /**
@@ -184,22 +197,52 @@ public class CredentialGenerationService {
             throw new InvalidConfigurationException(ex);
         }
         final int length = param.getLength();
-        final SecureRandom secureRandom = new SecureRandom();
-        final int generateUsernameMaxAttempts = nextStepServerConfiguration.getGenerateUsernameMaxAttempts();
-        for (int i = 0; i < generateUsernameMaxAttempts; i++) {
+        return generateUniqueUsername(credentialDefinition, () -> {
             final StringBuilder usernameBuilder = new StringBuilder();
             for (int j = 0; j < length; j++) {
                 final char c = (char) (secureRandom.nextInt(26) + 'a'); // username is always lowercase
                 usernameBuilder.append(c);
             }
-            final String username = usernameBuilder.toString();
-            final Optional<CredentialEntity> credentialOptional = credentialRepository.findByCredentialDefinitionAndUsernameIgnoreCase(credentialDefinition, username);
-            if (credentialOptional.isPresent()) {
-                // Username is already taken
+            return usernameBuilder.toString();
+        });
+    }
+
+    /**
+     * Generate a username which is not used yet for given credential definition. Username candidates are generated
+     * in batches, each batch is checked for uniqueness using a single database query.
+     * @param credentialDefinition Credential definition.
+     * @param candidateGenerator Generator of lowercase username candidates, null value represents a rejected candidate.
+     * @return Generated username.
+     * @throws InvalidConfigurationException Thrown when all attempts to generate the username failed.
+     */
+    private String generateUniqueUsername(CredentialDefinitionEntity credentialDefinition, Supplier<String> candidateGenerator) throws InvalidConfigurationException {
+        final int generateUsernameMaxAttempts = nextStepServerConfiguration.getGenerateUsernameMaxAttempts();
+        final int batchSize = Math.max(1, nextStepServerConfiguration.getGenerateUsernameBatchSize());
+        int attempts = 0;
+        while (attempts < generateUsernameMaxAttempts) {
+            final int candidateCount = Math.min(batchSize, generateUsernameMaxAttempts - attempts);
+            final Set<String> candidates = new LinkedHashSet<>();
+            for (int i = 0; i < candidateCount; i++) {
+                final String candidate = candidateGenerator.get();
+                if (candidate != null) {
+                    candidates.add(candidate);
+                }
+            }
+            attempts += candidateCount;
+            if (candidates.isEmpty()) {
                 continue;
             }
-            return username;
+            final Set<String> usedUsernames = new HashSet<>(credentialRepository.findUsedUsernames(credentialDefinition, candidates));
+            for (String candidate : candidates) {
+                if (usedUsernames.contains(candidate)) {
+                    usernameCandidateCollisionCounter.increment();
+                    continue;
+                }
+                usernameCandidateUniqueCounter.increment();
+                return candidate;
+            }
         }
+        usernameGenerationFailedCounter.increment();
         throw new InvalidConfigurationException("Username could not be generated, all attempts failed");
     }
 
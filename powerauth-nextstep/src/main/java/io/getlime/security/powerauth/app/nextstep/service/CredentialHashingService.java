@@ -0,0 +1,255 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.CredentialHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * This service limits the number of credential hashing tasks executed concurrently. Memory-hard hashing algorithms
+ * are executed on the calling thread once a hashing permit is acquired, so that a burst of authentication requests
+ * cannot exhaust CPU and memory with hashing. Hashing tasks are rejected immediately in case all hashing permits are
+ * taken and the number of requests waiting for a permit reached the configured limit.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class CredentialHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialHashingService.class);
+
+    private final Semaphore permits;
+    private final int queueCapacity;
+    private final int maxConcurrencyPerRequest;
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    /**
+     * Executor of helper tasks which verify credential history in parallel with the calling thread.
+     */
+    private final ThreadPoolExecutor helperExecutor;
+
+    private final Timer waitTimer;
+    private final Timer hashingTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * Credential hashing service constructor.
+     * @param nextStepServerConfiguration Next Step server configuration.
+     * @param meterRegistry Meter registry.
+     */
+    @Autowired
+    public CredentialHashingService(NextStepServerConfiguration nextStepServerConfiguration, MeterRegistry meterRegistry) {
+        final int poolSize = nextStepServerConfiguration.getCredentialHashingPoolSize() > 0
+                ? nextStepServerConfiguration.getCredentialHashingPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+        this.permits = new Semaphore(poolSize, true);
+        this.queueCapacity = Math.max(0, nextStepServerConfiguration.getCredentialHashingQueueCapacity());
+        this.maxConcurrencyPerRequest = Math.max(1, nextStepServerConfiguration.getCredentialHashingMaxConcurrencyPerRequest());
+        final AtomicInteger threadCounter = new AtomicInteger();
+        // Helper tasks are only started when a thread is available, they never wait in a queue
+        this.helperExecutor = new ThreadPoolExecutor(0, poolSize, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "credential-hashing-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.waitTimer = Timer.builder("powerauth.nextstep.credential.hashing.wait")
+                .description("Time spent by credential hashing tasks waiting for a hashing permit")
+                .register(meterRegistry);
+        this.hashingTimer = Timer.builder("powerauth.nextstep.credential.hashing.time")
+                .description("Time spent by hashing credential values")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("powerauth.nextstep.credential.hashing.rejected")
+                .description("Number of credential hashing tasks rejected due to insufficient capacity")
+                .register(meterRegistry);
+        Gauge.builder("powerauth.nextstep.credential.hashing.queue.size", waitingCount, AtomicInteger::get)
+                .description("Number of credential hashing tasks waiting for a hashing permit")
+                .register(meterRegistry);
+        Gauge.builder("powerauth.nextstep.credential.hashing.active", activeCount, AtomicInteger::get)
+                .description("Number of credential hashing tasks being executed")
+                .register(meterRegistry);
+        logger.info("Credential hashing initialized, concurrency: {}, queue capacity: {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Execute a hashing task on the calling thread once a hashing permit is acquired.
+     * @param task Hashing task.
+     * @param <T> Result type.
+     * @return Result of the hashing task.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     */
+    public <T> T execute(Supplier<T> task) throws CredentialHashingRejectedException {
+        acquire();
+        try {
+            return run(task);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Execute hashing tasks which verify a value and check whether any of the tasks succeeds. Tasks are executed
+     * by the calling thread and by helper threads in case free hashing permits are available, the number of tasks
+     * executed concurrently for a single request is limited, so that a single request cannot occupy the whole
+     * hashing capacity. Remaining tasks are skipped once a successful task is found.
+     * @param tasks Hashing tasks.
+     * @return Whether any of the tasks succeeded.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     */
+    public boolean anyMatch(List<Supplier<Boolean>> tasks) throws CredentialHashingRejectedException {
+        if (tasks.isEmpty()) {
+            return false;
+        }
+        final Queue<Supplier<Boolean>> pendingTasks = new ConcurrentLinkedQueue<>(tasks);
+        final AtomicBoolean matched = new AtomicBoolean();
+        acquire();
+        final List<Future<?>> helpers = new ArrayList<>();
+        try {
+            // Helpers only use free hashing permits, the calling thread processes remaining tasks in any case
+            while (helpers.size() < Math.min(maxConcurrencyPerRequest, tasks.size()) - 1 && permits.tryAcquire()) {
+                try {
+                    helpers.add(helperExecutor.submit(() -> {
+                        try {
+                            processTasks(pendingTasks, matched);
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException ex) {
+                    permits.release();
+                    break;
+                }
+            }
+            processTasks(pendingTasks, matched);
+        } finally {
+            permits.release();
+        }
+        // Wait for tasks which are still executed by helpers
+        for (Future<?> helper : helpers) {
+            getResult(helper);
+        }
+        return matched.get();
+    }
+
+    /**
+     * Process hashing tasks until there are no pending tasks or a successful task is found.
+     * @param pendingTasks Pending hashing tasks.
+     * @param matched Whether a successful task was found.
+     */
+    private void processTasks(Queue<Supplier<Boolean>> pendingTasks, AtomicBoolean matched) {
+        Supplier<Boolean> task;
+        while (!matched.get() && (task = pendingTasks.poll()) != null) {
+            if (Boolean.TRUE.equals(run(task))) {
+                matched.set(true);
+            }
+        }
+    }
+
+    /**
+     * Acquire a hashing permit, the calling thread waits for a permit in case the number of waiting tasks
+     * is within the queue capacity.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     */
+    private void acquire() throws CredentialHashingRejectedException {
+        final long started = System.nanoTime();
+        if (permits.tryAcquire()) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+        if (waitingCount.incrementAndGet() > queueCapacity) {
+            waitingCount.decrementAndGet();
+            rejectedCounter.increment();
+            logger.warn("Credential hashing was rejected, active tasks: {}, waiting tasks: {}", activeCount.get(), waitingCount.get());
+            throw new CredentialHashingRejectedException("Credential hashing capacity exceeded");
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Credential hashing was interrupted", ex);
+        } finally {
+            waitingCount.decrementAndGet();
+        }
+        waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Run a hashing task with measurement of hashing time, the caller must hold a hashing permit.
+     * @param task Hashing task.
+     * @param <T> Result type.
+     * @return Result of the hashing task.
+     */
+    private <T> T run(Supplier<T> task) {
+        activeCount.incrementAndGet();
+        final long started = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            hashingTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            activeCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wait for completion of a helper task and propagate its failure.
+     * @param future Future of the helper task.
+     */
+    private void getResult(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Credential hashing was interrupted", ex);
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Shut down the executor of helper tasks.
+     */
+    @PreDestroy
+    public void shutdown() {
+        helperExecutor.shutdown();
+    }
+
+}
@@ -19,6 +19,7 @@ package io.getlime.security.powerauth.app.nextstep.service;
 
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.*;
 import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.CredentialHashingRejectedException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.EncryptionException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigurationException;
 import org.slf4j.Logger;
@@ -28,7 +29,7 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
-import java.util.Set;
+import java.util.List;
 
 /**
  * This service handles persistence of credential history.
@@ -77,27 +78,23 @@ public class CredentialHistoryService {
      * @return True if credential check succeeded, false when credential check failed.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
-    public boolean checkCredentialHistory(UserIdentityEntity user, String credentialValue, CredentialDefinitionEntity credentialDefinition) throws InvalidConfigurationException, EncryptionException {
+    public boolean checkCredentialHistory(UserIdentityEntity user, String credentialValue, CredentialDefinitionEntity credentialDefinition) throws InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final CredentialProtectionService credentialProtectionService = serviceCatalogue.getCredentialProtectionService();
         final CredentialPolicyEntity credentialPolicy = credentialDefinition.getCredentialPolicy();
         final int credentialHistoryCount = credentialPolicy.getCheckHistoryCount();
         if (credentialHistoryCount == 0) {
             return true;
         }
-        int historyPassCounter = 0;
-        final Set<CredentialHistoryEntity> history = user.getCredentialHistory();
-        for (CredentialHistoryEntity h : history) {
-            final boolean matchFound = credentialProtectionService.verifyCredentialHistory(credentialValue, h);
-            if (matchFound) {
-                logger.debug("Credential history check failed for user: {}, credential definition name: {}", user.getUserId(), credentialDefinition.getName());
-                return false;
-            }
-            historyPassCounter++;
-            if (historyPassCounter == credentialHistoryCount) {
-                // Check is complete
-                break;
-            }
+        // Credential history is ordered by creation timestamp, only the latest records are checked
+        final List<CredentialHistoryEntity> history = user.getCredentialHistory().stream()
+                .limit(credentialHistoryCount)
+                .toList();
+        final boolean matchFound = credentialProtectionService.verifyCredentialHistory(credentialValue, history);
+        if (matchFound) {
+            logger.debug("Credential history check failed for user: {}, credential definition name: {}", user.getUserId(), credentialDefinition.getName());
+            return false;
         }
         logger.debug("Credential history check succeeded for user: {}, credential definition name: {}", user.getUserId(), credentialDefinition.getName());
         return true;
@@ -25,7 +25,9 @@ import io.getlime.security.powerauth.app.nextstep.converter.ParameterConverter;
 import io.getlime.security.powerauth.app.nextstep.repository.CredentialPolicyRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialPolicyEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.CredentialPolicyDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialPolicyStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.CredentialPolicyAlreadyExistsException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.CredentialPolicyNotFoundException;
@@ -42,6 +44,7 @@ import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateCredentia
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -60,6 +63,7 @@ public class CredentialPolicyService {
     private static final String AUDIT_TYPE_CONFIGURATION = "CONFIGURATION";
 
     private final CredentialPolicyRepository credentialPolicyRepository;
+    private final ServiceCatalogue serviceCatalogue;
     private final Audit audit;
 
     private final CredentialPolicyConverter credentialPolicyConverter = new CredentialPolicyConverter();
@@ -68,11 +72,13 @@ public class CredentialPolicyService {
     /**
      * Credential policy service constructor.
      * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
      * @param audit Audit interface.
      */
     @Autowired
-    public CredentialPolicyService(RepositoryCatalogue repositoryCatalogue, Audit audit) {
+    public CredentialPolicyService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, Audit audit) {
         this.credentialPolicyRepository = repositoryCatalogue.getCredentialPolicyRepository();
+        this.serviceCatalogue = serviceCatalogue;
         this.audit = audit;
     }
 
@@ -123,6 +129,7 @@ public class CredentialPolicyService {
         }
         credentialPolicy.setTimestampCreated(new Date());
         credentialPolicy = credentialPolicyRepository.save(credentialPolicy);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Credential policy was created, credential policy ID: {}, credential policy name: {}", credentialPolicy.getCredentialPolicyId(), credentialPolicy.getName());
         audit.info("Credential policy was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -210,6 +217,8 @@ public class CredentialPolicyService {
         }
         credentialPolicy.setTimestampLastUpdated(new Date());
         credentialPolicy = credentialPolicyRepository.save(credentialPolicy);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
+        serviceCatalogue.getCredentialValidationService().invalidateCredentialPolicy(credentialPolicy.getCredentialPolicyId());
         logger.debug("Credential policy was updated, credential policy ID: {}, credential policy name: {}", credentialPolicy.getCredentialPolicyId(), credentialPolicy.getName());
         audit.info("Credential policy was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -276,6 +285,8 @@ public class CredentialPolicyService {
         credentialPolicy.setStatus(CredentialPolicyStatus.REMOVED);
         credentialPolicy.setTimestampLastUpdated(new Date());
         credentialPolicy = credentialPolicyRepository.save(credentialPolicy);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
+        serviceCatalogue.getCredentialValidationService().invalidateCredentialPolicy(credentialPolicy.getCredentialPolicyId());
         logger.debug("Credential policy was removed, credential policy ID: {}, credential policy name: {}", credentialPolicy.getCredentialPolicyId(), credentialPolicy.getName());
         audit.info("Credential policy was removed", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -26,10 +26,12 @@ import io.getlime.security.powerauth.app.nextstep.repository.model.entity.Creden
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialEntity;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialHistoryEntity;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.HashConfigEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.crypto.lib.generator.KeyGenerator;
 import io.getlime.security.powerauth.crypto.lib.model.Argon2Hash;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.CredentialValue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.HashAlgorithm;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.CredentialHashingRejectedException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.EncryptionException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigurationException;
 import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
@@ -37,12 +39,16 @@ import org.bouncycastle.crypto.params.Argon2Parameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Service which secures credentials.
@@ -58,6 +64,8 @@ public class CredentialProtectionService {
 
     private final CredentialRepository credentialRepository;
     private final CredentialValueConverter credentialValueConverter;
+    private final CredentialHashingService credentialHashingService;
+    private final ServiceCatalogue serviceCatalogue;
 
     private final ParameterConverter parameterConverter = new ParameterConverter();
     private final KeyGenerator keyGenerator = new KeyGenerator();
@@ -66,11 +74,15 @@ public class CredentialProtectionService {
      * Credential protection service constructor.
      * @param repositoryCatalogue Repository catalogue.
      * @param credentialValueConverter Credential value converter.
+     * @param credentialHashingService Credential hashing service.
+     * @param serviceCatalogue Service catalogue.
      */
     @Autowired
-    public CredentialProtectionService(RepositoryCatalogue repositoryCatalogue, CredentialValueConverter credentialValueConverter) {
+    public CredentialProtectionService(RepositoryCatalogue repositoryCatalogue, CredentialValueConverter credentialValueConverter, CredentialHashingService credentialHashingService, @Lazy ServiceCatalogue serviceCatalogue) {
         this.credentialRepository = repositoryCatalogue.getCredentialRepository();
         this.credentialValueConverter = credentialValueConverter;
+        this.credentialHashingService = credentialHashingService;
+        this.serviceCatalogue = serviceCatalogue;
     }
 
     /**
@@ -80,8 +92,9 @@ public class CredentialProtectionService {
      * @return Protected credential value.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when encryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
-    public CredentialValue protectCredential(String credentialValue, CredentialEntity credential) throws InvalidConfigurationException, EncryptionException {
+    public CredentialValue protectCredential(String credentialValue, CredentialEntity credential) throws InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final CredentialDefinitionEntity credentialDefinition = credential.getCredentialDefinition();
         final String userId = credential.getUser().getUserId();
         final HashConfigEntity hashingConfig = credentialDefinition.getHashingConfig();
@@ -102,7 +115,7 @@ public class CredentialProtectionService {
                 return credentialValueConverter.toDBValue(hashedValue, userId, credentialDefinition);
             }
             case BCRYPT -> {
-                String hashedValue = BCrypt.hashpw(credentialValue, BCrypt.gensalt());
+                final String hashedValue = credentialHashingService.execute(() -> BCrypt.hashpw(credentialValue, BCrypt.gensalt()));
                 return credentialValueConverter.toDBValue(hashedValue, userId, credentialDefinition);
             }
             default -> throw new InvalidConfigurationException("Unsupported hashing algorithm: " + algorithm);
@@ -116,8 +129,9 @@ public class CredentialProtectionService {
      * @return Whether credential value matches expected credential value.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
-    public boolean verifyCredential(String credentialValue, CredentialEntity credential) throws InvalidConfigurationException, EncryptionException {
+    public boolean verifyCredential(String credentialValue, CredentialEntity credential) throws InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final CredentialDefinitionEntity credentialDefinition = credential.getCredentialDefinition();
         final HashConfigEntity hashingConfig = credentialDefinition.getHashingConfig();
         final String decryptedCredentialValue = extractCredentialValue(credential);
@@ -138,7 +152,7 @@ public class CredentialProtectionService {
                 return succeeded;
             }
             case BCRYPT -> {
-                boolean succeeded = BCrypt.checkpw(credentialValue, decryptedCredentialValue);
+                final boolean succeeded = credentialHashingService.execute(() -> BCrypt.checkpw(credentialValue, decryptedCredentialValue));
                 if (succeeded) {
                     updateStoredCredentialValueIfRequired(credentialValue, credential);
                 }
@@ -149,25 +163,35 @@ public class CredentialProtectionService {
     }
 
     /**
-     * Verify a credential value.
+     * Verify a credential value against credential history. Hashed history records are verified in parallel
+     * and the verification stops once a matching history record is found.
      * @param credentialValue Credential value sent by user.
-     * @param history Credential history entity.
-     * @return Whether credential value matches expected credential value.
+     * @param history Credential history entities.
+     * @return Whether credential value matches any of the credential history records.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
-    public boolean verifyCredentialHistory(String credentialValue, CredentialHistoryEntity history) throws InvalidConfigurationException, EncryptionException {
-        final CredentialDefinitionEntity credentialDefinition = history.getCredentialDefinition();
-        final HashConfigEntity hashingConfig = credentialDefinition.getHashingConfig();
-        final String decryptedCredentialValue = extractCredentialValueForHistory(history);
-        if (hashingConfig == null) {
-            return credentialValue.equals(decryptedCredentialValue);
+    public boolean verifyCredentialHistory(String credentialValue, List<CredentialHistoryEntity> history) throws InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
+        final List<Supplier<Boolean>> verificationTasks = new ArrayList<>();
+        for (CredentialHistoryEntity h : history) {
+            final CredentialDefinitionEntity credentialDefinition = h.getCredentialDefinition();
+            final HashConfigEntity hashingConfig = credentialDefinition.getHashingConfig();
+            // Records are decrypted on the current thread, only hashing is executed in parallel
+            final String decryptedCredentialValue = extractCredentialValueForHistory(h);
+            if (hashingConfig == null) {
+                if (credentialValue.equals(decryptedCredentialValue)) {
+                    return true;
+                }
+                continue;
+            }
+            final HashAlgorithm algorithm = hashingConfig.getAlgorithm();
+            switch (algorithm) {
+                case ARGON_2I, ARGON_2D, ARGON_2ID -> verificationTasks.add(createArgon2VerificationTask(credentialValue, algorithm, decryptedCredentialValue));
+                case BCRYPT -> verificationTasks.add(() -> BCrypt.checkpw(credentialValue, decryptedCredentialValue));
+            }
         }
-        final HashAlgorithm algorithm = hashingConfig.getAlgorithm();
-        return switch (algorithm) {
-            case ARGON_2I, ARGON_2D, ARGON_2ID -> verifyCredentialUsingArgon2(credentialValue, algorithm, decryptedCredentialValue);
-            case BCRYPT -> BCrypt.checkpw(credentialValue, decryptedCredentialValue);
-        };
+        return credentialHashingService.anyMatch(verificationTasks);
     }
 
     /**
@@ -205,8 +229,21 @@ public class CredentialProtectionService {
      * @param expectedCredentialValue Expected hashed credential value.
      * @return Whether credential value matches expected credential value.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
-    private boolean verifyCredentialUsingArgon2(String credentialValue, HashAlgorithm algorithm, String expectedCredentialValue) throws InvalidConfigurationException {
+    private boolean verifyCredentialUsingArgon2(String credentialValue, HashAlgorithm algorithm, String expectedCredentialValue) throws InvalidConfigurationException, CredentialHashingRejectedException {
+        return credentialHashingService.execute(createArgon2VerificationTask(credentialValue, algorithm, expectedCredentialValue));
+    }
+
+    /**
+     * Create a task which verifies a credential value protected using Argon2 algorithm.
+     * @param credentialValue Unprotected credential value to verify.
+     * @param algorithm Hashing algorithm.
+     * @param expectedCredentialValue Expected hashed credential value.
+     * @return Task which returns whether credential value matches expected credential value.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     */
+    private Supplier<Boolean> createArgon2VerificationTask(String credentialValue, HashAlgorithm algorithm, String expectedCredentialValue) throws InvalidConfigurationException {
         final Argon2Hash argon2;
         try {
             argon2 = Argon2Hash.parse(expectedCredentialValue);
@@ -226,10 +263,12 @@ public class CredentialProtectionService {
                 .withSalt(argon2.getSalt());
         final Argon2Parameters parameters = builder.build();
         final int outputLength = argon2.getDigest().length;
-        // Compute password hash using provided parameters
-        final Argon2Hash expectedHash = createArgon2Hash(credentialValue.getBytes(StandardCharsets.UTF_8), algorithm, parameters, outputLength);
-        // Compare hash values
-        return argon2.hashEquals(expectedHash);
+        return () -> {
+            // Compute password hash using provided parameters
+            final Argon2Hash expectedHash = createArgon2Hash(credentialValue.getBytes(StandardCharsets.UTF_8), algorithm, parameters, outputLength);
+            // Compare hash values
+            return argon2.hashEquals(expectedHash);
+        };
     }
 
     /**
@@ -238,8 +277,9 @@ public class CredentialProtectionService {
      * @param param Algorithm parameters.
      * @return Argon2 hash in Modular Crypt Format.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
-    private Argon2Hash hashCredentialUsingArgon2(String credentialValue, HashAlgorithm algorithm, Map<String, String> param) throws InvalidConfigurationException {
+    private Argon2Hash hashCredentialUsingArgon2(String credentialValue, HashAlgorithm algorithm, Map<String, String> param) throws InvalidConfigurationException, CredentialHashingRejectedException {
         final String versionParam = param.get("version");
         final String iterationsParam = param.get("iterations");
         final String memoryParam = param.get("memory");
@@ -261,12 +301,13 @@ public class CredentialProtectionService {
             throw new InvalidConfigurationException("Missing hashing parameter: outputLengthParam");
         }
         final Argon2Parameters argon2Parameters;
+        final int outputLength;
         try {
             final int version = Integer.parseInt(versionParam);
             final int iterations = Integer.parseInt(iterationsParam);
             final int memory = Integer.parseInt(memoryParam);
             final int parallelism = Integer.parseInt(parallelismParam);
-            final int outputLength = Integer.parseInt(outputLengthParam);
+            outputLength = Integer.parseInt(outputLengthParam);
             // Generate random salt
             final byte[] salt = keyGenerator.generateRandomBytes(SALT_SIZE);
             argon2Parameters = new Argon2Parameters.Builder(algorithm.getId())
@@ -276,11 +317,15 @@ public class CredentialProtectionService {
                     .withParallelism(parallelism)
                     .withSalt(salt)
                     .build();
-            // Generate Argon2 hash from the credential value
-            return createArgon2Hash(credentialValue.getBytes(StandardCharsets.UTF_8), algorithm, argon2Parameters, outputLength);
         } catch (Exception ex) {
             throw new InvalidConfigurationException(ex);
         }
+        // Generate Argon2 hash from the credential value once a hashing permit is acquired
+        try {
+            return credentialHashingService.execute(() -> createArgon2Hash(credentialValue.getBytes(StandardCharsets.UTF_8), algorithm, argon2Parameters, outputLength));
+        } catch (RuntimeException ex) {
+            throw new InvalidConfigurationException(ex);
+        }
     }
 
     /**
@@ -310,13 +355,34 @@ public class CredentialProtectionService {
     }
 
     /**
-     * Update credential value in case encryption or hashing algorithm was changed.
+     * Update credential value in case encryption or hashing algorithm was changed. In case the credential re-hash
+     * is enabled, the credential value is updated asynchronously, so that the additional hashing does not slow down
+     * the authentication.
      * @param credentialValue Credential value.
      * @param credential Credential entity.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when encryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     */
+    private void updateStoredCredentialValueIfRequired(String credentialValue, CredentialEntity credential) throws InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
+        if (!isCredentialValueUpdateRequired(credential)) {
+            return;
+        }
+        final CredentialRehashService credentialRehashService = serviceCatalogue.getCredentialRehashService();
+        if (credentialRehashService.scheduleRehash(credentialValue, credential)) {
+            return;
+        }
+        updateStoredCredentialValue(credentialValue, credential);
+    }
+
+    /**
+     * Check whether credential value should be updated because encryption or hashing algorithm was changed.
+     * @param credential Credential entity.
+     * @return Whether credential value should be updated.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws EncryptionException Thrown when decryption fails.
      */
-    private void updateStoredCredentialValueIfRequired(String credentialValue, CredentialEntity credential) throws InvalidConfigurationException, EncryptionException {
+    public boolean isCredentialValueUpdateRequired(CredentialEntity credential) throws InvalidConfigurationException, EncryptionException {
         boolean updateRequired = false;
         final CredentialDefinitionEntity credentialDefinition = credential.getCredentialDefinition();
         if (credential.getEncryptionAlgorithm() == null && credentialDefinition.isEncryptionEnabled()) {
@@ -352,15 +418,25 @@ public class CredentialProtectionService {
             }
         }
 
-        if (updateRequired) {
-            // Protect the credential value and save it into DB
-            final CredentialValue updatedValue = protectCredential(credentialValue, credential);
-            credential.setHashingConfig(credentialDefinition.getHashingConfig());
-            credential.setEncryptionAlgorithm(credentialDefinition.getEncryptionAlgorithm());
-            credential.setValue(updatedValue.getValue());
-            credential = credentialRepository.save(credential);
-            logger.debug("Credential value was updated in database, user ID: {}, credential definition name: {}", credential.getUser().getUserId(), credential.getCredentialDefinition().getName());
-        }
+        return updateRequired;
+    }
+
+    /**
+     * Protect the credential value using current encryption and hashing configuration and save it into database.
+     * @param credentialValue Credential value.
+     * @param credential Credential entity.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws EncryptionException Thrown when encryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     */
+    public void updateStoredCredentialValue(String credentialValue, CredentialEntity credential) throws InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
+        final CredentialDefinitionEntity credentialDefinition = credential.getCredentialDefinition();
+        final CredentialValue updatedValue = protectCredential(credentialValue, credential);
+        credential.setHashingConfig(credentialDefinition.getHashingConfig());
+        credential.setEncryptionAlgorithm(credentialDefinition.getEncryptionAlgorithm());
+        credential.setValue(updatedValue.getValue());
+        credential = credentialRepository.save(credential);
+        logger.debug("Credential value was updated in database, user ID: {}, credential definition name: {}", credential.getUser().getUserId(), credential.getCredentialDefinition().getName());
     }
 
     /**
@@ -0,0 +1,68 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Scheduled job which re-hashes credentials protected using an outdated encryption or hashing configuration.
+ * Pending credentials are kept in memory of the node which verified the credential, so the job runs on each node
+ * of the cluster.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+@ConditionalOnProperty(name = "powerauth.nextstep.identity.credential.rehash.enabled", havingValue = "true")
+public class CredentialRehashScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialRehashScheduler.class);
+
+    private final ServiceCatalogue serviceCatalogue;
+
+    /**
+     * Credential re-hash scheduler constructor.
+     * @param serviceCatalogue Service catalogue.
+     */
+    @Autowired
+    public CredentialRehashScheduler(@Lazy ServiceCatalogue serviceCatalogue) {
+        this.serviceCatalogue = serviceCatalogue;
+    }
+
+    /**
+     * Scheduled job which re-hashes pending credentials.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.nextstep.identity.credential.rehash.fixedDelay}")
+    public void rehashCredentialsTask() {
+        try {
+            final int count = serviceCatalogue.getCredentialRehashService().rehashCredentials();
+            if (count > 0) {
+                logger.debug("Credential re-hash finished, number of updated credentials: {}", count);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Credential re-hash failed, error: {}", ex.getMessage(), ex);
+        }
+    }
+
+}
@@ -0,0 +1,202 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.app.nextstep.repository.CredentialRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialDefinitionEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.CredentialValue;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.CredentialHashingRejectedException;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.EncryptionException;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigurationException;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.NextStepServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * This service updates credential values which are protected using an outdated encryption or hashing configuration.
+ * Credentials which require an update are recorded during successful authentication and they are re-hashed later
+ * in small batches by a scheduled job, so that the authentication is not slowed down by another hashing.
+ *
+ * <p>The credential value is required for re-hashing, so the pending credentials are kept in memory of the node
+ * which verified the credential. Pending credentials are lost on restart, such credentials are recorded again
+ * during next successful authentication.</p>
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class CredentialRehashService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialRehashService.class);
+
+    /**
+     * Hard limit of credentials waiting for re-hash, verified credential values are kept in memory until re-hash.
+     */
+    private static final int MAX_QUEUE_CAPACITY = 1000;
+
+    private final CredentialRepository credentialRepository;
+    private final ServiceCatalogue serviceCatalogue;
+    private final NextStepServerConfiguration nextStepServerConfiguration;
+
+    private final BlockingQueue<RehashRequest> queue;
+    private final Set<String> pendingCredentialIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Credential re-hash service constructor.
+     * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
+     * @param nextStepServerConfiguration Next Step server configuration.
+     */
+    @Autowired
+    public CredentialRehashService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, NextStepServerConfiguration nextStepServerConfiguration) {
+        this.credentialRepository = repositoryCatalogue.getCredentialRepository();
+        this.serviceCatalogue = serviceCatalogue;
+        this.nextStepServerConfiguration = nextStepServerConfiguration;
+        final int queueCapacity = Math.min(MAX_QUEUE_CAPACITY, Math.max(1, nextStepServerConfiguration.getCredentialRehashQueueCapacity()));
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Schedule an update of credential value. The credential value is not updated in case the queue of pending
+     * credentials is full, in this case the credential is recorded again during next successful authentication.
+     * @param credentialValue Verified credential value.
+     * @param credential Credential entity.
+     * @return Whether credential value update is handled asynchronously, false value is returned in case
+     * the credential re-hash is disabled.
+     */
+    public boolean scheduleRehash(String credentialValue, CredentialEntity credential) {
+        if (!nextStepServerConfiguration.isCredentialRehashEnabled()) {
+            return false;
+        }
+        final String credentialId = credential.getCredentialId();
+        if (credentialId == null) {
+            // Credential is not persisted yet
+            return false;
+        }
+        if (!pendingCredentialIds.add(credentialId)) {
+            // Credential is already waiting for re-hash
+            return true;
+        }
+        if (!queue.offer(new RehashRequest(credentialId, credential.getValue(), credentialValue))) {
+            pendingCredentialIds.remove(credentialId);
+            logger.debug("Credential re-hash queue is full, credential ID: {}", credentialId);
+            return true;
+        }
+        logger.debug("Credential re-hash was scheduled, credential ID: {}", credentialId);
+        return true;
+    }
+
+    /**
+     * Re-hash a batch of pending credentials. Each credential is updated in a separate transaction.
+     * @return Number of updated credentials.
+     */
+    public int rehashCredentials() {
+        // Credentials are updated using the service proxy to start a new transaction for each credential
+        final CredentialRehashService credentialRehashService = serviceCatalogue.getCredentialRehashService();
+        final int batchSize = nextStepServerConfiguration.getCredentialRehashBatchSize();
+        int count = 0;
+        for (int i = 0; i < batchSize; i++) {
+            final RehashRequest request = queue.poll();
+            if (request == null) {
+                break;
+            }
+            try {
+                if (credentialRehashService.rehashCredential(request.credentialId(), request.storedValue(), request.credentialValue())) {
+                    count++;
+                }
+            } catch (NextStepServiceException | RuntimeException ex) {
+                logger.warn("Credential re-hash failed, credential ID: {}, error: {}", request.credentialId(), ex.getMessage());
+                logger.debug(ex.getMessage(), ex);
+            } finally {
+                pendingCredentialIds.remove(request.credentialId());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Update credential value using current encryption and hashing configuration. The credential is not updated
+     * in case the stored credential value was changed after the credential was verified. The credential value
+     * is protected before the update and only the columns of the protected value are updated using a conditional
+     * update, so that concurrent changes of the credential are not overwritten.
+     * @param credentialId Credential ID.
+     * @param storedValue Stored credential value at the time of credential verification.
+     * @param credentialValue Verified credential value.
+     * @return Whether credential value was updated.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws EncryptionException Thrown when encryption or decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     */
+    @Transactional
+    public boolean rehashCredential(String credentialId, String storedValue, String credentialValue) throws InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
+        final CredentialProtectionService credentialProtectionService = serviceCatalogue.getCredentialProtectionService();
+        final Optional<CredentialEntity> credentialOptional = credentialRepository.findById(credentialId);
+        if (credentialOptional.isEmpty()) {
+            return false;
+        }
+        final CredentialEntity credential = credentialOptional.get();
+        if (!credential.getValue().equals(storedValue)) {
+            // Credential value was changed concurrently, the verified credential value is no longer valid
+            return false;
+        }
+        if (!credentialProtectionService.isCredentialValueUpdateRequired(credential)) {
+            return false;
+        }
+        final CredentialDefinitionEntity credentialDefinition = credential.getCredentialDefinition();
+        final CredentialValue protectedValue = credentialProtectionService.protectCredential(credentialValue, credential);
+        final int count = credentialRepository.updateValueIfUnchanged(credentialId, storedValue, protectedValue.getValue(),
+                credentialDefinition.getEncryptionAlgorithm(), credentialDefinition.getHashingConfig());
+        if (count == 0) {
+            // Credential value was changed concurrently during hashing of the credential value
+            return false;
+        }
+        logger.debug("Credential value was re-hashed, credential ID: {}", credentialId);
+        return true;
+    }
+
+    /**
+     * Get number of credentials waiting for re-hash on this node.
+     * @return Number of credentials waiting for re-hash.
+     */
+    public int getPendingRehashCount() {
+        return queue.size();
+    }
+
+    /**
+     * Credential waiting for re-hash.
+     * @param credentialId Credential ID.
+     * @param storedValue Stored credential value at the time of credential verification.
+     * @param credentialValue Verified credential value.
+     */
+    private record RehashRequest(String credentialId, String storedValue, String credentialValue) {
+    }
+
+}
@@ -89,9 +89,10 @@ public class CredentialService {
      * @throws InvalidRequestException Thrown when request is invalid.
      * @throws CredentialValidationFailedException Thrown when credential validation fails.
      * @throws EncryptionException Thrown when encryption or decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional
-    public CreateCredentialResponse createCredential(CreateCredentialRequest request) throws UserNotFoundException, CredentialDefinitionNotFoundException, InvalidConfigurationException, InvalidRequestException, CredentialValidationFailedException, EncryptionException {
+    public CreateCredentialResponse createCredential(CreateCredentialRequest request) throws UserNotFoundException, CredentialDefinitionNotFoundException, InvalidConfigurationException, InvalidRequestException, CredentialValidationFailedException, EncryptionException, CredentialHashingRejectedException {
         final UserIdentityLookupService userIdentityLookupService = serviceCatalogue.getUserIdentityLookupService();
         final CredentialDefinitionService credentialDefinitionService = serviceCatalogue.getCredentialDefinitionService();
         final EndToEndEncryptionService endToEndEncryptionService = serviceCatalogue.getEndToEndEncryptionService();
@@ -163,9 +164,10 @@ public class CredentialService {
      * @throws InvalidRequestException Thrown when request is invalid.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when encryption or decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional
-    public UpdateCredentialResponse updateCredential(UpdateCredentialRequest request) throws UserNotFoundException, CredentialDefinitionNotFoundException, CredentialNotFoundException, CredentialValidationFailedException, InvalidRequestException, InvalidConfigurationException, EncryptionException {
+    public UpdateCredentialResponse updateCredential(UpdateCredentialRequest request) throws UserNotFoundException, CredentialDefinitionNotFoundException, CredentialNotFoundException, CredentialValidationFailedException, InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final UserIdentityLookupService userIdentityLookupService = serviceCatalogue.getUserIdentityLookupService();
         final CredentialDefinitionService credentialDefinitionService = serviceCatalogue.getCredentialDefinitionService();
         final EndToEndEncryptionService endToEndEncryptionService = serviceCatalogue.getEndToEndEncryptionService();
@@ -287,9 +289,10 @@ public class CredentialService {
      * @throws UserNotFoundException Thrown when user identity is not found.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional
-    public GetUserCredentialListResponse getCredentialList(GetUserCredentialListRequest request) throws UserNotFoundException, InvalidConfigurationException, EncryptionException {
+    public GetUserCredentialListResponse getCredentialList(GetUserCredentialListRequest request) throws UserNotFoundException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final UserIdentityLookupService userIdentityLookupService = serviceCatalogue.getUserIdentityLookupService();
         final UserIdentityEntity user = userIdentityLookupService.findUser(request.getUserId());
         final GetUserCredentialListResponse response = new GetUserCredentialListResponse();
@@ -321,9 +324,10 @@ public class CredentialService {
      * @throws UserNotFoundException Thrown when user is not found.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional
-    public ValidateCredentialResponse validateCredential(ValidateCredentialRequest request) throws CredentialDefinitionNotFoundException, InvalidRequestException, UserNotFoundException, InvalidConfigurationException, EncryptionException {
+    public ValidateCredentialResponse validateCredential(ValidateCredentialRequest request) throws CredentialDefinitionNotFoundException, InvalidRequestException, UserNotFoundException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final UserIdentityLookupService userIdentityLookupService = serviceCatalogue.getUserIdentityLookupService();
         final CredentialDefinitionService credentialDefinitionService = serviceCatalogue.getCredentialDefinitionService();
         final EndToEndEncryptionService endToEndEncryptionService = serviceCatalogue.getEndToEndEncryptionService();
@@ -357,8 +361,9 @@ public class CredentialService {
      * @return Whether credential change is required.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
-    public boolean isCredentialChangeRequired(CredentialEntity credential, String unprotectedCredentialValue) throws InvalidConfigurationException, EncryptionException {
+    public boolean isCredentialChangeRequired(CredentialEntity credential, String unprotectedCredentialValue) throws InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final CredentialValidationService credentialValidationService = serviceCatalogue.getCredentialValidationService();
         // Check expiration time
         final Date expirationTime = credential.getTimestampExpires();
@@ -399,9 +404,10 @@ public class CredentialService {
      * @throws CredentialNotFoundException Thrown when credential is not found.
      * @throws InvalidConfigurationException Thrown in case Next Step configuration is invalid.
      * @throws EncryptionException Thrown when encryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional
-    public ResetCredentialResponse resetCredential(ResetCredentialRequest request) throws UserNotFoundException, CredentialDefinitionNotFoundException, CredentialNotFoundException, InvalidConfigurationException, EncryptionException {
+    public ResetCredentialResponse resetCredential(ResetCredentialRequest request) throws UserNotFoundException, CredentialDefinitionNotFoundException, CredentialNotFoundException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final UserIdentityLookupService userIdentityLookupService = serviceCatalogue.getUserIdentityLookupService();
         final CredentialDefinitionService credentialDefinitionService = serviceCatalogue.getCredentialDefinitionService();
         final CredentialGenerationService credentialGenerationService = serviceCatalogue.getCredentialGenerationService();
@@ -642,10 +648,11 @@ public class CredentialService {
      * @throws CredentialValidationFailedException Thrown when credential validation fails.
      * @throws InvalidRequestException Thrown when request is invalid.
      * @throws EncryptionException Thrown when encryption or decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     public CredentialSecretDetail createCredential(UserIdentityEntity user, CredentialDefinitionEntity credentialDefinition,
                                                    CredentialType credentialType, String username, String credentialValue,
-                                                   Date timestampExpires, CredentialValidationMode validationMode) throws InvalidConfigurationException, CredentialValidationFailedException, InvalidRequestException, EncryptionException {
+                                                   Date timestampExpires, CredentialValidationMode validationMode) throws InvalidConfigurationException, CredentialValidationFailedException, InvalidRequestException, EncryptionException, CredentialHashingRejectedException {
         final IdGeneratorService idGeneratorService = serviceCatalogue.getIdGeneratorService();
         final CredentialRepository credentialRepository = repositoryCatalogue.getCredentialRepository();
         final CredentialGenerationService credentialGenerationService = serviceCatalogue.getCredentialGenerationService();
@@ -783,9 +790,10 @@ public class CredentialService {
      * @param credentialValue Credential value.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when encryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     public void importCredentialHistory(UserIdentityEntity user, CredentialDefinitionEntity credentialDefinition,
-                                        String username, String credentialValue, Date createdDate) throws InvalidConfigurationException, EncryptionException {
+                                        String username, String credentialValue, Date createdDate) throws InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final CredentialProtectionService credentialProtectionService = serviceCatalogue.getCredentialProtectionService();
         final CredentialHistoryService credentialHistoryService = serviceCatalogue.getCredentialHistoryService();
 
@@ -30,6 +30,7 @@ import io.getlime.security.powerauth.lib.nextstep.model.entity.CredentialValidat
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialValidationFailure;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialValidationMode;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.UsernameGenerationAlgorithm;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.CredentialHashingRejectedException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.EncryptionException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigurationException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidRequestException;
@@ -40,8 +41,14 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * This service handles validation of credentials.
@@ -58,6 +65,12 @@ public class CredentialValidationService {
 
     private final ParameterConverter parameterConverter = new ParameterConverter();
 
+    /**
+     * Compiled credential policies by credential policy ID. Each entry is reused only while the credential policy
+     * matches the state it was compiled from, so that policy changes made on other nodes are applied as well.
+     */
+    private final Map<Long, CompiledCredentialPolicy> compiledCredentialPolicies = new ConcurrentHashMap<>();
+
     /**
      * Credential validation service constructor.
      * @param repositoryCatalogue Repository catalogue.
@@ -79,10 +92,11 @@ public class CredentialValidationService {
      * @throws InvalidRequestException Thrown in case request is invalid.
      * @throws InvalidConfigurationException Thrown when validation configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     public List<CredentialValidationFailure> validateCredential(UserIdentityEntity user, CredentialDefinitionEntity credentialDefinition,
                                                                  String username, String credentialValue,
-                                                                 CredentialValidationMode validationMode) throws InvalidRequestException, InvalidConfigurationException, EncryptionException {
+                                                                 CredentialValidationMode validationMode) throws InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final List<CredentialValidationFailure> validationErrors = new ArrayList<>();
         switch (validationMode) {
             case NO_VALIDATION:
@@ -113,8 +127,9 @@ public class CredentialValidationService {
      * @param username Username.
      * @param credentialDefinition Credential definition.
      * @return List of validation errors.
+     * @throws InvalidConfigurationException Thrown when validation configuration is invalid.
      */
-    public List<CredentialValidationFailure> validateUsername(UserIdentityEntity user, String username, CredentialDefinitionEntity credentialDefinition) {
+    public List<CredentialValidationFailure> validateUsername(UserIdentityEntity user, String username, CredentialDefinitionEntity credentialDefinition) throws InvalidConfigurationException {
         final CredentialPolicyEntity credentialPolicy = credentialDefinition.getCredentialPolicy();
         final List<CredentialValidationFailure> validationFailures = new ArrayList<>();
         if (credentialPolicy.getUsernameGenAlgorithm() == UsernameGenerationAlgorithm.NO_USERNAME) {
@@ -126,7 +141,7 @@ public class CredentialValidationService {
         }
         final Integer minLength = credentialPolicy.getUsernameLengthMin();
         final Integer maxLength = credentialPolicy.getUsernameLengthMax();
-        final String allowedPattern = credentialPolicy.getUsernameAllowedPattern();
+        final Pattern allowedPattern = getCompiledCredentialPolicy(credentialPolicy).usernameAllowedPattern();
         if (minLength != null && username.length() < minLength) {
             validationFailures.add(CredentialValidationFailure.USERNAME_TOO_SHORT);
         }
@@ -139,7 +154,7 @@ public class CredentialValidationService {
                 break;
             }
         }
-        if (allowedPattern != null && !username.matches(allowedPattern)) {
+        if (allowedPattern != null && !allowedPattern.matcher(username).matches()) {
             validationFailures.add(CredentialValidationFailure.USERNAME_ALLOWED_MATCH_FAILED);
         }
         final Optional<CredentialEntity> credentialOptional = credentialRepository.findByCredentialDefinitionAndUsernameIgnoreCase(credentialDefinition, username);
@@ -159,8 +174,9 @@ public class CredentialValidationService {
      * @return List of validation failures.
      * @throws InvalidConfigurationException Thrown when validation configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
-    public List<CredentialValidationFailure> validateCredentialValue(UserIdentityEntity user, String username, String credentialValue, CredentialDefinitionEntity credentialDefinition, boolean checkHistory) throws InvalidConfigurationException, EncryptionException {
+    public List<CredentialValidationFailure> validateCredentialValue(UserIdentityEntity user, String username, String credentialValue, CredentialDefinitionEntity credentialDefinition, boolean checkHistory) throws InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final CredentialHistoryService credentialHistoryService = serviceCatalogue.getCredentialHistoryService();
         final List<CredentialValidationFailure> validationFailures = new ArrayList<>();
         if (credentialValue == null || credentialValue.trim().isEmpty()) {
@@ -179,25 +195,80 @@ public class CredentialValidationService {
         if (checkHistory && !credentialHistoryService.checkCredentialHistory(user, credentialValue, credentialDefinition)) {
             validationFailures.add(CredentialValidationFailure.CREDENTIAL_HISTORY_CHECK_FAILED);
         }
+        final PasswordValidator passwordValidator = getCompiledCredentialPolicy(credentialPolicy).passwordValidator();
+        if (passwordValidator == null) {
+            throw new InvalidConfigurationException("Credential validation parameters are missing for credential policy: " + credentialPolicy.getName());
+        }
+        validationFailures.addAll(validateCredentialValueAdvanced(username, credentialValue, passwordValidator));
+        return validationFailures;
+    }
+
+    /**
+     * Invalidate the compiled form of a credential policy. The credential policy is compiled again on next validation.
+     * @param credentialPolicyId Credential policy ID.
+     */
+    public void invalidateCredentialPolicy(Long credentialPolicyId) {
+        if (credentialPolicyId != null) {
+            compiledCredentialPolicies.remove(credentialPolicyId);
+        }
+    }
+
+    /**
+     * Get the compiled form of a credential policy. The compiled credential policy is cached and it is compiled
+     * again in case the credential policy was updated.
+     * @param credentialPolicy Credential policy entity.
+     * @return Compiled credential policy.
+     * @throws InvalidConfigurationException Thrown when validation configuration is invalid.
+     */
+    private CompiledCredentialPolicy getCompiledCredentialPolicy(CredentialPolicyEntity credentialPolicy) throws InvalidConfigurationException {
+        final Long credentialPolicyId = credentialPolicy.getCredentialPolicyId();
+        if (credentialPolicyId != null) {
+            final CompiledCredentialPolicy compiledCredentialPolicy = compiledCredentialPolicies.get(credentialPolicyId);
+            if (compiledCredentialPolicy != null && compiledCredentialPolicy.isCompiledFrom(credentialPolicy)) {
+                return compiledCredentialPolicy;
+            }
+        }
+        final CompiledCredentialPolicy compiledCredentialPolicy = compileCredentialPolicy(credentialPolicy);
+        if (credentialPolicyId != null) {
+            compiledCredentialPolicies.put(credentialPolicyId, compiledCredentialPolicy);
+            logger.debug("Credential policy was compiled, credential policy ID: {}", credentialPolicyId);
+        }
+        return compiledCredentialPolicy;
+    }
+
+    /**
+     * Compile a credential policy into a password validator and a username pattern.
+     * @param credentialPolicy Credential policy entity.
+     * @return Compiled credential policy.
+     * @throws InvalidConfigurationException Thrown when validation configuration is invalid.
+     */
+    private CompiledCredentialPolicy compileCredentialPolicy(CredentialPolicyEntity credentialPolicy) throws InvalidConfigurationException {
+        PasswordValidator passwordValidator = null;
+        if (credentialPolicy.getCredentialValParam() != null) {
+            try {
+                final CredentialValidationParam param = parameterConverter.fromString(credentialPolicy.getCredentialValParam(), CredentialValidationParam.class);
+                passwordValidator = createPasswordValidator(param);
+            } catch (JsonProcessingException ex) {
+                throw new InvalidConfigurationException(ex);
+            }
+        }
+        final Pattern usernameAllowedPattern;
         try {
-            final CredentialValidationParam param = parameterConverter.fromString(credentialPolicy.getCredentialValParam(), CredentialValidationParam.class);
-            validationFailures.addAll(validateCredentialValueAdvanced(username, credentialValue, param));
-        } catch (JsonProcessingException ex) {
+            usernameAllowedPattern = credentialPolicy.getUsernameAllowedPattern() == null ? null : Pattern.compile(credentialPolicy.getUsernameAllowedPattern());
+        } catch (PatternSyntaxException ex) {
             throw new InvalidConfigurationException(ex);
         }
-        return validationFailures;
+        return new CompiledCredentialPolicy(credentialPolicy.getTimestampLastUpdated(), credentialPolicy.getCredentialValParam(),
+                credentialPolicy.getUsernameAllowedPattern(), usernameAllowedPattern, passwordValidator);
     }
 
     /**
-     * Execute advanced credential validations based on defined validation rules.
-     * @param username Username.
-     * @param credentialValue Credential value.
+     * Create a password validator based on defined validation rules.
      * @param param Credential validation parameters.
-     * @return List of validation failures.
+     * @return Password validator.
      * @throws InvalidConfigurationException Thrown when validation configuration is invalid.
      */
-    private List<CredentialValidationFailure> validateCredentialValueAdvanced(String username, String credentialValue, CredentialValidationParam param) throws InvalidConfigurationException {
-        final List<CredentialValidationFailure> validationFailures = new ArrayList<>();
+    private PasswordValidator createPasswordValidator(CredentialValidationParam param) throws InvalidConfigurationException {
         final List<Rule> rules = new ArrayList<>();
         try {
             if (param.isIncludeWhitespaceRule()) {
@@ -291,14 +362,31 @@ public class CredentialValidationService {
                     rules.add(rule);
                 }
             }
+            return new PasswordValidator(rules);
+        } catch (InvalidConfigurationException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new InvalidConfigurationException(ex);
+        }
+    }
+
+    /**
+     * Execute advanced credential validations using a password validator.
+     * @param username Username.
+     * @param credentialValue Credential value.
+     * @param passwordValidator Password validator.
+     * @return List of validation failures.
+     * @throws InvalidConfigurationException Thrown when validation configuration is invalid.
+     */
+    private List<CredentialValidationFailure> validateCredentialValueAdvanced(String username, String credentialValue, PasswordValidator passwordValidator) throws InvalidConfigurationException {
+        final List<CredentialValidationFailure> validationFailures = new ArrayList<>();
+        try {
             final PasswordData passwordData;
             if (username != null) {
                 passwordData = new PasswordData(username, credentialValue);
             } else {
                 passwordData = new PasswordData(credentialValue);
             }
-
-            final PasswordValidator passwordValidator = new PasswordValidator(rules);
             final RuleResult result = passwordValidator.validate(passwordData);
             for (RuleResultDetail detail : result.getDetails()) {
                 final CredentialValidationFailure failure = convertToValidationFailure(detail.getErrorCode());
@@ -359,4 +447,28 @@ public class CredentialValidationService {
         throw new InvalidConfigurationException("Unknown error code: " + errorCode);
     }
 
+    /**
+     * Credential policy compiled into a reusable password validator and a precompiled username pattern.
+     * @param timestampLastUpdated Last update timestamp of the credential policy.
+     * @param credentialValParam Credential validation parameters used for compilation.
+     * @param usernameAllowedPatternSource Username allowed pattern used for compilation.
+     * @param usernameAllowedPattern Compiled username allowed pattern, null when the pattern is not configured.
+     * @param passwordValidator Password validator, null when credential validation parameters are not configured.
+     */
+    private record CompiledCredentialPolicy(Date timestampLastUpdated, String credentialValParam, String usernameAllowedPatternSource,
+                                            Pattern usernameAllowedPattern, PasswordValidator passwordValidator) {
+
+        /**
+         * Check whether the compiled credential policy matches the current state of the credential policy.
+         * @param credentialPolicy Credential policy entity.
+         * @return Whether the compiled credential policy is up to date.
+         */
+        boolean isCompiledFrom(CredentialPolicyEntity credentialPolicy) {
+            return Objects.equals(timestampLastUpdated, credentialPolicy.getTimestampLastUpdated())
+                    && Objects.equals(credentialValParam, credentialPolicy.getCredentialValParam())
+                    && Objects.equals(usernameAllowedPatternSource, credentialPolicy.getUsernameAllowedPattern());
+        }
+
+    }
+
 }
\ No newline at end of file
@@ -22,10 +22,14 @@ import com.wultra.core.audit.base.Audit;
 import com.wultra.core.audit.base.model.AuditDetail;
 import io.getlime.security.powerauth.app.nextstep.converter.HashConfigConverter;
 import io.getlime.security.powerauth.app.nextstep.converter.ParameterConverter;
+import io.getlime.security.powerauth.app.nextstep.repository.CredentialRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.HashConfigRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.HashConfigEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.HashConfigDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.HashConfigMigrationDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.HashConfigStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.HashConfigAlreadyExistsException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.HashConfigNotFoundException;
@@ -34,18 +38,23 @@ import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidRequest
 import io.getlime.security.powerauth.lib.nextstep.model.request.CreateHashConfigRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.request.DeleteHashConfigRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.request.GetHashConfigListRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.request.GetHashConfigMigrationListRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.request.UpdateHashConfigRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.response.CreateHashConfigResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.DeleteHashConfigResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetHashConfigListResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetHashConfigMigrationListResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateHashConfigResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -60,6 +69,8 @@ public class HashConfigService {
     private static final String AUDIT_TYPE_CONFIGURATION = "CONFIGURATION";
 
     private final HashConfigRepository hashConfigRepository;
+    private final CredentialRepository credentialRepository;
+    private final ServiceCatalogue serviceCatalogue;
     private final Audit audit;
 
     private final HashConfigConverter hashConfigConverter = new HashConfigConverter();
@@ -68,11 +79,14 @@ public class HashConfigService {
     /**
      * Hashing configuration service constructor.
      * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
      * @param audit Audit interface.
      */
     @Autowired
-    public HashConfigService(RepositoryCatalogue repositoryCatalogue, Audit audit) {
+    public HashConfigService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, Audit audit) {
         this.hashConfigRepository = repositoryCatalogue.getHashConfigRepository();
+        this.credentialRepository = repositoryCatalogue.getCredentialRepository();
+        this.serviceCatalogue = serviceCatalogue;
         this.audit = audit;
     }
 
@@ -103,6 +117,7 @@ public class HashConfigService {
         }
         hashConfig.setTimestampCreated(new Date());
         hashConfig = hashConfigRepository.save(hashConfig);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Hashing configuration was created, hashing configuration ID: {}, hashing configuration name: {}", hashConfig.getHashConfigId(), hashConfig.getName());
         audit.info("Hashing configuration was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -142,6 +157,7 @@ public class HashConfigService {
         }
         hashConfig.setTimestampLastUpdated(new Date());
         hashConfig = hashConfigRepository.save(hashConfig);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Hashing configuration was updated, hashing configuration ID: {}, hashing configuration name: {}", hashConfig.getHashConfigId(), hashConfig.getName());
         audit.info("Hashing configuration was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -177,6 +193,45 @@ public class HashConfigService {
         return response;
     }
 
+    /**
+     * Get migration progress of credentials for hashing configurations. Changes of hashing parameters
+     * within a hashing configuration are not included in the migration progress.
+     * @param request Get hashing configuration migration list request.
+     * @return Get hashing configuration migration list response.
+     */
+    @Transactional(readOnly = true)
+    public GetHashConfigMigrationListResponse getHashConfigMigrationList(GetHashConfigMigrationListRequest request) {
+        final CredentialRehashService credentialRehashService = serviceCatalogue.getCredentialRehashService();
+        final Iterable<HashConfigEntity> hashConfigs;
+        if (request.isIncludeRemoved()) {
+            hashConfigs = hashConfigRepository.findAll();
+        } else {
+            hashConfigs = hashConfigRepository.findHashConfigByStatus(HashConfigStatus.ACTIVE);
+        }
+        final Map<Long, Long> credentialCounts = new HashMap<>();
+        for (Object[] row : credentialRepository.countCredentialsByHashConfig()) {
+            credentialCounts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        final Map<Long, Object[]> targetCredentialCounts = new HashMap<>();
+        for (Object[] row : credentialRepository.countCredentialsByTargetHashConfig()) {
+            targetCredentialCounts.put((Long) row[0], row);
+        }
+        final GetHashConfigMigrationListResponse response = new GetHashConfigMigrationListResponse();
+        for (HashConfigEntity hashConfig : hashConfigs) {
+            final HashConfigMigrationDetail migrationDetail = new HashConfigMigrationDetail();
+            migrationDetail.setHashConfigName(hashConfig.getName());
+            migrationDetail.setCredentialCount(credentialCounts.getOrDefault(hashConfig.getHashConfigId(), 0L));
+            final Object[] targetCounts = targetCredentialCounts.get(hashConfig.getHashConfigId());
+            if (targetCounts != null) {
+                migrationDetail.setTargetCredentialCount(((Number) targetCounts[1]).longValue());
+                migrationDetail.setMigratedCredentialCount(((Number) targetCounts[2]).longValue());
+            }
+            response.getHashConfigs().add(migrationDetail);
+        }
+        response.setPendingRehashCount(credentialRehashService.getPendingRehashCount());
+        return response;
+    }
+
     /**
      * Delete a hashing configuration.
      * @param request Delete hashing configuration request.
@@ -193,6 +248,7 @@ public class HashConfigService {
         hashConfig.setStatus(HashConfigStatus.REMOVED);
         hashConfig.setTimestampLastUpdated(new Date());
         hashConfig = hashConfigRepository.save(hashConfig);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Hashing configuration was removed, hashing configuration ID: {}, hashing configuration name: {}", hashConfig.getHashConfigId(), hashConfig.getName());
         audit.info("Hashing configuration was removed", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -20,6 +20,7 @@ package io.getlime.security.powerauth.app.nextstep.service;
 
 import io.getlime.security.powerauth.app.nextstep.repository.OperationHistoryRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -78,17 +79,26 @@ public class IdGeneratorService {
     }
 
     /**
-     * Generates a new id for for OperationHistory for given operation.
+     * Generates a new ID for OperationHistory of given operation. The ID is allocated from the result ID counter
+     * stored in the operation entity, the counter is persisted together with the new operation history record.
+     * The caller must hold a pessimistic write lock of the operation row, see
+     * {@link io.getlime.security.powerauth.app.nextstep.repository.OperationRepository#findForUpdateByOperationId(String)},
+     * so that the same ID is not allocated by concurrent updates of the operation on multiple nodes.
      *
-     * @param operationId Operation ID.
+     * @param operation Operation entity.
      * @return Generated OperationHistory ID.
      */
-    public synchronized Long generateOperationHistoryId(String operationId) {
-        final Long maxId = operationHistoryRepository.findMaxResultId(operationId);
-        if (maxId == null) {
-            return 1L;
-        } else {
-            return maxId + 1;
+    public Long generateOperationHistoryId(OperationEntity operation) {
+        Long lastResultId = operation.getLastResultId();
+        if (lastResultId == null) {
+            // Operation created before the result ID counter was introduced, initialize the counter from history
+            lastResultId = operationHistoryRepository.findMaxResultId(operation.getOperationId());
+            if (lastResultId == null) {
+                lastResultId = 0L;
+            }
         }
+        final long resultId = lastResultId + 1;
+        operation.setLastResultId(resultId);
+        return resultId;
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Scheduled job which archives finished operations. The job runs on a single node of the cluster,
+ * the scheduler lock is stored in the shedlock table.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+@ConditionalOnProperty(name = "powerauth.nextstep.operation.archive.enabled", havingValue = "true")
+public class OperationArchiveScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationArchiveScheduler.class);
+
+    private final ServiceCatalogue serviceCatalogue;
+
+    /**
+     * Operation archive scheduler constructor.
+     * @param serviceCatalogue Service catalogue.
+     */
+    @Autowired
+    public OperationArchiveScheduler(@Lazy ServiceCatalogue serviceCatalogue) {
+        this.serviceCatalogue = serviceCatalogue;
+    }
+
+    /**
+     * Scheduled job which archives finished operations.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.nextstep.operation.archive.fixedDelay}")
+    @SchedulerLock(name = "archiveOperationsTask", lockAtMostFor = "30m")
+    public void archiveOperationsTask() {
+        logger.debug("Operation archival started");
+        try {
+            final int count = serviceCatalogue.getOperationArchiveService().archiveOperations();
+            logger.info("Operation archival finished, number of archived operations: {}", count);
+        } catch (RuntimeException ex) {
+            logger.error("Operation archival failed, error: {}", ex.getMessage(), ex);
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationArchiveRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.OrganizationRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.*;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This service handles archival of finished operations. Finished operations are moved together with their history
+ * and AFS actions into archive tables in small batches, so that the operation tables contain mostly recent operations.
+ * Archived operations are read-only, they are available only for operation detail lookups.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class OperationArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationArchiveService.class);
+
+    private final OperationRepository operationRepository;
+    private final OperationArchiveRepository operationArchiveRepository;
+    private final OrganizationRepository organizationRepository;
+    private final ServiceCatalogue serviceCatalogue;
+    private final NextStepServerConfiguration nextStepServerConfiguration;
+
+    /**
+     * Operation archive service constructor.
+     * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
+     * @param nextStepServerConfiguration Next Step server configuration.
+     */
+    @Autowired
+    public OperationArchiveService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, NextStepServerConfiguration nextStepServerConfiguration) {
+        this.operationRepository = repositoryCatalogue.getOperationRepository();
+        this.operationArchiveRepository = repositoryCatalogue.getOperationArchiveRepository();
+        this.organizationRepository = repositoryCatalogue.getOrganizationRepository();
+        this.serviceCatalogue = serviceCatalogue;
+        this.nextStepServerConfiguration = nextStepServerConfiguration;
+    }
+
+    /**
+     * Archive finished operations which expired before the configured archive age. Each batch of operations
+     * is archived in a separate transaction to keep the transactions short.
+     * @return Number of archived operations.
+     */
+    public int archiveOperations() {
+        // Archive batches are processed using the service proxy to start a new transaction for each batch
+        final OperationArchiveService operationArchiveService = serviceCatalogue.getOperationArchiveService();
+        final int batchSize = nextStepServerConfiguration.getOperationArchiveBatchSize();
+        final Duration archiveAge = Duration.ofDays(nextStepServerConfiguration.getOperationArchiveAgeInDays());
+        final Date timestamp = new Date(System.currentTimeMillis() - archiveAge.toMillis());
+        int count = 0;
+        List<String> operationIds;
+        do {
+            operationIds = operationRepository.findArchivableOperationIds(timestamp, PageRequest.of(0, batchSize));
+            if (operationIds.isEmpty()) {
+                break;
+            }
+            final int archivedCount = operationArchiveService.archiveOperations(operationIds);
+            if (archivedCount == 0) {
+                // Operations were archived concurrently, avoid an infinite loop
+                break;
+            }
+            count += archivedCount;
+        } while (operationIds.size() == batchSize);
+        return count;
+    }
+
+    /**
+     * Move operations with given IDs into the archive tables. Operation history and AFS actions are moved together
+     * with the operations. Authentication failure counters of the operations are deleted. Authentication records
+     * and one time passwords are kept in their tables, their references to the operations are cleared.
+     * @param operationIds Operation IDs.
+     * @return Number of archived operations.
+     */
+    @Transactional
+    public int archiveOperations(List<String> operationIds) {
+        final int operationCount = operationArchiveRepository.archiveOperations(operationIds);
+        final int historyCount = operationArchiveRepository.archiveOperationHistory(operationIds);
+        final int afsCount = operationArchiveRepository.archiveOperationAfsActions(operationIds);
+        operationArchiveRepository.deleteOperationHistory(operationIds);
+        operationArchiveRepository.deleteOperationAfsActions(operationIds);
+        operationArchiveRepository.deleteOperationAuthCounters(operationIds);
+        operationArchiveRepository.clearAuthenticationOperations(operationIds);
+        operationArchiveRepository.clearOtpOperations(operationIds);
+        operationArchiveRepository.deleteOperations(operationIds);
+        logger.debug("Operations were archived, operation count: {}, history count: {}, AFS action count: {}", operationCount, historyCount, afsCount);
+        return operationCount;
+    }
+
+    /**
+     * Find an archived operation. The archived operation is converted into a detached operation entity
+     * which must not be persisted.
+     * @param operationId Operation ID.
+     * @return Archived operation, empty value is returned in case the operation is not archived.
+     */
+    public Optional<OperationEntity> findArchivedOperation(String operationId) {
+        return operationArchiveRepository.findWithHistoryByOperationId(operationId).map(this::toOperationEntity);
+    }
+
+    /**
+     * Find archived operations with given operation IDs. The archived operations are converted into detached
+     * operation entities which must not be persisted.
+     * @param operationIds Operation IDs.
+     * @return Archived operations, operations which are not archived are not included.
+     */
+    public List<OperationEntity> findArchivedOperations(Collection<String> operationIds) {
+        return operationArchiveRepository.findAllWithHistoryByOperationIds(operationIds).stream()
+                .map(this::toOperationEntity)
+                .toList();
+    }
+
+    /**
+     * Convert an archived operation into an operation entity.
+     * @param archivedOperation Archived operation.
+     * @return Operation entity.
+     */
+    private OperationEntity toOperationEntity(OperationArchiveEntity archivedOperation) {
+        final OperationEntity operation = new OperationEntity();
+        operation.setOperationId(archivedOperation.getOperationId());
+        operation.setOperationName(archivedOperation.getOperationName());
+        operation.setOperationData(archivedOperation.getOperationData());
+        operation.setOperationFormData(archivedOperation.getOperationFormData());
+        operation.setUserId(archivedOperation.getUserId());
+        if (archivedOperation.getOrganizationId() != null) {
+            operation.setOrganization(organizationRepository.findById(archivedOperation.getOrganizationId()).orElseGet(() -> {
+                // Organization was removed after the operation was archived
+                final OrganizationEntity organization = new OrganizationEntity();
+                organization.setOrganizationId(archivedOperation.getOrganizationId());
+                return organization;
+            }));
+        }
+        operation.setApplicationId(archivedOperation.getApplicationId());
+        operation.setApplicationName(archivedOperation.getApplicationName());
+        operation.setApplicationDescription(archivedOperation.getApplicationDescription());
+        operation.setApplicationOriginalScopes(archivedOperation.getApplicationOriginalScopes());
+        operation.setApplicationExtras(archivedOperation.getApplicationExtras());
+        operation.setUserAccountStatus(archivedOperation.getUserAccountStatus());
+        operation.setExternalOperationName(archivedOperation.getExternalOperationName());
+        operation.setExternalTransactionId(archivedOperation.getExternalTransactionId());
+        operation.setResult(archivedOperation.getResult());
+        operation.setTimestampCreated(archivedOperation.getTimestampCreated());
+        operation.setTimestampExpires(archivedOperation.getTimestampExpires());
+        operation.setLastResultId(archivedOperation.getLastResultId());
+        final List<OperationHistoryEntity> operationHistory = new ArrayList<>();
+        for (OperationHistoryArchiveEntity archivedHistory : archivedOperation.getOperationHistory()) {
+            final OperationHistoryEntity history = new OperationHistoryEntity(archivedOperation.getOperationId(), archivedHistory.getPrimaryKey().getResultId());
+            history.setRequestAuthStepResult(archivedHistory.getRequestAuthStepResult());
+            history.setRequestAuthMethod(archivedHistory.getRequestAuthMethod());
+            history.setRequestAuthInstruments(archivedHistory.getRequestAuthInstruments());
+            history.setRequestParams(archivedHistory.getRequestParams());
+            history.setResponseResult(archivedHistory.getResponseResult());
+            history.setResponseResultDescription(archivedHistory.getResponseResultDescription());
+            history.setResponseSteps(archivedHistory.getResponseSteps());
+            history.setResponseTimestampCreated(archivedHistory.getResponseTimestampCreated());
+            history.setResponseTimestampExpires(archivedHistory.getResponseTimestampExpires());
+            history.setChosenAuthMethod(archivedHistory.getChosenAuthMethod());
+            history.setMobileTokenActive(archivedHistory.isMobileTokenActive());
+            history.setPowerAuthOperationId(archivedHistory.getPowerAuthOperationId());
+            history.setPowerAuthAuthenticationContext(archivedHistory.getPowerAuthAuthenticationContext());
+            history.setOperation(operation);
+            operationHistory.add(history);
+        }
+        operation.setOperationHistory(operationHistory);
+        operation.setAfsActions(new ArrayList<>());
+        return operation;
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.converter.OperationConfigConverter;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationConfigEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationMethodConfigEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationConfigDetailResponse;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of operation configurations and configurations of authentication methods for operations.
+ * The snapshot is built once when the configuration is reloaded and it is never modified afterwards, so it can be
+ * safely shared by concurrent requests without locking. Lookups are plain map reads.
+ * <p>
+ * The returned operation configurations are shared between callers and they must not be modified.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public final class OperationConfigCatalogue {
+
+    private static final OperationConfigCatalogue EMPTY = new OperationConfigCatalogue(Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap());
+
+    private final List<GetOperationConfigDetailResponse> operationConfigList;
+    private final Map<String, GetOperationConfigDetailResponse> operationConfigs;
+    private final Map<String, Map<AuthMethod, Integer>> maxAuthFails;
+
+    private OperationConfigCatalogue(List<GetOperationConfigDetailResponse> operationConfigList, Map<String, GetOperationConfigDetailResponse> operationConfigs, Map<String, Map<AuthMethod, Integer>> maxAuthFails) {
+        this.operationConfigList = operationConfigList;
+        this.operationConfigs = operationConfigs;
+        this.maxAuthFails = maxAuthFails;
+    }
+
+    /**
+     * Get an empty catalogue.
+     * @return Empty catalogue.
+     */
+    public static OperationConfigCatalogue empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the catalogue from operation configurations and configurations of authentication methods for operations.
+     * @param operationConfigEntities Operation configurations.
+     * @param operationMethodConfigEntities Configurations of authentication methods for operations.
+     * @return Operation configuration catalogue.
+     */
+    public static OperationConfigCatalogue build(Iterable<OperationConfigEntity> operationConfigEntities, Iterable<OperationMethodConfigEntity> operationMethodConfigEntities) {
+        final OperationConfigConverter configConverter = new OperationConfigConverter();
+        final List<GetOperationConfigDetailResponse> operationConfigList = new ArrayList<>();
+        final Map<String, GetOperationConfigDetailResponse> operationConfigs = new HashMap<>();
+        for (OperationConfigEntity operationConfigEntity : operationConfigEntities) {
+            final GetOperationConfigDetailResponse operationConfig = configConverter.fromOperationConfigEntity(operationConfigEntity);
+            operationConfigList.add(operationConfig);
+            operationConfigs.put(operationConfig.getOperationName(), operationConfig);
+        }
+        final Map<String, Map<AuthMethod, Integer>> maxAuthFailsPerOperation = new HashMap<>();
+        for (OperationMethodConfigEntity operationMethodConfig : operationMethodConfigEntities) {
+            final OperationMethodConfigEntity.OperationAuthMethodKey primaryKey = operationMethodConfig.getPrimaryKey();
+            maxAuthFailsPerOperation.computeIfAbsent(primaryKey.getOperationName(), k -> new EnumMap<>(AuthMethod.class))
+                    .put(primaryKey.getAuthMethod(), operationMethodConfig.getMaxAuthFails());
+        }
+        final Map<String, Map<AuthMethod, Integer>> maxAuthFails = new HashMap<>();
+        // Max auth fails are nullable, the immutable map copies do not support null values
+        maxAuthFailsPerOperation.forEach((operationName, values) -> maxAuthFails.put(operationName, Collections.unmodifiableMap(values)));
+        return new OperationConfigCatalogue(List.copyOf(operationConfigList), Map.copyOf(operationConfigs), Map.copyOf(maxAuthFails));
+    }
+
+    /**
+     * Get all operation configurations.
+     * @return Operation configurations.
+     */
+    public List<GetOperationConfigDetailResponse> getOperationConfigs() {
+        return operationConfigList;
+    }
+
+    /**
+     * Get operation configuration.
+     * @param operationName Operation name.
+     * @return Operation configuration or null in case the operation is not configured.
+     */
+    public GetOperationConfigDetailResponse getOperationConfig(String operationName) {
+        return operationName != null ? operationConfigs.get(operationName) : null;
+    }
+
+    /**
+     * Check whether configuration of an authentication method exists for an operation.
+     * @param operationName Operation name.
+     * @param authMethod Authentication method.
+     * @return Whether configuration of the authentication method exists for the operation.
+     */
+    public boolean containsOperationMethodConfig(String operationName, AuthMethod authMethod) {
+        final Map<AuthMethod, Integer> values = operationName != null ? maxAuthFails.get(operationName) : null;
+        return values != null && values.containsKey(authMethod);
+    }
+
+    /**
+     * Get maximum number of authentication failures configured for an operation and authentication method.
+     * @param operationName Operation name.
+     * @param authMethod Authentication method.
+     * @return Maximum number of authentication failures or null in case the value is not configured.
+     */
+    public Integer getMaxAuthFails(String operationName, AuthMethod authMethod) {
+        final Map<AuthMethod, Integer> values = operationName != null ? maxAuthFails.get(operationName) : null;
+        return values != null ? values.get(authMethod) : null;
+    }
+
+}
@@ -19,7 +19,6 @@ package io.getlime.security.powerauth.app.nextstep.service;
 
 import com.wultra.core.audit.base.Audit;
 import com.wultra.core.audit.base.model.AuditDetail;
-import io.getlime.security.powerauth.app.nextstep.converter.OperationConfigConverter;
 import io.getlime.security.powerauth.app.nextstep.repository.AuthMethodRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.OperationConfigRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.OperationMethodConfigRepository;
@@ -28,19 +27,25 @@ import io.getlime.security.powerauth.app.nextstep.repository.catalogue.Repositor
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.AuthMethodEntity;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationConfigEntity;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationMethodConfigEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.*;
 import io.getlime.security.powerauth.lib.nextstep.model.request.*;
 import io.getlime.security.powerauth.lib.nextstep.model.response.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 
 /**
- * Service which handles persistence of operation configurations.
+ * Service which handles persistence of operation configurations. Operation configurations are served from an immutable
+ * in-memory catalogue, the catalogue is rebuilt and replaced atomically when the configuration is changed.
  *
  * @author Roman Strobl, roman.strobl@wultra.com
  */
@@ -54,22 +59,46 @@ public class OperationConfigurationService {
     private final OperationMethodConfigRepository operationMethodConfigRepository;
     private final OperationRepository operationRepository;
     private final AuthMethodRepository authMethodRepository;
+    private final ServiceCatalogue serviceCatalogue;
     private final Audit audit;
 
-    private final OperationConfigConverter configConverter = new OperationConfigConverter();
+    /**
+     * Immutable operation configuration catalogue, the reference is replaced atomically when the configuration is reloaded.
+     */
+    private volatile OperationConfigCatalogue operationConfigCatalogue = OperationConfigCatalogue.empty();
 
     /**
      * Service constructor.
      * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
      * @param audit Audit interface.
      */
     @Autowired
-    public OperationConfigurationService(RepositoryCatalogue repositoryCatalogue, Audit audit) {
+    public OperationConfigurationService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, Audit audit) {
         this.operationConfigRepository = repositoryCatalogue.getOperationConfigRepository();
         this.operationMethodConfigRepository = repositoryCatalogue.getOperationMethodConfigRepository();
         this.operationRepository = repositoryCatalogue.getOperationRepository();
         this.authMethodRepository = repositoryCatalogue.getAuthMethodRepository();
+        this.serviceCatalogue = serviceCatalogue;
         this.audit = audit;
+        reloadOperationConfigurations();
+    }
+
+    /**
+     * Get the current operation configuration catalogue.
+     * @return Operation configuration catalogue.
+     */
+    public OperationConfigCatalogue getOperationConfigCatalogue() {
+        return operationConfigCatalogue;
+    }
+
+    /**
+     * Reload operation configurations from database. A new catalogue is built and published atomically, requests
+     * which are being processed concurrently keep using the previous catalogue. Reloads are serialized, so that
+     * the last reload always publishes the latest committed configuration.
+     */
+    public synchronized void reloadOperationConfigurations() {
+        operationConfigCatalogue = OperationConfigCatalogue.build(operationConfigRepository.findAll(), operationMethodConfigRepository.findAll());
     }
 
     /**
@@ -94,6 +123,7 @@ public class OperationConfigurationService {
         operationConfig.setAfsConfigId(request.getAfsConfigId());
         operationConfig.setExpirationTime(request.getExpirationTime());
         operationConfig = operationConfigRepository.save(operationConfig);
+        reloadOperationConfigurationsAfterCompletion();
         logger.debug("Operation configuration was created, operation name: {}", operationConfig.getOperationName());
         audit.info("Operation configuration was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -117,25 +147,21 @@ public class OperationConfigurationService {
      * @return Operation configuration.
      * @throws OperationConfigNotFoundException Thrown when operation is not configured.
      */
-    @Transactional
     public GetOperationConfigDetailResponse getOperationConfig(String operationName) throws OperationConfigNotFoundException {
-        final OperationConfigEntity operationConfig = operationConfigRepository.findById(operationName).orElseThrow(() ->
-                new OperationConfigNotFoundException("Operation not configured, operation name: " + operationName));
-        return configConverter.fromOperationConfigEntity(operationConfig);
+        final GetOperationConfigDetailResponse operationConfig = operationConfigCatalogue.getOperationConfig(operationName);
+        if (operationConfig == null) {
+            throw new OperationConfigNotFoundException("Operation not configured, operation name: " + operationName);
+        }
+        return operationConfig;
     }
 
     /**
      * Get all operation configurations.
      * @return All operation configurations.
      */
-    @Transactional
     public GetOperationConfigListResponse getOperationConfigList() {
         final GetOperationConfigListResponse configsResponse = new GetOperationConfigListResponse();
-        final Iterable<OperationConfigEntity> allConfigs = operationConfigRepository.findAll();
-        for (OperationConfigEntity operationConfig: allConfigs) {
-            final GetOperationConfigDetailResponse config = configConverter.fromOperationConfigEntity(operationConfig);
-            configsResponse.getOperationConfigs().add(config);
-        }
+        configsResponse.getOperationConfigs().addAll(operationConfigCatalogue.getOperationConfigs());
         return configsResponse;
     }
 
@@ -155,6 +181,7 @@ public class OperationConfigurationService {
             throw new DeleteNotAllowedException("Operation configuration cannot be deleted because it is used: " + request.getOperationName());
         }
         operationConfigRepository.delete(operationConfig);
+        reloadOperationConfigurationsAfterCompletion();
         logger.debug("Operation configuration was deleted, operation name: {}", operationConfig.getOperationName());
         audit.info("Operation configuration was deleted", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -192,6 +219,7 @@ public class OperationConfigurationService {
         operationMethodConfig.setPrimaryKey(primaryKey);
         operationMethodConfig.setMaxAuthFails(request.getMaxAuthFails());
         operationMethodConfig = operationMethodConfigRepository.save(operationMethodConfig);
+        reloadOperationConfigurationsAfterCompletion();
         logger.debug("Operation and authentication method configuration was created, operation name: {}, authentication method: {}", operationMethodConfig.getPrimaryKey().getOperationName(), operationMethodConfig.getPrimaryKey().getAuthMethod());
         audit.info("Operation and method configuration was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -204,15 +232,21 @@ public class OperationConfigurationService {
         return response;
     }
 
-    @Transactional
+    /**
+     * Get configuration for operation and authentication method.
+     * @param request Get configuration for operation and authentication method request.
+     * @return Get configuration for operation and authentication method response.
+     * @throws OperationMethodConfigNotFoundException Thrown when configuration is not found.
+     */
     public GetOperationMethodConfigDetailResponse getOperationMethodConfigDetail(GetOperationMethodConfigDetailRequest request) throws OperationMethodConfigNotFoundException {
-        final OperationMethodConfigEntity.OperationAuthMethodKey primaryKey = new OperationMethodConfigEntity.OperationAuthMethodKey(request.getOperationName(), request.getAuthMethod());
-        final OperationMethodConfigEntity operationMethodConfig = operationMethodConfigRepository.findById(primaryKey).orElseThrow(() ->
-                new OperationMethodConfigNotFoundException("Configuration not found, operation name: " + request.getOperationName() + ", authentication method: " + request.getAuthMethod()));
+        final OperationConfigCatalogue catalogue = operationConfigCatalogue;
+        if (!catalogue.containsOperationMethodConfig(request.getOperationName(), request.getAuthMethod())) {
+            throw new OperationMethodConfigNotFoundException("Configuration not found, operation name: " + request.getOperationName() + ", authentication method: " + request.getAuthMethod());
+        }
         final GetOperationMethodConfigDetailResponse response = new GetOperationMethodConfigDetailResponse();
-        response.setOperationName(operationMethodConfig.getPrimaryKey().getOperationName());
-        response.setAuthMethod(operationMethodConfig.getPrimaryKey().getAuthMethod());
-        response.setMaxAuthFails(operationMethodConfig.getMaxAuthFails());
+        response.setOperationName(request.getOperationName());
+        response.setAuthMethod(request.getAuthMethod());
+        response.setMaxAuthFails(catalogue.getMaxAuthFails(request.getOperationName(), request.getAuthMethod()));
         return response;
     }
 
@@ -228,6 +262,7 @@ public class OperationConfigurationService {
         final OperationMethodConfigEntity operationMethodConfig = operationMethodConfigRepository.findById(primaryKey).orElseThrow(() ->
                 new OperationMethodConfigNotFoundException("Configuration not found, operation name: " + request.getOperationName() + ", authentication method: " + request.getAuthMethod()));
         operationMethodConfigRepository.delete(operationMethodConfig);
+        reloadOperationConfigurationsAfterCompletion();
         logger.debug("Operation and authentication method configuration was deleted, operation name: {}, authentication method: {}", operationMethodConfig.getPrimaryKey().getOperationName(), operationMethodConfig.getPrimaryKey().getAuthMethod());
         audit.info("Operation and authentication method configuration was deleted", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -240,4 +275,23 @@ public class OperationConfigurationService {
         return response;
     }
 
+    /**
+     * Reload operation configurations after the current transaction is completed, so that the catalogue contains
+     * only committed configuration. The configuration is reloaded immediately when no transaction is active.
+     * The configuration version is incremented, so that other nodes of the cluster reload the configuration, too.
+     */
+    private void reloadOperationConfigurationsAfterCompletion() {
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.OPERATION_CONFIG);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reloadOperationConfigurations();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                reloadOperationConfigurations();
+            }
+        });
+    }
+
 }
@@ -0,0 +1,282 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.app.nextstep.converter.OperationConverter;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationHistoryEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.OperationNotFoundException;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.OperationNotValidException;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This service provides operation details for the operation detail endpoints. Assembled operation details are cached
+ * in a bounded in-memory cache. Cached operation details are invalidated after the transaction of every change
+ * of the operation is completed. In case version check is enabled, the operation version is verified in database
+ * before a cached operation detail is used, so that changes of the operation performed on other nodes of the cluster
+ * are detected.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class OperationDetailCacheService {
+
+    private static final int INVALIDATION_STRIPE_COUNT = 256;
+
+    private final OperationRepository operationRepository;
+    private final ServiceCatalogue serviceCatalogue;
+    private final OperationConverter operationConverter;
+    private final NextStepServerConfiguration nextStepServerConfiguration;
+
+    private final Cache<String, CacheEntry> cache;
+
+    /**
+     * Invalidation counters striped by operation ID, a cache entry is stored only in case the operation was not
+     * invalidated while the operation detail was being loaded.
+     */
+    private final AtomicLongArray invalidationCounters = new AtomicLongArray(INVALIDATION_STRIPE_COUNT);
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    /**
+     * Operation detail cache service constructor.
+     * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
+     * @param operationConverter Operation converter.
+     * @param nextStepServerConfiguration Next Step server configuration.
+     * @param meterRegistry Meter registry.
+     */
+    @Autowired
+    public OperationDetailCacheService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, OperationConverter operationConverter, NextStepServerConfiguration nextStepServerConfiguration, MeterRegistry meterRegistry) {
+        this.operationRepository = repositoryCatalogue.getOperationRepository();
+        this.serviceCatalogue = serviceCatalogue;
+        this.operationConverter = operationConverter;
+        this.nextStepServerConfiguration = nextStepServerConfiguration;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(nextStepServerConfiguration.getOperationDetailCacheMaxSize())
+                .expireAfterWrite(Duration.ofMillis(nextStepServerConfiguration.getOperationDetailCacheTimeToLive()))
+                .build();
+        this.hitCounter = Counter.builder("powerauth.nextstep.operation.detail.cache")
+                .tag("result", "hit")
+                .description("Number of operation detail requests served from cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("powerauth.nextstep.operation.detail.cache")
+                .tag("result", "miss")
+                .description("Number of operation detail requests not served from cache")
+                .register(meterRegistry);
+        Gauge.builder("powerauth.nextstep.operation.detail.cache.size", this, OperationDetailCacheService::size)
+                .description("Number of cached operation details")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get operation detail. The operation detail is served from cache in case the cached operation detail is valid.
+     * @param operationId Operation ID.
+     * @return Operation detail.
+     * @throws OperationNotFoundException Thrown when operation does not exist.
+     * @throws OperationNotValidException Thrown when operation is invalid.
+     */
+    public GetOperationDetailResponse getOperationDetail(String operationId) throws OperationNotFoundException, OperationNotValidException {
+        if (!nextStepServerConfiguration.isOperationDetailCacheEnabled()) {
+            return loadOperationDetail(operationId).response();
+        }
+        final int stripe = stripe(operationId);
+        final long invalidationCounter = invalidationCounters.get(stripe);
+        final CacheEntry cachedEntry = cache.getIfPresent(operationId);
+        if (cachedEntry != null && isValid(operationId, cachedEntry)) {
+            hitCounter.increment();
+            return cachedEntry.response();
+        }
+        missCounter.increment();
+        final CacheEntry entry = loadOperationDetail(operationId);
+        if (entry.cacheable()) {
+            // The invalidation counter is checked and the entry is stored atomically with respect to invalidation
+            // of the same operation, which increments the counter before the cached entry is removed
+            cache.asMap().compute(operationId, (id, existingEntry) ->
+                    invalidationCounters.get(stripe) == invalidationCounter ? entry : existingEntry);
+        }
+        return entry.response();
+    }
+
+    /**
+     * Get operation details for multiple operations. Operations are loaded from database using a single query,
+     * cached operation details are not used. Authentication failure counters of all operations are loaded using
+     * a single query. Operations which do not exist are not included in the result.
+     * @param operationIds Operation IDs.
+     * @return Operation details.
+     */
+    public List<GetOperationDetailResponse> getOperationDetails(List<String> operationIds) {
+        final OperationPersistenceService operationPersistenceService = serviceCatalogue.getOperationPersistenceService();
+        final StepResolutionService stepResolutionService = serviceCatalogue.getStepResolutionService();
+        final List<OperationEntity> operations = operationPersistenceService.getOperationDetails(operationIds);
+        final Map<String, Integer> remainingAttempts = stepResolutionService.getNumberOfRemainingAttempts(operations);
+        final List<GetOperationDetailResponse> operationDetails = new ArrayList<>();
+        for (OperationEntity operation : operations) {
+            operationDetails.add(convertOperationDetail(operation, remainingAttempts.get(operation.getOperationId())));
+        }
+        return operationDetails;
+    }
+
+    /**
+     * Invalidate cached operation detail. In case a transaction is active, the cached operation detail is invalidated
+     * after the transaction is completed, so that neither an operation detail loaded before the commit nor an uncommitted
+     * operation detail is kept in cache.
+     * @param operationId Operation ID.
+     */
+    public void invalidate(String operationId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateImpl(operationId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidateImpl(operationId);
+            }
+        });
+    }
+
+    /**
+     * Remove cached operation detail.
+     * @param operationId Operation ID.
+     */
+    private void invalidateImpl(String operationId) {
+        invalidationCounters.incrementAndGet(stripe(operationId));
+        cache.invalidate(operationId);
+    }
+
+    /**
+     * Load operation detail from database and convert it into operation detail response.
+     * @param operationId Operation ID.
+     * @return Cache entry with operation detail.
+     * @throws OperationNotFoundException Thrown when operation does not exist.
+     * @throws OperationNotValidException Thrown when operation is invalid.
+     */
+    private CacheEntry loadOperationDetail(String operationId) throws OperationNotFoundException, OperationNotValidException {
+        final OperationPersistenceService operationPersistenceService = serviceCatalogue.getOperationPersistenceService();
+        final StepResolutionService stepResolutionService = serviceCatalogue.getStepResolutionService();
+        final OperationEntity operation = operationPersistenceService.getOperationDetail(operationId);
+        final GetOperationDetailResponse response = convertOperationDetail(operation, stepResolutionService.getNumberOfRemainingAttempts(operation));
+        return new CacheEntry(response, operation.getVersion(), isCacheable(operation));
+    }
+
+    /**
+     * Convert an operation entity into operation detail response.
+     * @param operation Operation entity.
+     * @param remainingAttempts Number of remaining authentication attempts, null value is used for no limit.
+     * @return Operation detail response.
+     */
+    private GetOperationDetailResponse convertOperationDetail(OperationEntity operation, Integer remainingAttempts) {
+        final OperationPersistenceService operationPersistenceService = serviceCatalogue.getOperationPersistenceService();
+
+        final GetOperationDetailResponse response = operationConverter.fromEntity(operation);
+
+        // add steps from current response
+        response.getSteps().addAll(operationPersistenceService.getResponseAuthSteps(operation));
+
+        // set number of remaining authentication attempts
+        response.setRemainingAttempts(remainingAttempts);
+
+        response.setTimestampCreated(operation.getTimestampCreated());
+        response.setTimestampExpires(operation.getTimestampExpires());
+        return response;
+    }
+
+    /**
+     * Get whether operation detail can be cached. Details of pending operations with a PowerAuth operation are
+     * not cached, because the status of such operations is reconciled with PowerAuth server on each request.
+     * @param operation Operation entity.
+     * @return Whether operation detail can be cached.
+     */
+    private boolean isCacheable(OperationEntity operation) {
+        final OperationHistoryEntity currentHistory = operation.getCurrentOperationHistoryEntity();
+        return currentHistory == null
+                || currentHistory.getResponseResult() != AuthResult.CONTINUE
+                || !currentHistory.isMobileTokenActive()
+                || currentHistory.getPowerAuthOperationId() == null;
+    }
+
+    /**
+     * Check whether cached operation detail is valid.
+     * @param operationId Operation ID.
+     * @param entry Cache entry.
+     * @return Whether cached operation detail is valid.
+     */
+    private boolean isValid(String operationId, CacheEntry entry) {
+        if (!nextStepServerConfiguration.isOperationDetailCacheVersionCheckEnabled()) {
+            return true;
+        }
+        final Optional<Long> versionOptional = operationRepository.findVersionByOperationId(operationId);
+        if (versionOptional.isEmpty()) {
+            // Archived operations are not updated, operations which were archived after caching are reloaded
+            return entry.version() == null;
+        }
+        return Objects.equals(versionOptional.get(), entry.version() == null ? 0L : entry.version());
+    }
+
+    /**
+     * Get approximate number of cached operation details.
+     * @return Number of cached operation details.
+     */
+    private long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Get invalidation stripe for an operation ID.
+     * @param operationId Operation ID.
+     * @return Invalidation stripe.
+     */
+    private int stripe(String operationId) {
+        return Math.floorMod(operationId.hashCode(), INVALIDATION_STRIPE_COUNT);
+    }
+
+    /**
+     * Cached operation detail.
+     * @param response Operation detail response.
+     * @param version Operation version, null value is used for archived operations.
+     * @param cacheable Whether the operation detail can be cached.
+     */
+    private record CacheEntry(GetOperationDetailResponse response, Long version, boolean cacheable) {
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.NextStepServiceException;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * This service fails pending operations which have already expired. The cleanup job runs periodically on a single
+ * node of the cluster, the scheduler lock is stored in the shedlock table.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+@ConditionalOnProperty(name = "powerauth.nextstep.operation.expiration.cleanup.enabled", havingValue = "true")
+public class OperationExpirationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationExpirationService.class);
+
+    private final OperationRepository operationRepository;
+    private final ServiceCatalogue serviceCatalogue;
+    private final NextStepServerConfiguration nextStepServerConfiguration;
+
+    /**
+     * Operation expiration service constructor.
+     * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
+     * @param nextStepServerConfiguration Next Step server configuration.
+     */
+    @Autowired
+    public OperationExpirationService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, NextStepServerConfiguration nextStepServerConfiguration) {
+        this.operationRepository = repositoryCatalogue.getOperationRepository();
+        this.serviceCatalogue = serviceCatalogue;
+        this.nextStepServerConfiguration = nextStepServerConfiguration;
+    }
+
+    /**
+     * Scheduled job which fails expired operations.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.nextstep.operation.expiration.cleanup.fixedDelay}")
+    @SchedulerLock(name = "expireOperationsTask", lockAtMostFor = "5m")
+    public void expireOperationsTask() {
+        logger.debug("Expired operation cleanup started");
+        final int count = expireOperations();
+        if (count > 0) {
+            logger.info("Expired operation cleanup finished, number of expired operations: {}", count);
+        } else {
+            logger.debug("Expired operation cleanup finished, no operations were expired");
+        }
+    }
+
+    /**
+     * Fail pending operations which are expired. Operations are processed in batches using keyset pagination,
+     * each operation is updated separately so that a failure of a single operation does not stop the cleanup.
+     * No further batch is started once the maximum duration of the run elapses, so that the run finishes before
+     * the scheduler lock is released. Remaining operations are expired by the next run.
+     * @return Number of expired operations.
+     */
+    public int expireOperations() {
+        final OperationPersistenceService operationPersistenceService = serviceCatalogue.getOperationPersistenceService();
+        final int batchSize = nextStepServerConfiguration.getOperationExpirationCleanupBatchSize();
+        final long deadline = System.currentTimeMillis() + nextStepServerConfiguration.getOperationExpirationCleanupMaxDuration();
+        final Date timestamp = new Date();
+        int count = 0;
+        String lastOperationId = "";
+        List<String> operationIds;
+        do {
+            operationIds = operationRepository.findExpiredOperationIds(timestamp, lastOperationId, PageRequest.of(0, batchSize));
+            for (String operationId : operationIds) {
+                try {
+                    if (operationPersistenceService.expireOperation(operationId)) {
+                        count++;
+                    }
+                } catch (NextStepServiceException | RuntimeException ex) {
+                    logger.warn("Expiration of operation failed, operation ID: {}, error: {}", operationId, ex.getMessage());
+                    logger.debug(ex.getMessage(), ex);
+                }
+                lastOperationId = operationId;
+            }
+            if (operationIds.size() == batchSize && System.currentTimeMillis() >= deadline) {
+                logger.debug("Expired operation cleanup reached its maximum duration, remaining operations are expired by the next run");
+                break;
+            }
+        } while (operationIds.size() == batchSize);
+        return count;
+    }
+
+}
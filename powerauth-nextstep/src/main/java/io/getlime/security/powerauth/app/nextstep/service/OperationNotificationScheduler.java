@@ -0,0 +1,85 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Scheduled job which delivers operation change notifications to the Data Adapter. The job runs on a single node
+ * of the cluster, the scheduler lock is stored in the shedlock table.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+@ConditionalOnProperty(name = "powerauth.nextstep.operation.notification.dispatcher.enabled", havingValue = "true")
+public class OperationNotificationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationNotificationScheduler.class);
+
+    private final ServiceCatalogue serviceCatalogue;
+
+    /**
+     * Operation notification scheduler constructor.
+     * @param serviceCatalogue Service catalogue.
+     */
+    @Autowired
+    public OperationNotificationScheduler(@Lazy ServiceCatalogue serviceCatalogue) {
+        this.serviceCatalogue = serviceCatalogue;
+    }
+
+    /**
+     * Scheduled job which delivers operation change notifications.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.nextstep.operation.notification.dispatcher.fixedDelay}")
+    @SchedulerLock(name = "dispatchOperationNotificationsTask", lockAtMostFor = "5m")
+    public void dispatchOperationNotificationsTask() {
+        try {
+            final int count = serviceCatalogue.getOperationNotificationService().dispatchNotifications();
+            if (count > 0) {
+                logger.debug("Operation change notifications were delivered, number of notifications: {}", count);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Delivery of operation change notifications failed, error: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Scheduled job which removes failed operation change notifications after the retention period.
+     */
+    @Scheduled(fixedDelayString = "${powerauth.nextstep.operation.notification.cleanup.fixedDelay}")
+    @SchedulerLock(name = "deleteFailedOperationNotificationsTask", lockAtMostFor = "5m")
+    public void deleteFailedOperationNotificationsTask() {
+        try {
+            final int count = serviceCatalogue.getOperationNotificationService().deleteFailedNotifications();
+            if (count > 0) {
+                logger.info("Failed operation change notifications were removed, number of notifications: {}", count);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Removal of failed operation change notifications failed, error: {}", ex.getMessage(), ex);
+        }
+    }
+
+}
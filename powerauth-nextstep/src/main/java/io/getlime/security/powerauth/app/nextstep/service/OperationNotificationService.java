@@ -0,0 +1,188 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationNotificationRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationNotificationEntity;
+import io.getlime.security.powerauth.app.nextstep.service.adapter.OperationCustomizationService;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClientErrorException;
+import io.getlime.security.powerauth.lib.dataadapter.model.request.OperationChangeNotificationRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.OperationNotificationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This service handles operation change notifications for the Data Adapter. Notifications are stored in table
+ * ns_operation_notification together with the operation update and they are delivered by a scheduled job,
+ * so that the operation update does not wait for the Data Adapter.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class OperationNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationNotificationService.class);
+
+    private static final int ERROR_MESSAGE_MAX_LENGTH = 256;
+
+    private final OperationNotificationRepository operationNotificationRepository;
+    private final ServiceCatalogue serviceCatalogue;
+    private final NextStepServerConfiguration nextStepServerConfiguration;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Operation notification service constructor.
+     * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
+     * @param nextStepServerConfiguration Next Step server configuration.
+     * @param objectMapper Object mapper.
+     */
+    @Autowired
+    public OperationNotificationService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, NextStepServerConfiguration nextStepServerConfiguration, ObjectMapper objectMapper) {
+        this.operationNotificationRepository = repositoryCatalogue.getOperationNotificationRepository();
+        this.serviceCatalogue = serviceCatalogue;
+        this.nextStepServerConfiguration = nextStepServerConfiguration;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Store an operation change notification for the Data Adapter. The notification is stored only in case
+     * the operation is finished. The method should be called in the transaction which updates the operation.
+     * @param operation Operation entity.
+     */
+    public void createNotification(OperationEntity operation) {
+        final OperationCustomizationService operationCustomizationService = serviceCatalogue.getOperationCustomizationService();
+        final Optional<OperationChangeNotificationRequest> requestOptional = operationCustomizationService.createOperationChangeNotification(operation);
+        if (requestOptional.isEmpty()) {
+            return;
+        }
+        final OperationChangeNotificationRequest request = requestOptional.get();
+        final OperationNotificationEntity notification = new OperationNotificationEntity();
+        notification.setOperationId(operation.getOperationId());
+        notification.setOperationChange(request.getOperationChange());
+        try {
+            notification.setRequestData(objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException ex) {
+            logger.error("Error occurred while serializing operation change notification, operation ID: {}", operation.getOperationId(), ex);
+            return;
+        }
+        notification.setStatus(OperationNotificationStatus.PENDING);
+        notification.setAttemptCount(0);
+        final Date timestampCreated = new Date();
+        notification.setTimestampCreated(timestampCreated);
+        notification.setTimestampNextAttempt(timestampCreated);
+        operationNotificationRepository.save(notification);
+        logger.debug("Operation change notification was created, operation ID: {}, operation change: {}", operation.getOperationId(), request.getOperationChange());
+    }
+
+    /**
+     * Deliver pending operation change notifications to the Data Adapter. Notifications are loaded in batches,
+     * only the oldest pending notification of each operation is delivered in a batch to keep the order
+     * of notifications for the operation. Delivered notifications are removed, failed deliveries are retried
+     * with an exponential backoff until the maximum number of attempts is reached.
+     * @return Number of delivered notifications.
+     */
+    public int dispatchNotifications() {
+        final int batchSize = nextStepServerConfiguration.getOperationNotificationBatchSize();
+        final Date timestamp = new Date();
+        int count = 0;
+        List<OperationNotificationEntity> notifications;
+        do {
+            notifications = operationNotificationRepository.findNotificationsForDelivery(OperationNotificationStatus.PENDING, timestamp, PageRequest.of(0, batchSize));
+            for (OperationNotificationEntity notification : notifications) {
+                if (deliverNotification(notification)) {
+                    count++;
+                }
+            }
+        } while (notifications.size() == batchSize);
+        return count;
+    }
+
+    /**
+     * Delete failed operation change notifications which are older than the configured retention period.
+     * @return Number of deleted notifications.
+     */
+    public int deleteFailedNotifications() {
+        final Duration retention = Duration.ofDays(nextStepServerConfiguration.getOperationNotificationFailedRetentionInDays());
+        final Date timestamp = new Date(System.currentTimeMillis() - retention.toMillis());
+        return operationNotificationRepository.deleteNotificationsCreatedBefore(OperationNotificationStatus.FAILED, timestamp);
+    }
+
+    /**
+     * Deliver an operation change notification to the Data Adapter.
+     * @param notification Operation change notification.
+     * @return Whether the notification was delivered.
+     */
+    private boolean deliverNotification(OperationNotificationEntity notification) {
+        final OperationCustomizationService operationCustomizationService = serviceCatalogue.getOperationCustomizationService();
+        try {
+            final OperationChangeNotificationRequest request = objectMapper.readValue(notification.getRequestData(), OperationChangeNotificationRequest.class);
+            operationCustomizationService.notifyOperationChange(request);
+        } catch (JsonProcessingException | DataAdapterClientErrorException | RuntimeException ex) {
+            logger.debug(ex.getMessage(), ex);
+            handleFailedDelivery(notification, ex.getMessage());
+            return false;
+        }
+        operationNotificationRepository.delete(notification);
+        logger.debug("Operation change notification was delivered, operation ID: {}, operation change: {}", notification.getOperationId(), notification.getOperationChange());
+        return true;
+    }
+
+    /**
+     * Handle a failed delivery of an operation change notification. The next delivery attempt is scheduled
+     * using an exponential backoff, the notification fails once the maximum number of attempts is reached.
+     * @param notification Operation change notification.
+     * @param errorMessage Error message.
+     */
+    private void handleFailedDelivery(OperationNotificationEntity notification, String errorMessage) {
+        final int attemptCount = notification.getAttemptCount() + 1;
+        notification.setAttemptCount(attemptCount);
+        if (errorMessage != null && errorMessage.length() > ERROR_MESSAGE_MAX_LENGTH) {
+            errorMessage = errorMessage.substring(0, ERROR_MESSAGE_MAX_LENGTH);
+        }
+        notification.setErrorMessage(errorMessage);
+        if (attemptCount >= nextStepServerConfiguration.getOperationNotificationMaxAttempts()) {
+            notification.setStatus(OperationNotificationStatus.FAILED);
+            logger.warn("Operation change notification failed, operation ID: {}, attempt count: {}, error: {}", notification.getOperationId(), attemptCount, errorMessage);
+        } else {
+            final long retryDelay = nextStepServerConfiguration.getOperationNotificationRetryDelay();
+            final long retryDelayMax = nextStepServerConfiguration.getOperationNotificationRetryDelayMax();
+            // Avoid overflow of the delay for high attempt counts
+            final long delay = Math.min(retryDelayMax, retryDelay << Math.min(attemptCount - 1, 30));
+            notification.setTimestampNextAttempt(new Date(System.currentTimeMillis() + delay));
+            logger.info("Operation change notification delivery failed, operation ID: {}, attempt count: {}, error: {}", notification.getOperationId(), attemptCount, errorMessage);
+        }
+        operationNotificationRepository.save(notification);
+    }
+
+}
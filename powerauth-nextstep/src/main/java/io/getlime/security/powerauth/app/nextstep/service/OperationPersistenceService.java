@@ -27,12 +27,14 @@ import com.wultra.core.audit.base.model.AuditDetail;
 import com.wultra.security.powerauth.client.model.enumeration.OperationStatus;
 import com.wultra.security.powerauth.client.model.response.OperationDetailResponse;
 import io.getlime.security.powerauth.app.nextstep.repository.AuthenticationRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationAfsActionRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationArchiveRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationAuthCounterRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.OperationHistoryRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.OperationRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.OrganizationRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.*;
-import io.getlime.security.powerauth.app.nextstep.service.adapter.OperationCustomizationService;
 import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.ApplicationContext;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.AuthStep;
@@ -52,12 +54,19 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * This service handles conversion of operation request/response objects into operation entities.
@@ -76,6 +85,9 @@ public class OperationPersistenceService {
     private final OperationRepository operationRepository;
     private final OrganizationRepository organizationRepository;
     private final OperationHistoryRepository operationHistoryRepository;
+    private final OperationAfsActionRepository operationAfsActionRepository;
+    private final OperationArchiveRepository operationArchiveRepository;
+    private final OperationAuthCounterRepository operationAuthCounterRepository;
     private final AuthenticationRepository authenticationRepository;
     private final ServiceCatalogue serviceCatalogue;
     private final Audit audit;
@@ -96,6 +108,9 @@ public class OperationPersistenceService {
         this.operationRepository = repositoryCatalogue.getOperationRepository();
         this.organizationRepository = repositoryCatalogue.getOrganizationRepository();
         this.operationHistoryRepository = repositoryCatalogue.getOperationHistoryRepository();
+        this.operationAfsActionRepository = repositoryCatalogue.getOperationAfsActionRepository();
+        this.operationArchiveRepository = repositoryCatalogue.getOperationArchiveRepository();
+        this.operationAuthCounterRepository = repositoryCatalogue.getOperationAuthCounterRepository();
         this.authenticationRepository = repositoryCatalogue.getAuthenticationRepository();
         this.serviceCatalogue = serviceCatalogue;
         this.audit = audit;
@@ -139,10 +154,12 @@ public class OperationPersistenceService {
         }
         operation.setTimestampCreated(response.getTimestampCreated());
         operation.setTimestampExpires(response.getTimestampExpires());
+        // New operation starts with an empty history, the first history record is allocated before the operation is saved
+        operation.setLastResultId(0L);
+        final Long resultId = idGeneratorService.generateOperationHistoryId(operation);
         operation = operationRepository.save(operation);
         logger.debug("Operation was created, operation ID: {}, operation name: {}", operation.getOperationId(), operation.getOperationName());
-        final OperationHistoryEntity operationHistory = new OperationHistoryEntity(operation.getOperationId(),
-                idGeneratorService.generateOperationHistoryId(operation.getOperationId()));
+        final OperationHistoryEntity operationHistory = new OperationHistoryEntity(operation.getOperationId(), resultId);
         operationHistory.setRequestAuthMethod(AuthMethod.INIT);
         operationHistory.setRequestAuthStepResult(AuthStepResult.CONFIRMED);
         operationHistory.setResponseResult(response.getResult());
@@ -197,8 +214,13 @@ public class OperationPersistenceService {
      * @throws InvalidRequestException Thrown when request is invalid.
      * @throws OrganizationNotFoundException Thrown when organization is not found.
      */
+    @Transactional
     public UpdateOperationResponse updateOperation(UpdateOperationRequest request) throws OperationAlreadyFailedException, OperationAlreadyFinishedException, OperationAlreadyCanceledException, AuthMethodNotFoundException, OperationNotFoundException, OperationNotValidException, InvalidConfigurationException, InvalidRequestException, OrganizationNotFoundException {
         final StepResolutionService stepResolutionService = serviceCatalogue.getStepResolutionService();
+        // Concurrent updates of the operation are serialized, the result ID counter is incremented by a single update at a time
+        if (operationRepository.findForUpdateByOperationId(request.getOperationId()).isEmpty()) {
+            throw new OperationNotFoundException("Operation not found, operation ID: " + request.getOperationId());
+        }
         // Resolve response based on dynamic step definitions
         final UpdateOperationResponse response = stepResolutionService.resolveNextStepResponse(request);
 
@@ -207,9 +229,50 @@ public class OperationPersistenceService {
         return response;
     }
 
+    /**
+     * Fail a pending operation which has already expired. The operation is updated the same way as when an update
+     * of an expired operation is received from the client, the operation fails with result description operation.timeout
+     * and the Data Adapter is notified about the operation change.
+     *
+     * @param operationId Operation ID.
+     * @return Whether the operation was expired, false value is returned when the operation is no longer pending.
+     * @throws OperationAlreadyFailedException Thrown when operation is already failed.
+     * @throws OperationAlreadyFinishedException Thrown when operation is already finished.
+     * @throws OperationAlreadyCanceledException Thrown when operation is already canceled.
+     * @throws AuthMethodNotFoundException Thrown when authentication method is not found.
+     * @throws OperationNotFoundException Thrown when operation is not found.
+     * @throws OperationNotValidException Thrown when operation is not valid.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws InvalidRequestException Thrown when request is invalid.
+     * @throws OrganizationNotFoundException Thrown when organization is not found.
+     */
+    @Transactional
+    public boolean expireOperation(String operationId) throws OperationAlreadyFailedException, OperationAlreadyFinishedException, OperationAlreadyCanceledException, AuthMethodNotFoundException, OperationNotFoundException, OperationNotValidException, InvalidConfigurationException, InvalidRequestException, OrganizationNotFoundException {
+        final OperationEntity operation = getOperation(operationId);
+        if (operation.getResult() != AuthResult.CONTINUE || !operation.isExpired()) {
+            // Operation was updated in the meantime
+            return false;
+        }
+        final OperationHistoryEntity currentHistory = operation.getCurrentOperationHistoryEntity();
+        if (currentHistory == null) {
+            throw new OperationNotValidException("Operation is missing history");
+        }
+        final UpdateOperationRequest request = new UpdateOperationRequest();
+        request.setOperationId(operationId);
+        request.setUserId(operation.getUserId());
+        request.setAuthMethod(currentHistory.getChosenAuthMethod() != null ? currentHistory.getChosenAuthMethod() : currentHistory.getRequestAuthMethod());
+        // Cancellation is allowed for any authentication method, step resolution changes the result to AUTH_METHOD_FAILED for expired operations
+        request.setAuthStepResult(AuthStepResult.CANCELED);
+        request.setAuthStepResultDescription(OperationCancelReason.TIMED_OUT_OPERATION.toString());
+        updateOperation(request);
+        logger.debug("Expired operation was failed, operation ID: {}, operation name: {}", operation.getOperationId(), operation.getOperationName());
+        return true;
+    }
+
     /**
      * Convert an UpdateOperationRequest and UpdateOperationResponse into OperationEntity and OperationHistoryEntity.
      * Both entities are persisted to update the status of processed operation as well as update its history.
+     * All changes are written in a single flush using JDBC batches before the operation version is incremented.
      *
      * @param request  create request received from the client
      * @param response create response generated for the client
@@ -218,9 +281,9 @@ public class OperationPersistenceService {
      */
     private void updateOperation(UpdateOperationRequest request, UpdateOperationResponse response) throws OperationNotFoundException, OrganizationNotFoundException {
         final IdGeneratorService idGeneratorService = serviceCatalogue.getIdGeneratorService();
-        final OperationCustomizationService operationCustomizationService = serviceCatalogue.getOperationCustomizationService();
+        final OperationNotificationService operationNotificationService = serviceCatalogue.getOperationNotificationService();
 
-        OperationEntity operation = operationRepository.findById(response.getOperationId()).orElseThrow(() ->
+        final OperationEntity operation = operationRepository.findWithHistoryByOperationId(response.getOperationId()).orElseThrow(() ->
                 new OperationNotFoundException("Operation not found, operation ID: " + response.getOperationId()));
         final AuthResult originalResult = operation.getResult();
         if (request.getUserId() != null) {
@@ -239,8 +302,9 @@ public class OperationPersistenceService {
         // operation expiration time matches current response expiration time
         operation.setTimestampExpires(response.getTimestampExpires());
 
+        // The result ID counter is updated in the operation entity and saved together with the new history record
         final OperationHistoryEntity operationHistory = new OperationHistoryEntity(operation.getOperationId(),
-                idGeneratorService.generateOperationHistoryId(operation.getOperationId()));
+                idGeneratorService.generateOperationHistoryId(operation));
         operationHistory.setRequestAuthMethod(request.getAuthMethod());
         operationHistory.setRequestAuthStepResult(request.getAuthStepResult());
         if (request.getAuthenticationId() != null) {
@@ -267,8 +331,15 @@ public class OperationPersistenceService {
         }
         operationHistory.setResponseTimestampCreated(response.getTimestampCreated());
         operationHistory.setResponseTimestampExpires(response.getTimestampExpires());
+        // The operation is managed, the new history record is inserted by cascade when the changes are flushed
         operation.getOperationHistory().add(operationHistory);
-        operation = operationRepository.save(operation);
+        updateAuthCounter(operation.getOperationId(), operationHistory.getRequestAuthMethod(), operationHistory.getRequestAuthStepResult());
+        if (!originalResult.equals(operation.getResult())) {
+            // The notification is delivered to the Data Adapter asynchronously by the notification dispatcher
+            operationNotificationService.createNotification(operation);
+        }
+        // Pending changes are flushed together before the version of the operation is incremented
+        invalidateOperationDetail(operation.getOperationId());
         logger.debug("Operation was updated, operation ID: {}, operation name: {}", operation.getOperationId(), operation.getOperationName());
         audit.info("Operation was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_OPERATION)
@@ -288,9 +359,49 @@ public class OperationPersistenceService {
                 .param("responseResult", operationHistory.getResponseResult())
                 .param("responseSteps", operationHistory.getResponseSteps())
                 .build());
-        if (!originalResult.equals(operation.getResult())) {
-            operationCustomizationService.notifyOperationChange(operation);
+    }
+
+    /**
+     * Increment version of an operation and invalidate its cached operation detail. The method is called after
+     * every change of the operation, its history or its AFS actions. The update query flushes pending changes
+     * of the operation, so the method must be called within the transaction of the change.
+     *
+     * @param operationId Operation ID.
+     */
+    private void invalidateOperationDetail(String operationId) {
+        operationRepository.incrementVersion(operationId);
+        serviceCatalogue.getOperationDetailCacheService().invalidate(operationId);
+    }
+
+    /**
+     * Update authentication failure counter for an operation and authentication method. The counter is updated
+     * only for failed authentication steps. Existing counters are updated atomically in database, a new counter
+     * is inserted in case the counter does not exist yet. The caller must hold a pessimistic write lock
+     * of the operation row, so that the counter is not inserted concurrently.
+     *
+     * @param operationId Operation ID.
+     * @param authMethod Authentication method.
+     * @param authStepResult Authentication step result.
+     */
+    private void updateAuthCounter(String operationId, AuthMethod authMethod, AuthStepResult authStepResult) {
+        final int updatedCount;
+        if (authStepResult == AuthStepResult.AUTH_FAILED) {
+            updatedCount = operationAuthCounterRepository.incrementAuthFailCount(operationId, authMethod);
+        } else if (authStepResult == AuthStepResult.AUTH_METHOD_FAILED) {
+            updatedCount = operationAuthCounterRepository.updateAuthMethodFailed(operationId, authMethod);
+        } else {
+            return;
+        }
+        if (updatedCount > 0) {
+            return;
+        }
+        final OperationAuthCounterEntity authCounter = new OperationAuthCounterEntity(operationId, authMethod);
+        if (authStepResult == AuthStepResult.AUTH_FAILED) {
+            authCounter.setAuthFailCount(1);
+        } else {
+            authCounter.setAuthMethodFailed(true);
         }
+        operationAuthCounterRepository.save(authCounter);
     }
 
     /**
@@ -299,12 +410,14 @@ public class OperationPersistenceService {
      * @throws OperationNotFoundException Thrown when operation does not exist.
      * @throws OrganizationNotFoundException Thrown when organization is not found.
      */
+    @Transactional
     public void updateOperationUser(UpdateOperationUserRequest request) throws OperationNotFoundException, OrganizationNotFoundException {
         final String operationId = request.getOperationId();
         final String userId = request.getUserId();
         final String organizationId = request.getOrganizationId();
         final UserAccountStatus accountStatus = request.getAccountStatus();
-        final OperationEntity operation = getOperation(operationId);
+        final OperationEntity operation = operationRepository.findById(operationId).orElseThrow(() ->
+                new OperationNotFoundException("Operation not found, operation ID: " + operationId));
         operation.setUserId(userId);
         if (organizationId != null) {
             final OrganizationEntity organization = organizationRepository.findById(organizationId).orElseThrow(() ->
@@ -314,7 +427,7 @@ public class OperationPersistenceService {
         if (accountStatus != null) {
             operation.setUserAccountStatus(accountStatus);
         }
-        operationRepository.save(operation);
+        invalidateOperationDetail(operation.getOperationId());
         logger.debug("Operation user was updated, operation ID: {}, operation name: {}", operation.getOperationId(), operation.getOperationName());
         audit.info("Operation user was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_OPERATION)
@@ -330,6 +443,7 @@ public class OperationPersistenceService {
      * @param request Request to update form data.
      * @throws OperationNotFoundException Thrown when operation does not exist.
      */
+    @Transactional
     public void updateFormData(UpdateFormDataRequest request) throws OperationNotFoundException {
         final OperationEntity operation = operationRepository.findById(request.getOperationId()).orElseThrow(() ->
                 new OperationNotFoundException("Operation not found, operation ID: " + request.getOperationId()));
@@ -342,7 +456,7 @@ public class OperationPersistenceService {
             logger.error("Error occurred while serializing operation form data", e);
             audit.error("Error occurred while serializing operation form data", e);
         }
-        operationRepository.save(operation);
+        invalidateOperationDetail(operation.getOperationId());
         logger.debug("Operation form data was updated, operation ID: {}, operation name: {}", operation.getOperationId(), operation.getOperationName());
         audit.info("Operation form data was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_OPERATION)
@@ -363,27 +477,29 @@ public class OperationPersistenceService {
      * @throws InvalidRequestException Thrown when request is invalid.
      * @throws OperationNotValidException Thrown when operation is invalid.
      */
+    @Transactional
     public void updateChosenAuthMethod(UpdateChosenAuthMethodRequest request) throws OperationNotFoundException, InvalidRequestException, OperationNotValidException {
         final OperationEntity operation = operationRepository.findById(request.getOperationId()).orElseThrow(() ->
                 new OperationNotFoundException("Operation not found, operation ID: " + request.getOperationId()));
-        updateChosenAuthMethod(operation, request.getChosenAuthMethod());
+        // Only the current history record is required, the operation history is not loaded
+        final OperationHistoryEntity currentHistory = getCurrentOperationHistory(operation);
+        if (currentHistory == null) {
+            throw new OperationNotValidException("Operation is missing history");
+        }
+        updateChosenAuthMethod(operation, currentHistory, request.getChosenAuthMethod());
     }
 
     /**
      * Update chosen authentication method.
      *
      * @param operation Operation.
+     * @param currentHistory Current operation history.
      * @param chosenAuthMethod Chosen authentication method.
-     * @throws OperationNotValidException Thrown when operation is invalid.
      * @throws InvalidRequestException Thrown when request is invalid.
      */
-    public void updateChosenAuthMethod(OperationEntity operation, AuthMethod chosenAuthMethod) throws OperationNotValidException, InvalidRequestException {
-        final OperationHistoryEntity currentHistory = operation.getCurrentOperationHistoryEntity();
-        if (currentHistory == null) {
-            throw new OperationNotValidException("Operation is missing history");
-        }
+    private void updateChosenAuthMethod(OperationEntity operation, OperationHistoryEntity currentHistory, AuthMethod chosenAuthMethod) throws InvalidRequestException {
         boolean chosenAuthMethodValid = false;
-        for (AuthStep step : getResponseAuthSteps(operation)) {
+        for (AuthStep step : getResponseAuthSteps(currentHistory)) {
             if (step.getAuthMethod() == chosenAuthMethod) {
                 chosenAuthMethodValid = true;
                 break;
@@ -393,7 +509,7 @@ public class OperationPersistenceService {
             throw new InvalidRequestException("Invalid chosen authentication method");
         }
         currentHistory.setChosenAuthMethod(chosenAuthMethod);
-        operationHistoryRepository.save(currentHistory);
+        invalidateOperationDetail(operation.getOperationId());
         audit.info("Operation chosen auth method was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_OPERATION)
                 .param("operationId", operation.getOperationId())
@@ -410,10 +526,10 @@ public class OperationPersistenceService {
      * @throws OperationNotValidException Thrown when operation is not valid.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      */
+    @Transactional
     public void updateMobileToken(UpdateMobileTokenRequest request) throws OperationNotFoundException, OperationNotValidException, InvalidConfigurationException {
         final MobileTokenConfigurationService mobileTokenConfigurationService = serviceCatalogue.getMobileTokenConfigurationService();
-        final OperationEntity operation = operationRepository.findById(request.getOperationId()).orElseThrow(() ->
-                new OperationNotFoundException("Operation not found, operation ID: " + request.getOperationId()));
+        final OperationEntity operation = getOperation(request.getOperationId());
         final OperationHistoryEntity currentHistory = operation.getCurrentOperationHistoryEntity();
         if (currentHistory == null) {
             throw new OperationNotValidException("Operation is missing history");
@@ -426,7 +542,7 @@ public class OperationPersistenceService {
             currentHistory.setMobileTokenActive(false);
             currentHistory.setPowerAuthOperationId(null);
         }
-        operationHistoryRepository.save(currentHistory);
+        invalidateOperationDetail(operation.getOperationId());
         audit.info("Operation mobile token status was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_OPERATION)
                 .param("operationId", operation.getOperationId())
@@ -442,6 +558,7 @@ public class OperationPersistenceService {
      * @param request Request to update application context.
      * @throws OperationNotFoundException Thrown when operation does not exist.
      */
+    @Transactional
     public void updateApplicationContext(UpdateApplicationContextRequest request) throws OperationNotFoundException {
         final OperationEntity operation = operationRepository.findById(request.getOperationId()).orElseThrow(() ->
                 new OperationNotFoundException("Operation not found, operation ID: " + request.getOperationId()));
@@ -464,7 +581,7 @@ public class OperationPersistenceService {
             logger.error("Error occurred while serializing application attributes for an operation", e);
             audit.error("Error occurred while serializing application attributes for an operation", e);
         }
-        operationRepository.save(operation);
+        invalidateOperationDetail(operation.getOperationId());
         audit.info("Operation application context was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_OPERATION)
                 .param("operationId", operation.getOperationId())
@@ -499,7 +616,7 @@ public class OperationPersistenceService {
      * @throws OperationNotValidException Thrown when operation is invalid.
      */
     public OperationEntity getOperation(String operationId, boolean validateOperation) throws OperationNotFoundException, OperationNotValidException {
-        final OperationEntity operation = operationRepository.findById(operationId).orElseThrow(() ->
+        final OperationEntity operation = operationRepository.findWithHistoryByOperationId(operationId).orElseThrow(() ->
                 new OperationNotFoundException("Operation not found, operation ID: " + operationId));
         if (validateOperation) {
             validateMobileTokenOperation(operation);
@@ -508,14 +625,82 @@ public class OperationPersistenceService {
     }
 
     /**
-     * Return whether operation exists.
+     * Retrieve an OperationEntity for given operationId for the operation detail. In case the operation is not found,
+     * the operation is looked up in the operation archive. Archived operations are detached and must not be updated.
+     *
+     * @param operationId ID of an operation.
+     * @return OperationEntity loaded from database or from the operation archive.
+     * @throws OperationNotFoundException Thrown when operation does not exist.
+     * @throws OperationNotValidException Thrown when operation is invalid.
+     */
+    public OperationEntity getOperationDetail(String operationId) throws OperationNotFoundException, OperationNotValidException {
+        final Optional<OperationEntity> operationOptional = operationRepository.findWithHistoryByOperationId(operationId);
+        if (operationOptional.isPresent()) {
+            final OperationEntity operation = operationOptional.get();
+            validateMobileTokenOperation(operation);
+            assignAfsActions(Collections.singletonList(operation));
+            return operation;
+        }
+        // Archived operations are finished, validation of mobile token status is not required
+        final OperationArchiveService operationArchiveService = serviceCatalogue.getOperationArchiveService();
+        return operationArchiveService.findArchivedOperation(operationId).orElseThrow(() ->
+                new OperationNotFoundException("Operation not found, operation ID: " + operationId));
+    }
+
+    /**
+     * Retrieve OperationEntities for given operation IDs for the operation detail. Operations are loaded together with
+     * their history using a single query, operations which are not found are looked up in the operation archive.
+     * Operations which do not exist or which are invalid are not included in the result.
+     *
+     * @param operationIds Operation IDs.
+     * @return List of operations ordered by operation IDs in the request.
+     */
+    public List<OperationEntity> getOperationDetails(List<String> operationIds) {
+        final Set<String> uniqueOperationIds = new LinkedHashSet<>(operationIds);
+        final PowerAuthOperationService powerAuthOperationService = serviceCatalogue.getPowerAuthOperationService();
+        final Map<String, OperationEntity> operations = new HashMap<>();
+        final List<OperationEntity> activeOperations = operationRepository.findAllWithHistoryByOperationIdIn(uniqueOperationIds);
+        // PowerAuth operation details are requested for all operations at once instead of one request after another
+        final Map<String, OperationDetailResponse> powerAuthOperationDetails = powerAuthOperationService.getOperationDetails(activeOperations);
+        for (OperationEntity operation : activeOperations) {
+            try {
+                validateMobileTokenOperation(operation, o -> powerAuthOperationDetails.get(o.getOperationId()));
+                operations.put(operation.getOperationId(), operation);
+            } catch (OperationNotValidException ex) {
+                // Invalid operations are skipped
+                logger.warn(ex.getMessage(), ex);
+                audit.warn(ex.getMessage(), ex);
+            }
+        }
+        assignAfsActions(new ArrayList<>(operations.values()));
+        final Set<String> missingOperationIds = new HashSet<>(uniqueOperationIds);
+        missingOperationIds.removeAll(operations.keySet());
+        if (!missingOperationIds.isEmpty()) {
+            // Archived operations are finished, validation of mobile token status is not required
+            final OperationArchiveService operationArchiveService = serviceCatalogue.getOperationArchiveService();
+            for (OperationEntity operation : operationArchiveService.findArchivedOperations(missingOperationIds)) {
+                operations.put(operation.getOperationId(), operation);
+            }
+        }
+        final List<OperationEntity> result = new ArrayList<>();
+        for (String operationId : uniqueOperationIds) {
+            final OperationEntity operation = operations.get(operationId);
+            if (operation != null) {
+                result.add(operation);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return whether operation exists. Archived operations are included, so that operation IDs of archived
+     * operations are not reused.
      *
      * @param operationId Operation ID.
      * @return Whether operation exists.
      */
     public boolean operationExists(String operationId) {
-        final Optional<OperationEntity> operationOptional = operationRepository.findById(operationId);
-        return operationOptional.isPresent();
+        return operationRepository.existsById(operationId) || operationArchiveRepository.existsById(operationId);
     }
 
     /**
@@ -529,6 +714,7 @@ public class OperationPersistenceService {
         final List<OperationEntity> entities = operationRepository.findPendingOperationsForUser(userId);
         if (!mobileTokenOnly) {
             // Return all unfinished operations for user
+            assignAfsActions(entities);
             return entities;
         }
         final List<OperationEntity> filteredList = new ArrayList<>();
@@ -544,6 +730,7 @@ public class OperationPersistenceService {
                 audit.warn(ex.getMessage(), ex);
             }
         }
+        assignAfsActions(filteredList);
         return filteredList;
     }
 
@@ -555,6 +742,17 @@ public class OperationPersistenceService {
      */
     private boolean validateMobileTokenOperation(OperationEntity operation) throws OperationNotValidException {
         final PowerAuthOperationService powerAuthOperationService = serviceCatalogue.getPowerAuthOperationService();
+        return validateMobileTokenOperation(operation, powerAuthOperationService::getOperationDetail);
+    }
+
+    /**
+     * Validate a mobile token operation status using PowerAuth operation detail from given provider.
+     * @param operation Operation entity.
+     * @param operationDetailProvider Provider of PowerAuth operation detail for an operation.
+     * @return Whether operation is a pending operation with an active PowerAuth token.
+     * @throws OperationNotValidException Thrown when operation is invalid.
+     */
+    private boolean validateMobileTokenOperation(OperationEntity operation, Function<OperationEntity, OperationDetailResponse> operationDetailProvider) throws OperationNotValidException {
         final OperationHistoryEntity currentHistoryEntity = operation.getCurrentOperationHistoryEntity();
         if (currentHistoryEntity != null && currentHistoryEntity.getResponseResult() == AuthResult.CONTINUE && currentHistoryEntity.isMobileTokenActive()) {
             if (currentHistoryEntity.getPowerAuthOperationId() == null) {
@@ -562,7 +760,7 @@ public class OperationPersistenceService {
                 return true;
             }
             // PowerAuth operation was created, reconcile states of both operations
-            final OperationDetailResponse detail = powerAuthOperationService.getOperationDetail(operation);
+            final OperationDetailResponse detail = operationDetailProvider.apply(operation);
             if (detail == null) {
                 return false;
             }
@@ -612,7 +810,49 @@ public class OperationPersistenceService {
      * @return List of operations which match the query.
      */
     public List<OperationEntity> findByExternalTransactionId(String externalTransactionId) {
-        return operationRepository.findAllByExternalTransactionId(externalTransactionId);
+        final List<OperationEntity> entities = operationRepository.findAllByExternalTransactionId(externalTransactionId);
+        assignAfsActions(entities);
+        return entities;
+    }
+
+    /**
+     * Assign AFS actions to operations. AFS actions are not loaded together with operations, they are loaded
+     * using a single query for all operations and assigned to the operations.
+     *
+     * @param operations Operation entities.
+     */
+    private void assignAfsActions(List<OperationEntity> operations) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        final Map<String, List<OperationAfsActionEntity>> afsActionMap = new HashMap<>();
+        for (OperationEntity operation : operations) {
+            afsActionMap.put(operation.getOperationId(), new ArrayList<>());
+        }
+        for (OperationAfsActionEntity afsAction : operationAfsActionRepository.findAllByOperationIds(afsActionMap.keySet())) {
+            afsActionMap.get(afsAction.getOperation().getOperationId()).add(afsAction);
+        }
+        for (OperationEntity operation : operations) {
+            operation.setAfsActions(afsActionMap.get(operation.getOperationId()));
+        }
+    }
+
+    /**
+     * Get current operation history for an operation without loading the whole operation history.
+     *
+     * @param operation Operation entity.
+     * @return Current operation history entity or null in case operation does not have any history.
+     */
+    private OperationHistoryEntity getCurrentOperationHistory(OperationEntity operation) {
+        Long resultId = operation.getLastResultId();
+        if (resultId == null) {
+            // Result ID counter is not available for operations created before the counter was introduced
+            resultId = operationHistoryRepository.findMaxResultId(operation.getOperationId());
+            if (resultId == null) {
+                return null;
+            }
+        }
+        return operationHistoryRepository.findById(new OperationHistoryEntity.OperationHistoryKey(operation.getOperationId(), resultId)).orElse(null);
     }
 
     /**
@@ -623,11 +863,20 @@ public class OperationPersistenceService {
      * @return List of {@link AuthStep}.
      */
     public List<AuthStep> getResponseAuthSteps(OperationEntity operation) {
-        final List<AuthStep> steps = new ArrayList<>();
         if (operation == null) {
-            return steps;
+            return new ArrayList<>();
         }
-        final OperationHistoryEntity currentHistory = operation.getCurrentOperationHistoryEntity();
+        return getResponseAuthSteps(operation.getCurrentOperationHistoryEntity());
+    }
+
+    /**
+     * Gets the list of @{link AuthStep} from an operation history entity.
+     *
+     * @param currentHistory Current operation history entity.
+     * @return List of {@link AuthStep}.
+     */
+    private List<AuthStep> getResponseAuthSteps(OperationHistoryEntity currentHistory) {
+        final List<AuthStep> steps = new ArrayList<>();
         if (currentHistory == null) {
             return steps;
         }
@@ -651,10 +900,12 @@ public class OperationPersistenceService {
      * Create an AFS action.
      * @param request Request to crete an AFS action.
      */
+    @Transactional
     public void createAfsAction(CreateAfsActionRequest request) {
         try {
             final OperationAfsActionEntity afsEntity = new OperationAfsActionEntity();
-            final OperationEntity operation = getOperation(request.getOperationId());
+            final OperationEntity operation = operationRepository.findById(request.getOperationId()).orElseThrow(() ->
+                    new OperationNotFoundException("Operation not found, operation ID: " + request.getOperationId()));
             afsEntity.setOperation(operation);
             afsEntity.setAfsAction(request.getAfsAction());
             afsEntity.setStepIndex(request.getStepIndex());
@@ -663,8 +914,8 @@ public class OperationPersistenceService {
             afsEntity.setAfsResponseApplied(request.isAfsResponseApplied());
             afsEntity.setResponseAfsExtras(request.getResponseAfsExtras());
             afsEntity.setTimestampCreated(request.getTimestampCreated());
-            operation.getAfsActions().add(afsEntity);
-            operationRepository.save(operation);
+            operationAfsActionRepository.save(afsEntity);
+            invalidateOperationDetail(operation.getOperationId());
             logger.debug("Operation AFS action was created, operation ID: {}, operation name: {}", operation.getOperationId(), operation.getOperationName());
             audit.info("Operation AFS action was created", AuditDetail.builder()
                     .type(AUDIT_TYPE_OPERATION)
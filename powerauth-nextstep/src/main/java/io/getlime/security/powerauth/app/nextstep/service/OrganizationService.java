@@ -24,6 +24,8 @@ import io.getlime.security.powerauth.app.nextstep.converter.OrganizationConverte
 import io.getlime.security.powerauth.app.nextstep.repository.OrganizationRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OrganizationEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.OrganizationAlreadyExistsException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.OrganizationNotFoundException;
 import io.getlime.security.powerauth.lib.nextstep.model.request.CreateOrganizationRequest;
@@ -36,6 +38,7 @@ import io.getlime.security.powerauth.lib.nextstep.model.response.GetOrganization
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -54,6 +57,7 @@ public class OrganizationService {
     private static final String AUDIT_TYPE_CONFIGURATION = "CONFIGURATION";
 
     private final OrganizationRepository organizationRepository;
+    private final ServiceCatalogue serviceCatalogue;
     private final Audit audit;
 
     private final OrganizationConverter organizationConverter = new OrganizationConverter();
@@ -61,11 +65,13 @@ public class OrganizationService {
     /**
      * Organization service constructor.
      * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
      * @param audit Audit interface.
      */
     @Autowired
-    public OrganizationService(RepositoryCatalogue repositoryCatalogue, Audit audit) {
+    public OrganizationService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, Audit audit) {
         this.organizationRepository = repositoryCatalogue.getOrganizationRepository();
+        this.serviceCatalogue = serviceCatalogue;
         this.audit = audit;
     }
 
@@ -89,6 +95,7 @@ public class OrganizationService {
         organization.setDefaultCredentialName(request.getDefaultCredentialName());
         organization.setDefaultOtpName(request.getDefaultOtpName());
         organization = organizationRepository.save(organization);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Organization was created: {}", organization.getOrganizationId());
         audit.info("Organization was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -143,6 +150,7 @@ public class OrganizationService {
         final OrganizationEntity organization = organizationRepository.findById(request.getOrganizationId()).orElseThrow(() ->
                 new OrganizationNotFoundException("Organization not found: " + request.getOrganizationId()));
         organizationRepository.delete(organization);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Organization was deleted: {}", organization.getOrganizationId());
         audit.info("Organization was deleted", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
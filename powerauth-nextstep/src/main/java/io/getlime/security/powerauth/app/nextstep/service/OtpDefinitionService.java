@@ -27,8 +27,10 @@ import io.getlime.security.powerauth.app.nextstep.repository.catalogue.Repositor
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.ApplicationEntity;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OtpDefinitionEntity;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OtpPolicyEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.OtpDefinitionDetail;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ApplicationStatus;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.OtpDefinitionStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.OtpPolicyStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.ApplicationNotFoundException;
@@ -46,6 +48,7 @@ import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateOtpDefini
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -66,6 +69,7 @@ public class OtpDefinitionService {
     private final OtpDefinitionRepository otpDefinitionRepository;
     private final OtpPolicyRepository otpPolicyRepository;
     private final ApplicationRepository applicationRepository;
+    private final ServiceCatalogue serviceCatalogue;
     private final Audit audit;
 
     private final OtpDefinitionConverter otpDefinitionConverter = new OtpDefinitionConverter();
@@ -73,13 +77,15 @@ public class OtpDefinitionService {
     /**
      * OTP definition service constructor.
      * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
      * @param audit Audit interface.
      */
     @Autowired
-    public OtpDefinitionService(RepositoryCatalogue repositoryCatalogue, Audit audit) {
+    public OtpDefinitionService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, Audit audit) {
         this.otpDefinitionRepository = repositoryCatalogue.getOtpDefinitionRepository();
         this.otpPolicyRepository = repositoryCatalogue.getOtpPolicyRepository();
         this.applicationRepository = repositoryCatalogue.getApplicationRepository();
+        this.serviceCatalogue = serviceCatalogue;
         this.audit = audit;
     }
 
@@ -118,6 +124,7 @@ public class OtpDefinitionService {
         otpDefinition.setDataAdapterProxyEnabled(request.isDataAdapterProxyEnabled());
         otpDefinition.setTimestampCreated(new Date());
         otpDefinition = otpDefinitionRepository.save(otpDefinition);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("OTP definition was created, OTP definition ID: {}, OTP definition name: {}", otpDefinition.getOtpDefinitionId(), otpDefinition.getName());
         audit.info("OTP definition was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -171,6 +178,7 @@ public class OtpDefinitionService {
         otpDefinition.setDataAdapterProxyEnabled(request.isDataAdapterProxyEnabled());
         otpDefinition.setTimestampLastUpdated(new Date());
         otpDefinition = otpDefinitionRepository.save(otpDefinition);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("OTP definition was updated, OTP definition ID: {}, OTP definition name: {}", otpDefinition.getOtpDefinitionId(), otpDefinition.getName());
         audit.info("OTP definition was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -225,6 +233,7 @@ public class OtpDefinitionService {
         otpDefinition.setStatus(OtpDefinitionStatus.REMOVED);
         otpDefinition.setTimestampLastUpdated(new Date());
         otpDefinition = otpDefinitionRepository.save(otpDefinition);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("OTP definition was removed, OTP definition ID: {}, OTP definition name: {}", otpDefinition.getOtpDefinitionId(), otpDefinition.getName());
         audit.info("OTP definition was removed", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -18,6 +18,7 @@
 package io.getlime.security.powerauth.app.nextstep.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
 import io.getlime.security.powerauth.app.nextstep.converter.ParameterConverter;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OtpPolicyEntity;
 import io.getlime.security.powerauth.crypto.lib.model.exception.GenericCryptoException;
@@ -29,8 +30,11 @@ import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigu
 import io.getlime.security.powerauth.lib.nextstep.model.exception.OtpGenAlgorithmNotSupportedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -46,8 +50,29 @@ public class OtpGenerationService {
 
     private final Logger logger = LoggerFactory.getLogger(OtpGenerationService.class);
 
+    private static final String DRBG_ALGORITHM = "DRBG";
+    private static final int DRBG_STRENGTH = 256;
+    private static final int SALT_LENGTH = 16;
+
+    private final NextStepServerConfiguration nextStepServerConfiguration;
+
     private final ParameterConverter parameterConverter = new ParameterConverter();
 
+    /**
+     * Random number generators used for OTP generation. Each thread uses its own generator to avoid contention,
+     * the generator is seeded once and reseeded periodically instead of gathering a new seed for each OTP.
+     */
+    private final ThreadLocal<OtpRandom> otpRandom = ThreadLocal.withInitial(this::createOtpRandom);
+
+    /**
+     * OTP generation service constructor.
+     * @param nextStepServerConfiguration Next Step server configuration.
+     */
+    @Autowired
+    public OtpGenerationService(NextStepServerConfiguration nextStepServerConfiguration) {
+        this.nextStepServerConfiguration = nextStepServerConfiguration;
+    }
+
     /**
      * Generate an OTP value using algorithm specified in OTP policy.
      * @param otpData OTP data to use.
@@ -89,12 +114,11 @@ public class OtpGenerationService {
                     throw new InvalidConfigurationException("Invalid configuration of algorithm OTP_RANDOM_DIGIT_GROUPS, group size does not divide OTP length without remainder");
                 }
                 final int groupCount = length / groupSize;
-                final SecureRandom secureRandomSeed = new SecureRandom();
-                // Generate random seed
-                final byte[] seed = secureRandomSeed.generateSeed(16);
-                final SecureRandom secureRandom = new SecureRandom(seed);
-                // Store used seed as salt
-                otpValueDetail.setSalt(seed);
+                final SecureRandom secureRandom = getSecureRandom();
+                // The salt is not used for OTP verification, random salt is stored to keep the OTP record format
+                final byte[] salt = new byte[SALT_LENGTH];
+                secureRandom.nextBytes(salt);
+                otpValueDetail.setSalt(salt);
                 final int groupLimit = (int) Math.pow(10, groupSize);
                 final Set<String> groups = new LinkedHashSet<>();
                 while (groups.size() < groupCount) {
@@ -116,4 +140,68 @@ public class OtpGenerationService {
             default -> throw new OtpGenAlgorithmNotSupportedException("OTP generation algorithm is not supported: " + otpGenAlgorithm);
         }
     }
+
+    /**
+     * Get the random number generator of current thread. The generator is reseeded after the configured
+     * number of generated OTP values.
+     * @return Random number generator.
+     */
+    private SecureRandom getSecureRandom() {
+        final OtpRandom random = otpRandom.get();
+        final int reseedInterval = nextStepServerConfiguration.getOtpGenerationReseedInterval();
+        if (random.reseedSupported() && reseedInterval > 0 && random.incrementUsageCount() > reseedInterval) {
+            random.secureRandom().reseed();
+            random.resetUsageCount();
+        }
+        return random.secureRandom();
+    }
+
+    /**
+     * Create a random number generator for current thread.
+     * @return Random number generator.
+     */
+    private OtpRandom createOtpRandom() {
+        try {
+            final SecureRandom secureRandom = SecureRandom.getInstance(DRBG_ALGORITHM,
+                    DrbgParameters.instantiation(DRBG_STRENGTH, DrbgParameters.Capability.RESEED_ONLY, null));
+            return new OtpRandom(secureRandom, true);
+        } catch (NoSuchAlgorithmException ex) {
+            logger.warn("DRBG is not available, default random number generator is used for OTP generation, error: {}", ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+            return new OtpRandom(new SecureRandom(), false);
+        }
+    }
+
+    /**
+     * Random number generator of a thread together with its usage count since the last reseed.
+     */
+    private static final class OtpRandom {
+
+        private final SecureRandom secureRandom;
+        private final boolean reseedSupported;
+        private int usageCount;
+
+        OtpRandom(SecureRandom secureRandom, boolean reseedSupported) {
+            this.secureRandom = secureRandom;
+            this.reseedSupported = reseedSupported;
+        }
+
+        SecureRandom secureRandom() {
+            return secureRandom;
+        }
+
+        boolean reseedSupported() {
+            return reseedSupported;
+        }
+
+        int incrementUsageCount() {
+            return ++usageCount;
+        }
+
+        void resetUsageCount() {
+            usageCount = 0;
+        }
+
+    }
+
 }
\ No newline at end of file
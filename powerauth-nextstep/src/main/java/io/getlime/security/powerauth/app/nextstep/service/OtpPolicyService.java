@@ -25,7 +25,9 @@ import io.getlime.security.powerauth.app.nextstep.converter.ParameterConverter;
 import io.getlime.security.powerauth.app.nextstep.repository.OtpPolicyRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OtpPolicyEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.OtpPolicyDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.OtpPolicyStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigurationException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidRequestException;
@@ -42,6 +44,7 @@ import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateOtpPolicy
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -60,6 +63,7 @@ public class OtpPolicyService {
     private static final String AUDIT_TYPE_CONFIGURATION = "CONFIGURATION";
 
     private final OtpPolicyRepository otpPolicyRepository;
+    private final ServiceCatalogue serviceCatalogue;
     private final Audit audit;
 
     private final OtpPolicyConverter otpPolicyConverter = new OtpPolicyConverter();
@@ -68,11 +72,13 @@ public class OtpPolicyService {
     /**
      * Constructor for OTP policy service.
      * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
      * @param audit Audit interface.
      */
     @Autowired
-    public OtpPolicyService(RepositoryCatalogue repositoryCatalogue, Audit audit) {
+    public OtpPolicyService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, Audit audit) {
         this.otpPolicyRepository = repositoryCatalogue.getOtpPolicyRepository();
+        this.serviceCatalogue = serviceCatalogue;
         this.audit = audit;
     }
 
@@ -104,6 +110,7 @@ public class OtpPolicyService {
         otpPolicy.setExpirationTime(request.getExpirationTime());
         otpPolicy.setTimestampCreated(new Date());
         otpPolicy = otpPolicyRepository.save(otpPolicy);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("OTP policy was created, OTP policy ID: {}, OTP policy name: {}", otpPolicy.getOtpPolicyId(), otpPolicy.getName());
         audit.info("OTP policy was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -155,6 +162,7 @@ public class OtpPolicyService {
         otpPolicy.setExpirationTime(request.getExpirationTime());
         otpPolicy.setTimestampLastUpdated(new Date());
         otpPolicy = otpPolicyRepository.save(otpPolicy);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("OTP policy was updated, OTP policy ID: {}, OTP policy name: {}", otpPolicy.getOtpPolicyId(), otpPolicy.getName());
         audit.info("OTP policy was updated", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -210,6 +218,7 @@ public class OtpPolicyService {
         otpPolicy.setStatus(OtpPolicyStatus.REMOVED);
         otpPolicy.setTimestampLastUpdated(new Date());
         otpPolicy = otpPolicyRepository.save(otpPolicy);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("OTP policy was removed, OTP policy ID: {}, OTP policy name: {}", otpPolicy.getOtpPolicyId(), otpPolicy.getName());
         audit.info("OTP policy was removed", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -107,7 +107,8 @@ public class OtpService {
 
     /**
      * Create and send and OTP. Depending on configuration the OTP is created in Next Step or in Data Adapter.
-     * OTP delivery is always done via Data Adapter.
+     * OTP delivery is always done via Data Adapter. The Data Adapter is called outside of a database transaction,
+     * so that a database connection is not held while the OTP is being delivered.
      * @param request Create and send an OTP.
      * @return Create and send OTP response.
      * @throws OtpDefinitionNotFoundException Thrown when OTP definition is not found.
@@ -123,7 +124,6 @@ public class OtpService {
      * @throws OperationAlreadyFinishedException Thrown when operation is already failed.
      * @throws EncryptionException Thrown when encryption fails.
      */
-    @Transactional
     public CreateAndSendOtpResponse createAndSendOtp(CreateAndSendOtpRequest request) throws OtpDefinitionNotFoundException, CredentialNotFoundException, CredentialNotActiveException, InvalidRequestException, InvalidConfigurationException, OtpGenAlgorithmNotSupportedException, CredentialDefinitionNotFoundException, OperationAlreadyFinishedException, OperationAlreadyFailedException, OperationNotFoundException, UserNotActiveException, EncryptionException {
         final OtpDefinitionService otpDefinitionService = serviceCatalogue.getOtpDefinitionService();
         final OperationPersistenceService operationPersistenceService = serviceCatalogue.getOperationPersistenceService();
@@ -154,16 +154,18 @@ public class OtpService {
         if (dataAdapterProxyEnabled) {
             // Create and send OTP code via Data Adapter
             final OtpDeliveryResult result = otpCustomizationService.createAndSendOtp(userId, contacts, operation, language, resend);
-            // Store a local OTP record so that OTP can be found during authentication
-            final OtpEntity otp = new OtpEntity();
-            otp.setOtpId(result.getOtpId());
-            otp.setOtpDefinition(otpDefinition);
-            otp.setCredentialDefinition(credentialDefinition);
-            otp.setUserId(userId);
-            otp.setOperation(operation);
-            otp.setStatus(OtpStatus.EXTERNAL);
-            otp.setTimestampCreated(new Date());
-            otpRepository.save(otp);
+            if (result.getOtpId() != null) {
+                // Store a local OTP record so that OTP can be found during authentication
+                final OtpEntity otp = new OtpEntity();
+                otp.setOtpId(result.getOtpId());
+                otp.setOtpDefinition(otpDefinition);
+                otp.setCredentialDefinition(credentialDefinition);
+                otp.setUserId(userId);
+                otp.setOperation(operation);
+                otp.setStatus(OtpStatus.EXTERNAL);
+                otp.setTimestampCreated(new Date());
+                otpRepository.save(otp);
+            }
             final CreateAndSendOtpResponse response = new CreateAndSendOtpResponse();
             response.setOtpName(otpDefinition.getName());
             response.setUserId(userId);
@@ -178,20 +180,57 @@ public class OtpService {
             response.setErrorMessage(result.getErrorMessage());
             return response;
         } else {
-            // Create OTP in Next Step and send it via Data Adapter
-            final CreateOtpResponse otpResponse = createOtpInternal(otpDefinition, userId, credentialName, otpData, operationId);
-            final OtpDeliveryResult result = otpCustomizationService.sendOtp(userId, contacts, operation, otpResponse.getOtpId(), otpResponse.getOtpValue(), language, resend);
+            // Create OTP in Next Step in a transaction started using the service proxy and send it via Data Adapter
+            final CreateOtpRequest createOtpRequest = new CreateOtpRequest();
+            createOtpRequest.setOtpName(otpDefinition.getName());
+            createOtpRequest.setUserId(userId);
+            createOtpRequest.setCredentialName(credentialName);
+            createOtpRequest.setOtpData(otpData);
+            createOtpRequest.setOperationId(operationId);
+            final CreateOtpResponse otpResponse = serviceCatalogue.getOtpService().createOtp(createOtpRequest);
+            final OtpDeliveryResult result;
+            try {
+                result = otpCustomizationService.sendOtp(userId, contacts, operation, otpResponse.getOtpId(), otpResponse.getOtpValue(), language, resend);
+            } catch (RuntimeException ex) {
+                // The OTP was already committed, remove it so that an OTP which was not sent cannot be used
+                removeUndeliveredOtp(otpResponse.getOtpId(), operationId);
+                throw ex;
+            }
             final CreateAndSendOtpResponse response = new CreateAndSendOtpResponse();
             response.setOtpName(otpDefinition.getName());
             response.setUserId(userId);
             response.setOtpId(otpResponse.getOtpId());
-            response.setOtpStatus(otpResponse.getOtpStatus());
+            if (result.isDelivered()) {
+                response.setOtpStatus(otpResponse.getOtpStatus());
+            } else {
+                // Data Adapter client errors are reported as an undelivered OTP, the OTP is removed as well
+                removeUndeliveredOtp(otpResponse.getOtpId(), operationId);
+                response.setOtpStatus(OtpStatus.REMOVED);
+            }
             response.setDelivered(result.isDelivered());
             response.setErrorMessage(result.getErrorMessage());
             return response;
         }
     }
 
+    /**
+     * Remove an OTP which could not be delivered. The OTP is removed in a separate transaction started using
+     * the service proxy, errors are logged only so that the original error is not hidden.
+     * @param otpId OTP ID.
+     * @param operationId Operation ID.
+     */
+    private void removeUndeliveredOtp(String otpId, String operationId) {
+        try {
+            final DeleteOtpRequest deleteOtpRequest = new DeleteOtpRequest();
+            deleteOtpRequest.setOtpId(otpId);
+            deleteOtpRequest.setOperationId(operationId);
+            serviceCatalogue.getOtpService().deleteOtp(deleteOtpRequest);
+        } catch (OtpNotFoundException | OperationNotFoundException | InvalidRequestException | RuntimeException ex) {
+            logger.warn("Removal of undelivered OTP failed, OTP ID: {}, error: {}", otpId, ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+        }
+    }
+
     /**
      * Create an OTP.
      * @param otpDefinition OTP definition.
@@ -470,7 +509,14 @@ public class OtpService {
             remainingAttempts = otpPolicy.getAttemptLimit() - otp.getFailedAttemptCounter();
         }
         if (otp.getOperation() != null) {
-            final OperationEntity operationEntity = otp.getOperation();
+            // Operation history is not loaded together with the OTP, the operation is loaded including its history
+            final OperationEntity operationEntity;
+            try {
+                operationEntity = serviceCatalogue.getOperationPersistenceService().getOperation(otp.getOperation().getOperationId());
+            } catch (OperationNotFoundException ex) {
+                // Operation was archived
+                return remainingAttempts;
+            }
             final Integer remainingAttemptsOperation = stepResolutionService.getNumberOfRemainingAttempts(operationEntity);
             if (remainingAttemptsOperation != null && (remainingAttempts == null || remainingAttemptsOperation < remainingAttempts)) {
                 return remainingAttemptsOperation;
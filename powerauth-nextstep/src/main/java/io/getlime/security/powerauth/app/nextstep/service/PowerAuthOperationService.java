@@ -34,15 +34,23 @@ import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClientErr
 import io.getlime.security.powerauth.lib.dataadapter.model.entity.OperationContext;
 import io.getlime.security.powerauth.lib.dataadapter.model.response.GetPAOperationMappingResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.OperationNotValidException;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for managing operations in PowerAuth server.
@@ -61,6 +69,7 @@ public class PowerAuthOperationService {
     private final DataAdapterClient dataAdapterClient;
     private final Audit audit;
     private final OperationConverter operationConverter;
+    private final ExecutorService operationDetailExecutor;
 
     /**
      * Service constructor.
@@ -77,6 +86,13 @@ public class PowerAuthOperationService {
         this.dataAdapterClient = dataAdapterClient;
         this.audit = audit;
         this.operationConverter = operationConverter;
+        final int concurrency = Math.max(1, nextStepServerConfiguration.getPowerAuthOperationDetailConcurrency());
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.operationDetailExecutor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            final Thread thread = new Thread(runnable, "pa-operation-detail-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
@@ -148,7 +164,47 @@ public class PowerAuthOperationService {
         if (!mobileTokenActive || paOperationId == null) {
             return null;
         }
+        return getOperationDetail(paOperationId);
+    }
 
+    /**
+     * Get PowerAuth operation details for pending mobile token operations. PowerAuth server does not provide details
+     * of multiple operations in a single request, so the requests are sent concurrently with limited concurrency.
+     * @param operations Operation entities.
+     * @return Map with Next Step operation ID as key and PowerAuth operation detail as value. Operations without
+     * a pending PowerAuth operation are not included.
+     */
+    public Map<String, OperationDetailResponse> getOperationDetails(List<OperationEntity> operations) {
+        final Map<String, OperationDetailResponse> operationDetails = new HashMap<>();
+        final boolean operationEnabled = nextStepServerConfiguration.isPowerAuthOperationSupportEnabled();
+        if (!operationEnabled) {
+            return operationDetails;
+        }
+        final Map<String, CompletableFuture<OperationDetailResponse>> futures = new LinkedHashMap<>();
+        for (OperationEntity operation : operations) {
+            final OperationHistoryEntity currentHistory = operation.getCurrentOperationHistoryEntity();
+            if (currentHistory == null || currentHistory.getResponseResult() != AuthResult.CONTINUE
+                    || !currentHistory.isMobileTokenActive() || currentHistory.getPowerAuthOperationId() == null) {
+                continue;
+            }
+            final String paOperationId = currentHistory.getPowerAuthOperationId();
+            futures.put(operation.getOperationId(), CompletableFuture.supplyAsync(() -> getOperationDetail(paOperationId), operationDetailExecutor));
+        }
+        for (Map.Entry<String, CompletableFuture<OperationDetailResponse>> entry : futures.entrySet()) {
+            final OperationDetailResponse detail = entry.getValue().join();
+            if (detail != null) {
+                operationDetails.put(entry.getKey(), detail);
+            }
+        }
+        return operationDetails;
+    }
+
+    /**
+     * Get PowerAuth operation detail.
+     * @param paOperationId PowerAuth operation ID.
+     * @return PowerAuth operation detail.
+     */
+    private OperationDetailResponse getOperationDetail(String paOperationId) {
         try {
             final OperationDetailRequest request = new OperationDetailRequest();
             request.setOperationId(paOperationId);
@@ -161,4 +217,12 @@ public class PowerAuthOperationService {
         return null;
     }
 
-}
\ No newline at end of file
+    /**
+     * Shutdown the executor for PowerAuth operation detail requests.
+     */
+    @PreDestroy
+    public void shutdown() {
+        operationDetailExecutor.shutdown();
+    }
+
+}
@@ -24,7 +24,9 @@ import io.getlime.security.powerauth.app.nextstep.repository.RoleRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.UserRoleRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.RoleEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.RoleDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.DeleteNotAllowedException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.RoleAlreadyExistsException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.RoleNotFoundException;
@@ -36,6 +38,7 @@ import io.getlime.security.powerauth.lib.nextstep.model.response.GetRoleListResp
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -55,6 +58,7 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
     private final UserRoleRepository userRoleRepository;
+    private final ServiceCatalogue serviceCatalogue;
     private final Audit audit;
 
     private final RoleConverter roleConverter = new RoleConverter();
@@ -62,12 +66,14 @@ public class RoleService {
     /**
      * Role service constructor.
      * @param repositoryCatalogue Repository catalogue.
+     * @param serviceCatalogue Service catalogue.
      * @param audit Audit interface.
      */
     @Autowired
-    public RoleService(RepositoryCatalogue repositoryCatalogue, Audit audit) {
+    public RoleService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, Audit audit) {
         this.roleRepository = repositoryCatalogue.getRoleRepository();
         this.userRoleRepository = repositoryCatalogue.getUserRoleRepository();
+        this.serviceCatalogue = serviceCatalogue;
         this.audit = audit;
     }
 
@@ -88,6 +94,7 @@ public class RoleService {
         role.setDescription(request.getDescription());
         role.setTimestampCreated(new Date());
         role = roleRepository.save(role);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Role was created, role ID: {}, role name: {}", role.getRoleId(), role.getName());
         audit.info("Role was created", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -129,6 +136,7 @@ public class RoleService {
             throw new DeleteNotAllowedException("Role cannot be deleted because it is used: " + request.getRoleName());
         }
         roleRepository.delete(role);
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.DEFINITION);
         logger.debug("Role was deleted, role ID: {}, role name: {}", role.getRoleId(), role.getName());
         audit.info("Role was deleted", AuditDetail.builder()
                 .type(AUDIT_TYPE_CONFIGURATION)
@@ -0,0 +1,160 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.StepDefinitionEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthStepResult;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.OperationRequestType;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable index of step definitions used for dynamic step resolution. The index is built once when step definitions
+ * are reloaded and it is never modified afterwards, so it can be safely shared by concurrent requests without locking.
+ * <p>
+ * Step definitions are indexed by operation name, operation request type, request authentication step result and
+ * request authentication method. A null authentication step result or authentication method in the lookup matches
+ * any value, which corresponds to the original filtering rules. Step definitions for the UPDATE request type are
+ * pre-sorted by response priority, step definitions for the CREATE request type keep the order of step definition IDs.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+public final class StepDefinitionIndex {
+
+    private static final StepDefinitionIndex EMPTY = new StepDefinitionIndex(Collections.emptySet(), Collections.emptyMap());
+
+    private final Set<String> operationNames;
+    private final Map<Key, Entry> entries;
+
+    private StepDefinitionIndex(Set<String> operationNames, Map<Key, Entry> entries) {
+        this.operationNames = operationNames;
+        this.entries = entries;
+    }
+
+    /**
+     * Get an empty index.
+     * @return Empty index.
+     */
+    public static StepDefinitionIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the index from step definitions grouped by operation name.
+     * @param stepDefinitionsPerOperation Step definitions per operation name, each list ordered by step definition ID.
+     * @return Step definition index.
+     */
+    public static StepDefinitionIndex build(Map<String, List<StepDefinitionEntity>> stepDefinitionsPerOperation) {
+        final Map<Key, List<StepDefinitionEntity>> grouped = new HashMap<>();
+        for (Map.Entry<String, List<StepDefinitionEntity>> operationEntry : stepDefinitionsPerOperation.entrySet()) {
+            final String operationName = operationEntry.getKey();
+            for (StepDefinitionEntity stepDef : operationEntry.getValue()) {
+                if (stepDef.getOperationType() == null) {
+                    continue;
+                }
+                // Register the step definition under its exact key and under all keys with wildcards for the request values
+                for (AuthStepResult authStepResult : keyValues(stepDef.getRequestAuthStepResult())) {
+                    for (AuthMethod authMethod : keyValues(stepDef.getRequestAuthMethod())) {
+                        final Key key = new Key(operationName, stepDef.getOperationType(), authStepResult, authMethod);
+                        grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(stepDef);
+                    }
+                }
+            }
+        }
+        final Map<Key, Entry> entries = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, stepDefinitions) -> entries.put(key, Entry.of(key.operationType(), stepDefinitions)));
+        return new StepDefinitionIndex(Set.copyOf(stepDefinitionsPerOperation.keySet()), Map.copyOf(entries));
+    }
+
+    /**
+     * Check whether any step definition exists for given operation name.
+     * @param operationName Operation name.
+     * @return Whether step definitions for the operation exist.
+     */
+    public boolean containsOperation(String operationName) {
+        return operationName != null && operationNames.contains(operationName);
+    }
+
+    /**
+     * Find step definitions matching given criteria.
+     * @param operationName Operation name.
+     * @param operationType Operation request type.
+     * @param authStepResult Request authentication step result, null value matches any result.
+     * @param authMethod Request authentication method, null value matches any authentication method.
+     * @return Matching step definitions, never null.
+     */
+    public Entry lookup(String operationName, OperationRequestType operationType, AuthStepResult authStepResult, AuthMethod authMethod) {
+        final Entry entry = entries.get(new Key(operationName, operationType, authStepResult, authMethod));
+        return entry != null ? entry : Entry.EMPTY;
+    }
+
+    private static <T> List<T> keyValues(T value) {
+        if (value == null) {
+            return Collections.singletonList(null);
+        }
+        return Arrays.asList(value, null);
+    }
+
+    /**
+     * Index key.
+     * @param operationName Operation name.
+     * @param operationType Operation request type.
+     * @param authStepResult Request authentication step result or null for any value.
+     * @param authMethod Request authentication method or null for any value.
+     */
+    private record Key(String operationName, OperationRequestType operationType, AuthStepResult authStepResult, AuthMethod authMethod) {
+    }
+
+    /**
+     * Pre-processed list of step definitions for a single index key.
+     * @param stepDefinitions Immutable ordered list of step definitions.
+     * @param duplicatePriorities Whether the list contains multiple step definitions with the same priority.
+     * @param responseAuthMethodPresent Whether any step definition contains a response authentication method.
+     */
+    public record Entry(List<StepDefinitionEntity> stepDefinitions, boolean duplicatePriorities, boolean responseAuthMethodPresent) {
+
+        private static final Entry EMPTY = new Entry(Collections.emptyList(), false, false);
+
+        private static Entry of(OperationRequestType operationType, List<StepDefinitionEntity> stepDefinitions) {
+            final List<StepDefinitionEntity> ordered = new ArrayList<>(stepDefinitions);
+            if (operationType == OperationRequestType.UPDATE) {
+                // Stable sort keeps the order of step definition IDs for equal priorities
+                ordered.sort(Comparator.comparing(StepDefinitionEntity::getResponsePriority));
+            }
+            final Set<Long> priorities = ordered.stream()
+                    .map(StepDefinitionEntity::getResponsePriority)
+                    .collect(Collectors.toSet());
+            final boolean responseAuthMethodPresent = ordered.stream()
+                    .map(StepDefinitionEntity::getResponseAuthMethod)
+                    .anyMatch(Objects::nonNull);
+            return new Entry(List.copyOf(ordered), priorities.size() != ordered.size(), responseAuthMethodPresent);
+        }
+
+        /**
+         * Check whether the entry contains no step definitions.
+         * @return Whether the entry is empty.
+         */
+        public boolean isEmpty() {
+            return stepDefinitions.isEmpty();
+        }
+
+    }
+
+}
@@ -24,6 +24,7 @@ import io.getlime.security.powerauth.app.nextstep.repository.StepDefinitionRepos
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.StepDefinitionEntity;
 import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.StepDefinitionAlreadyExistsException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.StepDefinitionNotFoundException;
 import io.getlime.security.powerauth.lib.nextstep.model.request.CreateStepDefinitionRequest;
@@ -96,6 +97,7 @@ public class StepDefinitionService {
                 .param("stepDefinition", stepDefinition)
                 .build());
         stepResolutionService.reloadStepDefinitions();
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.STEP_DEFINITION);
         final CreateStepDefinitionResponse response = new CreateStepDefinitionResponse();
         response.setStepDefinitionId(request.getStepDefinitionId());
         response.setOperationName(request.getOperationName());
@@ -126,6 +128,7 @@ public class StepDefinitionService {
                 .param("stepDefinitionId", stepDefinition.getStepDefinitionId())
                 .build());
         stepResolutionService.reloadStepDefinitions();
+        serviceCatalogue.getConfigurationVersionService().incrementVersion(ConfigurationType.STEP_DEFINITION);
         final DeleteStepDefinitionResponse response = new DeleteStepDefinitionResponse();
         response.setStepDefinitionId(stepDefinition.getStepDefinitionId());
         return response;
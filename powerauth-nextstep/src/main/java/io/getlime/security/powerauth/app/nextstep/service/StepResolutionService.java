@@ -19,13 +19,12 @@ package io.getlime.security.powerauth.app.nextstep.service;
 
 import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
 import io.getlime.security.powerauth.app.nextstep.converter.OperationConverter;
-import io.getlime.security.powerauth.app.nextstep.repository.AuthMethodRepository;
-import io.getlime.security.powerauth.app.nextstep.repository.OperationConfigRepository;
-import io.getlime.security.powerauth.app.nextstep.repository.OperationMethodConfigRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationAuthCounterRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.StepDefinitionRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.*;
 import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.AuthMethodDetail;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.AuthStep;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.UserAuthMethodDetail;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
@@ -36,7 +35,9 @@ import io.getlime.security.powerauth.lib.nextstep.model.exception.*;
 import io.getlime.security.powerauth.lib.nextstep.model.request.CreateOperationRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.request.UpdateOperationRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.response.CreateOperationResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationConfigDetailResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateOperationResponse;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -58,16 +59,15 @@ import java.util.stream.Collectors;
 public class StepResolutionService {
 
     private final StepDefinitionRepository stepDefinitionRepository;
-    private final AuthMethodRepository authMethodRepository;
-    private final OperationConfigRepository operationConfigRepository;
-    private final OperationMethodConfigRepository operationMethodConfigRepository;
+    private final OperationAuthCounterRepository operationAuthCounterRepository;
     private final ServiceCatalogue serviceCatalogue;
     private final NextStepServerConfiguration nextStepServerConfiguration;
     private final OperationConverter operationConverter;
 
-    private final Map<String, List<StepDefinitionEntity>> stepDefinitionsPerOperation = new HashMap<>();
-
-    private final Object stepDefinitionLock = new Object();
+    /**
+     * Immutable step definition index, the reference is replaced atomically when step definitions are reloaded.
+     */
+    private volatile StepDefinitionIndex stepDefinitionIndex = StepDefinitionIndex.empty();
 
     /**
      * Service constructor.
@@ -79,9 +79,7 @@ public class StepResolutionService {
     @Autowired
     public StepResolutionService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, NextStepServerConfiguration nextStepServerConfiguration, OperationConverter operationConverter) {
         this.stepDefinitionRepository = repositoryCatalogue.getStepDefinitionRepository();
-        this.authMethodRepository = repositoryCatalogue.getAuthMethodRepository();
-        this.operationConfigRepository = repositoryCatalogue.getOperationConfigRepository();
-        this.operationMethodConfigRepository = repositoryCatalogue.getOperationMethodConfigRepository();
+        this.operationAuthCounterRepository = repositoryCatalogue.getOperationAuthCounterRepository();
         this.serviceCatalogue = serviceCatalogue;
         this.nextStepServerConfiguration = nextStepServerConfiguration;
         this.operationConverter = operationConverter;
@@ -89,16 +87,16 @@ public class StepResolutionService {
     }
 
     /**
-     * Reload step definitions from database.
+     * Reload step definitions from database. A new step definition index is built and published atomically,
+     * requests which are being resolved concurrently keep using the previous index.
      */
     public void reloadStepDefinitions() {
-        synchronized (stepDefinitionLock) {
-            stepDefinitionsPerOperation.clear();
-            final List<String> operationNames = stepDefinitionRepository.findDistinctOperationNames();
-            for (String operationName : operationNames) {
-                stepDefinitionsPerOperation.put(operationName, stepDefinitionRepository.findStepDefinitionsForOperation(operationName));
-            }
+        final Map<String, List<StepDefinitionEntity>> stepDefinitionsPerOperation = new HashMap<>();
+        final List<String> operationNames = stepDefinitionRepository.findDistinctOperationNames();
+        for (String operationName : operationNames) {
+            stepDefinitionsPerOperation.put(operationName, stepDefinitionRepository.findStepDefinitionsForOperation(operationName));
         }
+        stepDefinitionIndex = StepDefinitionIndex.build(stepDefinitionsPerOperation);
     }
 
     /**
@@ -203,9 +201,8 @@ public class StepResolutionService {
             request.setAuthStepResult(AuthStepResult.AUTH_METHOD_FAILED);
         }
 
+        // Step definitions for UPDATE requests are already sorted by priority in the step definition index
         final List<StepDefinitionEntity> stepDefinitions = filterStepDefinitions(operation.getOperationName(), OperationRequestType.UPDATE, request.getAuthStepResult(), request.getAuthMethod(), request.getUserId());
-        sortSteps(stepDefinitions);
-        verifyDuplicatePrioritiesAbsent(stepDefinitions);
 
         // Authentication method downgrade result is handled separately due to specific logic
         if (request.getAuthStepResult() == AuthStepResult.AUTH_METHOD_DOWNGRADE) {
@@ -267,6 +264,8 @@ public class StepResolutionService {
 
     /**
      * Filters step definitions by given parameters and returns a list of step definitions which match the query.
+     * Step definitions are looked up in the immutable step definition index, only the filtering by authentication
+     * methods available for the user is evaluated for each request.
      *
      * @param operationName name of the operation
      * @param operationType type of the operation - CREATE/UPDATE
@@ -276,61 +275,47 @@ public class StepResolutionService {
      * @return filtered list of steps
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      */
-    private synchronized List<StepDefinitionEntity> filterStepDefinitions(String operationName, OperationRequestType operationType, AuthStepResult authStepResult, AuthMethod authMethod, String userId) throws InvalidConfigurationException {
-        final AuthMethodService authMethodService = serviceCatalogue.getAuthMethodService();
-        final MobileTokenConfigurationService mobileTokenConfigurationService = serviceCatalogue.getMobileTokenConfigurationService();
-        final List<StepDefinitionEntity> stepDefinitions;
-        synchronized (stepDefinitionLock) {
-            // Step definitions may be modified and reloaded using REST API, lock is required
-            stepDefinitions = stepDefinitionsPerOperation.get(operationName);
-        }
-        final List<AuthMethod> authMethodsAvailableForUser = new ArrayList<>();
-        if (userId != null) {
-            for (UserAuthMethodDetail userAuthMethodDetail : authMethodService.listAuthMethodsEnabledForUser(userId)) {
-                authMethodsAvailableForUser.add(userAuthMethodDetail.getAuthMethod());
-            }
-        }
-        final List<StepDefinitionEntity> filteredStepDefinitions = new ArrayList<>();
-        if (stepDefinitions == null) {
+    private List<StepDefinitionEntity> filterStepDefinitions(String operationName, OperationRequestType operationType, AuthStepResult authStepResult, AuthMethod authMethod, String userId) throws InvalidConfigurationException {
+        final StepDefinitionIndex index = stepDefinitionIndex;
+        if (!index.containsOperation(operationName)) {
             throw new InvalidConfigurationException("Step definitions are missing in Next Step server.");
         }
-        for (StepDefinitionEntity stepDef : stepDefinitions) {
-            if (operationType != null && !operationType.equals(stepDef.getOperationType())) {
-                // filter by operation type
-                continue;
-            }
-            if (authStepResult != null && !authStepResult.equals(stepDef.getRequestAuthStepResult())) {
-                // filter by AuthStepResult
-                continue;
-            }
-            if (authMethod != null && !authMethod.equals(stepDef.getRequestAuthMethod())) {
-                // filter by request AuthMethod
-                continue;
+        final StepDefinitionIndex.Entry entry = index.lookup(operationName, operationType, authStepResult, authMethod);
+        if (userId == null || !entry.responseAuthMethodPresent()) {
+            // No filtering by user authentication methods is required
+            final List<StepDefinitionEntity> stepDefinitions = new ArrayList<>(entry.stepDefinitions());
+            if (operationType == OperationRequestType.UPDATE && entry.duplicatePriorities()) {
+                verifyDuplicatePrioritiesAbsent(stepDefinitions);
             }
-            if (userId != null && stepDef.getResponseAuthMethod() != null && !authMethodsAvailableForUser.contains(stepDef.getResponseAuthMethod())) {
+            return stepDefinitions;
+        }
+        final AuthMethodService authMethodService = serviceCatalogue.getAuthMethodService();
+        final MobileTokenConfigurationService mobileTokenConfigurationService = serviceCatalogue.getMobileTokenConfigurationService();
+        final Set<AuthMethod> authMethodsAvailableForUser = EnumSet.noneOf(AuthMethod.class);
+        for (UserAuthMethodDetail userAuthMethodDetail : authMethodService.listAuthMethodsEnabledForUser(userId)) {
+            authMethodsAvailableForUser.add(userAuthMethodDetail.getAuthMethod());
+        }
+        final List<StepDefinitionEntity> filteredStepDefinitions = new ArrayList<>(entry.stepDefinitions().size());
+        for (StepDefinitionEntity stepDef : entry.stepDefinitions()) {
+            if (stepDef.getResponseAuthMethod() != null && !authMethodsAvailableForUser.contains(stepDef.getResponseAuthMethod())) {
                 // filter by response AuthMethod based on methods available for the user - the list can change
                 // dynamically via user preferences
                 continue;
             }
             // filter out POWERAUTH_TOKEN method in case it is not enabled for given operation and authentication method and active
-            if (userId != null && stepDef.getResponseAuthMethod() == AuthMethod.POWERAUTH_TOKEN
+            if (stepDef.getResponseAuthMethod() == AuthMethod.POWERAUTH_TOKEN
                     && !mobileTokenConfigurationService.isMobileTokenActive(userId, operationName, AuthMethod.POWERAUTH_TOKEN)) {
                 continue;
             }
             filteredStepDefinitions.add(stepDef);
         }
+        if (operationType == OperationRequestType.UPDATE && entry.duplicatePriorities()) {
+            // Duplicate priorities are allowed only in case the duplicates are filtered out for the user
+            verifyDuplicatePrioritiesAbsent(filteredStepDefinitions);
+        }
         return filteredStepDefinitions;
     }
 
-    /**
-     * Sorts the step definitions based on their priorities.
-     *
-     * @param stepDefinitions step definitions
-     */
-    private void sortSteps(List<StepDefinitionEntity> stepDefinitions) {
-        stepDefinitions.sort(Comparator.comparing(StepDefinitionEntity::getResponsePriority));
-    }
-
     /**
      * Verifies that each priority is present only once in the list of step definitions.
      *
@@ -377,28 +362,23 @@ public class StepResolutionService {
             return true;
         }
         // in case authentication method previously failed, it is already failed
-        for (OperationHistoryEntity history : operation.getOperationHistory()) {
-            if (history.getRequestAuthMethod() == authMethod && history.getRequestAuthStepResult() == AuthStepResult.AUTH_METHOD_FAILED) {
-                return true;
-            }
+        final OperationAuthCounterEntity authCounter = getAuthCounter(operation, authMethod);
+        if (authCounter.isAuthMethodFailed()) {
+            return true;
         }
         // check whether authMethod supports check of authorization failure count
-        final AuthMethodEntity authMethodEntity = authMethodRepository.findByAuthMethod(authMethod).orElseThrow(() ->
-                new AuthMethodNotFoundException("Authentication method not found: " + authMethod));
-        if (authMethodEntity.getCheckAuthFails()) {
-            // count failures
-            int failureCount = 0;
+        final AuthMethodDetail authMethodDetail = getAuthMethods().get(authMethod);
+        if (authMethodDetail == null) {
+            throw new AuthMethodNotFoundException("Authentication method not found: " + authMethod);
+        }
+        if (Boolean.TRUE.equals(authMethodDetail.getCheckAuthFails())) {
+            // count failures, including failures from history for this method
+            int failureCount = authCounter.getAuthFailCount();
             if (currentAuthStepResult == AuthStepResult.AUTH_FAILED) {
                 // add current failure
                 failureCount++;
             }
-            for (OperationHistoryEntity history : operation.getOperationHistory()) {
-                // add all failures from history for this method
-                if (history.getRequestAuthMethod() == authMethod && history.getRequestAuthStepResult() == AuthStepResult.AUTH_FAILED) {
-                    failureCount++;
-                }
-            }
-            final int maxAuthFails = getMaxAuthFails(operation, authMethodEntity);
+            final int maxAuthFails = getMaxAuthFails(operation, authMethodDetail);
             return failureCount >= maxAuthFails;
         }
         return false;
@@ -416,27 +396,66 @@ public class StepResolutionService {
         }
         final AuthMethod authMethod = currentOperationHistory.getRequestAuthMethod();
         // check whether authMethod supports check of authorization failure count
-        final Optional<AuthMethodEntity> authMethodEntityOptional = authMethodRepository.findByAuthMethod(authMethod);
-        if (authMethodEntityOptional.isEmpty()) {
+        final AuthMethodDetail authMethodDetail = getAuthMethods().get(authMethod);
+        if (authMethodDetail == null) {
             return null;
         }
-        // in case authentication method previously failed, it is already failed
-        for (OperationHistoryEntity history : operation.getOperationHistory()) {
-            if (history.getRequestAuthMethod() == authMethod && history.getRequestAuthStepResult() == AuthStepResult.AUTH_METHOD_FAILED) {
-                return 0;
+        return getNumberOfRemainingAttempts(operation, authMethodDetail, getAuthCounter(operation, authMethod));
+    }
+
+    /**
+     * Get number of remaining authentication attempts for current authentication methods of multiple operations.
+     * Authentication failure counters of all operations are loaded using a single query.
+     * @param operations Operations.
+     * @return Map with operation ID as key and number of remaining authentication attempts as value. Null value is used for no limit.
+     */
+    public Map<String, Integer> getNumberOfRemainingAttempts(List<OperationEntity> operations) {
+        final Map<String, Integer> remainingAttempts = new HashMap<>();
+        if (operations.isEmpty()) {
+            return remainingAttempts;
+        }
+        final Map<AuthMethod, AuthMethodDetail> authMethods = getAuthMethods();
+        final Set<String> operationIds = operations.stream().map(OperationEntity::getOperationId).collect(Collectors.toSet());
+        final Map<OperationAuthCounterEntity.OperationAuthCounterKey, OperationAuthCounterEntity> authCounters = new HashMap<>();
+        for (OperationAuthCounterEntity authCounter : operationAuthCounterRepository.findCurrentCounters(operationIds)) {
+            authCounters.put(authCounter.getPrimaryKey(), authCounter);
+        }
+        for (OperationEntity operation : operations) {
+            final OperationHistoryEntity currentOperationHistory = operation.getCurrentOperationHistoryEntity();
+            if (currentOperationHistory == null) {
+                remainingAttempts.put(operation.getOperationId(), null);
+                continue;
             }
-        }
-        final AuthMethodEntity authMethodEntity = authMethodEntityOptional.get();
-        if (authMethodEntity.getCheckAuthFails()) {
-            // count failures
-            int failureCount = 0;
-            for (OperationHistoryEntity history : operation.getOperationHistory()) {
-                // add all failures from history for this method
-                if (history.getRequestAuthMethod() == authMethod && history.getRequestAuthStepResult() == AuthStepResult.AUTH_FAILED) {
-                    failureCount++;
-                }
+            final AuthMethod authMethod = currentOperationHistory.getRequestAuthMethod();
+            final AuthMethodDetail authMethodDetail = authMethods.get(authMethod);
+            if (authMethodDetail == null) {
+                remainingAttempts.put(operation.getOperationId(), null);
+                continue;
+            }
+            OperationAuthCounterEntity authCounter = authCounters.get(new OperationAuthCounterEntity.OperationAuthCounterKey(operation.getOperationId(), authMethod));
+            if (authCounter == null) {
+                authCounter = createAuthCounter(operation, authMethod);
             }
-            final int maxAuthFails = getMaxAuthFails(operation, authMethodEntity);
+            remainingAttempts.put(operation.getOperationId(), getNumberOfRemainingAttempts(operation, authMethodDetail, authCounter));
+        }
+        return remainingAttempts;
+    }
+
+    /**
+     * Get number of remaining authentication attempts for an authentication method using its authentication failure counter.
+     * @param operation Operation.
+     * @param authMethodDetail Authentication method detail.
+     * @param authCounter Authentication failure counter.
+     * @return Number of remaining authentication attempts. Null value returned for no limit.
+     */
+    private Integer getNumberOfRemainingAttempts(OperationEntity operation, AuthMethodDetail authMethodDetail, OperationAuthCounterEntity authCounter) {
+        // in case authentication method previously failed, it is already failed
+        if (authCounter.isAuthMethodFailed()) {
+            return 0;
+        }
+        if (Boolean.TRUE.equals(authMethodDetail.getCheckAuthFails())) {
+            final int failureCount = authCounter.getAuthFailCount();
+            final int maxAuthFails = getMaxAuthFails(operation, authMethodDetail);
             if (failureCount >= maxAuthFails) {
                 return 0;
             }
@@ -445,6 +464,44 @@ public class StepResolutionService {
         return null;
     }
 
+    /**
+     * Get authentication failure counter for given operation and authentication method. The counter is maintained
+     * when operation history is written. In case the authentication method has not failed yet, an empty counter is returned.
+     * @param operation Operation entity.
+     * @param authMethod Authentication method.
+     * @return Authentication failure counter.
+     */
+    private OperationAuthCounterEntity getAuthCounter(OperationEntity operation, AuthMethod authMethod) {
+        return operationAuthCounterRepository.findCurrentCounter(operation.getOperationId(), authMethod).orElseGet(() ->
+                createAuthCounter(operation, authMethod));
+    }
+
+    /**
+     * Create authentication failure counter for an operation without a persisted counter. Counters of archived
+     * operations are deleted, so the counter is evaluated from operation history in case the history is loaded.
+     * @param operation Operation entity.
+     * @param authMethod Authentication method.
+     * @return Authentication failure counter.
+     */
+    private OperationAuthCounterEntity createAuthCounter(OperationEntity operation, AuthMethod authMethod) {
+        final OperationAuthCounterEntity authCounter = new OperationAuthCounterEntity(operation.getOperationId(), authMethod);
+        final List<OperationHistoryEntity> operationHistory = operation.getOperationHistory();
+        if (operationHistory == null || !Hibernate.isInitialized(operationHistory)) {
+            return authCounter;
+        }
+        for (OperationHistoryEntity history : operationHistory) {
+            if (history.getRequestAuthMethod() != authMethod) {
+                continue;
+            }
+            if (history.getRequestAuthStepResult() == AuthStepResult.AUTH_FAILED) {
+                authCounter.setAuthFailCount(authCounter.getAuthFailCount() + 1);
+            } else if (history.getRequestAuthStepResult() == AuthStepResult.AUTH_METHOD_FAILED) {
+                authCounter.setAuthMethodFailed(true);
+            }
+        }
+        return authCounter;
+    }
+
     /**
      * Check whether the update of operation is legitimate and meaningful.
      *
@@ -546,9 +603,8 @@ public class StepResolutionService {
      */
     private int getExpirationTime(String operationName) {
         Integer expirationTime = null;
-        final Optional<OperationConfigEntity> configOptional = operationConfigRepository.findById(operationName);
-        if (configOptional.isPresent()) {
-            OperationConfigEntity config = configOptional.get();
+        final GetOperationConfigDetailResponse config = serviceCatalogue.getOperationConfigurationService().getOperationConfigCatalogue().getOperationConfig(operationName);
+        if (config != null) {
             expirationTime = config.getExpirationTime();
         }
         if (expirationTime == null) {
@@ -557,18 +613,28 @@ public class StepResolutionService {
         return expirationTime;
     }
 
+    /**
+     * Get authentication methods from the authentication method catalogue cached in memory.
+     * @return Map with authentication method as key and authentication method detail as value.
+     */
+    private Map<AuthMethod, AuthMethodDetail> getAuthMethods() {
+        final Map<AuthMethod, AuthMethodDetail> authMethods = new EnumMap<>(AuthMethod.class);
+        for (AuthMethodDetail authMethodDetail : serviceCatalogue.getAuthMethodCacheService().getAuthMethods()) {
+            authMethods.put(authMethodDetail.getAuthMethod(), authMethodDetail);
+        }
+        return authMethods;
+    }
+
     /**
      * Get maximum number of authentication failures for given operation and authentication method.
      * @param operation Operation entity.
      * @param authMethod Authentication method.
      * @return Maximum number of authentication failures.
      */
-    private int getMaxAuthFails(OperationEntity operation, AuthMethodEntity authMethod) {
-        final OperationMethodConfigEntity.OperationAuthMethodKey primaryKey = new OperationMethodConfigEntity.OperationAuthMethodKey(operation.getOperationName(), authMethod.getAuthMethod());
-        final Optional<OperationMethodConfigEntity> configOptional = operationMethodConfigRepository.findById(primaryKey);
-        if (configOptional.isPresent()) {
-            final OperationMethodConfigEntity config = configOptional.get();
-            return config.getMaxAuthFails();
+    private int getMaxAuthFails(OperationEntity operation, AuthMethodDetail authMethod) {
+        final Integer maxAuthFails = serviceCatalogue.getOperationConfigurationService().getOperationConfigCatalogue().getMaxAuthFails(operation.getOperationName(), authMethod.getAuthMethod());
+        if (maxAuthFails != null) {
+            return maxAuthFails;
         }
         return authMethod.getMaxAuthFails();
     }
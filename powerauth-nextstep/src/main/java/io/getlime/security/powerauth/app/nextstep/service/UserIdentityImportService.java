@@ -0,0 +1,387 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.getlime.core.rest.model.base.entity.Error;
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.UserImportResult;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.UserImportStatus;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.*;
+import io.getlime.security.powerauth.lib.nextstep.model.request.CreateUserRequest;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * This service handles bulk import of user identities. User identities are read as newline delimited JSON documents
+ * with the same structure as the create user identity request. User identities are imported in chunks, each chunk
+ * is imported in a single transaction and multiple chunks are imported in parallel, so that credential hashing
+ * uses all available processors. The import result is written for each imported user identity. In case the import
+ * is interrupted, a failed result with the number of the last line which was read is written as the last line.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+@Service
+public class UserIdentityImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityImportService.class);
+
+    /**
+     * Maximum number of statements sent to the database in a single JDBC batch during the import.
+     */
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    private final ServiceCatalogue serviceCatalogue;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+    private final Validator validator;
+
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    /**
+     * User identity import service constructor.
+     * @param serviceCatalogue Service catalogue.
+     * @param nextStepServerConfiguration Next Step server configuration.
+     * @param entityManager Entity manager.
+     * @param objectMapper Object mapper.
+     * @param validator Bean validator.
+     */
+    @Autowired
+    public UserIdentityImportService(@Lazy ServiceCatalogue serviceCatalogue, NextStepServerConfiguration nextStepServerConfiguration, EntityManager entityManager, ObjectMapper objectMapper, Validator validator) {
+        this.serviceCatalogue = serviceCatalogue;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // Each result must be written on a single line regardless of the configuration of the object mapper
+        this.resultWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.validator = validator;
+        this.chunkSize = Math.max(1, nextStepServerConfiguration.getUserImportChunkSize());
+        this.parallelism = nextStepServerConfiguration.getUserImportParallelism() > 0
+                ? nextStepServerConfiguration.getUserImportParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "user-import-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Import user identities. Each line of the input contains a create user identity request, each line of the output
+     * contains the import result of a single user identity. The results are written in the order of the input lines.
+     * @param inputStream Input stream with user identities.
+     * @param outputStream Output stream for import results.
+     * @throws IOException Thrown when reading the input or writing the output fails.
+     */
+    public void importUsers(InputStream inputStream, OutputStream outputStream) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        final Deque<Future<List<UserImportResult>>> pendingChunks = new ArrayDeque<>();
+        final ImportStatistics statistics = new ImportStatistics();
+        long lineNumber = 0;
+        try {
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(parseRecord(lineNumber, line));
+                if (chunk.size() == chunkSize) {
+                    submitChunk(chunk, pendingChunks, writer, statistics);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submitChunk(chunk, pendingChunks, writer, statistics);
+            }
+            while (!pendingChunks.isEmpty()) {
+                writeResults(awaitChunk(pendingChunks.poll()), writer, statistics);
+            }
+            writer.flush();
+            logger.info("User identity import finished, created: {}, failed: {}", statistics.created, statistics.failed);
+        } catch (IOException | RuntimeException ex) {
+            logger.error("User identity import was interrupted, last line number: {}, error: {}", lineNumber, ex.getMessage(), ex);
+            // The response is already committed, the client detects the interrupted import using the last result
+            writeInterruptedResult(lineNumber, writer);
+            throw ex;
+        } finally {
+            // Chunks which were not started yet are not imported in case the import is interrupted
+            pendingChunks.forEach(future -> future.cancel(false));
+        }
+    }
+
+    /**
+     * Import a chunk of user identities in a single transaction. In case import of any user identity fails,
+     * the whole transaction is rolled back.
+     * @param requests Create user identity requests.
+     * @throws NextStepServiceException Thrown when import of any user identity fails.
+     */
+    @Transactional(rollbackFor = Throwable.class)
+    public void importChunk(List<CreateUserRequest> requests) throws NextStepServiceException {
+        final UserIdentityService userIdentityService = serviceCatalogue.getUserIdentityService();
+        final Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(JDBC_BATCH_SIZE);
+        // Lookups of credentials must not flush the user identities created earlier in the chunk, otherwise
+        // the inserts would be split into many small batches. Duplicate usernames within a chunk are rejected
+        // by the unique index at commit and the chunk is then imported record by record.
+        session.setHibernateFlushMode(FlushMode.COMMIT);
+        for (CreateUserRequest request : requests) {
+            userIdentityService.createUserIdentity(request);
+        }
+    }
+
+    /**
+     * Parse a single input line.
+     * @param lineNumber Line number.
+     * @param line Input line.
+     * @return Import record.
+     */
+    private ImportRecord parseRecord(long lineNumber, String line) {
+        final CreateUserRequest request;
+        try {
+            request = objectMapper.readValue(line, CreateUserRequest.class);
+        } catch (JsonProcessingException ex) {
+            logger.debug(ex.getMessage(), ex);
+            return new ImportRecord(lineNumber, null, createResult(lineNumber, null, InvalidRequestException.CODE, "Invalid request data, cause: " + ex.getOriginalMessage()));
+        }
+        final Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            final String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .collect(Collectors.joining(", "));
+            return new ImportRecord(lineNumber, null, createResult(lineNumber, request.getUserId(), RequestValidationFailedException.CODE, "Request validation failed: " + message));
+        }
+        return new ImportRecord(lineNumber, request, null);
+    }
+
+    /**
+     * Submit a chunk for import. In case the maximum number of chunks is already being imported, results
+     * of the oldest chunk are written first.
+     * @param chunk Chunk of import records.
+     * @param pendingChunks Chunks which are being imported.
+     * @param writer Output writer.
+     * @param statistics Import statistics.
+     * @throws IOException Thrown when writing the output fails.
+     */
+    private void submitChunk(List<ImportRecord> chunk, Deque<Future<List<UserImportResult>>> pendingChunks, Writer writer, ImportStatistics statistics) throws IOException {
+        while (pendingChunks.size() >= parallelism) {
+            writeResults(awaitChunk(pendingChunks.poll()), writer, statistics);
+        }
+        pendingChunks.add(executor.submit(() -> importRecords(chunk)));
+    }
+
+    /**
+     * Import a chunk of records. The valid records are imported in a single transaction. In case the transaction
+     * fails, each record is imported in a separate transaction to find out which records failed.
+     * @param chunk Chunk of import records.
+     * @return Import results.
+     */
+    private List<UserImportResult> importRecords(List<ImportRecord> chunk) {
+        final List<CreateUserRequest> requests = chunk.stream()
+                .filter(record -> record.request() != null)
+                .map(ImportRecord::request)
+                .toList();
+        boolean chunkImported = false;
+        if (!requests.isEmpty()) {
+            try {
+                serviceCatalogue.getUserIdentityImportService().importChunk(requests);
+                chunkImported = true;
+            } catch (NextStepServiceException | RuntimeException ex) {
+                logger.debug("Import of user identity chunk failed, importing user identities separately, error: {}", ex.getMessage());
+            }
+        }
+        final List<UserImportResult> results = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            if (record.result() != null) {
+                results.add(record.result());
+            } else if (chunkImported) {
+                results.add(createResult(record.lineNumber(), record.request().getUserId(), null, null));
+            } else {
+                results.add(importRecord(record));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Import a single record in a separate transaction.
+     * @param record Import record.
+     * @return Import result.
+     */
+    private UserImportResult importRecord(ImportRecord record) {
+        final String userId = record.request().getUserId();
+        try {
+            serviceCatalogue.getUserIdentityService().createUserIdentity(record.request());
+            return createResult(record.lineNumber(), userId, null, null);
+        } catch (CredentialValidationFailedException ex) {
+            final String message = "Credential validation failed: " + ex.getError().getValidationFailures();
+            return createResult(record.lineNumber(), userId, CredentialValidationFailedException.CODE, message);
+        } catch (NextStepServiceException | RuntimeException ex) {
+            logger.warn("Import of user identity failed, user ID: {}, error: {}", userId, ex.getMessage());
+            logger.debug(ex.getMessage(), ex);
+            return createResult(record.lineNumber(), userId, convertErrorCode(ex), ex.getMessage());
+        }
+    }
+
+    /**
+     * Wait for import of a chunk.
+     * @param future Future of the chunk import.
+     * @return Import results.
+     */
+    private List<UserImportResult> awaitChunk(Future<List<UserImportResult>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User identity import was interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("User identity import failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Write import results.
+     * @param results Import results.
+     * @param writer Output writer.
+     * @param statistics Import statistics.
+     * @throws IOException Thrown when writing the output fails.
+     */
+    private void writeResults(List<UserImportResult> results, Writer writer, ImportStatistics statistics) throws IOException {
+        for (UserImportResult result : results) {
+            writer.write(resultWriter.writeValueAsString(result));
+            writer.write('\n');
+            if (result.getStatus() == UserImportStatus.CREATED) {
+                statistics.created++;
+            } else {
+                statistics.failed++;
+            }
+        }
+        // Flush results of each chunk, so that the client receives the results continuously
+        writer.flush();
+    }
+
+    /**
+     * Write a failed result for an interrupted import. The result contains the number of the last line which was read,
+     * results of user identities which were not written before are unknown.
+     * @param lineNumber Number of the last line which was read.
+     * @param writer Output writer.
+     */
+    private void writeInterruptedResult(long lineNumber, Writer writer) {
+        final UserImportResult result = createResult(lineNumber, null, Error.Code.ERROR_GENERIC, "User identity import was interrupted");
+        try {
+            writer.write(resultWriter.writeValueAsString(result));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException ex) {
+            // The output is not available, the client detects the interrupted import by the missing results
+            logger.debug(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Create an import result.
+     * @param lineNumber Line number.
+     * @param userId User ID.
+     * @param errorCode Error code, null in case the user identity was created.
+     * @param errorMessage Error message.
+     * @return Import result.
+     */
+    private UserImportResult createResult(long lineNumber, String userId, String errorCode, String errorMessage) {
+        final UserImportResult result = new UserImportResult();
+        result.setLineNumber(lineNumber);
+        result.setUserId(userId);
+        result.setStatus(errorCode == null ? UserImportStatus.CREATED : UserImportStatus.FAILED);
+        result.setErrorCode(errorCode);
+        result.setErrorMessage(errorMessage);
+        return result;
+    }
+
+    /**
+     * Convert an exception into an error code.
+     * @param ex Exception.
+     * @return Error code.
+     */
+    private String convertErrorCode(Exception ex) {
+        if (ex instanceof UserAlreadyExistsException) {
+            return UserAlreadyExistsException.CODE;
+        } else if (ex instanceof InvalidRequestException) {
+            return InvalidRequestException.CODE;
+        } else if (ex instanceof CredentialDefinitionNotFoundException) {
+            return CredentialDefinitionNotFoundException.CODE;
+        } else if (ex instanceof InvalidConfigurationException) {
+            return InvalidConfigurationException.CODE;
+        } else if (ex instanceof EncryptionException) {
+            return EncryptionException.CODE;
+        } else if (ex instanceof CredentialHashingRejectedException) {
+            return CredentialHashingRejectedException.CODE;
+        }
+        return Error.Code.ERROR_GENERIC;
+    }
+
+    /**
+     * Shutdown the import executor.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Record read from the import input.
+     * @param lineNumber Line number.
+     * @param request Create user identity request, null in case the line is invalid.
+     * @param result Import result for an invalid line, null in case the line is valid.
+     */
+    private record ImportRecord(long lineNumber, CreateUserRequest request, UserImportResult result) {
+    }
+
+    /**
+     * Statistics of a single import.
+     */
+    private static final class ImportStatistics {
+        private long created;
+        private long failed;
+    }
+
+}
@@ -17,30 +17,37 @@
  */
 package io.getlime.security.powerauth.app.nextstep.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
 import io.getlime.security.powerauth.app.nextstep.repository.CredentialDefinitionRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.CredentialRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.UserIdentityRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.UserRoleRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.*;
 import io.getlime.security.powerauth.app.nextstep.service.adapter.UserLookupCustomizationService;
 import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.UserIdentityStatus;
-import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.UserRoleStatus;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.*;
 import io.getlime.security.powerauth.lib.nextstep.model.request.LookupUserRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.request.LookupUsersRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetUserDetailResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.LookupUserResponse;
 import io.getlime.security.powerauth.lib.nextstep.model.response.LookupUsersResponse;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * This service handles user identity lookup.
@@ -53,32 +60,47 @@ public class UserIdentityLookupService {
     private final UserIdentityRepository userIdentityRepository;
     private final CredentialDefinitionRepository credentialDefinitionRepository;
     private final CredentialRepository credentialRepository;
+    private final UserRoleRepository userRoleRepository;
     private final ServiceCatalogue serviceCatalogue;
+    private final NextStepServerConfiguration nextStepServerConfiguration;
+    private final EntityManager entityManager;
+    private final ObjectWriter streamWriter;
 
     /**
      * Lookup service constructor.
      * @param repositoryCatalogue Repository catalogue.
      * @param serviceCatalogue Service catalogue.
+     * @param nextStepServerConfiguration Next Step server configuration.
+     * @param entityManager Entity manager.
+     * @param objectMapper Object mapper.
      */
     @Autowired
-    public UserIdentityLookupService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue) {
+    public UserIdentityLookupService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, NextStepServerConfiguration nextStepServerConfiguration, EntityManager entityManager, ObjectMapper objectMapper) {
         this.userIdentityRepository = repositoryCatalogue.getUserIdentityRepository();
         this.credentialDefinitionRepository = repositoryCatalogue.getCredentialDefinitionRepository();
         this.credentialRepository = repositoryCatalogue.getCredentialRepository();
+        this.userRoleRepository = repositoryCatalogue.getUserRoleRepository();
         this.serviceCatalogue = serviceCatalogue;
+        this.nextStepServerConfiguration = nextStepServerConfiguration;
+        this.entityManager = entityManager;
+        // Each user detail must be written on a single line of the newline delimited JSON output
+        this.streamWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
     }
 
     /**
-     * Lookup user identities.
+     * Lookup user identities. User identities are returned in pages ordered by user ID in case a page size is
+     * specified in the request or a default page size is configured, the next page is requested using the user ID
+     * returned in the previous response. A page may be followed by an empty page.
      * @param request Lookup user identities request.
      * @return Lookup user identities response.
      * @throws InvalidRequestException Thrown when request is invalid.
      * @throws UserNotFoundException Thrown when user identity is not found.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional
-    public LookupUsersResponse lookupUsers(LookupUsersRequest request) throws InvalidRequestException, UserNotFoundException, InvalidConfigurationException, EncryptionException {
+    public LookupUsersResponse lookupUsers(LookupUsersRequest request) throws InvalidRequestException, UserNotFoundException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final UserIdentityService userIdentityService = serviceCatalogue.getUserIdentityService();
         final String username = request.getUsername();
         final String credentialName = request.getCredentialName();
@@ -94,9 +116,11 @@ public class UserIdentityLookupService {
         final UserIdentityStatus status = request.getUserIdentityStatus();
         final CredentialStatus credentialStatus = request.getCredentialStatus();
         final List<String> roles = request.getRoles();
-        List<UserIdentityEntity> lookupResult = new ArrayList<>();
+        final int pageSize = resolvePageSize(request.getPageSize());
+        final Pageable pageable = pageSize > 0 ? PageRequest.of(0, pageSize) : Pageable.unpaged();
+        final List<String> lookupResult = new ArrayList<>();
+        String lastUserId = request.getAfterUserId() != null ? request.getAfterUserId() : "";
         CredentialDefinitionEntity credentialDefinition = null;
-        boolean dateFiltered = false;
 
         if (credentialName!= null) {
             credentialDefinition = credentialDefinitionRepository.findByName(credentialName).orElseThrow(() ->
@@ -108,72 +132,167 @@ public class UserIdentityLookupService {
             // When username and credentialName are present, lookup the user identity, single result or no result is found
             final CredentialEntity credential = credentialRepository.findByCredentialDefinitionAndUsernameIgnoreCase(credentialDefinition, username).orElseThrow(() ->
                     new UserNotFoundException("User not found, credential definition name: " + credentialName + ", username: " + username));
-            if (credentialStatus == null || credential.getStatus() == credentialStatus) {
-                // Filter by credentialStatus in case it is also specified
-                UserIdentityEntity user = credential.getUser();
-                lookupResult = Collections.singletonList(user);
-            }
-        } else if (credentialName != null && credentialStatus != null) {
-            // When credentialName and credentialStatus are present, lookup the user identities, multiple or zero results are found
-            List<UserIdentityEntity> lookupResultTemp = new ArrayList<>();
-            try (final Stream<CredentialEntity> credentialEntities = credentialRepository.findAllByCredentialDefinitionAndStatus(credentialDefinition, credentialStatus)) {
-                credentialEntities.forEach(credential -> lookupResultTemp.add(credential.getUser()));
+            if ((credentialStatus == null || credential.getStatus() == credentialStatus) && request.getAfterUserId() == null) {
+                // Filter by credentialStatus in case it is also specified, the single result is always on the first page
+                final UserIdentityEntity user = credential.getUser();
+                final Map<String, Set<String>> activeRoleNames = findActiveRoleNames(Collections.singletonList(user), roles);
+                if (matchesLookupFilter(user, activeRoleNames, createdStartDate, createdEndDate, status, roles)) {
+                    lookupResult.add(user.getUserId());
+                }
             }
-            lookupResult = lookupResultTemp;
-        } else if (createdStartDate != null && credentialStatus == null) {
-            // Lookup the user identities by createdDate, multiple or zero results are found, credentialStatus filter is not allowed
-            lookupResult = userIdentityRepository.findUserIdentitiesByCreatedDate(createdStartDate, createdEndDate).collect(Collectors.toList());
-            dateFiltered = true;
+        } else if ((credentialName != null && credentialStatus != null) || (createdStartDate != null && credentialStatus == null)) {
+            // When credentialName and credentialStatus are present, lookup the user identities by credential status,
+            // otherwise lookup the user identities by createdDate, credentialStatus filter is not allowed in this case
+            List<UserIdentityEntity> batch;
+            do {
+                if (credentialStatus != null) {
+                    batch = credentialRepository.findUsersByCredentialDefinitionAndStatus(credentialDefinition, credentialStatus, lastUserId, pageable);
+                } else {
+                    batch = userIdentityRepository.findUserIdentitiesByCreatedDate(createdStartDate, createdEndDate, lastUserId, pageable);
+                }
+                final Map<String, Set<String>> activeRoleNames = findActiveRoleNames(batch, roles);
+                for (UserIdentityEntity user : batch) {
+                    if (user.getUserId().equals(lastUserId)) {
+                        // Skip user identity with multiple matching credentials
+                        continue;
+                    }
+                    lastUserId = user.getUserId();
+                    // Filter by timestampCreated, but only if filter was not already applied in the query
+                    final boolean matches = credentialStatus != null ?
+                            matchesLookupFilter(user, activeRoleNames, createdStartDate, createdEndDate, status, roles) :
+                            matchesLookupFilter(user, activeRoleNames, null, null, status, roles);
+                    if (matches) {
+                        lookupResult.add(user.getUserId());
+                        if (lookupResult.size() == pageSize) {
+                            break;
+                        }
+                    }
+                }
+                // Filtered out user identities of the batch are no longer needed, only user IDs are kept in lookup result
+                entityManager.clear();
+                // Keep reading batches until the page is full, some user identities may be filtered out in code
+            } while (pageSize > 0 && lookupResult.size() < pageSize && batch.size() == pageSize);
         } else {
             throw new InvalidRequestException("The lookup query contains an invalid combination of parameters");
         }
 
-        if (createdStartDate != null && !dateFiltered) {
-            // Filter by timestampCreated, but only if filter was not already applied
-            final Date finalCreatedStartDate = createdStartDate;
-            final Date finalCreatedEndDate = createdEndDate;
-            lookupResult = lookupResult.stream()
-                    .filter(user -> (user.getTimestampCreated().after(finalCreatedStartDate) && user.getTimestampCreated().before(finalCreatedEndDate)))
-                    .collect(Collectors.toList());
+        final LookupUsersResponse response = new LookupUsersResponse();
+        for (String userId: lookupResult) {
+            final GetUserDetailResponse userDetail = userIdentityService.getUserDetail(userId, credentialDefinition, false);
+            response.getUsers().add(userDetail);
         }
-
-        if (status != null) {
-            // Filter by status
-            lookupResult = lookupResult.stream()
-                    .filter(user -> user.getStatus() == status)
-                    .collect(Collectors.toList());
-        } else {
-            // Do not return REMOVED user identities unless requested in lookup request
-            lookupResult = lookupResult.stream()
-                    .filter(user -> user.getStatus() != UserIdentityStatus.REMOVED)
-                    .collect(Collectors.toList());
+        if (pageSize > 0 && lookupResult.size() == pageSize) {
+            response.setNextUserId(lastUserId);
         }
+        return response;
+    }
 
-        if (roles != null && !roles.isEmpty()) {
-            // Filter by roles
-            final List<UserIdentityEntity> filteredList = new ArrayList<>();
-            for (UserIdentityEntity user: lookupResult) {
-                final List<UserRoleEntity> userRoles = user.getRoles().stream().filter(r -> r.getStatus() == UserRoleStatus.ACTIVE).toList();
-                final List<String> roleNames = userRoles.stream()
-                        .map(roleEntity -> roleEntity.getRole().getName())
-                        .toList();
-                if (new HashSet<>(roleNames).containsAll(roles)) {
-                    filteredList.add(user);
-                }
+    /**
+     * Lookup user identities and write the user details into the output stream as newline delimited JSON documents.
+     * User identities are looked up in pages of the maximum page size, each page is looked up in a separate transaction,
+     * so that the whole lookup result is never held in memory. The page size in the request is ignored.
+     * @param request Lookup user identities request.
+     * @param outputStream Output stream for user details.
+     * @throws InvalidRequestException Thrown when request is invalid.
+     * @throws UserNotFoundException Thrown when user identity is not found.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws EncryptionException Thrown when decryption fails.
+     * @throws IOException Thrown when writing the output fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     */
+    public void lookupUsers(LookupUsersRequest request, OutputStream outputStream) throws InvalidRequestException, UserNotFoundException, InvalidConfigurationException, EncryptionException, IOException, CredentialHashingRejectedException {
+        // Pages are looked up using the service proxy to start a new transaction for each page
+        final UserIdentityLookupService userIdentityLookupService = serviceCatalogue.getUserIdentityLookupService();
+        final LookupUsersRequest pageRequest = new LookupUsersRequest();
+        pageRequest.setCreatedStartDate(request.getCreatedStartDate());
+        pageRequest.setCreatedEndDate(request.getCreatedEndDate());
+        pageRequest.setUserIdentityStatus(request.getUserIdentityStatus());
+        pageRequest.getRoles().addAll(request.getRoles());
+        pageRequest.setUsername(request.getUsername());
+        pageRequest.setCredentialName(request.getCredentialName());
+        pageRequest.setCredentialStatus(request.getCredentialStatus());
+        pageRequest.setPageSize(nextStepServerConfiguration.getUserLookupMaxPageSize());
+        pageRequest.setAfterUserId(request.getAfterUserId());
+        // The first page is looked up before anything is written, so that an invalid request is reported as an error response
+        LookupUsersResponse page = userIdentityLookupService.lookupUsers(pageRequest);
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        while (true) {
+            for (GetUserDetailResponse userDetail : page.getUsers()) {
+                writer.write(streamWriter.writeValueAsString(userDetail));
+                writer.write('\n');
             }
-            lookupResult = filteredList;
+            writer.flush();
+            if (page.getNextUserId() == null) {
+                break;
+            }
+            pageRequest.setAfterUserId(page.getNextUserId());
+            page = userIdentityLookupService.lookupUsers(pageRequest);
         }
+    }
 
-        final LookupUsersResponse response = new LookupUsersResponse();
-        for (UserIdentityEntity user: lookupResult) {
-            final GetUserDetailResponse userDetail = userIdentityService.getUserDetail(user.getUserId(), credentialDefinition, false);
-            response.getUsers().add(userDetail);
+    /**
+     * Resolve page size of user identity lookup.
+     * @param pageSize Page size from the request.
+     * @return Resolved page size, value 0 disables pagination.
+     */
+    private int resolvePageSize(Integer pageSize) {
+        final int maxPageSize = nextStepServerConfiguration.getUserLookupMaxPageSize();
+        if (pageSize == null) {
+            return nextStepServerConfiguration.getUserLookupDefaultPageSize();
         }
-        return response;
+        return Math.min(pageSize, maxPageSize);
+    }
+
+    /**
+     * Find names of active roles of user identities using a single query, the roles are only loaded when the lookup
+     * filters user identities by roles.
+     * @param users User identities.
+     * @param roles Roles which the user identities must have.
+     * @return Map of user IDs to active role names.
+     */
+    private Map<String, Set<String>> findActiveRoleNames(List<UserIdentityEntity> users, List<String> roles) {
+        final Map<String, Set<String>> activeRoleNames = new HashMap<>();
+        if (roles == null || roles.isEmpty() || users.isEmpty()) {
+            return activeRoleNames;
+        }
+        final List<String> userIds = users.stream().map(UserIdentityEntity::getUserId).toList();
+        for (Object[] row : userRoleRepository.findActiveRoleNamesByUserIds(userIds)) {
+            activeRoleNames.computeIfAbsent((String) row[0], userId -> new HashSet<>()).add((String) row[1]);
+        }
+        return activeRoleNames;
     }
 
     /**
-     * Lookup a single user identity.
+     * Check whether the user identity matches the lookup filter.
+     * @param user User identity.
+     * @param activeRoleNames Map of user IDs to active role names.
+     * @param createdStartDate Start of interval for created date, null value disables the created date filter.
+     * @param createdEndDate End of interval for created date.
+     * @param status User identity status, null value matches any status except REMOVED.
+     * @param roles Roles which the user identity must have.
+     * @return Whether the user identity matches the lookup filter.
+     */
+    private boolean matchesLookupFilter(UserIdentityEntity user, Map<String, Set<String>> activeRoleNames, Date createdStartDate, Date createdEndDate, UserIdentityStatus status, List<String> roles) {
+        if (createdStartDate != null && !(user.getTimestampCreated().after(createdStartDate) && user.getTimestampCreated().before(createdEndDate))) {
+            return false;
+        }
+        if (status != null) {
+            if (user.getStatus() != status) {
+                return false;
+            }
+        } else if (user.getStatus() == UserIdentityStatus.REMOVED) {
+            // Do not return REMOVED user identities unless requested in lookup request
+            return false;
+        }
+        if (roles != null && !roles.isEmpty()) {
+            return activeRoleNames.getOrDefault(user.getUserId(), Collections.emptySet()).containsAll(roles);
+        }
+        return true;
+    }
+
+    /**
+     * Lookup a single user identity. In case the credential definition is proxied through Data Adapter,
+     * the lookup is performed by Data Adapter without holding a database transaction.
      * @param request Lookup user identities request.
      * @return Lookup user identities response.
      * @throws InvalidRequestException Thrown when request is invalid.
@@ -181,23 +300,21 @@ public class UserIdentityLookupService {
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws OperationNotFoundException Thrown when operation is not found.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
-    @Transactional
-    public LookupUserResponse lookupUser(LookupUserRequest request) throws InvalidRequestException, UserNotFoundException, InvalidConfigurationException, OperationNotFoundException, EncryptionException {
+    public LookupUserResponse lookupUser(LookupUserRequest request) throws InvalidRequestException, UserNotFoundException, InvalidConfigurationException, OperationNotFoundException, EncryptionException, CredentialHashingRejectedException {
         final OperationPersistenceService operationPersistenceService = serviceCatalogue.getOperationPersistenceService();
         final UserLookupCustomizationService userLookupCustomizationService = serviceCatalogue.getUserLookupCustomizationService();
-        final UserIdentityService userIdentityService = serviceCatalogue.getUserIdentityService();
 
         final String username = request.getUsername();
         final String credentialName = request.getCredentialName();
         final String operationId = request.getOperationId();
-        CredentialDefinitionEntity credentialDefinition = null;
 
-        if (credentialName!= null) {
-            credentialDefinition = credentialDefinitionRepository.findByName(credentialName).orElseThrow(() ->
+        if (credentialName != null) {
+            final CredentialDefinitionEntity credentialDefinition = credentialDefinitionRepository.findByName(credentialName).orElseThrow(() ->
                     new InvalidRequestException("Credential definition not found: " + credentialName));
             if (credentialDefinition.isDataAdapterProxyEnabled()) {
-                // Lookup is performed using Data Adapter
+                // Lookup is performed using Data Adapter, the Data Adapter is called outside of a database transaction
                 if (operationId == null) {
                     throw new InvalidRequestException("Operation ID is missing in Data Adapter user lookup request");
                 }
@@ -222,6 +339,33 @@ public class UserIdentityLookupService {
             }
         }
 
+        // Lookup is performed in Next Step in a transaction started using the service proxy
+        return serviceCatalogue.getUserIdentityLookupService().lookupUserLocal(request);
+    }
+
+    /**
+     * Lookup a single user identity in Next Step. The method is executed in a database transaction.
+     * @param request Lookup user identities request.
+     * @return Lookup user identities response.
+     * @throws InvalidRequestException Thrown when request is invalid.
+     * @throws UserNotFoundException Thrown when user identity is not found.
+     * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
+     * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
+     */
+    @Transactional
+    public LookupUserResponse lookupUserLocal(LookupUserRequest request) throws InvalidRequestException, UserNotFoundException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
+        final UserIdentityService userIdentityService = serviceCatalogue.getUserIdentityService();
+
+        final String username = request.getUsername();
+        final String credentialName = request.getCredentialName();
+        CredentialDefinitionEntity credentialDefinition = null;
+
+        if (credentialName != null) {
+            credentialDefinition = credentialDefinitionRepository.findByName(credentialName).orElseThrow(() ->
+                    new InvalidRequestException("Credential definition not found: " + credentialName));
+        }
+
         // When username and credentialName are present, lookup the user identity, single result or no result is found
         final CredentialEntity credential = credentialRepository.findByCredentialDefinitionAndUsernameIgnoreCase(credentialDefinition, username).orElseThrow(() ->
                 new UserNotFoundException("User not found, credential definition name: " + credentialName + ", username: " + username));
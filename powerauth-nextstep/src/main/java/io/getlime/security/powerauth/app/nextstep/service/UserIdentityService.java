@@ -26,7 +26,9 @@ import io.getlime.security.powerauth.app.nextstep.converter.UserContactConverter
 import io.getlime.security.powerauth.app.nextstep.converter.ValueListConverter;
 import io.getlime.security.powerauth.app.nextstep.repository.OtpRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.RoleRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.UserIdentityHistoryRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.UserIdentityRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.UserRoleRepository;
 import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
 import io.getlime.security.powerauth.app.nextstep.repository.model.entity.*;
 import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
@@ -37,6 +39,8 @@ import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.*;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.*;
 import io.getlime.security.powerauth.lib.nextstep.model.request.*;
 import io.getlime.security.powerauth.lib.nextstep.model.response.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,7 +50,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * This service handles persistence of user identities.
@@ -59,10 +62,24 @@ public class UserIdentityService {
     private final Logger logger = LoggerFactory.getLogger(UserIdentityService.class);
     private static final String AUDIT_TYPE_USER_IDENTITY = "USER_IDENTITY";
 
+    /**
+     * Maximum number of user identities updated using a single statement, the limit keeps the number of values
+     * in the IN clause within database limits.
+     */
+    private static final int UPDATE_USERS_CHUNK_SIZE = 1000;
+
+    /**
+     * Maximum number of statements sent to the database in a single JDBC batch during update of multiple users.
+     */
+    private static final int UPDATE_USERS_JDBC_BATCH_SIZE = 50;
+
     private final UserIdentityRepository userIdentityRepository;
+    private final UserIdentityHistoryRepository userIdentityHistoryRepository;
+    private final UserRoleRepository userRoleRepository;
     private final RoleRepository roleRepository;
     private final OtpRepository otpRepository;
     private final ServiceCatalogue serviceCatalogue;
+    private final EntityManager entityManager;
     private final Audit audit;
 
     private final UserContactConverter userContactConverter = new UserContactConverter();
@@ -74,14 +91,18 @@ public class UserIdentityService {
      * Service constructor.
      * @param repositoryCatalogue Repository catalogue.
      * @param serviceCatalogue Service catalogue.
+     * @param entityManager Entity manager.
      * @param audit Audit interface.
      */
     @Autowired
-    public UserIdentityService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, Audit audit) {
+    public UserIdentityService(RepositoryCatalogue repositoryCatalogue, @Lazy ServiceCatalogue serviceCatalogue, EntityManager entityManager, Audit audit) {
         this.userIdentityRepository = repositoryCatalogue.getUserIdentityRepository();
+        this.userIdentityHistoryRepository = repositoryCatalogue.getUserIdentityHistoryRepository();
+        this.userRoleRepository = repositoryCatalogue.getUserRoleRepository();
         this.roleRepository = repositoryCatalogue.getRoleRepository();
         this.otpRepository = repositoryCatalogue.getOtpRepository();
         this.serviceCatalogue = serviceCatalogue;
+        this.entityManager = entityManager;
         this.audit = audit;
     }
 
@@ -95,9 +116,10 @@ public class UserIdentityService {
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws CredentialValidationFailedException Thrown when credential validation fails.
      * @throws EncryptionException Thrown when encryption or decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional(rollbackFor = Throwable.class)
-    public CreateUserResponse createUserIdentity(CreateUserRequest request) throws UserAlreadyExistsException, InvalidRequestException, CredentialDefinitionNotFoundException, InvalidConfigurationException, CredentialValidationFailedException, EncryptionException {
+    public CreateUserResponse createUserIdentity(CreateUserRequest request) throws UserAlreadyExistsException, InvalidRequestException, CredentialDefinitionNotFoundException, InvalidConfigurationException, CredentialValidationFailedException, EncryptionException, CredentialHashingRejectedException {
         final CredentialDefinitionService credentialDefinitionService = serviceCatalogue.getCredentialDefinitionService();
         final EndToEndEncryptionService endToEndEncryptionService = serviceCatalogue.getEndToEndEncryptionService();
         final CredentialService credentialService = serviceCatalogue.getCredentialService();
@@ -226,9 +248,10 @@ public class UserIdentityService {
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws CredentialValidationFailedException Thrown when credential validation fails.
      * @throws EncryptionException Thrown when encryption or decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional(rollbackFor = Throwable.class)
-    public UpdateUserResponse updateUserIdentity(UpdateUserRequest request) throws UserNotFoundException, InvalidRequestException, CredentialDefinitionNotFoundException, InvalidConfigurationException, CredentialValidationFailedException, EncryptionException {
+    public UpdateUserResponse updateUserIdentity(UpdateUserRequest request) throws UserNotFoundException, InvalidRequestException, CredentialDefinitionNotFoundException, InvalidConfigurationException, CredentialValidationFailedException, EncryptionException, CredentialHashingRejectedException {
         final CredentialDefinitionService credentialDefinitionService = serviceCatalogue.getCredentialDefinitionService();
         final EndToEndEncryptionService endToEndEncryptionService = serviceCatalogue.getEndToEndEncryptionService();
         final CredentialService credentialService = serviceCatalogue.getCredentialService();
@@ -330,9 +353,10 @@ public class UserIdentityService {
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
      * @throws CredentialDefinitionNotFoundException Thrown when credential definition is not found.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
     @Transactional
-    public GetUserDetailResponse getUserDetail(GetUserDetailRequest request) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialDefinitionNotFoundException {
+    public GetUserDetailResponse getUserDetail(GetUserDetailRequest request) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialDefinitionNotFoundException, CredentialHashingRejectedException {
         final CredentialDefinitionService credentialDefinitionService = serviceCatalogue.getCredentialDefinitionService();
         CredentialDefinitionEntity credentialDefinition = null;
         final String credentialName = request.getCredentialName();
@@ -352,8 +376,9 @@ public class UserIdentityService {
      * @throws InvalidRequestException Thrown when request is invalid.
      * @throws InvalidConfigurationException Thrown when Next Step configuration is invalid.
      * @throws EncryptionException Thrown when decryption fails.
+     * @throws CredentialHashingRejectedException Thrown when the credential hashing capacity is exhausted.
      */
-    public GetUserDetailResponse getUserDetail(String userId, CredentialDefinitionEntity credentialDefinition, boolean includeRemoved) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException {
+    public GetUserDetailResponse getUserDetail(String userId, CredentialDefinitionEntity credentialDefinition, boolean includeRemoved) throws UserNotFoundException, InvalidRequestException, InvalidConfigurationException, EncryptionException, CredentialHashingRejectedException {
         final UserIdentityLookupService userIdentityLookupService = serviceCatalogue.getUserIdentityLookupService();
         final CredentialService credentialService = serviceCatalogue.getCredentialService();
         final UserIdentityEntity user = userIdentityLookupService.findUser(userId, includeRemoved);
@@ -400,31 +425,20 @@ public class UserIdentityService {
     }
 
     /**
-     * Update multiple user statuses.
+     * Update multiple user statuses. User identities are updated in chunks using a single update statement
+     * for each chunk, snapshots of updated user identities are inserted into the history table in JDBC batches.
      * @param request Update users request.
      * @return Update users response.
      * @throws UserNotFoundException Thrown when no user identity is found.
      */
     @Transactional
     public UpdateUsersResponse updateUsers(UpdateUsersRequest request) throws UserNotFoundException {
+        final List<String> userIds = request.getUserIds().stream().distinct().toList();
         final List<String> updatedUserIds = new ArrayList<>();
-        try (final Stream<UserIdentityEntity> users = userIdentityRepository.findAllByUserIdIn(request.getUserIds())) {
-            users.forEach(user -> {
-                if (user.getStatus() != request.getUserIdentityStatus()) {
-                    user.setStatus(request.getUserIdentityStatus());
-                    user.setTimestampLastUpdated(new Date());
-                    // Save user identity and a snapshot to the history table
-                    updateUserIdentityHistory(user);
-                    user = userIdentityRepository.save(user);
-                    logger.debug("User identity was updated, user ID: {}", user.getUserId());
-                    audit.info("User identity was updated", AuditDetail.builder()
-                            .type(AUDIT_TYPE_USER_IDENTITY)
-                            .param("userId", user.getUserId())
-                            .param("userStatus", user.getStatus())
-                            .build());
-                }
-                updatedUserIds.add(user.getUserId());
-            });
+        entityManager.unwrap(Session.class).setJdbcBatchSize(UPDATE_USERS_JDBC_BATCH_SIZE);
+        for (int i = 0; i < userIds.size(); i += UPDATE_USERS_CHUNK_SIZE) {
+            final List<String> userIdChunk = userIds.subList(i, Math.min(i + UPDATE_USERS_CHUNK_SIZE, userIds.size()));
+            updatedUserIds.addAll(updateUserStatuses(userIdChunk, request.getUserIdentityStatus()));
         }
         if (updatedUserIds.isEmpty()) {
             throw new UserNotFoundException("No user identity found for update");
@@ -528,22 +542,77 @@ public class UserIdentityService {
      * @param user User identity entity.
      */
     public void updateUserIdentityHistory(UserIdentityEntity user) {
-        final UserIdentityHistoryEntity history = new UserIdentityHistoryEntity();
-        history.setUser(user);
-        history.setStatus(user.getStatus());
         final Set<UserRoleEntity> userRoles = user.getRoles();
         final List<String> roles = userRoles.stream()
                 .filter(role -> role.getStatus() == UserRoleStatus.ACTIVE)
                 .map(role -> role.getRole().getName())
                 .collect(Collectors.toList());
+        final UserIdentityHistoryEntity history = createUserIdentityHistory(user, user.getStatus(), roles, user.getExtras());
+        user.getUserIdentityHistory().add(history);
+    }
+
+    /**
+     * Update status of user identities with given identifiers. User identities are not loaded, the status is updated
+     * using a single update statement. The rows of user identities are locked when their statuses are read, so that
+     * the history snapshots match the updated user identities in case of concurrent updates.
+     * @param userIds User IDs.
+     * @param status New user identity status.
+     * @return Identifiers of found user identities.
+     */
+    private List<String> updateUserStatuses(List<String> userIds, UserIdentityStatus status) {
+        final List<String> foundUserIds = new ArrayList<>();
+        // Extras of user identities which need to be updated by user ID
+        final Map<String, String> userExtras = new LinkedHashMap<>();
+        for (Object[] row : userIdentityRepository.findStatusesByUserIds(userIds)) {
+            final String userId = (String) row[0];
+            foundUserIds.add(userId);
+            if (row[1] != status) {
+                userExtras.put(userId, (String) row[2]);
+            }
+        }
+        if (userExtras.isEmpty()) {
+            return foundUserIds;
+        }
+        userIdentityRepository.updateStatuses(userExtras.keySet(), status, new Date());
+        final Map<String, List<String>> userRoles = new HashMap<>();
+        for (Object[] row : userRoleRepository.findActiveRoleNamesByUserIds(userExtras.keySet())) {
+            userRoles.computeIfAbsent((String) row[0], userId -> new ArrayList<>()).add((String) row[1]);
+        }
+        final List<UserIdentityHistoryEntity> history = new ArrayList<>();
+        userExtras.forEach((userId, extras) -> {
+            final UserIdentityEntity user = entityManager.getReference(UserIdentityEntity.class, userId);
+            history.add(createUserIdentityHistory(user, status, userRoles.getOrDefault(userId, Collections.emptyList()), extras));
+            logger.debug("User identity was updated, user ID: {}", userId);
+            audit.info("User identity was updated", AuditDetail.builder()
+                    .type(AUDIT_TYPE_USER_IDENTITY)
+                    .param("userId", userId)
+                    .param("userStatus", status)
+                    .build());
+        });
+        userIdentityHistoryRepository.saveAll(history);
+        return foundUserIds;
+    }
+
+    /**
+     * Create a snapshot of user identity for user identity history.
+     * @param user User identity entity.
+     * @param status User identity status.
+     * @param roles Names of active roles.
+     * @param extras User identity extras.
+     * @return User identity history entity.
+     */
+    private UserIdentityHistoryEntity createUserIdentityHistory(UserIdentityEntity user, UserIdentityStatus status, List<String> roles, String extras) {
+        final UserIdentityHistoryEntity history = new UserIdentityHistoryEntity();
+        history.setUser(user);
+        history.setStatus(status);
         try {
             history.setRoles(valueListConverter.fromList(roles));
         } catch (JsonProcessingException ex) {
             // Ignore
         }
-        history.setExtras(user.getExtras());
+        history.setExtras(extras);
         history.setTimestampCreated(new Date());
-        user.getUserIdentityHistory().add(history);
+        return history;
     }
 
     /**
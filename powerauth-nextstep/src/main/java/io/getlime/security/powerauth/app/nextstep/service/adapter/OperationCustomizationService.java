@@ -26,6 +26,7 @@ import io.getlime.security.powerauth.lib.dataadapter.client.DataAdapterClientErr
 import io.getlime.security.powerauth.lib.dataadapter.model.entity.OperationChange;
 import io.getlime.security.powerauth.lib.dataadapter.model.entity.OperationContext;
 import io.getlime.security.powerauth.lib.dataadapter.model.enumeration.PowerAuthSignatureType;
+import io.getlime.security.powerauth.lib.dataadapter.model.request.OperationChangeNotificationRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.PAAuthenticationContext;
 import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthStepResult;
 import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
@@ -38,6 +39,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * This service handles operation customization.
@@ -67,10 +69,12 @@ public class OperationCustomizationService {
     }
 
     /**
-     * Execute operation change notification in Data Adapter.
+     * Create operation change notification request for Data Adapter. The request is created only in case
+     * the operation is finished.
      * @param operation Operation entity.
+     * @return Operation change notification request, empty value is returned for operations which are not finished.
      */
-    public void notifyOperationChange(OperationEntity operation) {
+    public Optional<OperationChangeNotificationRequest> createOperationChangeNotification(OperationEntity operation) {
         final GetOperationDetailResponse operationDetail = operationConverter.fromEntity(operation);
         final String userId = operationDetail.getUserId();
         final String organizationId = operationDetail.getOrganizationId();
@@ -87,7 +91,7 @@ public class OperationCustomizationService {
             }
             default -> {
                 // Notification is not sent when authResult is CONTINUE
-                return;
+                return Optional.empty();
             }
         }
         List<OperationHistoryEntity> operationHistory = new ArrayList<>(operation.getOperationHistory());
@@ -119,11 +123,21 @@ public class OperationCustomizationService {
             authenticationContextDA.setRemainingAttempts(null);
         }
         operationContext.setAuthenticationContext(authenticationContextDA);
-        try {
-            dataAdapterClient.operationChangedNotification(operationChange, userId, organizationId, operationContext);
-        } catch (DataAdapterClientErrorException ex) {
-            logger.warn(ex.getMessage(), ex);
-        }
+        final OperationChangeNotificationRequest request = new OperationChangeNotificationRequest();
+        request.setOperationChange(operationChange);
+        request.setUserId(userId);
+        request.setOrganizationId(organizationId);
+        request.setOperationContext(operationContext);
+        return Optional.of(request);
+    }
+
+    /**
+     * Execute operation change notification in Data Adapter.
+     * @param request Operation change notification request.
+     * @throws DataAdapterClientErrorException Thrown when the Data Adapter call fails.
+     */
+    public void notifyOperationChange(OperationChangeNotificationRequest request) throws DataAdapterClientErrorException {
+        dataAdapterClient.operationChangedNotification(request.getOperationChange(), request.getUserId(), request.getOrganizationId(), request.getOperationContext());
     }
 
 }
@@ -35,21 +35,27 @@ public class ServiceCatalogue {
 
     private ApplicationService applicationService;
     private AuthenticationService authenticationService;
+    private AuthMethodCacheService authMethodCacheService;
     private AuthMethodChangeService authMethodChangeService;
     private AuthMethodService authMethodService;
+    private ConfigurationVersionService configurationVersionService;
     private CredentialCounterService credentialCounterService;
     private CredentialDefinitionService credentialDefinitionService;
     private CredentialGenerationService credentialGenerationService;
     private CredentialHistoryService credentialHistoryService;
     private CredentialPolicyService credentialPolicyService;
     private CredentialProtectionService credentialProtectionService;
+    private CredentialRehashService credentialRehashService;
     private CredentialService credentialService;
     private CredentialValidationService credentialValidationService;
     private EndToEndEncryptionService endToEndEncryptionService;
     private HashConfigService hashConfigService;
     private IdGeneratorService idGeneratorService;
     private MobileTokenConfigurationService mobileTokenConfigurationService;
+    private OperationArchiveService operationArchiveService;
     private OperationConfigurationService operationConfigurationService;
+    private OperationDetailCacheService operationDetailCacheService;
+    private OperationNotificationService operationNotificationService;
     private OperationPersistenceService operationPersistenceService;
     private OrganizationService organizationService;
     private OtpDefinitionService otpDefinitionService;
@@ -64,6 +70,7 @@ public class ServiceCatalogue {
     private UserContactService userContactService;
     private UserIdentityLookupService userIdentityLookupService;
     private UserIdentityService userIdentityService;
+    private UserIdentityImportService userIdentityImportService;
     private UserRoleService userRoleService;
 
     private AuthenticationCustomizationService authenticationCustomizationService;
@@ -89,6 +96,15 @@ public class ServiceCatalogue {
         this.authenticationService = authenticationService;
     }
 
+    /**
+     * Set authentication method cache service.
+     * @param authMethodCacheService Authentication method cache service.
+     */
+    @Autowired
+    public void setAuthMethodCacheService(AuthMethodCacheService authMethodCacheService) {
+        this.authMethodCacheService = authMethodCacheService;
+    }
+
     /**
      * Set authentication method change service.
      * @param authMethodChangeService Authentication method change service.
@@ -107,6 +123,15 @@ public class ServiceCatalogue {
         this.authMethodService = authMethodService;
     }
 
+    /**
+     * Set configuration version service.
+     * @param configurationVersionService Configuration version service.
+     */
+    @Autowired
+    public void setConfigurationVersionService(ConfigurationVersionService configurationVersionService) {
+        this.configurationVersionService = configurationVersionService;
+    }
+
     /**
      * Set credential counter service.
      * @param credentialCounterService Credential counter service.
@@ -161,6 +186,15 @@ public class ServiceCatalogue {
         this.credentialProtectionService = credentialProtectionService;
     }
 
+    /**
+     * Set credential re-hash service.
+     * @param credentialRehashService Credential re-hash service.
+     */
+    @Autowired
+    public void setCredentialRehashService(CredentialRehashService credentialRehashService) {
+        this.credentialRehashService = credentialRehashService;
+    }
+
     /**
      * Set credential service.
      * @param credentialService Credential service.
@@ -215,6 +249,15 @@ public class ServiceCatalogue {
         this.mobileTokenConfigurationService = mobileTokenConfigurationService;
     }
 
+    /**
+     * Set operation archive service.
+     * @param operationArchiveService Operation archive service.
+     */
+    @Autowired
+    public void setOperationArchiveService(OperationArchiveService operationArchiveService) {
+        this.operationArchiveService = operationArchiveService;
+    }
+
     /**
      * Set operation configuration service.
      * @param operationConfigurationService Operation configuration service.
@@ -224,6 +267,24 @@ public class ServiceCatalogue {
         this.operationConfigurationService = operationConfigurationService;
     }
 
+    /**
+     * Set operation detail cache service.
+     * @param operationDetailCacheService Operation detail cache service.
+     */
+    @Autowired
+    public void setOperationDetailCacheService(OperationDetailCacheService operationDetailCacheService) {
+        this.operationDetailCacheService = operationDetailCacheService;
+    }
+
+    /**
+     * Set operation notification service.
+     * @param operationNotificationService Operation notification service.
+     */
+    @Autowired
+    public void setOperationNotificationService(OperationNotificationService operationNotificationService) {
+        this.operationNotificationService = operationNotificationService;
+    }
+
     /**
      * Set operation persistence service.
      * @param operationPersistenceService Operation persistence service.
@@ -350,6 +411,15 @@ public class ServiceCatalogue {
         this.userIdentityService = userIdentityService;
     }
 
+    /**
+     * Set user identity import service.
+     * @param userIdentityImportService User identity import service.
+     */
+    @Autowired
+    public void setUserIdentityImportService(UserIdentityImportService userIdentityImportService) {
+        this.userIdentityImportService = userIdentityImportService;
+    }
+
     /**
      * Set user role service.
      * @param userRoleService User role service.
@@ -411,6 +481,14 @@ public class ServiceCatalogue {
         return authenticationService;
     }
 
+    /**
+     * Get authentication method cache service.
+     * @return Authentication method cache service.
+     */
+    public AuthMethodCacheService getAuthMethodCacheService() {
+        return authMethodCacheService;
+    }
+
     /**
      * Get authentication method change service.
      * @return Authentication method change service.
@@ -427,6 +505,14 @@ public class ServiceCatalogue {
         return authMethodService;
     }
 
+    /**
+     * Get configuration version service.
+     * @return Configuration version service.
+     */
+    public ConfigurationVersionService getConfigurationVersionService() {
+        return configurationVersionService;
+    }
+
     /**
      * Get credential counter service.
      * @return Credential counter service.
@@ -475,6 +561,14 @@ public class ServiceCatalogue {
         return credentialProtectionService;
     }
 
+    /**
+     * Get credential re-hash service.
+     * @return Credential re-hash service.
+     */
+    public CredentialRehashService getCredentialRehashService() {
+        return credentialRehashService;
+    }
+
     /**
      * Get credential service.
      * @return Credential service.
@@ -523,6 +617,14 @@ public class ServiceCatalogue {
         return mobileTokenConfigurationService;
     }
 
+    /**
+     * Get operation archive service.
+     * @return Operation archive service.
+     */
+    public OperationArchiveService getOperationArchiveService() {
+        return operationArchiveService;
+    }
+
     /**
      * Get operation configuration service.
      * @return Operation configuration service.
@@ -531,6 +633,22 @@ public class ServiceCatalogue {
         return operationConfigurationService;
     }
 
+    /**
+     * Get operation detail cache service.
+     * @return Operation detail cache service.
+     */
+    public OperationDetailCacheService getOperationDetailCacheService() {
+        return operationDetailCacheService;
+    }
+
+    /**
+     * Get operation notification service.
+     * @return Operation notification service.
+     */
+    public OperationNotificationService getOperationNotificationService() {
+        return operationNotificationService;
+    }
+
     /**
      * Get operation persistence service.
      * @return Operation persistence service.
@@ -643,6 +761,14 @@ public class ServiceCatalogue {
         return userIdentityService;
     }
 
+    /**
+     * Get user identity import service.
+     * @return User identity import service.
+     */
+    public UserIdentityImportService getUserIdentityImportService() {
+        return userIdentityImportService;
+    }
+
     /**
      * Get user role service.
      * @return User role service.
@@ -17,17 +17,31 @@
  */
 package io.getlime.security.powerauth.app.nextstep;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.core.rest.model.base.request.ObjectRequest;
 import io.getlime.security.powerauth.lib.nextstep.client.NextStepClientException;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.CredentialSecretDetail;
 import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.*;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.UserNotActiveException;
 import io.getlime.security.powerauth.lib.nextstep.model.exception.UserNotBlockedException;
 import io.getlime.security.powerauth.lib.nextstep.model.request.CreateUserRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.request.LookupUsersRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.request.UpdateUserRequest;
 import io.getlime.security.powerauth.lib.nextstep.model.response.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +53,9 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class NextStepUserIdentityTest extends NextStepTest {
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @BeforeEach
     void setUp() throws Exception {
         nextStepClient = nextStepClientFactory.createNextStepClient("http://localhost:" + port);
@@ -314,4 +331,108 @@ class NextStepUserIdentityTest extends NextStepTest {
         assertTrue(r7.getAliases().isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testUpdateMultipleUsers() throws NextStepClientException {
+        final String userId1 = UUID.randomUUID().toString();
+        final String userId2 = UUID.randomUUID().toString();
+        final CreateUserRequest createUserRequest1 = new CreateUserRequest();
+        createUserRequest1.setUserId(userId1);
+        createUserRequest1.getRoles().add("TEST_ROLE");
+        nextStepClient.createUser(createUserRequest1);
+        final CreateUserRequest createUserRequest2 = new CreateUserRequest();
+        createUserRequest2.setUserId(userId2);
+        nextStepClient.createUser(createUserRequest2);
+        final UpdateUsersResponse r1 = nextStepClient.updateUsers(Arrays.asList(userId1, userId2, userId2, UUID.randomUUID().toString()), UserIdentityStatus.BLOCKED).getResponseObject();
+        assertEquals(UserIdentityStatus.BLOCKED, r1.getUserIdentityStatus());
+        assertEquals(new HashSet<>(Arrays.asList(userId1, userId2)), new HashSet<>(r1.getUserIds()));
+        final GetUserDetailResponse r2 = nextStepClient.getUserDetail(userId1, false).getResponseObject();
+        assertEquals(UserIdentityStatus.BLOCKED, r2.getUserIdentityStatus());
+        assertEquals(Collections.singletonList("TEST_ROLE"), r2.getRoles());
+        final GetUserDetailResponse r3 = nextStepClient.getUserDetail(userId2, false).getResponseObject();
+        assertEquals(UserIdentityStatus.BLOCKED, r3.getUserIdentityStatus());
+        // Users which already have the requested status are reported as updated
+        final UpdateUsersResponse r4 = nextStepClient.updateUsers(Collections.singletonList(userId1), UserIdentityStatus.BLOCKED).getResponseObject();
+        assertEquals(Collections.singletonList(userId1), r4.getUserIds());
+    }
+
+    @Test
+    void testLookupUsersPagination() throws NextStepClientException {
+        final Date createdStartDate = new Date();
+        final List<String> userIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final CreateUserRequest createUserRequest = new CreateUserRequest();
+            createUserRequest.setUserId(UUID.randomUUID().toString());
+            nextStepClient.createUser(createUserRequest);
+            userIds.add(createUserRequest.getUserId());
+        }
+        final LookupUsersRequest request = new LookupUsersRequest();
+        request.setCreatedStartDate(createdStartDate);
+        request.setCreatedEndDate(new Date());
+        request.setPageSize(2);
+        final LookupUsersResponse r1 = nextStepClient.lookupUsers(request).getResponseObject();
+        assertEquals(2, r1.getUsers().size());
+        assertEquals(r1.getUsers().get(1).getUserId(), r1.getNextUserId());
+        final List<String> lookupUserIds = new ArrayList<>();
+        final List<Integer> pageSizes = new ArrayList<>();
+        nextStepClient.lookupUsers(request, 2, page -> {
+            pageSizes.add(page.size());
+            page.forEach(user -> lookupUserIds.add(user.getUserId()));
+        });
+        assertEquals(Arrays.asList(2, 2, 1), pageSizes);
+        Collections.sort(userIds);
+        assertEquals(userIds, lookupUserIds);
+        assertEquals(2, request.getPageSize());
+        assertNull(request.getAfterUserId());
+    }
+
+    @Test
+    void testLookupUsersStream() throws Exception {
+        final Date createdStartDate = new Date();
+        final List<String> userIds = new ArrayList<>();
+        final List<String> userIdsWithRole = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final CreateUserRequest createUserRequest = new CreateUserRequest();
+            createUserRequest.setUserId(UUID.randomUUID().toString());
+            nextStepClient.createUser(createUserRequest);
+            userIds.add(createUserRequest.getUserId());
+            if (i % 2 == 0) {
+                nextStepClient.addUserRole(createUserRequest.getUserId(), "TEST_ROLE");
+                userIdsWithRole.add(createUserRequest.getUserId());
+            }
+        }
+        final LookupUsersRequest request = new LookupUsersRequest();
+        request.setCreatedStartDate(createdStartDate);
+        request.setCreatedEndDate(new Date());
+        Collections.sort(userIds);
+        assertEquals(userIds, lookupUsersStream(request));
+        request.getRoles().add("TEST_ROLE");
+        Collections.sort(userIdsWithRole);
+        assertEquals(userIdsWithRole, lookupUsersStream(request));
+    }
+
+    /**
+     * Lookup user identities using the streamed endpoint, each line of the response is parsed as a user detail.
+     * @param request Lookup user identities request.
+     * @return User IDs in the order of lines of the response.
+     * @throws Exception Thrown when the request fails.
+     */
+    private List<String> lookupUsersStream(LookupUsersRequest request) throws Exception {
+        final HttpRequest httpRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/user/lookup/stream"))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(new ObjectRequest<>(request))))
+                .build();
+        final HttpResponse<InputStream> httpResponse = HttpClient.newHttpClient().send(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, httpResponse.statusCode());
+        assertTrue(httpResponse.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElseThrow().startsWith(MediaType.APPLICATION_NDJSON_VALUE));
+        final List<String> userIds = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(httpResponse.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final GetUserDetailResponse userDetail = objectMapper.readValue(line, GetUserDetailResponse.class);
+                userIds.add(userDetail.getUserId());
+            }
+        }
+        return userIds;
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.converter;
+
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialDefinitionEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.CredentialValue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.EncryptionAlgorithm;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigurationException;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for conversion of credential values with database record encryption.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class CredentialValueConverterTest {
+
+    private static final String MASTER_DB_ENCRYPTION_KEY = "Bq9h3/QiGTAChopid3Xd4ZDzaJ5rkrqBuzy2vsIZcv4=";
+
+    private CredentialDefinitionEntity credentialDefinition;
+
+    @BeforeAll
+    static void setUpProvider() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @BeforeEach
+    void setUp() {
+        credentialDefinition = new CredentialDefinitionEntity();
+        credentialDefinition.setName("TEST_CREDENTIAL");
+        credentialDefinition.setEncryptionEnabled(true);
+        credentialDefinition.setEncryptionAlgorithm(EncryptionAlgorithm.AES_HMAC);
+    }
+
+    @Test
+    void testCachedAndDerivedKeysMatch() throws Exception {
+        final CredentialValueConverter cachingConverter = createConverter(MASTER_DB_ENCRYPTION_KEY, 2);
+        final CredentialValueConverter converter = createConverter(MASTER_DB_ENCRYPTION_KEY, 0);
+        // More users than the cache size, so that cached secret keys are evicted and derived again
+        for (int i = 0; i < 5; i++) {
+            final String userId = "user_" + i;
+            final CredentialValue dbValue = cachingConverter.toDBValue("s3cret" + i, userId, credentialDefinition);
+            assertEquals(EncryptionAlgorithm.AES_HMAC, dbValue.getEncryptionAlgorithm());
+            assertNotEquals("s3cret" + i, dbValue.getValue());
+            assertEquals("s3cret" + i, cachingConverter.fromDBValue(dbValue, userId, credentialDefinition));
+            assertEquals("s3cret" + i, converter.fromDBValue(dbValue, userId, credentialDefinition));
+            assertEquals("s3cret" + i, cachingConverter.fromDBValue(converter.toDBValue("s3cret" + i, userId, credentialDefinition), userId, credentialDefinition));
+        }
+    }
+
+    @Test
+    void testSecretKeyBoundToUser() throws Exception {
+        final CredentialValueConverter converter = createConverter(MASTER_DB_ENCRYPTION_KEY, 10);
+        final CredentialValue dbValue = converter.toDBValue("s3cret", "user_1", credentialDefinition);
+        assertEquals("s3cret", converter.fromDBValue(dbValue, "user_1", credentialDefinition));
+        String decrypted;
+        try {
+            decrypted = converter.fromDBValue(dbValue, "user_2", credentialDefinition);
+        } catch (Exception ex) {
+            decrypted = null;
+        }
+        assertNotEquals("s3cret", decrypted);
+    }
+
+    @Test
+    void testMissingMasterKey() {
+        final CredentialValueConverter converter = createConverter("", 10);
+        assertThrows(InvalidConfigurationException.class, () -> converter.toDBValue("s3cret", "user_1", credentialDefinition));
+    }
+
+    @Test
+    void testConcurrentConversions() throws Exception {
+        final CredentialValueConverter converter = createConverter(MASTER_DB_ENCRYPTION_KEY, 4);
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                final String userId = "user_" + (i % 16);
+                final String value = "s3cret" + i;
+                results.add(executorService.submit(() ->
+                        value.equals(converter.fromDBValue(converter.toDBValue(value, userId, credentialDefinition), userId, credentialDefinition))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private CredentialValueConverter createConverter(String masterDbEncryptionKey, int derivedKeyCacheMaxSize) {
+        final NextStepServerConfiguration configuration = mock(NextStepServerConfiguration.class);
+        when(configuration.getMasterDbEncryptionKey()).thenReturn(masterDbEncryptionKey);
+        when(configuration.getDerivedKeyCacheMaxSize()).thenReturn(derivedKeyCacheMaxSize);
+        when(configuration.getDerivedKeyCacheTimeToLive()).thenReturn(60000L);
+        return new CredentialValueConverter(configuration);
+    }
+
+}
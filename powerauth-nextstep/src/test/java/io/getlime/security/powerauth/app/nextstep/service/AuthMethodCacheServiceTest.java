@@ -0,0 +1,95 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.UserAuthMethodDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import io.getlime.security.powerauth.lib.nextstep.model.request.CreateAuthMethodRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for cache of authentication methods enabled for users.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class AuthMethodCacheServiceTest extends NextStepTest {
+
+    @Autowired
+    private AuthMethodService authMethodService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final boolean authMethodExists = authMethodService.listAuthMethods().stream()
+                .anyMatch(authMethod -> authMethod.getAuthMethod() == AuthMethod.LOGIN_SCA);
+        if (!authMethodExists) {
+            final CreateAuthMethodRequest request = new CreateAuthMethodRequest();
+            request.setAuthMethod(AuthMethod.LOGIN_SCA);
+            request.setOrderNumber(100L);
+            request.setCheckAuthFails(false);
+            request.setCheckUserPrefs(true);
+            request.setUserPrefsColumn(5);
+            request.setUserPrefsDefault(false);
+            request.setHasUserInterface(true);
+            request.setHasMobileToken(false);
+            authMethodService.createAuthMethod(request);
+        }
+    }
+
+    @Test
+    void testUserAuthMethodCacheInvalidation() throws Exception {
+        final String userId = UUID.randomUUID().toString();
+        final List<UserAuthMethodDetail> r1 = authMethodService.listAuthMethodsEnabledForUser(userId);
+        assertTrue(findAuthMethod(r1, AuthMethod.LOGIN_SCA).isEmpty());
+        // Authentication methods are served from cache until user preferences are updated
+        assertSame(r1, authMethodService.listAuthMethodsEnabledForUser(userId));
+        final double invalidatedCount = invalidatedEvictionCount();
+        authMethodService.updateAuthMethodForUser(userId, AuthMethod.LOGIN_SCA, true, Collections.singletonMap("key", "value"));
+        assertTrue(invalidatedEvictionCount() > invalidatedCount);
+        final List<UserAuthMethodDetail> r2 = authMethodService.listAuthMethodsEnabledForUser(userId);
+        final Optional<UserAuthMethodDetail> loginSca = findAuthMethod(r2, AuthMethod.LOGIN_SCA);
+        assertTrue(loginSca.isPresent());
+        assertEquals("value", loginSca.get().getConfig().get("key"));
+        authMethodService.updateAuthMethodForUser(userId, AuthMethod.LOGIN_SCA, false, Collections.emptyMap());
+        assertTrue(findAuthMethod(authMethodService.listAuthMethodsEnabledForUser(userId), AuthMethod.LOGIN_SCA).isEmpty());
+    }
+
+    private double invalidatedEvictionCount() {
+        return meterRegistry.get("powerauth.nextstep.auth.method.cache.evictions").tag("cause", "invalidated").counter().count();
+    }
+
+    private Optional<UserAuthMethodDetail> findAuthMethod(List<UserAuthMethodDetail> authMethods, AuthMethod authMethod) {
+        return authMethods.stream()
+                .filter(userAuthMethod -> userAuthMethod.getAuthMethod() == authMethod)
+                .findFirst();
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationConfigRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationMethodConfigRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.OperationConfigNotFoundException;
+import io.getlime.security.powerauth.lib.nextstep.model.request.CreateOperationConfigRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for reloading of in-memory configuration on multiple nodes of the cluster. The first node is represented
+ * by the application context, the second node is represented by a separate configuration version tracker with
+ * its own operation configuration catalogue. Both nodes share the H2 database.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class ConfigurationVersionServiceTest extends NextStepTest {
+
+    @Autowired
+    private RepositoryCatalogue repositoryCatalogue;
+
+    @Autowired
+    private ConfigurationVersionService configurationVersionService;
+
+    @Autowired
+    private OperationConfigurationService operationConfigurationService;
+
+    @Test
+    void testConfigurationRefreshOnTwoNodes() throws Exception {
+        final String operationName = "test_cluster";
+        final OperationConfigRepository operationConfigRepository = repositoryCatalogue.getOperationConfigRepository();
+        final OperationMethodConfigRepository operationMethodConfigRepository = repositoryCatalogue.getOperationMethodConfigRepository();
+        final AtomicReference<OperationConfigCatalogue> secondNodeCatalogue = new AtomicReference<>(OperationConfigCatalogue.empty());
+        final ConfigurationVersionTracker secondNode = new ConfigurationVersionTracker(repositoryCatalogue.getConfigurationVersionRepository(),
+                Collections.singletonMap(ConfigurationType.OPERATION_CONFIG, () -> secondNodeCatalogue.set(
+                        OperationConfigCatalogue.build(operationConfigRepository.findAll(), operationMethodConfigRepository.findAll()))));
+        configurationVersionService.incrementVersion(ConfigurationType.OPERATION_CONFIG);
+        configurationVersionService.refreshConfiguration();
+        assertEquals(1, secondNode.refresh());
+        assertNull(secondNodeCatalogue.get().getOperationConfig(operationName));
+
+        // Configuration created on the first node is reloaded on the second node
+        final CreateOperationConfigRequest request = new CreateOperationConfigRequest();
+        request.setOperationName(operationName);
+        request.setTemplateVersion("A");
+        request.setTemplateId(1);
+        request.setMobileTokenMode("{}");
+        operationConfigurationService.createOperationConfig(request);
+        assertNull(secondNodeCatalogue.get().getOperationConfig(operationName));
+        assertEquals(1, secondNode.refresh());
+        assertNotNull(secondNodeCatalogue.get().getOperationConfig(operationName));
+        assertEquals(0, secondNode.refresh());
+
+        // Configuration deleted on the second node is reloaded on the first node
+        operationConfigRepository.deleteById(operationName);
+        configurationVersionService.incrementVersion(ConfigurationType.OPERATION_CONFIG);
+        assertNotNull(operationConfigurationService.getOperationConfig(operationName));
+        assertTrue(configurationVersionService.refreshConfiguration() > 0);
+        assertThrows(OperationConfigNotFoundException.class, () -> operationConfigurationService.getOperationConfig(operationName));
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.app.nextstep.repository.CredentialRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialDefinitionEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialPolicyEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.UsernameGenerationAlgorithm;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidConfigurationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for generation of unique usernames.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class CredentialGenerationServiceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CredentialRepository credentialRepository = mock(CredentialRepository.class);
+    private CredentialGenerationService credentialGenerationService;
+    private CredentialDefinitionEntity credentialDefinition;
+
+    @BeforeEach
+    void setUp() {
+        final RepositoryCatalogue repositoryCatalogue = mock(RepositoryCatalogue.class);
+        when(repositoryCatalogue.getCredentialRepository()).thenReturn(credentialRepository);
+        final NextStepServerConfiguration configuration = mock(NextStepServerConfiguration.class);
+        when(configuration.getGenerateUsernameMaxAttempts()).thenReturn(20);
+        when(configuration.getGenerateUsernameBatchSize()).thenReturn(5);
+        credentialGenerationService = new CredentialGenerationService(repositoryCatalogue, configuration, meterRegistry);
+
+        final CredentialPolicyEntity credentialPolicy = new CredentialPolicyEntity();
+        credentialPolicy.setUsernameGenAlgorithm(UsernameGenerationAlgorithm.RANDOM_LETTERS);
+        credentialPolicy.setUsernameGenParam("{\"length\":8}");
+        credentialDefinition = new CredentialDefinitionEntity();
+        credentialDefinition.setCredentialPolicy(credentialPolicy);
+    }
+
+    @Test
+    void testFirstFreeCandidateUsed() throws Exception {
+        // All candidates except the last one in the batch are already used
+        when(credentialRepository.findUsedUsernames(any(), anyCollection())).thenAnswer(invocation -> {
+            final List<String> candidates = List.copyOf(invocation.<Collection<String>>getArgument(1));
+            return candidates.subList(0, candidates.size() - 1);
+        });
+        final String username = credentialGenerationService.generateUsername(credentialDefinition);
+        assertTrue(username.matches("[a-z]{8}"));
+        // A single query is used for the whole batch of candidates
+        verify(credentialRepository, times(1)).findUsedUsernames(any(), anyCollection());
+        assertEquals(1, candidateCount("unique"));
+        assertEquals(4, candidateCount("collision"));
+    }
+
+    @Test
+    void testGenerationFailsWhenAllAttemptsUsed() {
+        when(credentialRepository.findUsedUsernames(any(), anyCollection())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<String>>getArgument(1)));
+        assertThrows(InvalidConfigurationException.class, () -> credentialGenerationService.generateUsername(credentialDefinition));
+        // The maximum number of attempts limits the total number of candidates
+        verify(credentialRepository, times(4)).findUsedUsernames(any(), anyCollection());
+        assertEquals(20, candidateCount("collision"));
+        assertEquals(1, meterRegistry.get("powerauth.nextstep.credential.username.generation.failed").counter().count());
+    }
+
+    private double candidateCount(String result) {
+        return meterRegistry.get("powerauth.nextstep.credential.username.candidates").tag("result", result).counter().count();
+    }
+
+}
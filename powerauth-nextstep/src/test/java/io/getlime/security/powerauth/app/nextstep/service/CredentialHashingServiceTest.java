@@ -0,0 +1,194 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.CredentialHashingRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for limiting of concurrent credential hashing.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class CredentialHashingServiceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private CredentialHashingService credentialHashingService;
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+        if (credentialHashingService != null) {
+            credentialHashingService.shutdown();
+        }
+    }
+
+    @Test
+    void testHashingRejectedWhenCapacityExhausted() throws Exception {
+        credentialHashingService = createService(1, 0, 1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<String> blocking = executorService.submit(() -> credentialHashingService.execute(() -> {
+            started.countDown();
+            await(release);
+            return "hash";
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertEquals(1, gauge("powerauth.nextstep.credential.hashing.active"));
+        assertThrows(CredentialHashingRejectedException.class, () -> credentialHashingService.execute(() -> "rejected"));
+        assertEquals(1, meterRegistry.get("powerauth.nextstep.credential.hashing.rejected").counter().count());
+        release.countDown();
+        assertEquals("hash", blocking.get(10, TimeUnit.SECONDS));
+        // The permit is released once the hashing task is finished
+        assertEquals("hash", credentialHashingService.execute(() -> "hash"));
+        assertEquals(0, gauge("powerauth.nextstep.credential.hashing.active"));
+        assertEquals(2, meterRegistry.get("powerauth.nextstep.credential.hashing.time").timer().count());
+    }
+
+    @Test
+    void testHashingWaitsWithinQueueCapacity() throws Exception {
+        credentialHashingService = createService(1, 1, 1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<String> blocking = executorService.submit(() -> credentialHashingService.execute(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        final Future<String> waiting = executorService.submit(() -> credentialHashingService.execute(() -> "second"));
+        waitForGauge("powerauth.nextstep.credential.hashing.queue.size", 1);
+        // The queue is full, further hashing tasks are rejected
+        assertThrows(CredentialHashingRejectedException.class, () -> credentialHashingService.execute(() -> "third"));
+        release.countDown();
+        assertEquals("first", blocking.get(10, TimeUnit.SECONDS));
+        assertEquals("second", waiting.get(10, TimeUnit.SECONDS));
+        assertEquals(0, gauge("powerauth.nextstep.credential.hashing.queue.size"));
+        assertEquals(1, meterRegistry.get("powerauth.nextstep.credential.hashing.rejected").counter().count());
+        assertEquals(2, meterRegistry.get("powerauth.nextstep.credential.hashing.wait").timer().count());
+    }
+
+    @Test
+    void testAnyMatch() throws Exception {
+        credentialHashingService = createService(4, 0, 4);
+        final AtomicInteger executedCount = new AtomicInteger();
+        final List<Supplier<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final boolean result = i == 3;
+            tasks.add(() -> {
+                executedCount.incrementAndGet();
+                return result;
+            });
+        }
+        assertTrue(credentialHashingService.anyMatch(tasks));
+        // Tasks are skipped once a successful task is found
+        assertTrue(executedCount.get() < tasks.size());
+        assertFalse(credentialHashingService.anyMatch(tasks.subList(4, 20)));
+        assertFalse(credentialHashingService.anyMatch(List.of()));
+        // All hashing permits are released
+        assertEquals(0, gauge("powerauth.nextstep.credential.hashing.active"));
+        for (int i = 0; i < 4; i++) {
+            executorService.submit(() -> credentialHashingService.execute(() -> true)).get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testAnyMatchEarlyExit() throws Exception {
+        credentialHashingService = createService(4, 0, 1);
+        final AtomicInteger executedCount = new AtomicInteger();
+        final List<Supplier<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final boolean result = i == 2;
+            tasks.add(() -> {
+                executedCount.incrementAndGet();
+                return result;
+            });
+        }
+        // Tasks are executed sequentially by the calling thread, tasks after the successful task are skipped
+        assertTrue(credentialHashingService.anyMatch(tasks));
+        assertEquals(3, executedCount.get());
+    }
+
+    @Test
+    void testAnyMatchConcurrencyPerRequest() throws Exception {
+        credentialHashingService = createService(4, 0, 2);
+        final AtomicInteger runningCount = new AtomicInteger();
+        final AtomicInteger maxRunningCount = new AtomicInteger();
+        final List<Supplier<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(() -> {
+                maxRunningCount.accumulateAndGet(runningCount.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                runningCount.decrementAndGet();
+                return false;
+            });
+        }
+        assertFalse(credentialHashingService.anyMatch(tasks));
+        assertTrue(maxRunningCount.get() <= 2);
+        assertEquals(20, meterRegistry.get("powerauth.nextstep.credential.hashing.time").timer().count());
+    }
+
+    private CredentialHashingService createService(int poolSize, int queueCapacity, int maxConcurrencyPerRequest) {
+        final NextStepServerConfiguration configuration = mock(NextStepServerConfiguration.class);
+        when(configuration.getCredentialHashingPoolSize()).thenReturn(poolSize);
+        when(configuration.getCredentialHashingQueueCapacity()).thenReturn(queueCapacity);
+        when(configuration.getCredentialHashingMaxConcurrencyPerRequest()).thenReturn(maxConcurrencyPerRequest);
+        return new CredentialHashingService(configuration, meterRegistry);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private void waitForGauge(String name, double value) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (gauge(name) != value && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(value, gauge(name));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.app.nextstep.repository.CredentialRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialDefinitionEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.AuthenticationResult;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialCategory;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.EncryptionAlgorithm;
+import io.getlime.security.powerauth.lib.nextstep.model.request.UpdateCredentialDefinitionRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for re-hashing of credentials protected using an outdated configuration.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class CredentialRehashServiceTest extends NextStepTest {
+
+    @Autowired
+    private RepositoryCatalogue repositoryCatalogue;
+
+    @Autowired
+    private CredentialRehashService credentialRehashService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nextStepClient = nextStepClientFactory.createNextStepClient("http://localhost:" + port);
+        nextStepTestConfiguration.configure(nextStepClient);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        updateCredentialDefinition(true);
+    }
+
+    @Test
+    void testRehashCredentialKeepsConcurrentChanges() throws Exception {
+        final CredentialRepository credentialRepository = repositoryCatalogue.getCredentialRepository();
+        final CredentialEntity credential = findCredential();
+        final String storedValue = credential.getValue();
+        // Credential value requires an update after the encryption configuration is changed
+        final boolean encrypted = credential.getEncryptionAlgorithm() == EncryptionAlgorithm.AES_HMAC;
+        updateCredentialDefinition(!encrypted);
+
+        // Credential counters are changed after the credential was verified
+        credential.setFailedAttemptCounterSoft(2);
+        credentialRepository.save(credential);
+
+        assertTrue(credentialRehashService.rehashCredential(credential.getCredentialId(), storedValue, "s3cret"));
+        final CredentialEntity rehashedCredential = findCredential();
+        assertNotEquals(storedValue, rehashedCredential.getValue());
+        assertEquals(encrypted ? null : EncryptionAlgorithm.AES_HMAC, rehashedCredential.getEncryptionAlgorithm());
+        assertEquals(2, rehashedCredential.getFailedAttemptCounterSoft());
+        assertEquals(AuthenticationResult.SUCCEEDED, nextStepClient.authenticateWithCredential("TEST_CREDENTIAL", "test_user_1", "s3cret").getResponseObject().getAuthenticationResult());
+    }
+
+    @Test
+    void testRehashCredentialSkippedForChangedValue() throws Exception {
+        final CredentialEntity credential = findCredential();
+        final String storedValue = credential.getValue();
+
+        // Credential value was changed after the credential was verified
+        assertFalse(credentialRehashService.rehashCredential(credential.getCredentialId(), "outdated_value", "s3cret"));
+        assertEquals(storedValue, findCredential().getValue());
+    }
+
+    @Test
+    void testScheduleRehashForNewCredential() {
+        final CredentialEntity credential = new CredentialEntity();
+        assertFalse(credentialRehashService.scheduleRehash("s3cret", credential));
+        assertEquals(0, credentialRehashService.getPendingRehashCount());
+    }
+
+    private CredentialEntity findCredential() {
+        final CredentialDefinitionEntity credentialDefinition = repositoryCatalogue.getCredentialDefinitionRepository().findByName("TEST_CREDENTIAL").orElseThrow();
+        return repositoryCatalogue.getCredentialRepository().findByCredentialDefinitionAndUsernameIgnoreCase(credentialDefinition, "testuser").orElseThrow();
+    }
+
+    private void updateCredentialDefinition(boolean encryptionEnabled) throws Exception {
+        final UpdateCredentialDefinitionRequest credentialDefinitionRequest = new UpdateCredentialDefinitionRequest();
+        credentialDefinitionRequest.setCredentialDefinitionName("TEST_CREDENTIAL");
+        credentialDefinitionRequest.setApplicationName("TEST_APP");
+        credentialDefinitionRequest.setCredentialPolicyName("TEST_CREDENTIAL_POLICY");
+        credentialDefinitionRequest.setCategory(CredentialCategory.PASSWORD);
+        credentialDefinitionRequest.setHashingEnabled(true);
+        credentialDefinitionRequest.setHashConfigName("ARGON2_TEST");
+        credentialDefinitionRequest.setEncryptionEnabled(encryptionEnabled);
+        credentialDefinitionRequest.setEncryptionAlgorithm(encryptionEnabled ? EncryptionAlgorithm.AES_HMAC : null);
+        nextStepClient.updateCredentialDefinition(credentialDefinitionRequest);
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.security.powerauth.app.nextstep.repository.CredentialRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialDefinitionEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.CredentialPolicyEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.UserIdentityEntity;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.CredentialValidationParam;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.CredentialValidationFailure;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.UsernameGenerationAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for caching of compiled credential policies.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class CredentialValidationServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UserIdentityEntity user = new UserIdentityEntity();
+    private CredentialValidationService credentialValidationService;
+    private CredentialPolicyEntity credentialPolicy;
+    private CredentialDefinitionEntity credentialDefinition;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final RepositoryCatalogue repositoryCatalogue = mock(RepositoryCatalogue.class);
+        final CredentialRepository credentialRepository = mock(CredentialRepository.class);
+        when(repositoryCatalogue.getCredentialRepository()).thenReturn(credentialRepository);
+        when(credentialRepository.findByCredentialDefinitionAndUsernameIgnoreCase(any(), any())).thenReturn(Optional.empty());
+        credentialValidationService = new CredentialValidationService(repositoryCatalogue, mock(ServiceCatalogue.class));
+
+        credentialPolicy = new CredentialPolicyEntity();
+        credentialPolicy.setCredentialPolicyId(1L);
+        credentialPolicy.setName("test_policy");
+        credentialPolicy.setUsernameGenAlgorithm(UsernameGenerationAlgorithm.RANDOM_LETTERS);
+        credentialPolicy.setUsernameAllowedPattern("[a-z]+");
+        credentialPolicy.setCredentialValParam(createDigitsParam(2));
+        credentialPolicy.setTimestampLastUpdated(new Date(1000));
+        credentialDefinition = new CredentialDefinitionEntity();
+        credentialDefinition.setCredentialPolicy(credentialPolicy);
+    }
+
+    @Test
+    void testCompiledPolicyReused() throws Exception {
+        assertEquals(Collections.emptyList(), credentialValidationService.validateUsername(user, "user", credentialDefinition));
+        assertEquals(List.of(CredentialValidationFailure.USERNAME_ALLOWED_MATCH_FAILED), credentialValidationService.validateUsername(user, "user1", credentialDefinition));
+        assertEquals(Collections.emptyList(), validateCredentialValue("a12"));
+        assertEquals(List.of(CredentialValidationFailure.CREDENTIAL_INSUFFICIENT_DIGIT), validateCredentialValue("abc1"));
+    }
+
+    @Test
+    void testCompiledPolicyRecompiledAfterUpdate() throws Exception {
+        assertEquals(List.of(CredentialValidationFailure.USERNAME_ALLOWED_MATCH_FAILED), credentialValidationService.validateUsername(user, "user1", credentialDefinition));
+        assertEquals(Collections.emptyList(), validateCredentialValue("a12"));
+
+        // The compiled policy is not used once the credential policy changes
+        credentialPolicy.setUsernameAllowedPattern("[a-z0-9]+");
+        credentialPolicy.setCredentialValParam(createDigitsParam(3));
+        credentialPolicy.setTimestampLastUpdated(new Date(2000));
+        assertEquals(Collections.emptyList(), credentialValidationService.validateUsername(user, "user1", credentialDefinition));
+        assertEquals(List.of(CredentialValidationFailure.CREDENTIAL_INSUFFICIENT_DIGIT), validateCredentialValue("a12"));
+    }
+
+    private List<CredentialValidationFailure> validateCredentialValue(String credentialValue) throws Exception {
+        return credentialValidationService.validateCredentialValue(user, "user", credentialValue, credentialDefinition, false);
+    }
+
+    private String createDigitsParam(int digitsMin) throws Exception {
+        final CredentialValidationParam param = new CredentialValidationParam();
+        param.setIncludeCharacterRule(true);
+        param.setIncludeDigits(true);
+        param.setDigitsMin(digitsMin);
+        return objectMapper.writeValueAsString(param);
+    }
+
+}
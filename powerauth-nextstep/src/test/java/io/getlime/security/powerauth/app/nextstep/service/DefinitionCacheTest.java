@@ -0,0 +1,87 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.app.nextstep.repository.RoleRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.ConfigurationType;
+import io.getlime.security.powerauth.lib.nextstep.model.request.CreateRoleRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.request.DeleteRoleRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for second-level cache of definitions.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class DefinitionCacheTest extends NextStepTest {
+
+    @Autowired
+    private RepositoryCatalogue repositoryCatalogue;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private ConfigurationVersionService configurationVersionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testDefinitionCache() throws Exception {
+        final String roleName = "TEST_CACHE";
+        final RoleRepository roleRepository = repositoryCatalogue.getRoleRepository();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final CreateRoleRequest createRequest = new CreateRoleRequest();
+        createRequest.setRoleName(roleName);
+        roleService.createRole(createRequest);
+        assertTrue(roleRepository.findByName(roleName).isPresent());
+
+        // Repeated lookups are served from the query cache and the second-level cache without SQL statements
+        long statementCount = statistics.getPrepareStatementCount();
+        final long queryCacheHitCount = statistics.getQueryCacheHitCount();
+        final long cacheHitCount = statistics.getSecondLevelCacheHitCount();
+        assertTrue(roleRepository.findByName(roleName).isPresent());
+        assertTrue(roleRepository.findByName(roleName).isPresent());
+        assertEquals(statementCount, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryCacheHitCount() > queryCacheHitCount);
+        assertTrue(statistics.getSecondLevelCacheHitCount() > cacheHitCount);
+
+        // Definitions are evicted when a definition was changed on another node of the cluster
+        configurationVersionService.incrementVersion(ConfigurationType.DEFINITION);
+        configurationVersionService.refreshConfiguration();
+        statementCount = statistics.getPrepareStatementCount();
+        assertTrue(roleRepository.findByName(roleName).isPresent());
+        assertTrue(statistics.getPrepareStatementCount() > statementCount);
+
+        // Cached query results are invalidated when a definition is removed
+        final DeleteRoleRequest deleteRequest = new DeleteRoleRequest();
+        deleteRequest.setRoleName(roleName);
+        roleService.deleteRole(deleteRequest);
+        assertTrue(roleRepository.findByName(roleName).isEmpty());
+    }
+
+}
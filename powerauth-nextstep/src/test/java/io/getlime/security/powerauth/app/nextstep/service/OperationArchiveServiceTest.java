@@ -0,0 +1,128 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.AuthenticationEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OtpEntity;
+import io.getlime.security.powerauth.lib.nextstep.client.NextStepClientException;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.OperationAlreadyExistsException;
+import io.getlime.security.powerauth.lib.nextstep.model.response.CreateOtpResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for archival of finished operations.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class OperationArchiveServiceTest extends NextStepTest {
+
+    @Autowired
+    private RepositoryCatalogue repositoryCatalogue;
+
+    @Autowired
+    private OperationArchiveService operationArchiveService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nextStepClient = nextStepClientFactory.createNextStepClient("http://localhost:" + port);
+        nextStepTestConfiguration.configure(nextStepClient);
+    }
+
+    @Test
+    void testArchiveOperations() throws Exception {
+        final String finishedOperationId = "test_operation_archive_1";
+        final String pendingOperationId = "test_operation_archive_2";
+        nextStepClient.createOperation("auth_otp", finishedOperationId, "A1", null, null);
+        nextStepClient.createOperation("auth_otp", pendingOperationId, "A1", null, null);
+        final CreateOtpResponse otp = nextStepClient.createOtp("test_user_1", "TEST_OTP", null, "TEST_DATA", finishedOperationId).getResponseObject();
+        nextStepClient.authenticateWithOtp(otp.getOtpId(), finishedOperationId, otp.getOtpValue(), false, null);
+        final Date expiredTimestamp = new Date(System.currentTimeMillis() - Duration.ofDays(60).toMillis());
+        updateOperation(finishedOperationId, AuthResult.DONE, expiredTimestamp);
+        updateOperation(pendingOperationId, AuthResult.CONTINUE, expiredTimestamp);
+
+        assertEquals(1, operationArchiveService.archiveOperations());
+        final OperationRepository operationRepository = repositoryCatalogue.getOperationRepository();
+        assertTrue(operationRepository.findById(finishedOperationId).isEmpty());
+        assertTrue(operationRepository.findById(pendingOperationId).isPresent());
+        // Authentication records and OTPs are kept without the operation reference
+        final OtpEntity otpEntity = repositoryCatalogue.getOtpRepository().findById(otp.getOtpId()).orElseThrow();
+        assertNull(otpEntity.getOperation());
+        final List<AuthenticationEntity> authentications = new ArrayList<>();
+        repositoryCatalogue.getAuthenticationRepository().findAll().forEach(authentication -> {
+            if (authentication.getOtp() != null && otp.getOtpId().equals(authentication.getOtp().getOtpId())) {
+                authentications.add(authentication);
+            }
+        });
+        assertEquals(1, authentications.size());
+        assertNull(authentications.get(0).getOperation());
+        // Archived operations are not archived again
+        assertEquals(0, operationArchiveService.archiveOperations());
+
+        // Operation detail falls back to the archive
+        final GetOperationDetailResponse operationDetail = nextStepClient.getOperationDetail(finishedOperationId).getResponseObject();
+        assertEquals(finishedOperationId, operationDetail.getOperationId());
+        assertEquals(AuthResult.DONE, operationDetail.getResult());
+        assertEquals(1, operationDetail.getHistory().size());
+        final List<GetOperationDetailResponse> operations = nextStepClient.getOperationDetailBatch(List.of(finishedOperationId, pendingOperationId)).getResponseObject().getOperations();
+        assertEquals(2, operations.size());
+    }
+
+    @Test
+    void testArchivedOperationIdNotReused() throws Exception {
+        final String archivedOperationId = "test_operation_archive_3";
+        nextStepClient.createOperation("auth_otp", archivedOperationId, "A1", null, null);
+        final Date expiredTimestamp = new Date(System.currentTimeMillis() - Duration.ofDays(60).toMillis());
+        updateOperation(archivedOperationId, AuthResult.DONE, expiredTimestamp);
+        assertEquals(1, operationArchiveService.archiveOperations());
+
+        // Operation ID of an archived operation cannot be used for a new operation
+        final NextStepClientException thrown = assertThrows(NextStepClientException.class,
+                () -> nextStepClient.createOperation("auth_otp", archivedOperationId, "A1", null, null));
+        assertEquals(OperationAlreadyExistsException.CODE, thrown.getError().getCode());
+
+        // Archival of other operations is not affected
+        final String finishedOperationId = "test_operation_archive_4";
+        nextStepClient.createOperation("auth_otp", finishedOperationId, "A1", null, null);
+        updateOperation(finishedOperationId, AuthResult.DONE, expiredTimestamp);
+        assertEquals(1, operationArchiveService.archiveOperations());
+    }
+
+    private void updateOperation(String operationId, AuthResult result, Date timestampExpires) {
+        final OperationRepository operationRepository = repositoryCatalogue.getOperationRepository();
+        final OperationEntity operation = operationRepository.findById(operationId).orElseThrow();
+        operation.setResult(result);
+        operation.setTimestampExpires(timestampExpires);
+        operationRepository.save(operation);
+    }
+
+}
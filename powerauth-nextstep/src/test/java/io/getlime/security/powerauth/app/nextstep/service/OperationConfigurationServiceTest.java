@@ -0,0 +1,86 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.OperationConfigNotFoundException;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.OperationMethodConfigNotFoundException;
+import io.getlime.security.powerauth.lib.nextstep.model.request.*;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationConfigDetailResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for in-memory catalogue of operation configurations.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class OperationConfigurationServiceTest extends NextStepTest {
+
+    @Autowired
+    private OperationConfigurationService operationConfigurationService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nextStepClient = nextStepClientFactory.createNextStepClient("http://localhost:" + port);
+        nextStepTestConfiguration.configure(nextStepClient);
+    }
+
+    @Test
+    void testOperationConfigCatalogue() throws Exception {
+        final String operationName = "test_catalogue";
+        assertThrows(OperationConfigNotFoundException.class, () -> operationConfigurationService.getOperationConfig(operationName));
+        final CreateOperationConfigRequest createRequest = new CreateOperationConfigRequest();
+        createRequest.setOperationName(operationName);
+        createRequest.setTemplateVersion("A");
+        createRequest.setTemplateId(1);
+        createRequest.setMobileTokenMode("{}");
+        createRequest.setExpirationTime(120);
+        operationConfigurationService.createOperationConfig(createRequest);
+        final GetOperationConfigDetailResponse config = operationConfigurationService.getOperationConfig(operationName);
+        assertEquals(120, config.getExpirationTime());
+        // Lookups are served from the immutable catalogue
+        assertSame(config, operationConfigurationService.getOperationConfig(operationName));
+        assertTrue(operationConfigurationService.getOperationConfigList().getOperationConfigs().contains(config));
+
+        final CreateOperationMethodConfigRequest createMethodRequest = new CreateOperationMethodConfigRequest();
+        createMethodRequest.setOperationName(operationName);
+        createMethodRequest.setAuthMethod(AuthMethod.SMS_KEY);
+        createMethodRequest.setMaxAuthFails(3);
+        operationConfigurationService.createOperationMethodConfig(createMethodRequest);
+        final GetOperationMethodConfigDetailRequest getMethodRequest = new GetOperationMethodConfigDetailRequest();
+        getMethodRequest.setOperationName(operationName);
+        getMethodRequest.setAuthMethod(AuthMethod.SMS_KEY);
+        assertEquals(3, operationConfigurationService.getOperationMethodConfigDetail(getMethodRequest).getMaxAuthFails());
+
+        final DeleteOperationMethodConfigRequest deleteMethodRequest = new DeleteOperationMethodConfigRequest();
+        deleteMethodRequest.setOperationName(operationName);
+        deleteMethodRequest.setAuthMethod(AuthMethod.SMS_KEY);
+        operationConfigurationService.deleteOperationMethodConfig(deleteMethodRequest);
+        assertThrows(OperationMethodConfigNotFoundException.class, () -> operationConfigurationService.getOperationMethodConfigDetail(getMethodRequest));
+        final DeleteOperationConfigRequest deleteRequest = new DeleteOperationConfigRequest();
+        deleteRequest.setOperationName(operationName);
+        operationConfigurationService.deleteOperationConfig(deleteRequest);
+        assertThrows(OperationConfigNotFoundException.class, () -> operationConfigurationService.getOperationConfig(operationName));
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthStepResult;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetOperationDetailResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for operation details.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class OperationDetailCacheServiceTest extends NextStepTest {
+
+    @Autowired
+    private OperationDetailCacheService operationDetailCacheService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nextStepClient = nextStepClientFactory.createNextStepClient("http://localhost:" + port);
+        nextStepTestConfiguration.configure(nextStepClient);
+    }
+
+    @Test
+    void testOperationDetailBatchRemainingAttempts() throws Exception {
+        final String operationId1 = "test_operation_detail_batch_1";
+        final String operationId2 = "test_operation_detail_batch_2";
+        nextStepClient.createOperation("auth_otp", operationId1, "A1", null, null);
+        nextStepClient.createOperation("auth_otp", operationId2, "A1", null, null);
+        nextStepClient.updateOperation(operationId1, "test_user_1", null, AuthMethod.SMS_KEY, Collections.emptyList(), AuthStepResult.AUTH_FAILED, null, Collections.emptyList(), null, null);
+        nextStepClient.updateOperation(operationId1, "test_user_1", null, AuthMethod.SMS_KEY, Collections.emptyList(), AuthStepResult.AUTH_FAILED, null, Collections.emptyList(), null, null);
+        nextStepClient.updateOperation(operationId2, "test_user_1", null, AuthMethod.SMS_KEY, Collections.emptyList(), AuthStepResult.AUTH_FAILED, null, Collections.emptyList(), null, null);
+
+        final List<GetOperationDetailResponse> operations = nextStepClient.getOperationDetailBatch(List.of(operationId1, "test_operation_detail_batch_missing", operationId2))
+                .getResponseObject().getOperations();
+        assertEquals(2, operations.size());
+        // Remaining attempts resolved for all operations at once match remaining attempts of single operation details
+        assertEquals(operationId1, operations.get(0).getOperationId());
+        assertEquals(nextStepClient.getOperationDetail(operationId1).getResponseObject().getRemainingAttempts(), operations.get(0).getRemainingAttempts());
+        assertEquals(operationId2, operations.get(1).getOperationId());
+        assertEquals(nextStepClient.getOperationDetail(operationId2).getResponseObject().getRemainingAttempts(), operations.get(1).getRemainingAttempts());
+        assertNotEquals(operations.get(0).getRemainingAttempts(), operations.get(1).getRemainingAttempts());
+    }
+
+    @Test
+    void testOperationDetailInvalidatedAfterTransaction() throws Exception {
+        final String operationId = "test_operation_detail_invalidation";
+        nextStepClient.createOperation("auth_otp", operationId, "A1", null, null);
+        final GetOperationDetailResponse r1 = operationDetailCacheService.getOperationDetail(operationId);
+        assertSame(r1, operationDetailCacheService.getOperationDetail(operationId));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            operationDetailCacheService.invalidate(operationId);
+            // Cached operation detail is kept until the transaction is completed
+            try {
+                assertSame(r1, operationDetailCacheService.getOperationDetail(operationId));
+            } catch (Exception ex) {
+                fail(ex);
+            }
+        });
+        assertNotSame(r1, operationDetailCacheService.getOperationDetail(operationId));
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.configuration.NextStepServerConfiguration;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.OperationNotValidException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for cleanup of expired operations.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class OperationExpirationServiceTest {
+
+    @Test
+    void testExpireOperationsInBatches() throws Exception {
+        final RepositoryCatalogue repositoryCatalogue = mock(RepositoryCatalogue.class);
+        final OperationRepository operationRepository = mock(OperationRepository.class);
+        when(repositoryCatalogue.getOperationRepository()).thenReturn(operationRepository);
+        when(operationRepository.findExpiredOperationIds(any(), eq(""), any())).thenReturn(List.of("operation_1", "operation_2"));
+        when(operationRepository.findExpiredOperationIds(any(), eq("operation_2"), any())).thenReturn(List.of("operation_3"));
+
+        final OperationPersistenceService operationPersistenceService = mock(OperationPersistenceService.class);
+        when(operationPersistenceService.expireOperation("operation_1")).thenReturn(true);
+        when(operationPersistenceService.expireOperation("operation_2")).thenThrow(new OperationNotValidException("Operation is missing history"));
+        when(operationPersistenceService.expireOperation("operation_3")).thenReturn(true);
+        final ServiceCatalogue serviceCatalogue = mock(ServiceCatalogue.class);
+        when(serviceCatalogue.getOperationPersistenceService()).thenReturn(operationPersistenceService);
+
+        final NextStepServerConfiguration configuration = mock(NextStepServerConfiguration.class);
+        when(configuration.getOperationExpirationCleanupBatchSize()).thenReturn(2);
+        when(configuration.getOperationExpirationCleanupMaxDuration()).thenReturn(60000L);
+
+        final OperationExpirationService operationExpirationService = new OperationExpirationService(repositoryCatalogue, serviceCatalogue, configuration);
+        // A failure of a single operation does not stop the cleanup, the last batch is smaller than the batch size
+        assertEquals(2, operationExpirationService.expireOperations());
+        verify(operationPersistenceService).expireOperation("operation_3");
+        verify(operationRepository, times(2)).findExpiredOperationIds(any(), any(), any());
+    }
+
+    @Test
+    void testExpireOperationsStopsAfterMaxDuration() throws Exception {
+        final RepositoryCatalogue repositoryCatalogue = mock(RepositoryCatalogue.class);
+        final OperationRepository operationRepository = mock(OperationRepository.class);
+        when(repositoryCatalogue.getOperationRepository()).thenReturn(operationRepository);
+        when(operationRepository.findExpiredOperationIds(any(), eq(""), any())).thenReturn(List.of("operation_1", "operation_2"));
+        when(operationRepository.findExpiredOperationIds(any(), eq("operation_2"), any())).thenReturn(List.of("operation_3"));
+
+        final OperationPersistenceService operationPersistenceService = mock(OperationPersistenceService.class);
+        when(operationPersistenceService.expireOperation(any())).thenReturn(true);
+        final ServiceCatalogue serviceCatalogue = mock(ServiceCatalogue.class);
+        when(serviceCatalogue.getOperationPersistenceService()).thenReturn(operationPersistenceService);
+
+        final NextStepServerConfiguration configuration = mock(NextStepServerConfiguration.class);
+        when(configuration.getOperationExpirationCleanupBatchSize()).thenReturn(2);
+        when(configuration.getOperationExpirationCleanupMaxDuration()).thenReturn(0L);
+
+        final OperationExpirationService operationExpirationService = new OperationExpirationService(repositoryCatalogue, serviceCatalogue, configuration);
+        // The first batch is always processed, the next batch is left for the next run
+        assertEquals(2, operationExpirationService.expireOperations());
+        verify(operationPersistenceService, never()).expireOperation("operation_3");
+        verify(operationRepository, times(1)).findExpiredOperationIds(any(), any(), any());
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationNotificationRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationNotificationEntity;
+import io.getlime.security.powerauth.lib.dataadapter.model.entity.OperationChange;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.OperationNotificationStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for operation change notifications.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class OperationNotificationServiceTest extends NextStepTest {
+
+    @Autowired
+    private RepositoryCatalogue repositoryCatalogue;
+
+    @Autowired
+    private OperationNotificationService operationNotificationService;
+
+    @Test
+    void testDeleteFailedNotifications() {
+        final OperationNotificationRepository operationNotificationRepository = repositoryCatalogue.getOperationNotificationRepository();
+        final Date expiredTimestamp = new Date(System.currentTimeMillis() - Duration.ofDays(31).toMillis());
+        final OperationNotificationEntity expiredFailed = operationNotificationRepository.save(createNotification(OperationNotificationStatus.FAILED, expiredTimestamp));
+        final OperationNotificationEntity recentFailed = operationNotificationRepository.save(createNotification(OperationNotificationStatus.FAILED, new Date()));
+        final OperationNotificationEntity expiredPending = operationNotificationRepository.save(createNotification(OperationNotificationStatus.PENDING, expiredTimestamp));
+
+        assertEquals(1, operationNotificationService.deleteFailedNotifications());
+        assertTrue(operationNotificationRepository.findById(expiredFailed.getNotificationId()).isEmpty());
+        assertTrue(operationNotificationRepository.findById(recentFailed.getNotificationId()).isPresent());
+        // Large request data is stored without truncation
+        assertEquals(recentFailed.getRequestData(), operationNotificationRepository.findById(recentFailed.getNotificationId()).orElseThrow().getRequestData());
+        assertTrue(operationNotificationRepository.findById(expiredPending.getNotificationId()).isPresent());
+
+        operationNotificationRepository.deleteAll(List.of(recentFailed, expiredPending));
+    }
+
+    private OperationNotificationEntity createNotification(OperationNotificationStatus status, Date timestampCreated) {
+        final OperationNotificationEntity notification = new OperationNotificationEntity();
+        notification.setOperationId("test_notification_operation");
+        notification.setOperationChange(OperationChange.DONE);
+        notification.setRequestData("{\"data\":\"" + "A".repeat(5000) + "\"}");
+        notification.setStatus(status);
+        notification.setAttemptCount(0);
+        notification.setTimestampCreated(timestampCreated);
+        notification.setTimestampNextAttempt(timestampCreated);
+        return notification;
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.app.nextstep.repository.OperationRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationAuthCounterEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationHistoryEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthMethod;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthResult;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.AuthStepResult;
+import io.getlime.security.powerauth.lib.nextstep.model.request.UpdateChosenAuthMethodRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.request.UpdateOperationRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.response.UpdateOperationResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SQL statements executed during operation updates.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class OperationPersistenceServiceTest extends NextStepTest {
+
+    @Autowired
+    private RepositoryCatalogue repositoryCatalogue;
+
+    @Autowired
+    private OperationPersistenceService operationPersistenceService;
+
+    @Autowired
+    private AuthMethodCacheService authMethodCacheService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nextStepClient = nextStepClientFactory.createNextStepClient("http://localhost:" + port);
+        nextStepTestConfiguration.configure(nextStepClient);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testUpdateOperationStatements() throws Exception {
+        final String operationId = "test_operation_batch_1";
+        nextStepClient.createOperation("auth_otp", operationId, "A1", null, null);
+
+        // Authentication methods are loaded into the cache before statements are counted
+        authMethodCacheService.getAuthMethods();
+        authMethodCacheService.getUserAuthMethods("test_user_1");
+
+        // First failed authentication: operation update, history insert, auth counter insert and one version increment
+        long version = getVersion(operationId);
+        long updateCount = getUpdateCount(OperationEntity.class);
+        long historyInsertCount = getInsertCount(OperationHistoryEntity.class);
+        long counterInsertCount = getInsertCount(OperationAuthCounterEntity.class);
+        long counterUpdateCount = getUpdateCount(OperationAuthCounterEntity.class);
+        long entityUpdateCount = statistics.getEntityUpdateCount();
+        long entityInsertCount = statistics.getEntityInsertCount();
+        long prepareStatementCount = statistics.getPrepareStatementCount();
+        long flushCount = statistics.getFlushCount();
+        UpdateOperationResponse response = operationPersistenceService.updateOperation(createAuthFailedRequest(operationId));
+        assertEquals(prepareStatementCount + 10, statistics.getPrepareStatementCount());
+        assertEquals(flushCount + 2, statistics.getFlushCount());
+        assertEquals(AuthResult.CONTINUE, response.getResult());
+        assertEquals(updateCount + 1, getUpdateCount(OperationEntity.class));
+        assertEquals(historyInsertCount + 1, getInsertCount(OperationHistoryEntity.class));
+        assertEquals(counterInsertCount + 1, getInsertCount(OperationAuthCounterEntity.class));
+        assertEquals(entityUpdateCount + 1, statistics.getEntityUpdateCount());
+        assertEquals(entityInsertCount + 2, statistics.getEntityInsertCount());
+        assertEquals(version + 1, getVersion(operationId));
+
+        // Second failed authentication: the existing auth counter is incremented in database instead of being inserted
+        version = getVersion(operationId);
+        updateCount = getUpdateCount(OperationEntity.class);
+        counterInsertCount = getInsertCount(OperationAuthCounterEntity.class);
+        entityUpdateCount = statistics.getEntityUpdateCount();
+        entityInsertCount = statistics.getEntityInsertCount();
+        prepareStatementCount = statistics.getPrepareStatementCount();
+        flushCount = statistics.getFlushCount();
+        response = operationPersistenceService.updateOperation(createAuthFailedRequest(operationId));
+        assertEquals(prepareStatementCount + 8, statistics.getPrepareStatementCount());
+        assertEquals(flushCount + 2, statistics.getFlushCount());
+        assertEquals(AuthResult.CONTINUE, response.getResult());
+        assertEquals(updateCount + 1, getUpdateCount(OperationEntity.class));
+        assertEquals(counterInsertCount, getInsertCount(OperationAuthCounterEntity.class));
+        assertEquals(counterUpdateCount, getUpdateCount(OperationAuthCounterEntity.class));
+        assertEquals(2, getAuthFailCount(operationId));
+        assertEquals(entityUpdateCount + 1, statistics.getEntityUpdateCount());
+        assertEquals(entityInsertCount + 1, statistics.getEntityInsertCount());
+        assertEquals(version + 1, getVersion(operationId));
+
+        // Chosen authentication method update: only the current history record is updated
+        version = getVersion(operationId);
+        final long historyUpdateCount = getUpdateCount(OperationHistoryEntity.class);
+        entityUpdateCount = statistics.getEntityUpdateCount();
+        entityInsertCount = statistics.getEntityInsertCount();
+        final UpdateChosenAuthMethodRequest chosenAuthMethodRequest = new UpdateChosenAuthMethodRequest();
+        chosenAuthMethodRequest.setOperationId(operationId);
+        chosenAuthMethodRequest.setChosenAuthMethod(AuthMethod.SMS_KEY);
+        prepareStatementCount = statistics.getPrepareStatementCount();
+        flushCount = statistics.getFlushCount();
+        operationPersistenceService.updateChosenAuthMethod(chosenAuthMethodRequest);
+        assertEquals(prepareStatementCount + 4, statistics.getPrepareStatementCount());
+        assertEquals(flushCount + 1, statistics.getFlushCount());
+        assertEquals(historyUpdateCount + 1, getUpdateCount(OperationHistoryEntity.class));
+        assertEquals(entityUpdateCount + 1, statistics.getEntityUpdateCount());
+        assertEquals(entityInsertCount, statistics.getEntityInsertCount());
+        assertEquals(version + 1, getVersion(operationId));
+    }
+
+    @Test
+    void testConcurrentAuthFailures() throws Exception {
+        final String operationId = "test_operation_concurrent_1";
+        nextStepClient.createOperation("auth_otp", operationId, "A1", null, null);
+        final int threadCount = 2;
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            final List<Future<UpdateOperationResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executorService.submit(() -> operationPersistenceService.updateOperation(createAuthFailedRequest(operationId))));
+            }
+            for (Future<UpdateOperationResponse> future : futures) {
+                assertEquals(AuthResult.CONTINUE, future.get().getResult());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        // Concurrent failures are counted without lost updates and the operation history has unique result IDs
+        assertEquals(threadCount, getAuthFailCount(operationId));
+        final OperationEntity operation = repositoryCatalogue.getOperationRepository().findWithHistoryByOperationId(operationId).orElseThrow();
+        assertEquals(threadCount + 1, operation.getOperationHistory().size());
+    }
+
+    @Test
+    void testExpireOperation() throws Exception {
+        final String operationId = "test_operation_expired_1";
+        nextStepClient.createOperation("auth_otp", operationId, "A1", null, null);
+        final OperationRepository operationRepository = repositoryCatalogue.getOperationRepository();
+        final OperationEntity operation = operationRepository.findById(operationId).orElseThrow();
+        operation.setTimestampExpires(new Date(System.currentTimeMillis() - 1000));
+        operationRepository.save(operation);
+
+        final List<String> expiredOperationIds = operationRepository.findExpiredOperationIds(new Date(), "", PageRequest.of(0, 1000));
+        assertTrue(expiredOperationIds.contains(operationId));
+        // Keyset pagination skips operations up to the last operation ID from the previous batch
+        assertFalse(operationRepository.findExpiredOperationIds(new Date(), operationId, PageRequest.of(0, 1000)).contains(operationId));
+
+        assertTrue(operationPersistenceService.expireOperation(operationId));
+        assertEquals(AuthResult.FAILED, operationRepository.findById(operationId).orElseThrow().getResult());
+        assertFalse(operationRepository.findExpiredOperationIds(new Date(), "", PageRequest.of(0, 1000)).contains(operationId));
+        // The operation is no longer pending
+        assertFalse(operationPersistenceService.expireOperation(operationId));
+    }
+
+    @Test
+    void testOperationAssociationsLoading() throws Exception {
+        final String operationId = "test_operation_lazy_1";
+        nextStepClient.createOperation("auth_otp", operationId, "A1", null, null);
+        nextStepClient.createAfsAction(operationId, "LOGIN_INIT", 1, null, null, false, null);
+        final OperationRepository operationRepository = repositoryCatalogue.getOperationRepository();
+
+        // Operation history and AFS actions are not loaded together with the operation
+        final OperationEntity operation = operationRepository.findById(operationId).orElseThrow();
+        assertFalse(Hibernate.isInitialized(operation.getOperationHistory()));
+        assertFalse(Hibernate.isInitialized(operation.getAfsActions()));
+        assertTrue(operationPersistenceService.operationExists(operationId));
+
+        // Operation history is loaded using an entity graph
+        final OperationEntity operationWithHistory = operationRepository.findWithHistoryByOperationId(operationId).orElseThrow();
+        assertTrue(Hibernate.isInitialized(operationWithHistory.getOperationHistory()));
+        assertEquals(1, operationWithHistory.getOperationHistory().size());
+
+        // Operation detail contains the history and the AFS actions
+        final OperationEntity operationDetail = operationPersistenceService.getOperationDetail(operationId);
+        assertEquals(1, operationDetail.getOperationHistory().size());
+        assertEquals(1, operationDetail.getAfsActions().size());
+        assertEquals("LOGIN_INIT", operationDetail.getAfsActions().get(0).getAfsAction());
+        final List<OperationEntity> operationDetails = operationPersistenceService.getOperationDetails(List.of(operationId));
+        assertEquals(1, operationDetails.size());
+        assertEquals(1, operationDetails.get(0).getAfsActions().size());
+    }
+
+    private UpdateOperationRequest createAuthFailedRequest(String operationId) {
+        final UpdateOperationRequest request = new UpdateOperationRequest();
+        request.setOperationId(operationId);
+        request.setUserId("test_user_1");
+        request.setAuthMethod(AuthMethod.SMS_KEY);
+        request.setAuthStepResult(AuthStepResult.AUTH_FAILED);
+        return request;
+    }
+
+    private int getAuthFailCount(String operationId) {
+        return repositoryCatalogue.getOperationAuthCounterRepository().findById(
+                new OperationAuthCounterEntity.OperationAuthCounterKey(operationId, AuthMethod.SMS_KEY)).orElseThrow().getAuthFailCount();
+    }
+
+    private long getVersion(String operationId) {
+        final OperationRepository operationRepository = repositoryCatalogue.getOperationRepository();
+        final Long version = operationRepository.findById(operationId).orElseThrow().getVersion();
+        return version == null ? 0L : version;
+    }
+
+    private long getInsertCount(Class<?> entityClass) {
+        return statistics.getEntityStatistics(entityClass.getName()).getInsertCount();
+    }
+
+    private long getUpdateCount(Class<?> entityClass) {
+        return statistics.getEntityStatistics(entityClass.getName()).getUpdateCount();
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OtpPolicyEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.OtpValueDetail;
+import io.getlime.security.powerauth.lib.nextstep.model.enumeration.OtpGenerationAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for generation of random OTP values.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class OtpGenerationServiceTest extends NextStepTest {
+
+    // Critical value of chi-squared distribution with 9 degrees of freedom for significance level 10^-9, the generator
+    // cannot be seeded with a fixed seed, so the bound is loose enough for the test not to fail on a uniform distribution
+    private static final double CHI_SQUARED_CRITICAL_VALUE = 60.66;
+
+    @Autowired
+    private OtpGenerationService otpGenerationService;
+
+    @Test
+    void testRandomDigitDistribution() throws Exception {
+        final OtpPolicyEntity otpPolicy = new OtpPolicyEntity();
+        otpPolicy.setLength(1);
+        otpPolicy.setGenAlgorithm(OtpGenerationAlgorithm.OTP_RANDOM_DIGIT_GROUPS);
+        otpPolicy.setGenParam("{\"groupSize\":1}");
+        // The sample size exceeds the default reseed interval, so that the generator is reseeded during the test
+        final int sampleSize = 20000;
+        final int[] counts = new int[10];
+        for (int i = 0; i < sampleSize; i++) {
+            final OtpValueDetail otpValueDetail = otpGenerationService.generateOtpValue(null, otpPolicy);
+            assertTrue(otpValueDetail.getOtpValue().matches("[0-9]"));
+            counts[Integer.parseInt(otpValueDetail.getOtpValue())]++;
+        }
+        final double expected = sampleSize / 10.0;
+        double chiSquared = 0;
+        for (int count : counts) {
+            chiSquared += (count - expected) * (count - expected) / expected;
+        }
+        assertTrue(chiSquared < CHI_SQUARED_CRITICAL_VALUE, "Distribution of OTP digits is not uniform, chi-squared: " + chiSquared);
+    }
+
+    @Test
+    void testRandomSaltAndValues() throws Exception {
+        final OtpPolicyEntity otpPolicy = new OtpPolicyEntity();
+        otpPolicy.setLength(16);
+        otpPolicy.setGenAlgorithm(OtpGenerationAlgorithm.OTP_RANDOM_DIGIT_GROUPS);
+        otpPolicy.setGenParam("{\"groupSize\":4}");
+        final Set<String> otpValues = new HashSet<>();
+        final Set<String> salts = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            final OtpValueDetail otpValueDetail = otpGenerationService.generateOtpValue(null, otpPolicy);
+            assertTrue(otpValueDetail.getOtpValue().matches("[0-9]{16}"));
+            assertEquals(16, otpValueDetail.getSalt().length);
+            otpValues.add(otpValueDetail.getOtpValue());
+            salts.add(Base64.getEncoder().encodeToString(otpValueDetail.getSalt()));
+        }
+        assertEquals(1000, otpValues.size());
+        assertEquals(1000, salts.size());
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import com.wultra.core.audit.base.Audit;
+import io.getlime.security.powerauth.app.nextstep.converter.OtpValueConverter;
+import io.getlime.security.powerauth.app.nextstep.repository.OtpRepository;
+import io.getlime.security.powerauth.app.nextstep.repository.catalogue.RepositoryCatalogue;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OperationEntity;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.OtpDefinitionEntity;
+import io.getlime.security.powerauth.app.nextstep.service.adapter.OtpCustomizationService;
+import io.getlime.security.powerauth.app.nextstep.service.catalogue.ServiceCatalogue;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.OtpDeliveryResult;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.OtpStatus;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.OtpNotFoundException;
+import io.getlime.security.powerauth.lib.nextstep.model.request.CreateAndSendOtpRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.request.CreateOtpRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.request.DeleteOtpRequest;
+import io.getlime.security.powerauth.lib.nextstep.model.response.CreateAndSendOtpResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.response.CreateOtpResponse;
+import io.getlime.security.powerauth.lib.nextstep.model.response.GetUserContactListResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for removal of OTPs which could not be delivered.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class OtpServiceTest {
+
+    private static final String OTP_ID = "test_otp_id";
+    private static final String OPERATION_ID = "test_operation_id";
+
+    private final ServiceCatalogue serviceCatalogue = mock(ServiceCatalogue.class);
+    private final OtpService otpServiceProxy = mock(OtpService.class);
+    private final OtpCustomizationService otpCustomizationService = mock(OtpCustomizationService.class);
+    private OtpService otpService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final RepositoryCatalogue repositoryCatalogue = mock(RepositoryCatalogue.class);
+        final OtpRepository otpRepository = mock(OtpRepository.class);
+        when(repositoryCatalogue.getOtpRepository()).thenReturn(otpRepository);
+        when(otpRepository.findFirstByOperationOrderByTimestampCreatedDesc(any())).thenReturn(Optional.empty());
+
+        final OtpDefinitionEntity otpDefinition = new OtpDefinitionEntity();
+        otpDefinition.setName("test_otp");
+        otpDefinition.setDataAdapterProxyEnabled(false);
+        final OtpDefinitionService otpDefinitionService = mock(OtpDefinitionService.class);
+        when(otpDefinitionService.findActiveOtpDefinition("test_otp")).thenReturn(otpDefinition);
+        final OperationPersistenceService operationPersistenceService = mock(OperationPersistenceService.class);
+        when(operationPersistenceService.getOperation(OPERATION_ID)).thenReturn(new OperationEntity());
+        final UserContactService userContactService = mock(UserContactService.class);
+        when(userContactService.getUserContactList(any())).thenReturn(new GetUserContactListResponse());
+
+        when(serviceCatalogue.getOtpDefinitionService()).thenReturn(otpDefinitionService);
+        when(serviceCatalogue.getOperationPersistenceService()).thenReturn(operationPersistenceService);
+        when(serviceCatalogue.getCredentialDefinitionService()).thenReturn(mock(CredentialDefinitionService.class));
+        when(serviceCatalogue.getOtpCustomizationService()).thenReturn(otpCustomizationService);
+        when(serviceCatalogue.getUserContactService()).thenReturn(userContactService);
+        when(serviceCatalogue.getOtpService()).thenReturn(otpServiceProxy);
+
+        final CreateOtpResponse createOtpResponse = new CreateOtpResponse();
+        createOtpResponse.setOtpId(OTP_ID);
+        createOtpResponse.setOtpValue("12345678");
+        createOtpResponse.setOtpStatus(OtpStatus.ACTIVE);
+        when(otpServiceProxy.createOtp(any(CreateOtpRequest.class))).thenReturn(createOtpResponse);
+
+        otpService = new OtpService(repositoryCatalogue, serviceCatalogue, mock(OtpValueConverter.class), mock(Audit.class));
+    }
+
+    @Test
+    void testUndeliveredOtpRemoved() throws Exception {
+        final IllegalStateException deliveryError = new IllegalStateException("Delivery failed");
+        when(otpCustomizationService.sendOtp(any(), any(), any(), eq(OTP_ID), any(), any(), anyBoolean())).thenThrow(deliveryError);
+
+        final IllegalStateException ex = assertThrows(IllegalStateException.class, () -> otpService.createAndSendOtp(createRequest()));
+        assertSame(deliveryError, ex);
+        // The OTP is removed in a separate transaction using the service proxy
+        final ArgumentCaptor<DeleteOtpRequest> captor = ArgumentCaptor.forClass(DeleteOtpRequest.class);
+        verify(otpServiceProxy).deleteOtp(captor.capture());
+        assertEquals(OTP_ID, captor.getValue().getOtpId());
+        assertEquals(OPERATION_ID, captor.getValue().getOperationId());
+    }
+
+    @Test
+    void testUndeliveredOtpRemovalFailureDoesNotHideError() throws Exception {
+        final IllegalStateException deliveryError = new IllegalStateException("Delivery failed");
+        when(otpCustomizationService.sendOtp(any(), any(), any(), eq(OTP_ID), any(), any(), anyBoolean())).thenThrow(deliveryError);
+        when(otpServiceProxy.deleteOtp(any())).thenThrow(new OtpNotFoundException("OTP not found"));
+
+        final IllegalStateException ex = assertThrows(IllegalStateException.class, () -> otpService.createAndSendOtp(createRequest()));
+        assertSame(deliveryError, ex);
+    }
+
+    @Test
+    void testNotDeliveredOtpRemoved() throws Exception {
+        final OtpDeliveryResult deliveryResult = new OtpDeliveryResult();
+        deliveryResult.setOtpId(OTP_ID);
+        deliveryResult.setDelivered(false);
+        deliveryResult.setErrorMessage("error.communication");
+        when(otpCustomizationService.sendOtp(any(), any(), any(), eq(OTP_ID), any(), any(), anyBoolean())).thenReturn(deliveryResult);
+
+        final CreateAndSendOtpResponse response = otpService.createAndSendOtp(createRequest());
+        assertFalse(response.isDelivered());
+        assertEquals(OtpStatus.REMOVED, response.getOtpStatus());
+        assertEquals("error.communication", response.getErrorMessage());
+        final ArgumentCaptor<DeleteOtpRequest> captor = ArgumentCaptor.forClass(DeleteOtpRequest.class);
+        verify(otpServiceProxy).deleteOtp(captor.capture());
+        assertEquals(OTP_ID, captor.getValue().getOtpId());
+        assertEquals(OPERATION_ID, captor.getValue().getOperationId());
+    }
+
+    @Test
+    void testDeliveredOtpNotRemoved() throws Exception {
+        final OtpDeliveryResult deliveryResult = new OtpDeliveryResult();
+        deliveryResult.setOtpId(OTP_ID);
+        deliveryResult.setDelivered(true);
+        when(otpCustomizationService.sendOtp(any(), any(), any(), eq(OTP_ID), any(), any(), anyBoolean())).thenReturn(deliveryResult);
+
+        assertTrue(otpService.createAndSendOtp(createRequest()).isDelivered());
+        verify(otpServiceProxy, never()).deleteOtp(any());
+    }
+
+    private CreateAndSendOtpRequest createRequest() {
+        final CreateAndSendOtpRequest request = new CreateAndSendOtpRequest();
+        request.setOtpName("test_otp");
+        request.setUserId("test_user");
+        request.setOperationId(OPERATION_ID);
+        request.setLanguage("en");
+        return request;
+    }
+
+}
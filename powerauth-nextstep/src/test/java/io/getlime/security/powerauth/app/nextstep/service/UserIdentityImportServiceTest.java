@@ -0,0 +1,154 @@
+/*
+ * PowerAuth Web Flow and related software components
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.nextstep.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.core.rest.model.base.entity.Error;
+import io.getlime.security.powerauth.app.nextstep.NextStepTest;
+import io.getlime.security.powerauth.app.nextstep.repository.model.entity.UserIdentityEntity;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.UserImportResult;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.AuthenticationResult;
+import io.getlime.security.powerauth.lib.nextstep.model.entity.enumeration.UserImportStatus;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.InvalidRequestException;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.RequestValidationFailedException;
+import io.getlime.security.powerauth.lib.nextstep.model.exception.UserAlreadyExistsException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for bulk import of user identities.
+ *
+ * @author Roman Strobl, roman.strobl@wultra.com
+ */
+class UserIdentityImportServiceTest extends NextStepTest {
+
+    @Autowired
+    private UserIdentityImportService userIdentityImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nextStepClient = nextStepClientFactory.createNextStepClient("http://localhost:" + port);
+        nextStepTestConfiguration.configure(nextStepClient);
+    }
+
+    @Test
+    void testImportUsers() throws Exception {
+        final String userId1 = UUID.randomUUID().toString();
+        final String userId2 = UUID.randomUUID().toString();
+        final String input = "{\"userId\":\"" + userId1 + "\"}\n"
+                + "{\"userId\":\n"
+                + "\n"
+                + "{\"userId\":\"\"}\n"
+                + "{\"userId\":\"" + userId1 + "\"}\n"
+                + "{\"userId\":\"" + userId2 + "\",\"extras\":{\"key\":\"value\"}}\n";
+        final List<UserImportResult> results = importUsers(input);
+        assertEquals(5, results.size());
+        assertEquals(1, results.get(0).getLineNumber());
+        assertEquals(userId1, results.get(0).getUserId());
+        assertEquals(UserImportStatus.CREATED, results.get(0).getStatus());
+        assertEquals(2, results.get(1).getLineNumber());
+        assertEquals(UserImportStatus.FAILED, results.get(1).getStatus());
+        assertEquals(InvalidRequestException.CODE, results.get(1).getErrorCode());
+        assertEquals(4, results.get(2).getLineNumber());
+        assertEquals(UserImportStatus.FAILED, results.get(2).getStatus());
+        assertEquals(RequestValidationFailedException.CODE, results.get(2).getErrorCode());
+        assertEquals(5, results.get(3).getLineNumber());
+        assertEquals(UserImportStatus.FAILED, results.get(3).getStatus());
+        assertEquals(UserAlreadyExistsException.CODE, results.get(3).getErrorCode());
+        assertEquals(6, results.get(4).getLineNumber());
+        assertEquals(userId2, results.get(4).getUserId());
+        assertEquals(UserImportStatus.CREATED, results.get(4).getStatus());
+    }
+
+    @Test
+    void testImportUsersWithCredentials() throws Exception {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final List<String> userIds = new ArrayList<>();
+        final StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 3; i++) {
+            final String userId = UUID.randomUUID().toString();
+            userIds.add(userId);
+            input.append("{\"userId\":\"").append(userId).append("\",\"roles\":[\"TEST_ROLE\"],")
+                    .append("\"contacts\":[{\"contactName\":\"email\",\"contactType\":\"EMAIL\",\"contactValue\":\"import").append(i).append("@example.com\",\"primary\":true}],")
+                    .append("\"credentials\":[{\"credentialName\":\"TEST_CREDENTIAL\",\"credentialType\":\"PERMANENT\",")
+                    .append("\"username\":\"import_user_").append(userId, 0, 8).append("\",\"credentialValue\":\"s3cret").append(i).append("\"}]}\n");
+        }
+        final long flushCount = statistics.getFlushCount();
+        final long userInsertCount = statistics.getEntityStatistics(UserIdentityEntity.class.getName()).getInsertCount();
+        final List<UserImportResult> results = importUsers(input.toString());
+        assertEquals(3, results.size());
+        results.forEach(result -> assertEquals(UserImportStatus.CREATED, result.getStatus()));
+        // The whole chunk is written in a single flush at commit
+        assertEquals(flushCount + 1, statistics.getFlushCount());
+        assertEquals(userInsertCount + 3, statistics.getEntityStatistics(UserIdentityEntity.class.getName()).getInsertCount());
+        // Imported credential values were hashed and they can be used for authentication
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(AuthenticationResult.SUCCEEDED, nextStepClient.authenticateWithCredential("TEST_CREDENTIAL", userIds.get(i - 1), "s3cret" + i).getResponseObject().getAuthenticationResult());
+        }
+    }
+
+    @Test
+    void testImportUsersInterrupted() throws Exception {
+        final String input = "{\"userId\":\"" + UUID.randomUUID() + "\"}\n";
+        final InputStream failingStream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final InputStream inputStream = new SequenceInputStream(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), failingStream);
+        assertThrows(IOException.class, () -> userIdentityImportService.importUsers(inputStream, outputStream));
+        final String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        final UserImportResult result = objectMapper.readValue(lines[0], UserImportResult.class);
+        assertEquals(1, result.getLineNumber());
+        assertEquals(UserImportStatus.FAILED, result.getStatus());
+        assertEquals(Error.Code.ERROR_GENERIC, result.getErrorCode());
+    }
+
+    private List<UserImportResult> importUsers(String input) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        userIdentityImportService.importUsers(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), outputStream);
+        final List<UserImportResult> results = new ArrayList<>();
+        // Each result is a single JSON document on a separate line
+        for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, UserImportResult.class));
+        }
+        return results;
+    }
+
+}
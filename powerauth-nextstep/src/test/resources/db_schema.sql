@@ -3,6 +3,7 @@
 --
 DROP TABLE IF EXISTS audit_log;
 DROP TABLE IF EXISTS audit_param;
+DROP TABLE IF EXISTS ns_operation_afs_archive;
 
 --
 -- Create audit log table.
@@ -44,3 +45,18 @@ CREATE INDEX audit_param_log ON audit_param (audit_log_id);
 CREATE INDEX audit_param_timestamp ON audit_param (timestamp_created);
 CREATE INDEX audit_param_key ON audit_param (param_key);
 CREATE INDEX audit_param_value ON audit_param (param_value);
+
+--
+-- Create table for AFS actions of archived operations, the table is not mapped to an entity.
+--
+CREATE TABLE ns_operation_afs_archive (
+  afs_action_id               INTEGER PRIMARY KEY NOT NULL,
+  operation_id                VARCHAR(256) NOT NULL,
+  request_afs_action          VARCHAR(256) NOT NULL,
+  request_step_index          INTEGER NOT NULL,
+  request_afs_extras          VARCHAR(256),
+  response_afs_apply          BOOLEAN NOT NULL DEFAULT FALSE,
+  response_afs_label          VARCHAR(256),
+  response_afs_extras         VARCHAR(256),
+  timestamp_created           TIMESTAMP
+);